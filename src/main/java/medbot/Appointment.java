@@ -2,24 +2,34 @@ package medbot;
 
 
 import medbot.list.ListItem;
+import medbot.utilities.DateTimeCodec;
 
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 import static medbot.ui.Ui.VERTICAL_LINE_SPACED;
 
 
 public class Appointment implements ListItem {
-    private static final ZoneOffset ZONE_OFFSET = ZoneOffset.ofHours(8);
-    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("dd MMM yy HH00");
-    private static final DateTimeFormatter DATE_TIME_FORMATTER_STORAGE = DateTimeFormatter.ofPattern("ddMMyy HH00");
     private static final String END_LINE = System.lineSeparator();
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    public static final int DEFAULT_DURATION_MINUTES = 60;
+    public static final int MAX_DURATION_MINUTES = 8 * 60;
 
     private int appointmentId = 0;
     private int patientId = 0;
     private int medicalStaffId = 0;
     private int dateTimeCode = 0;
+    //A recurring appointment takes place recurrenceCount times, recurrenceIntervalDays apart. 0 means not set.
+    private int recurrenceIntervalDays = 0;
+    private int recurrenceCount = 0;
+    //0 means not set, in which case the appointment lasts DEFAULT_DURATION_MINUTES
+    private int durationMinutes = 0;
+    //The ids of the rooms and equipment booked by the appointment
+    private final SortedSet<Integer> resourceIds = new TreeSet<>();
 
     public int getId() {
         return appointmentId;
@@ -53,6 +63,251 @@ public class Appointment implements ListItem {
         this.dateTimeCode = dateTimeCode;
     }
 
+    public int getDurationMinutes() {
+        return durationMinutes > 0 ? durationMinutes : DEFAULT_DURATION_MINUTES;
+    }
+
+    public void setDurationMinutes(int durationMinutes) {
+        this.durationMinutes = durationMinutes;
+    }
+
+    public List<Integer> getResourceIds() {
+        return new ArrayList<>(resourceIds);
+    }
+
+    public void addResourceId(int resourceId) {
+        resourceIds.add(resourceId);
+    }
+
+    public void removeResourceId(int resourceId) {
+        resourceIds.remove(resourceId);
+    }
+
+    /**
+     * Returns the dateTimeCode of the end of the first occurrence of the appointment, exclusive.
+     *
+     * @return the dateTimeCode of the end of the appointment
+     */
+    public int getEndDateTimeCode() {
+        return dateTimeCode + getDurationMinutes();
+    }
+
+    public int getRecurrenceIntervalDays() {
+        return recurrenceIntervalDays;
+    }
+
+    public void setRecurrenceIntervalDays(int recurrenceIntervalDays) {
+        this.recurrenceIntervalDays = recurrenceIntervalDays;
+    }
+
+    /**
+     * Returns the number of times the appointment takes place, which is 1 unless it is recurring.
+     *
+     * @return the number of occurrences of the appointment
+     */
+    public int getRecurrenceCount() {
+        return isRecurring() ? recurrenceCount : 1;
+    }
+
+    public void setRecurrenceCount(int recurrenceCount) {
+        this.recurrenceCount = recurrenceCount;
+    }
+
+    public boolean isRecurring() {
+        return recurrenceCount > 1 && recurrenceIntervalDays > 0;
+    }
+
+    /**
+     * Returns whether the recurrence of the appointment is valid, i.e. a recurring appointment has an interval.
+     *
+     * @return whether the recurrence is valid
+     */
+    public boolean isRecurrenceValid() {
+        return recurrenceCount <= 1 || recurrenceIntervalDays > 0;
+    }
+
+    /**
+     * Returns the dateTimeCode of the last occurrence of the appointment.
+     *
+     * @return the dateTimeCode of the last occurrence
+     */
+    public int getLastDateTimeCode() {
+        if (!isRecurring()) {
+            return dateTimeCode;
+        }
+        return dateTimeCode + (recurrenceCount - 1) * getIntervalMinutes();
+    }
+
+    /**
+     * Returns whether one of the occurrences of the appointment is at the specified dateTimeCode.
+     *
+     * @param dateTimeCode the dateTimeCode to check
+     * @return whether the appointment takes place at that time
+     */
+    public boolean occursAt(int dateTimeCode) {
+        if (!isRecurring()) {
+            return this.dateTimeCode == dateTimeCode;
+        }
+        return dateTimeCode >= this.dateTimeCode && dateTimeCode <= getLastDateTimeCode()
+                && (dateTimeCode - this.dateTimeCode) % getIntervalMinutes() == 0;
+    }
+
+    /**
+     * Returns whether one of the occurrences of the appointment overlaps the time from startDateTimeCode,
+     * inclusive, to endDateTimeCode, exclusive.
+     *
+     * @param startDateTimeCode the start of the time to check
+     * @param endDateTimeCode   the end of the time to check, exclusive
+     * @return whether the appointment takes place during that time
+     */
+    public boolean occursDuring(int startDateTimeCode, int endDateTimeCode) {
+        int occurrence = getFirstOccurrenceFrom(startDateTimeCode - getDurationMinutes() + 1);
+        return occurrence != -1 && occurrence < endDateTimeCode;
+    }
+
+    /**
+     * Returns the dateTimeCode of the first occurrence at or after the specified dateTimeCode, or -1 if there is none.
+     *
+     * @param dateTimeCode the earliest dateTimeCode to consider
+     * @return the dateTimeCode of the first such occurrence
+     */
+    public int getFirstOccurrenceFrom(int dateTimeCode) {
+        if (dateTimeCode <= this.dateTimeCode) {
+            return this.dateTimeCode;
+        }
+        if (!isRecurring()) {
+            return -1;
+        }
+        int intervalMinutes = getIntervalMinutes();
+        int occurrencesBefore = (dateTimeCode - this.dateTimeCode + intervalMinutes - 1) / intervalMinutes;
+        int occurrence = this.dateTimeCode + occurrencesBefore * intervalMinutes;
+        return occurrence <= getLastDateTimeCode() ? occurrence : -1;
+    }
+
+    /**
+     * Returns the dateTimeCodes of the occurrences between the two date times indicated, inclusive.
+     *
+     * @param startDateTimeCode the earliest date time to consider
+     * @param endDateTimeCode   the latest date time to consider
+     * @return the dateTimeCodes of the occurrences in ascending order
+     */
+    public List<Integer> listOccurrencesBetween(int startDateTimeCode, int endDateTimeCode) {
+        List<Integer> occurrences = new ArrayList<>();
+        int occurrence = getFirstOccurrenceFrom(startDateTimeCode);
+        if (occurrence == -1) {
+            return occurrences;
+        }
+        int lastOccurrence = Math.min(endDateTimeCode, getLastDateTimeCode());
+        int step = isRecurring() ? getIntervalMinutes() : 1;
+        for (; occurrence <= lastOccurrence; occurrence += step) {
+            occurrences.add(occurrence);
+        }
+        return occurrences;
+    }
+
+    /**
+     * Returns whether an occurrence of one appointment overlaps an occurrence of the other.
+     *
+     * <p>For two recurring appointments, an occurrence x of appointment overlaps an occurrence y of
+     * otherAppointment exactly when x - y is strictly between minus the duration of appointment and the duration
+     * of otherAppointment. Each such offset is checked by shifting otherAppointment and looking for a common
+     * occurrence, and only offsets in the same residue class as the difference of their start times modulo the
+     * gcd of their intervals can have one.
+     *
+     * @param appointment      an appointment
+     * @param otherAppointment another appointment
+     * @return whether the two appointments overlap
+     */
+    public static boolean isOverlapping(Appointment appointment, Appointment otherAppointment) {
+        if (!appointment.isRecurring()) {
+            return otherAppointment.occursDuring(appointment.dateTimeCode, appointment.getEndDateTimeCode());
+        }
+        if (!otherAppointment.isRecurring()) {
+            return appointment.occursDuring(otherAppointment.dateTimeCode, otherAppointment.getEndDateTimeCode());
+        }
+        int gcd = (int) gcd(appointment.getIntervalMinutes(), otherAppointment.getIntervalMinutes());
+        int minOffset = 1 - appointment.getDurationMinutes();
+        int difference = appointment.dateTimeCode - otherAppointment.dateTimeCode;
+        Appointment shiftedAppointment = new Appointment();
+        shiftedAppointment.mergeAppointmentData(otherAppointment);
+        for (int offset = minOffset + Math.floorMod(difference - minOffset, gcd);
+                offset < otherAppointment.getDurationMinutes(); offset += gcd) {
+            shiftedAppointment.setDateTimeCode(otherAppointment.dateTimeCode + offset);
+            if (getFirstCommonOccurrence(appointment, shiftedAppointment) != -1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the dateTimeCode of the first time both appointments take place, or -1 if they never clash.
+     *
+     * <p>Recurring appointments are not expanded. Their occurrences are arithmetic sequences, so the first common
+     * occurrence is found with the Chinese remainder theorem.
+     *
+     * @param appointment      an appointment
+     * @param otherAppointment another appointment
+     * @return the dateTimeCode of the first common occurrence, or -1 if there is none
+     */
+    public static int getFirstCommonOccurrence(Appointment appointment, Appointment otherAppointment) {
+        if (!appointment.isRecurring()) {
+            return otherAppointment.occursAt(appointment.dateTimeCode) ? appointment.dateTimeCode : -1;
+        }
+        if (!otherAppointment.isRecurring()) {
+            return appointment.occursAt(otherAppointment.dateTimeCode) ? otherAppointment.dateTimeCode : -1;
+        }
+        long interval = appointment.getIntervalMinutes();
+        long otherInterval = otherAppointment.getIntervalMinutes();
+        long gcd = gcd(interval, otherInterval);
+        long difference = (long) otherAppointment.dateTimeCode - appointment.dateTimeCode;
+        if (difference % gcd != 0) {
+            return -1;
+        }
+        //Solve appointment.dateTimeCode + interval * k = otherAppointment.dateTimeCode (mod otherInterval)
+        long modulus = otherInterval / gcd;
+        long k = Math.floorMod(Math.floorMod(difference / gcd, modulus)
+                * modInverse(Math.floorMod(interval / gcd, modulus), modulus), modulus);
+        long leastCommonMultiple = interval * modulus;
+        long commonOccurrence = appointment.dateTimeCode + interval * k;
+        long earliest = Math.max(appointment.dateTimeCode, otherAppointment.dateTimeCode);
+        if (commonOccurrence < earliest) {
+            commonOccurrence += (earliest - commonOccurrence + leastCommonMultiple - 1)
+                    / leastCommonMultiple * leastCommonMultiple;
+        }
+        long latest = Math.min(appointment.getLastDateTimeCode(), otherAppointment.getLastDateTimeCode());
+        return commonOccurrence <= latest ? (int) commonOccurrence : -1;
+    }
+
+    private int getIntervalMinutes() {
+        return recurrenceIntervalDays * MINUTES_PER_DAY;
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    private static long modInverse(long a, long modulus) {
+        if (modulus == 1) {
+            return 0;
+        }
+        //Extended Euclidean algorithm, a and modulus are coprime
+        long oldR = a;
+        long r = modulus;
+        long oldS = 1;
+        long s = 0;
+        while (r != 0) {
+            long quotient = oldR / r;
+            long temp = r;
+            r = oldR - quotient * r;
+            oldR = temp;
+            temp = s;
+            s = oldS - quotient * s;
+            oldS = temp;
+        }
+        return Math.floorMod(oldS, modulus);
+    }
+
     public String getDateTimeString() {
         return formatDateTimeCode(dateTimeCode);
     }
@@ -64,9 +319,17 @@ public class Appointment implements ListItem {
      * @return the date time as a String.
      */
     public static String formatDateTimeCode(int dateTimeCode) {
-        long epochSecond = (long) dateTimeCode * 60;
-        LocalDateTime localDateTime = LocalDateTime.ofEpochSecond(epochSecond, 0, ZONE_OFFSET);
-        return localDateTime.format(DATE_TIME_FORMATTER) + "HRS";
+        return DateTimeCodec.toDisplayString(dateTimeCode);
+    }
+
+    /**
+     * Returns the date of the dateTimeCode as a String.
+     *
+     * @param dateTimeCode the dateTime code to be parsed.
+     * @return the date as a String.
+     */
+    public static String formatDate(int dateTimeCode) {
+        return DateTimeCodec.toDisplayDateString(dateTimeCode);
     }
 
     /**
@@ -79,7 +342,8 @@ public class Appointment implements ListItem {
     }
 
     /**
-     * Updates parameters (patientId, medicalStaffId and dateTimeCode) with non-zero parameters of newAppointment.
+     * Updates parameters (patientId, medicalStaffId, dateTimeCode, recurrence, duration and resources) with non-zero
+     * parameters of newAppointment.
      *
      * <p>Does not update appointmentId.
      *
@@ -95,6 +359,19 @@ public class Appointment implements ListItem {
         if (newAppointment.getMedicalStaffId() > 0) {
             setMedicalStaffId(newAppointment.getMedicalStaffId());
         }
+        if (newAppointment.recurrenceIntervalDays > 0) {
+            setRecurrenceIntervalDays(newAppointment.recurrenceIntervalDays);
+        }
+        if (newAppointment.recurrenceCount > 0) {
+            setRecurrenceCount(newAppointment.recurrenceCount);
+        }
+        if (newAppointment.durationMinutes > 0) {
+            setDurationMinutes(newAppointment.durationMinutes);
+        }
+        if (!newAppointment.resourceIds.isEmpty()) {
+            resourceIds.clear();
+            resourceIds.addAll(newAppointment.resourceIds);
+        }
     }
 
     /**
@@ -115,10 +392,21 @@ public class Appointment implements ListItem {
     }
 
     public String toString() {
-        return "Appointment ID: " + appointmentId + END_LINE
+        String output = "Appointment ID: " + appointmentId + END_LINE
                 + "Patient ID: " + patientId + END_LINE
                 + "Staff ID: " + medicalStaffId + END_LINE
                 + "Date/Time: " + getDateTimeString() + END_LINE;
+        if (durationMinutes > 0 && durationMinutes != DEFAULT_DURATION_MINUTES) {
+            output += "Duration: " + durationMinutes + " minutes" + END_LINE;
+        }
+        if (isRecurring()) {
+            output += "Repeats: every " + recurrenceIntervalDays + " day(s), " + recurrenceCount + " times, until "
+                    + formatDateTimeCode(getLastDateTimeCode()) + END_LINE;
+        }
+        if (!resourceIds.isEmpty()) {
+            output += "Resource IDs: " + joinResourceIds(", ") + END_LINE;
+        }
+        return output;
     }
 
     /**
@@ -127,22 +415,40 @@ public class Appointment implements ListItem {
      * @return storageString of a person
      */
     public String getStorageString() {
-        return appointmentId + VERTICAL_LINE_SPACED
+        String output = appointmentId + VERTICAL_LINE_SPACED
                 + getDateTimeStorageString(dateTimeCode) + VERTICAL_LINE_SPACED
                 + patientId + VERTICAL_LINE_SPACED
                 + medicalStaffId;
+        boolean hasDuration = getDurationMinutes() != DEFAULT_DURATION_MINUTES;
+        boolean hasResources = !resourceIds.isEmpty();
+        if (isRecurring()) {
+            output += VERTICAL_LINE_SPACED + recurrenceIntervalDays + VERTICAL_LINE_SPACED + recurrenceCount;
+        } else if (hasDuration || hasResources) {
+            output += VERTICAL_LINE_SPACED + "X" + VERTICAL_LINE_SPACED + "X";
+        }
+        if (hasDuration) {
+            output += VERTICAL_LINE_SPACED + durationMinutes;
+        } else if (hasResources) {
+            output += VERTICAL_LINE_SPACED + "X";
+        }
+        if (hasResources) {
+            output += VERTICAL_LINE_SPACED + joinResourceIds(",");
+        }
+        return output;
+    }
+
+    private String joinResourceIds(String delimiter) {
+        return resourceIds.stream().map(String::valueOf).collect(Collectors.joining(delimiter));
     }
 
     /**
-     * Converts dateTimeCode to a String in the format of ddMMyy HH00.
+     * Converts dateTimeCode to a String in the format of ddMMyy HHmm.
      *
      * @param dateTimeCode date time code
-     * @return returns a string of the date in the format of ddMMyy HH00
+     * @return returns a string of the date in the format of ddMMyy HHmm
      */
-    private String getDateTimeStorageString(int dateTimeCode) {
-        long epochSecond = (long) dateTimeCode * 60;
-        LocalDateTime localDateTime = LocalDateTime.ofEpochSecond(epochSecond, 0, ZONE_OFFSET);
-        return localDateTime.format(DATE_TIME_FORMATTER_STORAGE);
+    public static String getDateTimeStorageString(int dateTimeCode) {
+        return DateTimeCodec.toStorageString(dateTimeCode);
     }
 
 }
@@ -0,0 +1,41 @@
+package medbot;
+
+import medbot.exceptions.MedBotException;
+
+import java.util.List;
+
+/**
+ * Long-term store of past appointments that are no longer kept in the scheduler. Appointments can only be added
+ * to the archive, never changed or removed.
+ */
+public interface AppointmentArchive {
+    /**
+     * Adds the given appointments to the end of the archive.
+     *
+     * @param appointments the appointments to archive
+     * @throws MedBotException if the appointments cannot be written to the archive
+     */
+    void append(List<Appointment> appointments) throws MedBotException;
+
+    /**
+     * Returns all archived appointments.
+     *
+     * @return list of the archived appointments, in the order they were archived
+     * @throws MedBotException if the archive cannot be read
+     */
+    List<Appointment> loadAppointments() throws MedBotException;
+
+    /**
+     * Returns the earliest dateTimeCode of the archived appointments, without reading them.
+     *
+     * @return the earliest dateTimeCode, or Integer.MAX_VALUE if the archive is empty
+     */
+    int getEarliestDateTimeCode();
+
+    /**
+     * Returns the largest appointmentId of the archived appointments, without reading them.
+     *
+     * @return the largest appointmentId, or 0 if the archive is empty
+     */
+    int getLastAppointmentId();
+}
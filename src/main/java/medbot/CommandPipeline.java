@@ -0,0 +1,309 @@
+package medbot;
+
+import medbot.command.Command;
+import medbot.command.SwitchCommand;
+import medbot.exceptions.MedBotException;
+import medbot.parser.Parser;
+import medbot.storage.CommandJournal;
+import medbot.storage.Storage;
+import medbot.storage.StorageData;
+import medbot.storage.StorageManager;
+import medbot.ui.OutputSink;
+import medbot.ui.Ui;
+import medbot.utilities.ViewType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs the commands of piped input, when MedBot is launched with --pipeline, in three stages, each on its own
+ * thread, instead of reading, parsing, executing and saving one command at a time.
+ *
+ * <p>The parser thread reads and parses lines ahead of the commands being executed. The calling thread executes
+ * the commands in order, as the sequential loop does. The output thread prints what the commands printed and
+ * saves the scheduler to the storage files. The stages are joined by bounded queues, so a stage that gets too far
+ * ahead waits for the next one.
+ *
+ * <p>The output is the same as that of the sequential loop, but saves are combined: while a save is being written,
+ * later commands do not start another one, and the next save writes all their changes at once. Changes are still
+ * saved before a transaction begins, whenever the input runs dry, and at the end. If a save fails, nothing printed
+ * after it is shown and no more commands are executed.
+ */
+class CommandPipeline {
+    private static final int PARSED_LINE_QUEUE_CAPACITY = 256;
+    private static final int OUTPUT_QUEUE_CAPACITY = 256;
+    //put in the output queue after the last output, and recognised by reference
+    private static final Output END_OF_OUTPUT = new Output(null, null);
+
+    private final Scheduler scheduler;
+    private final StorageManager storageManager;
+    private final Ui ui;
+    //read only by the parser thread
+    private final CommandJournal journal;
+    private final BlockingQueue<ParsedLine> parsedLines = new ArrayBlockingQueue<>(PARSED_LINE_QUEUE_CAPACITY);
+    private final BlockingQueue<Output> outputs = new ArrayBlockingQueue<>(OUTPUT_QUEUE_CAPACITY);
+    private final StringBuilder commandOutput = new StringBuilder();
+    //prints into commandOutput, which is handed to the output thread when flushed
+    private final Ui commandUi = new Ui(InputStream.nullInputStream(), new CommandOutputSink());
+    private final AtomicBoolean isSaving = new AtomicBoolean(false);
+    private volatile boolean hasSaveFailed = false;
+    private boolean isSavePending = false;
+
+    /**
+     * Creates a pipeline that executes commands read by the given ui on the scheduler.
+     *
+     * @param scheduler      the scheduler that the stored data has been loaded into
+     * @param storageManager the storage manager to save the scheduler with
+     * @param ui             the Ui to read commands from and print to
+     * @param journal        the journal to record each line of input in, or null to not record them
+     */
+    CommandPipeline(Scheduler scheduler, StorageManager storageManager, Ui ui, CommandJournal journal) {
+        this.scheduler = scheduler;
+        this.storageManager = storageManager;
+        this.ui = ui;
+        this.journal = journal;
+    }
+
+    /**
+     * Executes commands until an 'exit' command is given or a save fails, and returns once everything has been
+     * printed and saved.
+     *
+     * @throws java.util.NoSuchElementException if the input ends before an 'exit' command or a failed save
+     */
+    void run() {
+        Thread parserThread = new Thread(this::parseLines, "MedBot parser");
+        //the parser may be waiting for input, or for room in the queue, when MedBot exits
+        parserThread.setDaemon(true);
+        parserThread.start();
+        Thread outputThread = new Thread(this::writeOutputs, "MedBot output");
+        outputThread.start();
+
+        RuntimeException endOfInputException = null;
+        try {
+            endOfInputException = executeCommands();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            finish(outputThread);
+        }
+        //as in the sequential loop, commands after a failed save are not run, so the input is not read to its end
+        if (endOfInputException != null && !hasSaveFailed) {
+            throw endOfInputException;
+        }
+    }
+
+    /**
+     * Executes the parsed commands in order. Runs on the calling thread.
+     *
+     * @return the exception that ended the input, or null if the commands ended with an 'exit' command or a failed
+     *     save
+     */
+    private RuntimeException executeCommands() throws InterruptedException {
+        boolean isInteracting = true;
+        while (isInteracting && !hasSaveFailed) {
+            ParsedLine parsedLine = parsedLines.poll();
+            if (parsedLine == null) {
+                //the input has run dry for now, so save the changes instead of waiting for more of them
+                submitPendingSave();
+                parsedLine = parsedLines.take();
+            }
+            if (parsedLine.endOfInputException != null) {
+                return parsedLine.endOfInputException;
+            }
+            isInteracting = executeCommand(parsedLine);
+        }
+        return null;
+    }
+
+    /**
+     * Executes the parsed command, or prints why it could not be parsed, and returns whether to carry on.
+     */
+    private boolean executeCommand(ParsedLine parsedLine) throws InterruptedException {
+        boolean isInteracting = true;
+        try {
+            if (parsedLine.parserException != null) {
+                throw parsedLine.parserException;
+            }
+            Command command = parsedLine.command;
+            command.execute(scheduler, commandUi);
+            commandUi.flush();
+
+            //changes made during a transaction are only saved once it is committed
+            if (!scheduler.isInTransaction()) {
+                isSavePending = true;
+                if (!isSaving.get()) {
+                    submitPendingSave();
+                }
+            } else {
+                //save the changes made before the transaction began
+                submitPendingSave();
+            }
+            scheduler.publishSnapshot();
+            isInteracting = !command.isExit();
+
+        } catch (MedBotException mbe) {
+            commandUi.printOutput(mbe.getMessage() + System.lineSeparator());
+            commandUi.flush();
+        }
+        return isInteracting;
+    }
+
+    private void submitPendingSave() throws InterruptedException {
+        if (!isSavePending || hasSaveFailed) {
+            return;
+        }
+        isSaving.set(true);
+        outputs.put(new Output(null, storageManager.getStorageData(scheduler)));
+        isSavePending = false;
+    }
+
+    /**
+     * Saves any changes not saved yet, and waits for the output thread to print and save everything given to it.
+     */
+    private void finish(Thread outputThread) {
+        try {
+            submitPendingSave();
+            outputs.put(END_OF_OUTPUT);
+            outputThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Reads and parses lines until an 'exit' command or the end of the input. Runs on the parser thread.
+     *
+     * <p>Switching views is the only command that changes how the lines after it are parsed, so the parser follows
+     * the view from the switch commands it parses, without waiting for them to be executed.
+     */
+    private void parseLines() {
+        ViewType viewType = new Session().getViewType();
+        try {
+            boolean isParsing = true;
+            while (isParsing) {
+                ParsedLine parsedLine;
+                try {
+                    String userInput = ui.readInputAhead();
+                    if (journal != null) {
+                        journal.record(userInput, viewType);
+                    }
+                    //executing a switch command changes the view of its session, which the parser no longer reads
+                    Session session = new Session();
+                    session.setViewType(viewType);
+                    Command command = Parser.parseCommand(userInput, session);
+                    if (command instanceof SwitchCommand) {
+                        viewType = ((SwitchCommand) command).getNewViewType();
+                    }
+                    isParsing = !command.isExit();
+                    parsedLine = new ParsedLine(command, null, null);
+                } catch (MedBotException mbe) {
+                    parsedLine = new ParsedLine(null, mbe, null);
+                } catch (RuntimeException e) {
+                    parsedLine = new ParsedLine(null, null, e);
+                    isParsing = false;
+                }
+                parsedLines.put(parsedLine);
+            }
+        } catch (InterruptedException e) {
+            //nothing is waiting for the rest of the commands
+        }
+    }
+
+    /**
+     * Prints the output of the commands and saves the scheduler, in the order they were given, until the end of
+     * the output. Runs on the output thread.
+     */
+    private void writeOutputs() {
+        try {
+            while (true) {
+                Output output = outputs.poll();
+                if (output == null) {
+                    //show what has been printed while waiting for more
+                    ui.flush();
+                    output = outputs.take();
+                }
+                if (output == END_OF_OUTPUT) {
+                    break;
+                }
+                if (hasSaveFailed) {
+                    continue;
+                }
+                if (output.storageData == null) {
+                    ui.print(output.text);
+                } else {
+                    save(output.storageData);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ui.flush();
+    }
+
+    private void save(StorageData storageData) {
+        try {
+            storageManager.saveToStorage(storageData);
+        } catch (IOException e) {
+            ui.printOutput(Storage.ERROR_SAVE_STORAGE + Storage.ERROR_MOVE_STORAGE_FILES
+                    + System.lineSeparator());
+            hasSaveFailed = true;
+        } finally {
+            isSaving.set(false);
+        }
+    }
+
+    /**
+     * A line of input, parsed on the parser thread.
+     */
+    private static class ParsedLine {
+        private final Command command;
+        private final MedBotException parserException;
+        //set on the last item, to be thrown by the calling thread once the commands before it are done
+        private final RuntimeException endOfInputException;
+
+        private ParsedLine(Command command, MedBotException parserException, RuntimeException endOfInputException) {
+            this.command = command;
+            this.parserException = parserException;
+            this.endOfInputException = endOfInputException;
+        }
+    }
+
+    /**
+     * The text printed by a command, or the data to save after it.
+     */
+    private static class Output {
+        private final String text;
+        private final StorageData storageData;
+
+        private Output(String text, StorageData storageData) {
+            this.text = text;
+            this.storageData = storageData;
+        }
+    }
+
+    /**
+     * Collects the text printed by the command being executed, and hands it to the output thread when flushed.
+     */
+    private class CommandOutputSink implements OutputSink {
+        @Override
+        public void print(String text) {
+            commandOutput.append(text);
+        }
+
+        @Override
+        public void flush() {
+            if (commandOutput.length() == 0) {
+                return;
+            }
+            try {
+                outputs.put(new Output(commandOutput.toString(), null));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            commandOutput.setLength(0);
+        }
+    }
+}
@@ -3,45 +3,215 @@ package medbot;
 import medbot.command.Command;
 import medbot.exceptions.MedBotException;
 import medbot.parser.Parser;
+import medbot.server.CommandExecutor;
+import medbot.server.HttpApi;
+import medbot.server.MedBotServer;
+import medbot.storage.CommandJournal;
 import medbot.storage.Storage;
 import medbot.storage.StorageManager;
 import medbot.ui.Ui;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 
 public class MedBot {
+    private static final String OPTION_LAZY = "--lazy";
+    private static final String OPTION_SERVER = "--server";
+    private static final String OPTION_HTTP = "--http";
+    private static final String OPTION_JOURNAL = "--journal";
+    private static final String OPTION_RECOVER = "--recover";
+    private static final String OPTION_PIPELINE = "--pipeline";
+    private static final int APPOINTMENT_LIST_CACHE_CAPACITY = 256;
+    private static final String ERROR_PORT = "Please specify a valid port after %s.";
+    private static final String ERROR_SERVER_START = "Unable to listen on port %d.";
+    private static final String ERROR_JOURNAL = "Please specify a file that can be written to after %s.";
+    private static final String ERROR_SERVER_JOURNAL = "%s can only be used without %s and %s, as the commands of "
+            + "several sessions cannot be replayed from one journal.";
+    private static final String SERVER_STARTED_MESSAGE = "MedBot is listening on port %d of this computer.";
+    private static final String HTTP_STARTED_MESSAGE = "MedBot HTTP API is listening on port %d of this computer.";
+
     public static void main(String[] args) {
-        interactWithUser();
+        List<String> options = Arrays.asList(args);
+        boolean hasLazyAppointmentLists = options.contains(OPTION_LAZY);
+        Scheduler scheduler = hasLazyAppointmentLists
+                ? new Scheduler(APPOINTMENT_LIST_CACHE_CAPACITY)
+                : new Scheduler();
+        if (options.contains(OPTION_SERVER) || options.contains(OPTION_HTTP)) {
+            serve(scheduler, options);
+        } else {
+            interactWithUser(scheduler, options);
+        }
     }
 
     /**
-     * Runs a loop to get inputs from the user and executes the commands
-     * until an 'exit' command is given.
+     * Loads the stored data and lets several terminals, through --server PORT, and other programs, through
+     * --http PORT, use MedBot at the same time until it is stopped.
+     *
+     * @param scheduler the scheduler into which the stored data will be loaded
+     * @param options   the command line arguments MedBot was launched with
      */
-    public static void interactWithUser() {
-        Scheduler scheduler = new Scheduler();
+    public static void serve(Scheduler scheduler, List<String> options) {
         Ui ui = new Ui();
+        try {
+            startServers(scheduler, options, ui);
+        } finally {
+            ui.flush();
+        }
+    }
+
+    /**
+     * Starts the servers given in the options. Only returns once the terminal server, if any, is stopped.
+     */
+    private static void startServers(Scheduler scheduler, List<String> options, Ui ui) {
+        if (options.contains(OPTION_JOURNAL)) {
+            ui.printOutput(String.format(ERROR_SERVER_JOURNAL, OPTION_JOURNAL, OPTION_SERVER, OPTION_HTTP));
+            return;
+        }
+        int serverPort = getPort(options, OPTION_SERVER);
+        int httpPort = getPort(options, OPTION_HTTP);
+        if (serverPort < 0 || httpPort < 0) {
+            ui.printOutput(String.format(ERROR_PORT, serverPort < 0 ? OPTION_SERVER : OPTION_HTTP));
+            return;
+        }
         StorageManager storageManager = new StorageManager();
-        boolean isInteracting = true;
+        storageManager.setRecoveryMode(options.contains(OPTION_RECOVER));
+        try {
+            storageManager.initializeStorages(scheduler, ui);
+        } catch (MedBotException e) {
+            ui.printOutput(e.getMessage());
+            return;
+        }
+        scheduler.publishSnapshot();
+        CommandExecutor commandExecutor = new CommandExecutor(scheduler, storageManager);
+
+        //The HTTP API answers requests on its own threads
+        if (httpPort > 0) {
+            try {
+                new HttpApi(commandExecutor).start(httpPort);
+                ui.printOutput(String.format(HTTP_STARTED_MESSAGE, httpPort));
+            } catch (IOException e) {
+                ui.printOutput(String.format(ERROR_SERVER_START, httpPort));
+                return;
+            }
+        }
+        if (serverPort > 0) {
+            ui.printOutput(String.format(SERVER_STARTED_MESSAGE, serverPort));
+            ui.flush();
+            try {
+                new MedBotServer(commandExecutor).run(serverPort);
+            } catch (IOException e) {
+                ui.printOutput(String.format(ERROR_SERVER_START, serverPort));
+                ui.flush();
+                System.exit(1);
+            }
+        }
+    }
+
+    /**
+     * Returns the port given after the specified option, 0 if the option is not given, or -1 if the port after it
+     * is missing or invalid.
+     */
+    private static int getPort(List<String> options, String option) {
+        int optionIndex = options.indexOf(option);
+        if (optionIndex < 0) {
+            return 0;
+        }
+        try {
+            int port = Integer.parseInt(options.get(optionIndex + 1));
+            return port > 0 && port <= 65535 ? port : -1;
+        } catch (IndexOutOfBoundsException | NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Returns the path given after --journal, or an empty String if it is missing.
+     */
+    private static String getJournalPath(List<String> options) {
+        int optionIndex = options.indexOf(OPTION_JOURNAL);
+        return optionIndex + 1 < options.size() ? options.get(optionIndex + 1) : "";
+    }
+
+    /**
+     * Runs a loop to get inputs from the user and executes the commands until an 'exit' command is given, recording
+     * every line of input in the command journal given after --journal, if any. With --pipeline, the commands are
+     * run by a CommandPipeline instead, which is faster for input piped from a file or another program.
+     *
+     * @param scheduler the scheduler into which the stored data will be loaded
+     * @param options   the command line arguments MedBot was launched with
+     */
+    public static void interactWithUser(Scheduler scheduler, List<String> options) {
+        Ui ui = new Ui();
+        CommandJournal journal = null;
+        if (options.contains(OPTION_JOURNAL)) {
+            try {
+                journal = new CommandJournal(getJournalPath(options));
+            } catch (IOException e) {
+                ui.printOutput(String.format(ERROR_JOURNAL, OPTION_JOURNAL));
+                ui.flush();
+                return;
+            }
+        }
+        try {
+            interactWithUser(scheduler, ui, journal, options);
+        } finally {
+            if (journal != null) {
+                journal.close();
+            }
+        }
+    }
+
+    private static void interactWithUser(Scheduler scheduler, Ui ui, CommandJournal journal, List<String> options) {
+        StorageManager storageManager = new StorageManager();
+        storageManager.setRecoveryMode(options.contains(OPTION_RECOVER));
 
         ui.printWelcomeMessageOne();
         try {
             storageManager.initializeStorages(scheduler, ui);
         } catch (MedBotException e) {
             ui.printOutput(e.getMessage());
-            isInteracting = false;
+            ui.flush();
+            return;
         }
-        if (isInteracting) {
-            ui.printWelcomeMessageTwo();
+        scheduler.publishSnapshot();
+        ui.printWelcomeMessageTwo();
+
+        //commands are read, executed and saved in stages on separate threads, such as for input piped from a file
+        if (options.contains(OPTION_PIPELINE)) {
+            ui.flush();
+            new CommandPipeline(scheduler, storageManager, ui, journal).run();
+        } else {
+            runCommands(scheduler, storageManager, ui, journal);
         }
+    }
 
+    /**
+     * Reads, executes and saves commands one at a time until an 'exit' command is given or a save fails.
+     *
+     * @param scheduler      the scheduler that the stored data has been loaded into
+     * @param storageManager the storage manager to save the scheduler with
+     * @param ui             the Ui to read commands from and print to
+     * @param journal        the journal to record each line of input in, or null to not record them
+     * @throws java.util.NoSuchElementException if the input ends before an 'exit' command
+     */
+    static void runCommands(Scheduler scheduler, StorageManager storageManager, Ui ui, CommandJournal journal) {
+        Session session = new Session();
+        boolean isInteracting = true;
         while (isInteracting) {
             String userInput = ui.readInput();
+            if (journal != null) {
+                journal.record(userInput, session.getViewType());
+            }
             try {
-                Command command = Parser.parseCommand(userInput);
+                Command command = Parser.parseCommand(userInput, session);
                 command.execute(scheduler, ui);
 
-                storageManager.saveToStorage(scheduler);
+                //changes made during a transaction are only saved once it is committed
+                if (!scheduler.isInTransaction()) {
+                    storageManager.saveToStorage(scheduler);
+                }
+                scheduler.publishSnapshot();
                 isInteracting = !command.isExit();
 
             } catch (IOException e) {
@@ -52,6 +222,8 @@ public class MedBot {
             } catch (MedBotException mbe) {
                 ui.printOutput(mbe.getMessage() + System.lineSeparator());
             }
+            ui.flush();
         }
+        ui.flush();
     }
 }
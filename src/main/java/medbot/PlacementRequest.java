@@ -0,0 +1,58 @@
+package medbot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A request to book an appointment for a patient with any one of several staff, at any hour within a time window.
+ */
+public class PlacementRequest {
+    private int patientId = 0;
+    private final List<Integer> medicalStaffIds = new ArrayList<>();
+    //The earliest and latest start times the patient accepts, inclusive
+    private int startDateTimeCode = 0;
+    private int endDateTimeCode = 0;
+
+    public int getPatientId() {
+        return patientId;
+    }
+
+    public void setPatientId(int patientId) {
+        this.patientId = patientId;
+    }
+
+    public List<Integer> getMedicalStaffIds() {
+        return new ArrayList<>(medicalStaffIds);
+    }
+
+    public void addMedicalStaffId(int medicalStaffId) {
+        if (!medicalStaffIds.contains(medicalStaffId)) {
+            medicalStaffIds.add(medicalStaffId);
+        }
+    }
+
+    public int getStartDateTimeCode() {
+        return startDateTimeCode;
+    }
+
+    public void setStartDateTimeCode(int startDateTimeCode) {
+        this.startDateTimeCode = startDateTimeCode;
+    }
+
+    public int getEndDateTimeCode() {
+        return endDateTimeCode;
+    }
+
+    public void setEndDateTimeCode(int endDateTimeCode) {
+        this.endDateTimeCode = endDateTimeCode;
+    }
+
+    /**
+     * Returns whether the request is complete, i.e. contains a patient, at least one staff and a time window.
+     *
+     * @return whether the request is complete
+     */
+    public boolean isComplete() {
+        return patientId > 0 && !medicalStaffIds.isEmpty() && startDateTimeCode > 0 && endDateTimeCode > 0;
+    }
+}
@@ -0,0 +1,153 @@
+package medbot;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns requests to slots such that no slot is used by more than one request and as many requests as possible
+ * are assigned, i.e. finds a maximum bipartite matching between requests and their candidate slots.
+ *
+ * <p>Requests that do not share any candidate slot, directly or through other requests, do not affect each
+ * other, so the requests are split into such components and the components are solved in parallel. Each component
+ * is first assigned greedily, starting from the requests with the fewest candidates, and then improved with
+ * augmenting paths until no more requests can be assigned.
+ */
+class PlacementSolver {
+    //Below this number of requests, starting threads takes longer than solving the components one by one
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    private final int[][] candidateSlots;
+    private final int[] requestSlots;
+    private final int[] slotRequests;
+
+    /**
+     * Creates a solver for requests with the given candidate slots.
+     *
+     * @param candidateSlots the indexes of the candidate slots of each request, in order of preference
+     * @param slotCount      the number of slots
+     */
+    PlacementSolver(int[][] candidateSlots, int slotCount) {
+        this.candidateSlots = candidateSlots;
+        requestSlots = new int[candidateSlots.length];
+        slotRequests = new int[slotCount];
+        Arrays.fill(requestSlots, -1);
+        Arrays.fill(slotRequests, -1);
+    }
+
+    /**
+     * Returns the slot assigned to each request.
+     *
+     * @return array of the index of the slot assigned to each request, or -1 if the request is not assigned
+     */
+    int[] solve() {
+        List<List<Integer>> components = findComponents();
+        if (candidateSlots.length < PARALLEL_THRESHOLD) {
+            components.forEach(this::solveComponent);
+        } else {
+            //Components have disjoint requests and slots, so they can be solved without synchronisation
+            components.parallelStream().forEach(this::solveComponent);
+        }
+        return requestSlots.clone();
+    }
+
+    private void solveComponent(List<Integer> requests) {
+        requests.sort(Comparator.comparingInt(request -> candidateSlots[request].length));
+        for (int request : requests) {
+            for (int slot : candidateSlots[request]) {
+                if (slotRequests[slot] == -1) {
+                    assign(request, slot);
+                    break;
+                }
+            }
+        }
+        //Only slots within this component are visited, so the visit marks can be kept per component
+        Map<Integer, Integer> slotVisits = new HashMap<>();
+        int visit = 0;
+        for (int request : requests) {
+            if (requestSlots[request] == -1) {
+                findAugmentingPath(request, slotVisits, ++visit);
+            }
+        }
+    }
+
+    /**
+     * Searches breadth-first for a free slot reachable from the request by moving assigned requests to other
+     * candidate slots, and makes those moves if such a slot is found.
+     */
+    private void findAugmentingPath(int startRequest, Map<Integer, Integer> slotVisits, int visit) {
+        //The request that reached each slot during the search
+        Map<Integer, Integer> slotParents = new HashMap<>();
+        Deque<Integer> requestQueue = new ArrayDeque<>();
+        requestQueue.add(startRequest);
+        while (!requestQueue.isEmpty()) {
+            int request = requestQueue.poll();
+            for (int slot : candidateSlots[request]) {
+                if (slotVisits.getOrDefault(slot, 0) == visit) {
+                    continue;
+                }
+                slotVisits.put(slot, visit);
+                slotParents.put(slot, request);
+                if (slotRequests[slot] == -1) {
+                    augment(slot, slotParents);
+                    return;
+                }
+                requestQueue.add(slotRequests[slot]);
+            }
+        }
+    }
+
+    private void augment(int freeSlot, Map<Integer, Integer> slotParents) {
+        int slot = freeSlot;
+        while (slot != -1) {
+            int request = slotParents.get(slot);
+            int previousSlot = requestSlots[request];
+            assign(request, slot);
+            slot = previousSlot;
+        }
+    }
+
+    private void assign(int request, int slot) {
+        requestSlots[request] = slot;
+        slotRequests[slot] = request;
+    }
+
+    /**
+     * Returns the indexes of the requests in each group of requests connected through shared candidate slots.
+     */
+    private List<List<Integer>> findComponents() {
+        int[] parents = new int[candidateSlots.length];
+        for (int request = 0; request < parents.length; request++) {
+            parents[request] = request;
+        }
+        int[] slotFirstRequests = new int[slotRequests.length];
+        Arrays.fill(slotFirstRequests, -1);
+        for (int request = 0; request < candidateSlots.length; request++) {
+            for (int slot : candidateSlots[request]) {
+                if (slotFirstRequests[slot] == -1) {
+                    slotFirstRequests[slot] = request;
+                } else {
+                    parents[find(parents, request)] = find(parents, slotFirstRequests[slot]);
+                }
+            }
+        }
+        Map<Integer, List<Integer>> components = new HashMap<>();
+        for (int request = 0; request < parents.length; request++) {
+            components.computeIfAbsent(find(parents, request), root -> new ArrayList<>()).add(request);
+        }
+        return new ArrayList<>(components.values());
+    }
+
+    private static int find(int[] parents, int request) {
+        while (parents[request] != request) {
+            parents[request] = parents[parents[request]];
+            request = parents[request];
+        }
+        return request;
+    }
+}
@@ -0,0 +1,51 @@
+package medbot;
+
+import medbot.list.ListItem;
+import medbot.list.PersonalAppointmentList;
+
+import static medbot.ui.Ui.END_LINE;
+import static medbot.ui.Ui.VERTICAL_LINE_SPACED;
+
+/**
+ * A room or piece of equipment that appointments can book. Like a patient or staff, a resource has its own
+ * appointment list, so that it cannot be booked by two appointments at the same time.
+ */
+public class Resource implements ListItem {
+    private int resourceId = 0;
+    private String name = "";
+    private final PersonalAppointmentList appointmentList = new PersonalAppointmentList();
+
+    public int getId() {
+        return resourceId;
+    }
+
+    public void setId(int resourceId) {
+        this.resourceId = resourceId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public PersonalAppointmentList getAppointmentList() {
+        return appointmentList;
+    }
+
+    public String toString() {
+        return "Resource ID: " + resourceId + END_LINE
+                + "Name: " + name + END_LINE;
+    }
+
+    /**
+     * Text to be written to storage file of a resource.
+     *
+     * @return storageString of a resource
+     */
+    public String getStorageString() {
+        return resourceId + VERTICAL_LINE_SPACED + name;
+    }
+}
@@ -1,17 +1,32 @@
 package medbot;
 
 import medbot.exceptions.MedBotException;
+import medbot.list.AppointmentStatistics;
+import medbot.list.AvailabilityMatrix;
 import medbot.list.MedicalStaffList;
 import medbot.list.PatientList;
+import medbot.list.PersonList;
+import medbot.list.ResourceList;
 import medbot.list.SchedulerAppointmentList;
+import medbot.list.Waitlist;
 import medbot.person.Person;
 import medbot.utilities.FilterType;
+import medbot.utilities.Pair;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.function.Consumer;
 
 public class Scheduler {
-    private static final String EMPTY_STRING = "";
     private static final String END_LINE = System.lineSeparator();
     private static final String SPACE = " ";
     private static final String VERTICAL_LINE_SPACED = " | ";
@@ -20,17 +35,93 @@ public class Scheduler {
     private static final int LENGTH_PATIENT_ID_COLUMN = 10;
     private static final int LENGTH_STAFF_ID_COLUMN = 8;
     private static final int LENGTH_NAME_COLUMN = 20;
+    private static final int LENGTH_REPORT_LABEL_COLUMN = 30;
+    private static final int LENGTH_REPORT_COUNT_COLUMN = 5;
+    private static final int LENGTH_HEATMAP_COUNT_COLUMN = 2;
+    private static final String[] DAY_NAMES = {"Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun"};
 
     private static final String ERROR_ADD_INCOMPLETE_APPOINTMENT = "Incomplete appointment.";
     private static final String ERROR_PATIENT_APPOINTMENT_CLASH = "Patient unavailable, appointment %d at that time.";
     private static final String ERROR_STAFF_APPOINTMENT_CLASH = "Staff unavailable, appointment %d at that time.";
+    private static final String ERROR_RESOURCE_APPOINTMENT_CLASH = "Resource %d unavailable, appointment %d at that "
+            + "time.";
+
+    private static final String ERROR_ADD_INCOMPLETE_WAITLIST_ENTRY = "Incomplete waitlist entry.";
+    private static final String ERROR_WAITLIST_INVALID_WINDOW = "The start of the time window is after its end.";
+
+    private static final String ERROR_INCOMPLETE_PLACEMENT_REQUEST = "Request %d is incomplete.";
+    private static final String ERROR_PLACEMENT_INVALID_WINDOW = "The time window of request %d is invalid or "
+            + "longer than %d days.";
+    private static final int MAX_PLACEMENT_WINDOW_DAYS = 31;
+    private static final int MINUTES_PER_HOUR = 60;
+
+    private static final String ERROR_RECURRENCE_NO_INTERVAL = "The interval (r/) of a recurring appointment "
+            + "must be specified.";
 
     private static final String ERROR_ADD_APPOINTMENT_ERROR = "Add appointment error.";
     private static final String ERROR_DELETE_APPOINTMENT_ERROR = "Delete appointment error.";
+    private static final String ERROR_RESCHEDULE_CONFLICT = "Appointment %d clashes with appointment %d of %s %d.";
+    private static final String ERROR_RESCHEDULE_NO_APPOINTMENTS = "No appointments found in that time window.";
+    private static final String ERROR_RESCHEDULE_INVALID_WINDOW = "The start of the time window is after its end.";
+    private static final String ERROR_NO_STAFF = "There are no staff to check.";
+    private static final String ERROR_NO_FREE_HOUR = "None of the staff are free within %d days.";
+    private static final int FREE_HOUR_SEARCH_DAYS = 365;
+    private static final String PERSON_TYPE_PATIENT = "patient";
+    private static final String PERSON_TYPE_STAFF = "staff";
+    private static final String PERSON_TYPE_RESOURCE = "resource";
+
+    private static final String ERROR_NO_ARCHIVE = "There is no appointment archive.";
+    private static final String ERROR_ARCHIVE_IN_TRANSACTION = "Appointments cannot be archived during a "
+            + "transaction.";
+    private static final String ERROR_ARCHIVE_FUTURE_CUTOFF = "Only appointments in the past can be archived.";
+    private static final String NAME_DELETED_PERSON = "(deleted)";
+
+    private static final String ERROR_ROLLBACK_ERROR = "Rollback error.";
+    private static final String ERROR_TRANSACTION_ALREADY_STARTED = "A transaction has already been started.";
+    private static final String ERROR_NO_TRANSACTION_STARTED = "No transaction has been started.";
 
     private final PatientList patientList = new PatientList();
     private final MedicalStaffList medicalStaffList = new MedicalStaffList();
     private final SchedulerAppointmentList schedulerAppointmentList = new SchedulerAppointmentList();
+    private final ResourceList resourceList = new ResourceList();
+    private final Waitlist waitlist = new Waitlist();
+    private final AvailabilityMatrix availabilityMatrix = new AvailabilityMatrix(medicalStaffList);
+    private final AppointmentStatistics appointmentStatistics = new AppointmentStatistics();
+    private AppointmentArchive appointmentArchive = null;
+    //Loaded from the archive the first time a search reaches back into it
+    private List<Appointment> archivedAppointments = null;
+    //Read by other threads, so it is replaced rather than changed
+    private volatile SchedulerSnapshot snapshot = createSnapshot(0);
+
+    //Undo log of the changes made since the start of the current transaction or operation, most recent first
+    private final Deque<UndoAction> undoLog = new ArrayDeque<>();
+    private boolean isInTransaction = false;
+    private boolean isRollingBack = false;
+    private int atomicOperationDepth = 0;
+
+    public Scheduler() {
+    }
+
+    /**
+     * Creates a scheduler that only builds the appointment lists of patients and staff when they are needed, so
+     * that persons who are not looked at take up no memory for their appointments.
+     *
+     * @param appointmentListCacheCapacity the number of patients, and of staff, whose appointment lists are kept
+     */
+    public Scheduler(int appointmentListCacheCapacity) {
+        patientList.useLazyAppointmentLists(appointmentListCacheCapacity);
+        medicalStaffList.useLazyAppointmentLists(appointmentListCacheCapacity);
+    }
+
+    /**
+     * Returns true if appointment lists are only built when needed. Reading such a scheduler builds and drops
+     * appointment lists, so it cannot be read by several threads at the same time.
+     *
+     * @return true if the scheduler was created with an appointment list cache capacity
+     */
+    public boolean hasLazyAppointmentLists() {
+        return patientList.hasLazyAppointmentLists();
+    }
 
     //Patient and Staff Management methods
 
@@ -41,7 +132,9 @@ public class Scheduler {
      * @return personId that was allocated to the patient
      */
     public int addPatient(Person patient) throws MedBotException {
-        return patientList.addPerson(patient);
+        int patientId = patientList.addPerson(patient);
+        logUndo(() -> patientList.deletePerson(patientId));
+        return patientId;
     }
 
     /**
@@ -51,7 +144,9 @@ public class Scheduler {
      * @return personId that was allocated to the staff
      */
     public int addStaff(Person staff) throws MedBotException {
-        return medicalStaffList.addPerson(staff);
+        int staffId = medicalStaffList.addPerson(staff);
+        logUndo(() -> medicalStaffList.deletePerson(staffId));
+        return staffId;
     }
 
     /**
@@ -62,7 +157,9 @@ public class Scheduler {
      * @throws MedBotException if there is no patient with that id
      */
     public void editPatient(int patientId, Person newPatientData) throws MedBotException {
+        Person oldPatientData = patientList.getPersonalInformationCopy(patientId);
         patientList.editPerson(patientId, newPatientData);
+        logUndo(() -> patientList.restorePersonalInformation(patientId, oldPatientData));
     }
 
     /**
@@ -73,7 +170,9 @@ public class Scheduler {
      * @throws MedBotException if there is no staff with that id
      */
     public void editStaff(int staffId, Person newStaffData) throws MedBotException {
+        Person oldStaffData = medicalStaffList.getPersonalInformationCopy(staffId);
         medicalStaffList.editPerson(staffId, newStaffData);
+        logUndo(() -> medicalStaffList.restorePersonalInformation(staffId, oldStaffData));
     }
 
     /**
@@ -84,8 +183,12 @@ public class Scheduler {
      */
     public void deletePatient(int patientId) throws MedBotException {
         LinkedList<Integer> appointmentIds = patientList.getAllAppointmentIds(patientId);
-        deleteAppointments(appointmentIds);
-        patientList.deletePerson(patientId);
+        runAtomically(() -> {
+            deleteAppointments(appointmentIds);
+            deleteWaitlistEntries(waitlist.getEntriesOf(patientId, true));
+            Person deletedPatient = patientList.deletePerson(patientId);
+            logUndo(() -> patientList.addPerson(deletedPatient));
+        });
     }
 
     /**
@@ -96,8 +199,13 @@ public class Scheduler {
      */
     public void deleteStaff(int staffId) throws MedBotException {
         LinkedList<Integer> appointmentIds = medicalStaffList.getAllAppointmentIds(staffId);
-        deleteAppointments(appointmentIds);
-        medicalStaffList.deletePerson(staffId);
+        runAtomically(() -> {
+            deleteAppointments(appointmentIds);
+            deleteWaitlistEntries(waitlist.getEntriesOf(staffId, false));
+            Person deletedStaff = medicalStaffList.deletePerson(staffId);
+            availabilityMatrix.removeStaff(staffId);
+            logUndo(() -> medicalStaffList.addPerson(deletedStaff));
+        });
     }
 
     /**
@@ -169,6 +277,17 @@ public class Scheduler {
         return patientList.listPersons(getHiddenPatients);
     }
 
+    /**
+     * Passes the table row of each hidden or not-hidden patient to the row printer, so that the rows can be printed
+     * one at a time instead of being joined into one String first.
+     *
+     * @param getHiddenPatients whether to list hidden or not-hidden patients
+     * @param rowPrinter        receives each table row, without a line separator
+     */
+    public void listPatients(boolean getHiddenPatients, Consumer<String> rowPrinter) {
+        patientList.listPersons(getHiddenPatients, rowPrinter);
+    }
+
     /**
      * Returns a String that containing information of all staff.
      *
@@ -178,6 +297,16 @@ public class Scheduler {
         return medicalStaffList.listPersons(getHiddenStaffs);
     }
 
+    /**
+     * Passes the table row of each hidden or not-hidden staff to the row printer.
+     *
+     * @param getHiddenStaffs whether to list hidden or not-hidden staff
+     * @param rowPrinter      receives each table row, without a line separator
+     */
+    public void listStaff(boolean getHiddenStaffs, Consumer<String> rowPrinter) {
+        medicalStaffList.listPersons(getHiddenStaffs, rowPrinter);
+    }
+
     /**
      * Hides the patient with the specified id.
      *
@@ -186,6 +315,7 @@ public class Scheduler {
      */
     public void hidePatient(int patientId) throws MedBotException {
         patientList.hidePerson(patientId);
+        logUndo(() -> patientList.showPerson(patientId));
     }
 
     /**
@@ -196,6 +326,7 @@ public class Scheduler {
      */
     public void hideStaff(int staffId) throws MedBotException {
         medicalStaffList.hidePerson(staffId);
+        logUndo(() -> medicalStaffList.showPerson(staffId));
     }
 
     /**
@@ -206,6 +337,7 @@ public class Scheduler {
      */
     public void showPatient(int patientId) throws MedBotException {
         patientList.showPerson(patientId);
+        logUndo(() -> patientList.hidePerson(patientId));
     }
 
     /**
@@ -216,6 +348,387 @@ public class Scheduler {
      */
     public void showStaff(int staffId) throws MedBotException {
         medicalStaffList.showPerson(staffId);
+        logUndo(() -> medicalStaffList.hidePerson(staffId));
+    }
+
+    //Resource Management methods
+
+    /**
+     * Adds the given resource into the scheduler, allocates an id to the resource if it does not have one and
+     * returns the id value.
+     *
+     * @param resource Resource to be added into the scheduler
+     * @return resourceId of the resource
+     * @throws MedBotException if another resource with that id already exists
+     */
+    public int addResource(Resource resource) throws MedBotException {
+        int resourceId = resourceList.addResource(resource);
+        logUndo(() -> resourceList.deleteResource(resourceId));
+        return resourceId;
+    }
+
+    /**
+     * Removes the resource with the specified id. Appointments that booked the resource are kept, without it.
+     *
+     * @param resourceId the id of the resource to remove
+     * @throws MedBotException if there is no resource with that id
+     */
+    public void deleteResource(int resourceId) throws MedBotException {
+        List<Integer> appointmentIds = resourceList.listAppointments(resourceId);
+        runAtomically(() -> {
+            for (int appointmentId : appointmentIds) {
+                Appointment appointment = schedulerAppointmentList.getAppointment(appointmentId);
+                appointment.removeResourceId(resourceId);
+                deleteAppointment(appointmentId);
+                insertAppointment(appointment);
+            }
+            Resource deletedResource = resourceList.deleteResource(resourceId);
+            logUndo(() -> resourceList.addResource(deletedResource));
+        });
+    }
+
+    /**
+     * Returns a String containing the information of the resource with the specified id.
+     *
+     * @param resourceId the id of the resource to search for
+     * @return a String containing the resource's information
+     * @throws MedBotException if there is no resource with that id
+     */
+    public String getResourceInfo(int resourceId) throws MedBotException {
+        return resourceList.getResourceInfo(resourceId);
+    }
+
+    /**
+     * Returns the appointments of the resource with the specified id as rows of a table.
+     *
+     * @param resourceId the id of the resource
+     * @return the String list of the resource's appointments
+     * @throws MedBotException if there is no resource with that id
+     */
+    public String listResourceAppointments(int resourceId) throws MedBotException {
+        return generateAppointmentTable(resourceList.listAppointments(resourceId));
+    }
+
+    public List<String> listResources() {
+        return resourceList.listResources();
+    }
+
+    //Waitlist methods
+
+    /**
+     * Adds the given entry into the waitlist, allocates an id to the entry if it does not have one and returns the
+     * id value.
+     *
+     * @param entry WaitlistEntry to be added into the waitlist
+     * @return entryId of the entry
+     * @throws MedBotException if the entry is incomplete, its patient or staff does not exist, or its time window
+     *                         is invalid
+     */
+    public int addWaitlistEntry(WaitlistEntry entry) throws MedBotException {
+        if (!entry.isComplete()) {
+            throw new MedBotException(ERROR_ADD_INCOMPLETE_WAITLIST_ENTRY);
+        }
+        patientList.checkPersonExists(entry.getPatientId());
+        medicalStaffList.checkPersonExists(entry.getMedicalStaffId());
+        if (entry.getStartDateTimeCode() > entry.getEndDateTimeCode()) {
+            throw new MedBotException(ERROR_WAITLIST_INVALID_WINDOW);
+        }
+        int entryId = waitlist.addEntry(entry);
+        logUndo(() -> waitlist.deleteEntry(entryId));
+        return entryId;
+    }
+
+    /**
+     * Removes the waitlist entry with the specified id.
+     *
+     * @param entryId the id of the entry to remove
+     * @throws MedBotException if there is no entry with that id
+     */
+    public void deleteWaitlistEntry(int entryId) throws MedBotException {
+        WaitlistEntry deletedEntry = waitlist.deleteEntry(entryId);
+        logUndo(() -> waitlist.addEntry(deletedEntry));
+    }
+
+    private void deleteWaitlistEntries(List<WaitlistEntry> entries) throws MedBotException {
+        for (WaitlistEntry entry : entries) {
+            deleteWaitlistEntry(entry.getId());
+        }
+    }
+
+    public List<String> listWaitlist() {
+        return waitlist.listEntries();
+    }
+
+    /**
+     * Books the slots of the given appointments, which have been cancelled or moved, for patients on the waitlist.
+     *
+     * <p>Each slot goes to the first patient waiting for the same staff, in order of the end of their time
+     * windows, who accepts the start of the slot and is free during it. The patient is then removed from the
+     * waitlist.
+     *
+     * @param freedAppointments the appointments whose slots have been freed
+     * @return list of the appointmentIds of the appointments booked for waiting patients
+     * @throws MedBotException if the appointments cannot be booked
+     */
+    public List<Integer> fillFromWaitlist(List<Appointment> freedAppointments) throws MedBotException {
+        List<Integer> appointmentIds = new ArrayList<>();
+        runAtomically(() -> {
+            for (Appointment freedAppointment : freedAppointments) {
+                int appointmentId = fillFromWaitlist(freedAppointment);
+                if (appointmentId != -1) {
+                    appointmentIds.add(appointmentId);
+                }
+            }
+        });
+        return appointmentIds;
+    }
+
+    private int fillFromWaitlist(Appointment freedAppointment) throws MedBotException {
+        int staffId = freedAppointment.getMedicalStaffId();
+        int dateTimeCode = freedAppointment.getDateTimeCode();
+        WaitlistEntry entry = waitlist.findFirstAccepting(staffId, dateTimeCode, null);
+        while (entry != null) {
+            Appointment appointment = new Appointment();
+            appointment.setPatientId(entry.getPatientId());
+            appointment.setMedicalStaffId(staffId);
+            appointment.setDateTimeCode(dateTimeCode);
+            if (freedAppointment.getDurationMinutes() != Appointment.DEFAULT_DURATION_MINUTES) {
+                appointment.setDurationMinutes(freedAppointment.getDurationMinutes());
+            }
+            if (isAvailable(appointment)) {
+                deleteWaitlistEntry(entry.getId());
+                return insertAppointment(appointment);
+            }
+            entry = waitlist.findFirstAccepting(staffId, dateTimeCode, entry);
+        }
+        return -1;
+    }
+
+    //Archive methods
+
+    public void setAppointmentArchive(AppointmentArchive appointmentArchive) {
+        this.appointmentArchive = appointmentArchive;
+        archivedAppointments = null;
+        reserveArchivedAppointmentIds();
+    }
+
+    /**
+     * Moves every appointment that ends by cutoffDateTimeCode to the appointment archive. Archived appointments
+     * are no longer part of the scheduler, but are still found when searching for appointments before a date.
+     *
+     * <p>A recurring appointment is only archived once its last occurrence has ended. Archiving cannot be undone,
+     * so it is not allowed during a transaction.
+     *
+     * @param cutoffDateTimeCode the date time by which the archived appointments end
+     * @return the number of appointments archived
+     * @throws MedBotException if there is no archive, a transaction has been started, the cutoff is in the future
+     *                         or the appointments cannot be written to the archive
+     */
+    public int archiveAppointmentsBefore(int cutoffDateTimeCode) throws MedBotException {
+        if (appointmentArchive == null) {
+            throw new MedBotException(ERROR_NO_ARCHIVE);
+        }
+        if (isInTransaction) {
+            throw new MedBotException(ERROR_ARCHIVE_IN_TRANSACTION);
+        }
+        if (cutoffDateTimeCode > System.currentTimeMillis() / 1000 / 60) {
+            throw new MedBotException(ERROR_ARCHIVE_FUTURE_CUTOFF);
+        }
+        List<Appointment> endedAppointments = new ArrayList<>();
+        for (int appointmentId : schedulerAppointmentList.listAppointments()) {
+            Appointment appointment = schedulerAppointmentList.getAppointment(appointmentId);
+            if (appointment.getLastDateTimeCode() + appointment.getDurationMinutes() <= cutoffDateTimeCode) {
+                endedAppointments.add(appointment);
+            }
+        }
+        //The appointments are only removed once they are safely in the archive
+        appointmentArchive.append(endedAppointments);
+        if (archivedAppointments != null) {
+            archivedAppointments.addAll(endedAppointments);
+        }
+        for (Appointment appointment : endedAppointments) {
+            deleteAppointment(appointment.getId());
+        }
+        reserveArchivedAppointmentIds();
+        return endedAppointments.size();
+    }
+
+    /**
+     * Makes sure that new appointments are not given the id of an archived appointment.
+     */
+    private void reserveArchivedAppointmentIds() {
+        int nextFreeId = appointmentArchive.getLastAppointmentId() + 1;
+        if (schedulerAppointmentList.getLastId() < nextFreeId) {
+            schedulerAppointmentList.setLastId(nextFreeId);
+        }
+    }
+
+    /**
+     * Returns the archived appointments of the specified person that match the filter. The archive is only read
+     * when searching for appointments before a date that is within the archived range.
+     */
+    private List<Appointment> findArchivedAppointments(int personId, boolean isPatient, FilterType filterType,
+            int dateTimeCode) throws MedBotException {
+        if (appointmentArchive == null || filterType != FilterType.BEFORE
+                || dateTimeCode < appointmentArchive.getEarliestDateTimeCode()) {
+            return List.of();
+        }
+        List<Appointment> personAppointments = new ArrayList<>();
+        for (Appointment appointment : getArchivedAppointments()) {
+            int appointmentPersonId = isPatient ? appointment.getPatientId() : appointment.getMedicalStaffId();
+            if (appointmentPersonId == personId && appointment.getDateTimeCode() <= dateTimeCode) {
+                personAppointments.add(appointment);
+            }
+        }
+        return personAppointments;
+    }
+
+    /**
+     * Returns the archived appointments, reading them from the archive if they have not been read. Synchronized as
+     * searches, which may read the archive, can run at the same time.
+     */
+    private synchronized List<Appointment> getArchivedAppointments() throws MedBotException {
+        if (archivedAppointments == null) {
+            archivedAppointments = appointmentArchive.loadAppointments();
+        }
+        return archivedAppointments;
+    }
+
+    //Snapshot methods
+
+    /**
+     * Returns the most recently published snapshot of the scheduler. Can be called from any thread.
+     *
+     * @return the latest snapshot
+     */
+    public SchedulerSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Publishes the current state of the scheduler as the snapshot returned by getSnapshot. Changes made during a
+     * transaction are only published after it is committed, and nothing is published if there are no changes.
+     */
+    public void publishSnapshot() {
+        if (isInTransaction) {
+            return;
+        }
+        SchedulerSnapshot newSnapshot = createSnapshot(snapshot.getGeneration() + 1);
+        if (!newSnapshot.hasSameDataAs(snapshot)) {
+            snapshot = newSnapshot;
+        }
+    }
+
+    private SchedulerSnapshot createSnapshot(long generation) {
+        return new SchedulerSnapshot(generation, patientList.getSnapshot(), medicalStaffList.getSnapshot(),
+                schedulerAppointmentList.getSnapshot(), schedulerAppointmentList.getPatientSnapshot(),
+                schedulerAppointmentList.getStaffSnapshot());
+    }
+
+    //Transaction methods
+
+    /**
+     * Starts a transaction. Changes made after this are kept in an undo log until the transaction is committed
+     * or rolled back.
+     *
+     * @throws MedBotException if a transaction has already been started
+     */
+    public void beginTransaction() throws MedBotException {
+        if (isInTransaction) {
+            throw new MedBotException(ERROR_TRANSACTION_ALREADY_STARTED);
+        }
+        assert undoLog.isEmpty();
+        isInTransaction = true;
+    }
+
+    /**
+     * Keeps all changes made since the start of the current transaction.
+     *
+     * @throws MedBotException if no transaction has been started
+     */
+    public void commitTransaction() throws MedBotException {
+        if (!isInTransaction) {
+            throw new MedBotException(ERROR_NO_TRANSACTION_STARTED);
+        }
+        undoLog.clear();
+        isInTransaction = false;
+    }
+
+    /**
+     * Undoes all changes made since the start of the current transaction.
+     *
+     * @throws MedBotException if no transaction has been started
+     */
+    public void rollbackTransaction() throws MedBotException {
+        if (!isInTransaction) {
+            throw new MedBotException(ERROR_NO_TRANSACTION_STARTED);
+        }
+        rollbackTo(0);
+        isInTransaction = false;
+    }
+
+    public boolean isInTransaction() {
+        return isInTransaction;
+    }
+
+    /**
+     * Runs the given operation such that either all or none of its changes are kept.
+     *
+     * <p>Commands that make several changes through the scheduler, and build their output from them, run them in
+     * one operation, so that a failure partway through does not leave the earlier changes in place.
+     *
+     * @param operation the operation to run
+     * @throws MedBotException if the operation fails, after its changes have been undone
+     */
+    public void runAtomically(Operation operation) throws MedBotException {
+        int savepoint = undoLog.size();
+        atomicOperationDepth++;
+        try {
+            operation.run();
+        } catch (MedBotException mbe) {
+            rollbackTo(savepoint);
+            throw mbe;
+        } finally {
+            atomicOperationDepth--;
+        }
+        if (!isInTransaction && atomicOperationDepth == 0) {
+            undoLog.clear();
+        }
+    }
+
+    /**
+     * Records how to undo a change that was just made.
+     *
+     * <p>Outside of a transaction or atomic operation, the change is final and nothing is recorded.
+     *
+     * @param undoAction the action that undoes the change
+     */
+    private void logUndo(UndoAction undoAction) {
+        if (isRollingBack || (!isInTransaction && atomicOperationDepth == 0)) {
+            return;
+        }
+        undoLog.push(undoAction);
+    }
+
+    /**
+     * Undoes the most recent changes until only savepoint entries remain in the undo log.
+     *
+     * @param savepoint the size of the undo log to roll back to
+     * @throws MedBotException if a change cannot be undone
+     */
+    private void rollbackTo(int savepoint) throws MedBotException {
+        isRollingBack = true;
+        try {
+            while (undoLog.size() > savepoint) {
+                undoLog.pop().undo();
+            }
+        } catch (MedBotException mbe) {
+            //Undo actions reverse changes that were successfully made, so this exception should not be thrown
+            assert false;
+            throw new MedBotException(ERROR_ROLLBACK_ERROR);
+        } finally {
+            isRollingBack = false;
+        }
     }
 
     //Storage methods
@@ -232,6 +745,10 @@ public class Scheduler {
         return patientList.getStorageString();
     }
 
+    public long getPatientStorageGeneration() {
+        return patientList.getStorageGeneration();
+    }
+
     public int getLastStaffId() {
         return medicalStaffList.getLastId();
     }
@@ -244,6 +761,10 @@ public class Scheduler {
         return medicalStaffList.getStorageString();
     }
 
+    public long getStaffStorageGeneration() {
+        return medicalStaffList.getStorageGeneration();
+    }
+
     public int getLastAppointmentId() {
         return schedulerAppointmentList.getLastId();
     }
@@ -256,6 +777,42 @@ public class Scheduler {
         return schedulerAppointmentList.getStorageString();
     }
 
+    public long getAppointmentStorageGeneration() {
+        return schedulerAppointmentList.getStorageGeneration();
+    }
+
+    public int getLastResourceId() {
+        return resourceList.getLastId();
+    }
+
+    public void setLastResourceId(int lastResourceId) {
+        resourceList.setLastId(lastResourceId);
+    }
+
+    public String getResourceStorageString() {
+        return resourceList.getStorageString();
+    }
+
+    public long getResourceStorageGeneration() {
+        return resourceList.getStorageGeneration();
+    }
+
+    public int getLastWaitlistEntryId() {
+        return waitlist.getLastId();
+    }
+
+    public void setLastWaitlistEntryId(int lastWaitlistEntryId) {
+        waitlist.setLastId(lastWaitlistEntryId);
+    }
+
+    public String getWaitlistStorageString() {
+        return waitlist.getStorageString();
+    }
+
+    public long getWaitlistStorageGeneration() {
+        return waitlist.getStorageGeneration();
+    }
+
     //Appointment Management methods
 
     /**
@@ -269,6 +826,25 @@ public class Scheduler {
         return schedulerAppointmentList.getAppointment(appointmentId);
     }
 
+    /**
+     * Returns copies of the appointments of the specified staff between the two date times indicated, inclusive.
+     *
+     * @param staffId           the id of the staff
+     * @param startDateTimeCode the start of the time window, inclusive
+     * @param endDateTimeCode   the end of the time window, inclusive
+     * @return list of copies of the staff's appointments in the time window, in order of their date time
+     * @throws MedBotException if there is no staff with that id
+     */
+    public List<Appointment> getStaffAppointmentsBetween(int staffId, int startDateTimeCode, int endDateTimeCode)
+            throws MedBotException {
+        List<Appointment> appointments = new ArrayList<>();
+        for (int appointmentId : medicalStaffList.listAppointmentsBetween(staffId, startDateTimeCode,
+                endDateTimeCode)) {
+            appointments.add(schedulerAppointmentList.getAppointment(appointmentId));
+        }
+        return appointments;
+    }
+
     /**
      * Returns all current appointments.
      *
@@ -280,6 +856,26 @@ public class Scheduler {
         return generateAppointmentTable(appointmentIds);
     }
 
+    /**
+     * Passes the table row of each current appointment to the row printer, so that the rows can be printed one at
+     * a time instead of being joined into one String first.
+     *
+     * @param rowPrinter receives each table row, without a line separator
+     * @throws MedBotException when the appointment List cannot be generated.
+     */
+    public void listAllAppointments(Consumer<String> rowPrinter) throws MedBotException {
+        generateAppointmentTable(schedulerAppointmentList.listAppointments(), rowPrinter);
+    }
+
+    /**
+     * Returns whether there are any current appointments.
+     *
+     * @return true if there is at least one appointment
+     */
+    public boolean hasAppointments() {
+        return schedulerAppointmentList.hasAppointments();
+    }
+
     /**
      * Returns all current appointments of a staff.
      *
@@ -289,7 +885,8 @@ public class Scheduler {
     public String listMedicalStaffAppointments(int staffId, FilterType filterType, int dateTimeCode)
             throws MedBotException {
         List<Integer> appointmentIds = medicalStaffList.listAppointments(staffId, filterType, dateTimeCode);
-        return generateAppointmentTable(appointmentIds);
+        return generateAppointmentTable(appointmentIds,
+                findArchivedAppointments(staffId, false, filterType, dateTimeCode));
     }
 
     /**
@@ -301,7 +898,8 @@ public class Scheduler {
     public String listPatientAppointments(int patientId, FilterType filterType, int dateTimeCode)
             throws MedBotException {
         List<Integer> appointmentIds = patientList.listAppointments(patientId, filterType, dateTimeCode);
-        return generateAppointmentTable(appointmentIds);
+        return generateAppointmentTable(appointmentIds,
+                findArchivedAppointments(patientId, true, filterType, dateTimeCode));
     }
 
     /**
@@ -320,6 +918,36 @@ public class Scheduler {
         return insertAppointment(appointment);
     }
 
+    /**
+     * Adds an appointment read from storage into the scheduler.
+     *
+     * <p>When appointment lists are built lazily, the appointment is not checked for clashes with the other
+     * appointments of its patient and staff, as that would build the appointment list of every person during
+     * loading. Appointments in storage were checked for clashes when they were first added.
+     *
+     * @param appointment Appointment to be added into the scheduler
+     * @return appointmentId of the appointment
+     * @throws MedBotException if the appointment is incomplete, its patient, staff or resources do not exist, or
+     *                         it clashes with another appointment
+     */
+    public int loadAppointment(Appointment appointment) throws MedBotException {
+        if (!patientList.hasLazyAppointmentLists()) {
+            return addAppointment(appointment);
+        }
+        if (!appointment.isComplete()) {
+            throw new MedBotException(ERROR_ADD_INCOMPLETE_APPOINTMENT);
+        }
+        if (!appointment.isRecurrenceValid()) {
+            throw new MedBotException(ERROR_RECURRENCE_NO_INTERVAL);
+        }
+        patientList.checkPersonExists(appointment.getPatientId());
+        medicalStaffList.checkPersonExists(appointment.getMedicalStaffId());
+        for (int resourceId : appointment.getResourceIds()) {
+            checkResourceAvailability(resourceId, appointment);
+        }
+        return insertAppointment(appointment);
+    }
+
     /**
      * Removes the appointment with the specified appointmentId.
      *
@@ -334,30 +962,357 @@ public class Scheduler {
         try {
             patientList.deleteAppointment(patientId, dateTimeCode);
             medicalStaffList.deleteAppointment(medicalStaffId, dateTimeCode);
+            for (int resourceId : deletedAppointment.getResourceIds()) {
+                resourceList.deleteAppointment(resourceId, dateTimeCode);
+            }
+            availabilityMatrix.unbook(deletedAppointment);
+            appointmentStatistics.removeAppointment(deletedAppointment);
         } catch (MedBotException me) {
             //This exception should not be thrown as the patientId, medicalStaffId and dateTimeCode should correspond
             //to a valid appointment
             assert false;
             throw new MedBotException(ERROR_DELETE_APPOINTMENT_ERROR);
         }
+        logUndo(() -> insertAppointment(deletedAppointment));
     }
 
     /**
      * Edits the appointment at the specified appointmentId to have the parameters of newAppointment.
      *
+     * <p>The appointment is either fully edited or left unchanged.
+     *
      * @param appointmentId  the id of the appointment to be modified
      * @param newAppointment Appointment containing the new parameter values
      * @throws MedBotException if there is no appointment with the specified id or the changes will lead to a clash
      */
     public void editAppointment(int appointmentId, Appointment newAppointment) throws MedBotException {
         Appointment oldAppointment = schedulerAppointmentList.getAppointment(appointmentId);
-        newAppointment = Appointment.mergeAppointmentData(oldAppointment, newAppointment);
-        newAppointment.setId(appointmentId);
-        assert newAppointment.isComplete();
+        Appointment editedAppointment = Appointment.mergeAppointmentData(oldAppointment, newAppointment);
+        editedAppointment.setId(appointmentId);
+        assert editedAppointment.isComplete();
+
+        checkAvailability(editedAppointment);
+        runAtomically(() -> {
+            deleteAppointment(appointmentId);
+            insertAppointment(editedAppointment);
+        });
+    }
+
+    /**
+     * Moves every appointment of the specified staff between startDateTimeCode and endDateTimeCode to newStaffId,
+     * shifted so that the appointment at startDateTimeCode would be at newStartDateTimeCode.
+     *
+     * <p>All moves are checked for clashes before any change is made, and either every appointment is moved or
+     * none are. The clash check against the target staff is done in a single merge pass over the target's
+     * appointments.
+     *
+     * @param staffId              the id of the staff whose appointments are to be moved
+     * @param startDateTimeCode    the start of the time window, inclusive
+     * @param endDateTimeCode      the end of the time window, inclusive
+     * @param newStaffId           the id of the staff the appointments are moved to
+     * @param newStartDateTimeCode the new date time corresponding to the start of the time window
+     * @return list of the appointmentIds of the moved appointments
+     * @throws MedBotException if a staff does not exist, there are no appointments in the time window
+     *                         or any of the moves will lead to a clash
+     */
+    public List<Integer> rescheduleStaffAppointments(int staffId, int startDateTimeCode, int endDateTimeCode,
+            int newStaffId, int newStartDateTimeCode) throws MedBotException {
+        if (startDateTimeCode > endDateTimeCode) {
+            throw new MedBotException(ERROR_RESCHEDULE_INVALID_WINDOW);
+        }
+        medicalStaffList.checkPersonExists(newStaffId);
+        List<Integer> appointmentIds = medicalStaffList.listAppointmentsBetween(staffId, startDateTimeCode,
+                endDateTimeCode);
+        if (appointmentIds.isEmpty()) {
+            throw new MedBotException(ERROR_RESCHEDULE_NO_APPOINTMENTS);
+        }
+
+        int shift = newStartDateTimeCode - startDateTimeCode;
+        Set<Integer> movingAppointmentIds = new HashSet<>(appointmentIds);
+        List<Appointment> movedAppointments = new ArrayList<>();
+        for (int appointmentId : appointmentIds) {
+            Appointment movedAppointment = schedulerAppointmentList.getAppointment(appointmentId);
+            movedAppointment.setMedicalStaffId(newStaffId);
+            movedAppointment.setDateTimeCode(movedAppointment.getDateTimeCode() + shift);
+            movedAppointments.add(movedAppointment);
+        }
+
+        checkRescheduleConflicts(newStaffId, movedAppointments, movingAppointmentIds);
+        runAtomically(() -> {
+            for (int appointmentId : appointmentIds) {
+                deleteAppointment(appointmentId);
+            }
+            for (Appointment movedAppointment : movedAppointments) {
+                insertAppointment(movedAppointment);
+            }
+        });
+        return appointmentIds;
+    }
+
+    /**
+     * Books as many of the given requests as possible, each with one of its staff at the start of an hour within
+     * its time window, without clashing with any appointment.
+     *
+     * <p>Every free hour of each staff that a request accepts is a candidate slot for the request, and requests
+     * are assigned to slots by a PlacementSolver. Requests of the same patient may be assigned the same hour with
+     * different staff, in which case only the first of them is booked.
+     *
+     * @param requests the requests to book, in order of priority
+     * @return array of the appointmentId booked for each request, or -1 if the request could not be booked
+     * @throws MedBotException if any request is incomplete, has an invalid time window or refers to a patient
+     *                         or staff that does not exist
+     */
+    public int[] solvePlacements(List<PlacementRequest> requests) throws MedBotException {
+        List<Appointment> slots = new ArrayList<>();
+        Map<Long, Integer> slotIndexes = new HashMap<>();
+        int[][] candidateSlots = new int[requests.size()][];
+        for (int i = 0; i < requests.size(); i++) {
+            candidateSlots[i] = findCandidateSlots(i + 1, requests.get(i), slots, slotIndexes);
+        }
+
+        int[] requestSlots = new PlacementSolver(candidateSlots, slots.size()).solve();
+        int[] appointmentIds = new int[requests.size()];
+        runAtomically(() -> {
+            for (int i = 0; i < requests.size(); i++) {
+                appointmentIds[i] = -1;
+                if (requestSlots[i] == -1) {
+                    continue;
+                }
+                Appointment slot = slots.get(requestSlots[i]);
+                Appointment appointment = new Appointment();
+                appointment.setPatientId(requests.get(i).getPatientId());
+                appointment.setMedicalStaffId(slot.getMedicalStaffId());
+                appointment.setDateTimeCode(slot.getDateTimeCode());
+                if (isAvailable(appointment)) {
+                    appointmentIds[i] = insertAppointment(appointment);
+                }
+            }
+        });
+        return appointmentIds;
+    }
+
+    private int[] findCandidateSlots(int requestNumber, PlacementRequest request, List<Appointment> slots,
+            Map<Long, Integer> slotIndexes) throws MedBotException {
+        if (!request.isComplete()) {
+            throw new MedBotException(String.format(ERROR_INCOMPLETE_PLACEMENT_REQUEST, requestNumber));
+        }
+        int startDateTimeCode = request.getStartDateTimeCode();
+        int endDateTimeCode = request.getEndDateTimeCode();
+        if (startDateTimeCode > endDateTimeCode
+                || endDateTimeCode - startDateTimeCode > MAX_PLACEMENT_WINDOW_DAYS * 24 * MINUTES_PER_HOUR) {
+            throw new MedBotException(String.format(ERROR_PLACEMENT_INVALID_WINDOW, requestNumber,
+                    MAX_PLACEMENT_WINDOW_DAYS));
+        }
+        patientList.checkPersonExists(request.getPatientId());
+        List<Integer> candidates = new ArrayList<>();
+        int firstHour = Math.floorDiv(startDateTimeCode + MINUTES_PER_HOUR - 1, MINUTES_PER_HOUR);
+        int lastHour = Math.floorDiv(endDateTimeCode, MINUTES_PER_HOUR);
+        for (int staffId : request.getMedicalStaffIds()) {
+            medicalStaffList.checkPersonExists(staffId);
+            for (int hour = firstHour; hour <= lastHour; hour++) {
+                Appointment appointment = new Appointment();
+                appointment.setPatientId(request.getPatientId());
+                appointment.setMedicalStaffId(staffId);
+                appointment.setDateTimeCode(hour * MINUTES_PER_HOUR);
+                if (!isAvailable(appointment)) {
+                    continue;
+                }
+                long slotKey = ((long) staffId << Integer.SIZE) | hour;
+                Integer slotIndex = slotIndexes.get(slotKey);
+                if (slotIndex == null) {
+                    slotIndex = slots.size();
+                    slotIndexes.put(slotKey, slotIndex);
+                    slots.add(appointment);
+                }
+                candidates.add(slotIndex);
+            }
+        }
+        return candidates.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private void checkRescheduleConflicts(int newStaffId, List<Appointment> movedAppointments,
+            Set<Integer> movingAppointmentIds) throws MedBotException {
+        List<String> conflicts = new ArrayList<>();
+        //Appointments that are not recurring are checked against the new staff's appointments in one merge pass
+        List<Appointment> singleAppointments = new ArrayList<>();
+        for (Appointment movedAppointment : movedAppointments) {
+            if (!movedAppointment.isRecurring()) {
+                singleAppointments.add(movedAppointment);
+                continue;
+            }
+            int clashAppointmentId = medicalStaffList.getClashingAppointmentId(newStaffId, movedAppointment,
+                    movingAppointmentIds);
+            if (clashAppointmentId != -1) {
+                conflicts.add(String.format(ERROR_RESCHEDULE_CONFLICT, movedAppointment.getId(),
+                        clashAppointmentId, PERSON_TYPE_STAFF, newStaffId));
+            }
+        }
+        singleAppointments.sort(Comparator.comparingInt(Appointment::getDateTimeCode));
+        List<Pair<Integer, Integer>> staffClashes = medicalStaffList.findAppointmentClashes(newStaffId,
+                singleAppointments, movingAppointmentIds);
+        for (Pair<Integer, Integer> staffClash : staffClashes) {
+            conflicts.add(String.format(ERROR_RESCHEDULE_CONFLICT, staffClash.first, staffClash.second,
+                    PERSON_TYPE_STAFF, newStaffId));
+        }
+        for (Appointment movedAppointment : movedAppointments) {
+            int patientId = movedAppointment.getPatientId();
+            int clashAppointmentId = patientList.getClashingAppointmentId(patientId, movedAppointment,
+                    movingAppointmentIds);
+            if (clashAppointmentId != -1) {
+                conflicts.add(String.format(ERROR_RESCHEDULE_CONFLICT, movedAppointment.getId(),
+                        clashAppointmentId, PERSON_TYPE_PATIENT, patientId));
+            }
+            for (int resourceId : movedAppointment.getResourceIds()) {
+                clashAppointmentId = resourceList.getClashingAppointmentId(resourceId, movedAppointment,
+                        movingAppointmentIds);
+                if (clashAppointmentId != -1) {
+                    conflicts.add(String.format(ERROR_RESCHEDULE_CONFLICT, movedAppointment.getId(),
+                            clashAppointmentId, PERSON_TYPE_RESOURCE, resourceId));
+                }
+            }
+        }
+        if (!conflicts.isEmpty()) {
+            throw new MedBotException(String.join(END_LINE, conflicts));
+        }
+    }
+
+    /**
+     * Returns the ids of the staff that are free at the hour of the specified dateTimeCode.
+     *
+     * @param staffIds     the ids of the staff to check, or an empty list to check all staff that are not hidden
+     * @param dateTimeCode the date time to check
+     * @return list of the ids of the free staff
+     * @throws MedBotException if any of the staff do not exist or there are no staff to check
+     */
+    public List<Integer> getFreeStaff(List<Integer> staffIds, int dateTimeCode) throws MedBotException {
+        return availabilityMatrix.getFreeStaff(getStaffIdsToCheck(staffIds), dateTimeCode);
+    }
+
+    /**
+     * Returns the dateTimeCode of the first hour at or after fromDateTimeCode when any of the specified staff
+     * is free.
+     *
+     * @param staffIds         the ids of the staff to check, or an empty list to check all staff that are not hidden
+     * @param fromDateTimeCode the earliest date time to consider
+     * @return the dateTimeCode of the first hour when any of the staff is free
+     * @throws MedBotException if any of the staff do not exist, there are no staff to check or none of the staff
+     *                         are free within a year
+     */
+    public int findFirstFreeHour(List<Integer> staffIds, int fromDateTimeCode) throws MedBotException {
+        int freeDateTimeCode = availabilityMatrix.findFirstFreeDateTimeCode(getStaffIdsToCheck(staffIds),
+                fromDateTimeCode, FREE_HOUR_SEARCH_DAYS * 24);
+        if (freeDateTimeCode == -1) {
+            throw new MedBotException(String.format(ERROR_NO_FREE_HOUR, FREE_HOUR_SEARCH_DAYS));
+        }
+        return freeDateTimeCode;
+    }
+
+    private List<Integer> getStaffIdsToCheck(List<Integer> staffIds) throws MedBotException {
+        if (staffIds.isEmpty()) {
+            staffIds = medicalStaffList.listPersonIds(false);
+        }
+        if (staffIds.isEmpty()) {
+            throw new MedBotException(ERROR_NO_STAFF);
+        }
+        for (int staffId : staffIds) {
+            medicalStaffList.checkPersonExists(staffId);
+        }
+        return staffIds;
+    }
+
+    public String getStaffName(int staffId) throws MedBotException {
+        return medicalStaffList.getPersonName(staffId);
+    }
+
+    /**
+     * Returns the appointments with the specified appointmentIds.
+     *
+     * @param appointmentIds the ids of the appointments to be listed
+     * @return the String list of the appointments
+     * @throws MedBotException when the appointment List cannot be generated.
+     */
+    public String listAppointments(List<Integer> appointmentIds) throws MedBotException {
+        return generateAppointmentTable(appointmentIds);
+    }
+
+    //Report methods
+
+    /**
+     * Returns the utilisation report of the week containing the specified dateTimeCode.
+     *
+     * <p>The report contains the number of appointments on each day of the week, in total and per staff and
+     * patient, and the number of appointments at each hour of the week over all weeks. It is generated from
+     * counters kept up to date as appointments are added and removed.
+     *
+     * @param dateTimeCode a date time within the week to report on
+     * @return String containing the report
+     * @throws MedBotException if a person in the report cannot be found
+     */
+    public String getUtilisationReport(int dateTimeCode) throws MedBotException {
+        int weekIndex = AppointmentStatistics.getWeekIndex(dateTimeCode);
+        String output = formatReportRow("", DAY_NAMES, "Total") + END_LINE
+                + formatReportRow("All appointments", appointmentStatistics.getDayCounts(weekIndex)) + END_LINE;
 
-        checkAvailability(newAppointment);
-        deleteAppointment(appointmentId);
-        insertAppointment(newAppointment);
+        SortedMap<Integer, int[]> staffDayCounts = appointmentStatistics.getStaffDayCounts(weekIndex);
+        for (int staffId : staffDayCounts.keySet()) {
+            String label = "Staff " + staffId + " " + medicalStaffList.getPersonName(staffId);
+            output += formatReportRow(label, staffDayCounts.get(staffId)) + END_LINE;
+        }
+        SortedMap<Integer, int[]> patientDayCounts = appointmentStatistics.getPatientDayCounts(weekIndex);
+        for (int patientId : patientDayCounts.keySet()) {
+            String label = "Patient " + patientId + " " + patientList.getPersonName(patientId);
+            output += formatReportRow(label, patientDayCounts.get(patientId)) + END_LINE;
+        }
+        return output + END_LINE + "Appointments at each hour, over all weeks:" + END_LINE
+                + generateHeatmap(appointmentStatistics.getHourOfWeekCounts());
+    }
+
+    /**
+     * Returns the date String of the start and end of the week containing the specified dateTimeCode.
+     *
+     * @param dateTimeCode a date time within the week
+     * @return String with the first and last date of the week
+     */
+    public static String getWeekString(int dateTimeCode) {
+        int weekIndex = AppointmentStatistics.getWeekIndex(dateTimeCode);
+        int lastDayOfWeek = AppointmentStatistics.DAYS_PER_WEEK - 1;
+        return Appointment.formatDate(AppointmentStatistics.getDayStartDateTimeCode(weekIndex, 0)) + " to "
+                + Appointment.formatDate(AppointmentStatistics.getDayStartDateTimeCode(weekIndex, lastDayOfWeek));
+    }
+
+    private String formatReportRow(String label, int[] dayCounts) {
+        String[] countStrings = new String[dayCounts.length];
+        for (int i = 0; i < dayCounts.length; i++) {
+            countStrings[i] = Integer.toString(dayCounts[i]);
+        }
+        return formatReportRow(label, countStrings, Integer.toString(AppointmentStatistics.sum(dayCounts)));
+    }
+
+    private String formatReportRow(String label, String[] dayCountStrings, String totalString) {
+        String output = VERTICAL_LINE_SPACED + formatAttributeString(label, LENGTH_REPORT_LABEL_COLUMN);
+        for (String dayCountString : dayCountStrings) {
+            output += VERTICAL_LINE_SPACED + formatAttributeString(dayCountString, LENGTH_REPORT_COUNT_COLUMN);
+        }
+        return output + VERTICAL_LINE_SPACED + formatAttributeString(totalString, LENGTH_REPORT_COUNT_COLUMN)
+                + VERTICAL_LINE_SPACED;
+    }
+
+    private String generateHeatmap(int[] hourOfWeekCounts) {
+        String output = "   ";
+        for (int hour = 0; hour < AppointmentStatistics.HOURS_PER_DAY; hour++) {
+            output += SPACE + String.format("%02d", hour);
+        }
+        output += END_LINE;
+        for (int day = 0; day < AppointmentStatistics.DAYS_PER_WEEK; day++) {
+            output += DAY_NAMES[day];
+            for (int hour = 0; hour < AppointmentStatistics.HOURS_PER_DAY; hour++) {
+                int count = hourOfWeekCounts[day * AppointmentStatistics.HOURS_PER_DAY + hour];
+                String countString = count == 0 ? "." : Integer.toString(count);
+                output += SPACE + String.format("%" + LENGTH_HEATMAP_COUNT_COLUMN + "s", countString);
+            }
+            output += END_LINE;
+        }
+        return output;
     }
 
     private int insertAppointment(Appointment appointment) throws MedBotException {
@@ -365,6 +1320,12 @@ public class Scheduler {
             int appointmentId = schedulerAppointmentList.addAppointment(appointment);
             patientList.addAppointment(appointment.getPatientId(), appointment);
             medicalStaffList.addAppointment(appointment.getMedicalStaffId(), appointment);
+            for (int resourceId : appointment.getResourceIds()) {
+                resourceList.addAppointment(resourceId, appointment);
+            }
+            availabilityMatrix.book(appointment);
+            appointmentStatistics.addAppointment(appointment);
+            logUndo(() -> deleteAppointment(appointmentId));
             return appointmentId;
         } catch (MedBotException me) {
             //This exception should not be thrown as it was already checked that there would be no clashes when
@@ -375,50 +1336,112 @@ public class Scheduler {
     }
 
     private void checkAvailability(Appointment appointment) throws MedBotException {
-        int patientId = appointment.getPatientId();
-        int staffId = appointment.getMedicalStaffId();
-        int dateTimeCode = appointment.getDateTimeCode();
-        int appointmentId = appointment.getId();
-        checkPatientAvailability(patientId, dateTimeCode, appointmentId);
-        checkStaffAvailability(staffId, dateTimeCode, appointmentId);
+        if (!appointment.isRecurrenceValid()) {
+            throw new MedBotException(ERROR_RECURRENCE_NO_INTERVAL);
+        }
+        checkPatientAvailability(appointment.getPatientId(), appointment);
+        checkStaffAvailability(appointment.getMedicalStaffId(), appointment);
+        for (int resourceId : appointment.getResourceIds()) {
+            checkResourceAvailability(resourceId, appointment);
+        }
     }
 
-    private void checkPatientAvailability(int patientId, int dateTimeCode, int appointmentId) throws MedBotException {
-        int clashAppointmentId = patientList.getAppointmentId(patientId, dateTimeCode);
-        if (clashAppointmentId != -1 && clashAppointmentId != appointmentId) {
+    private boolean isAvailable(Appointment appointment) {
+        try {
+            checkAvailability(appointment);
+            return true;
+        } catch (MedBotException mbe) {
+            return false;
+        }
+    }
+
+    private void checkPatientAvailability(int patientId, Appointment appointment) throws MedBotException {
+        int clashAppointmentId = patientList.getClashingAppointmentId(patientId, appointment,
+                Set.of(appointment.getId()));
+        if (clashAppointmentId != -1) {
             throw new MedBotException(String.format(ERROR_PATIENT_APPOINTMENT_CLASH, clashAppointmentId));
         }
     }
 
-    private void checkStaffAvailability(int staffId, int dateTimeCode, int appointmentId)
-            throws MedBotException {
-        int clashAppointmentId = medicalStaffList.getAppointmentId(staffId, dateTimeCode);
-        if (clashAppointmentId != -1 && clashAppointmentId != appointmentId) {
+    private void checkStaffAvailability(int staffId, Appointment appointment) throws MedBotException {
+        int clashAppointmentId = medicalStaffList.getClashingAppointmentId(staffId, appointment,
+                Set.of(appointment.getId()));
+        if (clashAppointmentId != -1) {
             throw new MedBotException(String.format(ERROR_STAFF_APPOINTMENT_CLASH, clashAppointmentId));
         }
     }
 
+    private void checkResourceAvailability(int resourceId, Appointment appointment) throws MedBotException {
+        int clashAppointmentId = resourceList.getClashingAppointmentId(resourceId, appointment,
+                Set.of(appointment.getId()));
+        if (clashAppointmentId != -1) {
+            throw new MedBotException(String.format(ERROR_RESOURCE_APPOINTMENT_CLASH, resourceId, clashAppointmentId));
+        }
+    }
+
     private String generateAppointmentTable(List<Integer> appointmentIds) throws MedBotException {
-        String output = EMPTY_STRING;
+        StringBuilder output = new StringBuilder();
+        generateAppointmentTable(appointmentIds, row -> output.append(row).append(END_LINE));
+        return output.toString();
+    }
+
+    private void generateAppointmentTable(List<Integer> appointmentIds, Consumer<String> rowPrinter)
+            throws MedBotException {
         for (int appointmentId : appointmentIds) {
-            output += generateAppointmentTableRow(appointmentId) + END_LINE;
+            rowPrinter.accept(generateAppointmentTableRow(appointmentId));
         }
-        return output;
+    }
+
+    /**
+     * Returns the rows of a table of the appointments with the specified appointmentIds together with the given
+     * archived appointments, in order of their date time.
+     */
+    private String generateAppointmentTable(List<Integer> appointmentIds, List<Appointment> archivedAppointments)
+            throws MedBotException {
+        if (archivedAppointments.isEmpty()) {
+            return generateAppointmentTable(appointmentIds);
+        }
+        List<Appointment> appointments = new ArrayList<>(archivedAppointments);
+        for (int appointmentId : appointmentIds) {
+            appointments.add(schedulerAppointmentList.getAppointment(appointmentId));
+        }
+        appointments.sort(Comparator.comparingInt(Appointment::getDateTimeCode));
+        StringBuilder output = new StringBuilder();
+        for (Appointment appointment : appointments) {
+            output.append(generateAppointmentTableRow(appointment)).append(END_LINE);
+        }
+        return output.toString();
     }
 
     private String generateAppointmentTableRow(int appointmentId) throws MedBotException {
-        Appointment appointment = schedulerAppointmentList.getAppointment(appointmentId);
-        String patientName = patientList.getPersonName(appointment.getPatientId());
-        String staffName = medicalStaffList.getPersonName(appointment.getMedicalStaffId());
+        return generateAppointmentTableRow(schedulerAppointmentList.getAppointment(appointmentId));
+    }
+
+    private String generateAppointmentTableRow(Appointment appointment) {
+        //Archived appointments may belong to persons that have since been deleted
+        String patientName = getNameInTableFormat(patientList, appointment.getPatientId());
+        String staffName = getNameInTableFormat(medicalStaffList, appointment.getMedicalStaffId());
         return VERTICAL_LINE_SPACED + formatAppointmentId(appointment.getId())
                 + VERTICAL_LINE_SPACED + appointment.getDateTimeString()
                 + VERTICAL_LINE_SPACED + formatPatientId(appointment.getPatientId())
-                + VERTICAL_LINE_SPACED + formatNameString(patientName)
+                + VERTICAL_LINE_SPACED + patientName
                 + VERTICAL_LINE_SPACED + formatStaffId(appointment.getMedicalStaffId())
-                + VERTICAL_LINE_SPACED + formatNameString(staffName)
+                + VERTICAL_LINE_SPACED + staffName
                 + VERTICAL_LINE_SPACED;
     }
 
+    /**
+     * Returns the name of the person in the width of a name column, which the person keeps between tables, or a
+     * placeholder if the person has been deleted.
+     */
+    private String getNameInTableFormat(PersonList personList, int personId) {
+        try {
+            return personList.getPersonNameInTableFormat(personId);
+        } catch (MedBotException mbe) {
+            return formatNameString(NAME_DELETED_PERSON);
+        }
+    }
+
     private String formatAppointmentId(int id) {
         String idString = Integer.toString(id);
         return formatAttributeString(idString, LENGTH_APPOINTMENT_ID_COLUMN);
@@ -452,4 +1475,15 @@ public class Scheduler {
         }
         return output;
     }
+
+    /**
+     * A group of changes to the scheduler, to be run by runAtomically.
+     */
+    public interface Operation {
+        void run() throws MedBotException;
+    }
+
+    private interface UndoAction {
+        void undo() throws MedBotException;
+    }
 }
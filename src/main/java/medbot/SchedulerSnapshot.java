@@ -0,0 +1,174 @@
+package medbot;
+
+import medbot.exceptions.MedBotException;
+import medbot.list.SchedulerAppointmentList;
+import medbot.person.Person;
+import medbot.utilities.PersistentSortedMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only view of the patients, staff and appointments in the scheduler at one point in time.
+ *
+ * <p>A snapshot is never changed after it is created, so it can be read from any thread without locking while the
+ * scheduler keeps changing. Snapshots share most of their data with each other, so creating one is cheap.
+ */
+public final class SchedulerSnapshot {
+    private static final String ERROR_PATIENT_NOT_FOUND = "No patient with ID %d found.";
+    private static final String ERROR_STAFF_NOT_FOUND = "No staff with ID %d found.";
+    private static final String ERROR_APPOINTMENT_NOT_FOUND = "No appointment with ID %d found.";
+
+    private final long generation;
+    private final PersistentSortedMap<Person> patients;
+    private final PersistentSortedMap<Person> staff;
+    private final PersistentSortedMap<Appointment> appointments;
+    private final PersistentSortedMap<Appointment> patientAppointments;
+    private final PersistentSortedMap<Appointment> staffAppointments;
+
+    SchedulerSnapshot(long generation, PersistentSortedMap<Person> patients, PersistentSortedMap<Person> staff,
+            PersistentSortedMap<Appointment> appointments, PersistentSortedMap<Appointment> patientAppointments,
+            PersistentSortedMap<Appointment> staffAppointments) {
+        this.generation = generation;
+        this.patients = patients;
+        this.staff = staff;
+        this.appointments = appointments;
+        this.patientAppointments = patientAppointments;
+        this.staffAppointments = staffAppointments;
+    }
+
+    /**
+     * Returns the number of snapshots with changes that were published before this one.
+     *
+     * @return the generation of this snapshot
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Returns true if this snapshot contains the same data as the given snapshot, i.e. no changes were made to the
+     * scheduler between them.
+     *
+     * @param snapshot the snapshot to compare with
+     * @return true if both snapshots contain the same data
+     */
+    boolean hasSameDataAs(SchedulerSnapshot snapshot) {
+        return patients == snapshot.patients && staff == snapshot.staff && appointments == snapshot.appointments;
+    }
+
+    /**
+     * Returns the patient with the specified patientId. The patient must not be modified.
+     *
+     * @param patientId the id of the patient
+     * @return the patient, without appointments
+     * @throws MedBotException if there is no patient with that id
+     */
+    public Person getPatient(int patientId) throws MedBotException {
+        Person patient = patients.get(patientId);
+        if (patient == null) {
+            throw new MedBotException(String.format(ERROR_PATIENT_NOT_FOUND, patientId));
+        }
+        return patient;
+    }
+
+    /**
+     * Returns the staff with the specified staffId. The staff must not be modified.
+     *
+     * @param staffId the id of the staff
+     * @return the staff, without appointments
+     * @throws MedBotException if there is no staff with that id
+     */
+    public Person getStaff(int staffId) throws MedBotException {
+        Person staffMember = staff.get(staffId);
+        if (staffMember == null) {
+            throw new MedBotException(String.format(ERROR_STAFF_NOT_FOUND, staffId));
+        }
+        return staffMember;
+    }
+
+    /**
+     * Returns all patients in ascending order of id. The patients must not be modified.
+     *
+     * @return list of the patients
+     */
+    public List<Person> listPatients() {
+        return patients.values();
+    }
+
+    /**
+     * Returns all staff in ascending order of id. The staff must not be modified.
+     *
+     * @return list of the staff
+     */
+    public List<Person> listStaff() {
+        return staff.values();
+    }
+
+    public int getAppointmentCount() {
+        return appointments.size();
+    }
+
+    /**
+     * Returns a copy of the appointment with the specified appointmentId.
+     *
+     * @param appointmentId the id of the appointment
+     * @return copy of the appointment
+     * @throws MedBotException if there is no appointment with that id
+     */
+    public Appointment getAppointment(int appointmentId) throws MedBotException {
+        Appointment appointment = appointments.get(appointmentId);
+        if (appointment == null) {
+            throw new MedBotException(String.format(ERROR_APPOINTMENT_NOT_FOUND, appointmentId));
+        }
+        return copyOf(appointment);
+    }
+
+    /**
+     * Returns copies of all appointments in ascending order of id.
+     *
+     * @return list of copies of the appointments
+     */
+    public List<Appointment> listAppointments() {
+        return copyOf(appointments.values());
+    }
+
+    /**
+     * Returns copies of the appointments of the patient with the specified patientId, in order of their date time.
+     *
+     * @param patientId the id of the patient
+     * @return list of copies of the patient's appointments
+     */
+    public List<Appointment> listPatientAppointments(int patientId) {
+        return copyOf(patientAppointments.valuesBetween(
+                SchedulerAppointmentList.getPersonKey(patientId, Integer.MIN_VALUE),
+                SchedulerAppointmentList.getPersonKey(patientId, Integer.MAX_VALUE)));
+    }
+
+    /**
+     * Returns copies of the appointments of the staff with the specified staffId, in order of their date time.
+     *
+     * @param staffId the id of the staff
+     * @return list of copies of the staff's appointments
+     */
+    public List<Appointment> listStaffAppointments(int staffId) {
+        return copyOf(staffAppointments.valuesBetween(
+                SchedulerAppointmentList.getPersonKey(staffId, Integer.MIN_VALUE),
+                SchedulerAppointmentList.getPersonKey(staffId, Integer.MAX_VALUE)));
+    }
+
+    private static List<Appointment> copyOf(List<Appointment> appointments) {
+        List<Appointment> appointmentCopies = new ArrayList<>(appointments.size());
+        for (Appointment appointment : appointments) {
+            appointmentCopies.add(copyOf(appointment));
+        }
+        return appointmentCopies;
+    }
+
+    private static Appointment copyOf(Appointment appointment) {
+        Appointment appointmentCopy = new Appointment();
+        appointmentCopy.setId(appointment.getId());
+        appointmentCopy.mergeAppointmentData(appointment);
+        return appointmentCopy;
+    }
+}
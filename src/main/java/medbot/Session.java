@@ -0,0 +1,21 @@
+package medbot;
+
+import medbot.utilities.ViewType;
+
+/**
+ * Holds the state of one user's interaction with MedBot, such as the view they are in.
+ *
+ * <p>Each terminal connected to a MedBot server has its own session, so switching views in one terminal does not
+ * affect the others.
+ */
+public class Session {
+    private ViewType viewType = ViewType.PATIENT_INFO;
+
+    public ViewType getViewType() {
+        return viewType;
+    }
+
+    public void setViewType(ViewType viewType) {
+        this.viewType = viewType;
+    }
+}
@@ -0,0 +1,98 @@
+package medbot;
+
+import medbot.list.ListItem;
+
+import static medbot.ui.Ui.END_LINE;
+import static medbot.ui.Ui.VERTICAL_LINE_SPACED;
+
+/**
+ * A patient waiting for an appointment with a staff, at any time from startDateTimeCode to endDateTimeCode.
+ */
+public class WaitlistEntry implements ListItem {
+    private int entryId = 0;
+    private int patientId = 0;
+    private int medicalStaffId = 0;
+    //The earliest and latest start times the patient accepts, inclusive
+    private int startDateTimeCode = 0;
+    private int endDateTimeCode = 0;
+
+    public int getId() {
+        return entryId;
+    }
+
+    public void setId(int entryId) {
+        this.entryId = entryId;
+    }
+
+    public int getPatientId() {
+        return patientId;
+    }
+
+    public void setPatientId(int patientId) {
+        this.patientId = patientId;
+    }
+
+    public int getMedicalStaffId() {
+        return medicalStaffId;
+    }
+
+    public void setMedicalStaffId(int medicalStaffId) {
+        this.medicalStaffId = medicalStaffId;
+    }
+
+    public int getStartDateTimeCode() {
+        return startDateTimeCode;
+    }
+
+    public void setStartDateTimeCode(int startDateTimeCode) {
+        this.startDateTimeCode = startDateTimeCode;
+    }
+
+    public int getEndDateTimeCode() {
+        return endDateTimeCode;
+    }
+
+    public void setEndDateTimeCode(int endDateTimeCode) {
+        this.endDateTimeCode = endDateTimeCode;
+    }
+
+    /**
+     * Returns whether the entry is complete, i.e. contains a patient, a staff and a time window.
+     *
+     * @return whether the entry is complete
+     */
+    public boolean isComplete() {
+        return patientId > 0 && medicalStaffId > 0 && startDateTimeCode > 0 && endDateTimeCode > 0;
+    }
+
+    /**
+     * Returns whether the patient accepts an appointment starting at the specified dateTimeCode.
+     *
+     * @param dateTimeCode the start of the appointment
+     * @return whether dateTimeCode is within the time window of the entry
+     */
+    public boolean accepts(int dateTimeCode) {
+        return startDateTimeCode <= dateTimeCode && dateTimeCode <= endDateTimeCode;
+    }
+
+    public String toString() {
+        return "Waitlist ID: " + entryId + END_LINE
+                + "Patient ID: " + patientId + END_LINE
+                + "Staff ID: " + medicalStaffId + END_LINE
+                + "From: " + Appointment.formatDateTimeCode(startDateTimeCode) + END_LINE
+                + "Until: " + Appointment.formatDateTimeCode(endDateTimeCode) + END_LINE;
+    }
+
+    /**
+     * Text to be written to storage file of the waitlist.
+     *
+     * @return storageString of a waitlist entry
+     */
+    public String getStorageString() {
+        return entryId + VERTICAL_LINE_SPACED
+                + patientId + VERTICAL_LINE_SPACED
+                + medicalStaffId + VERTICAL_LINE_SPACED
+                + Appointment.getDateTimeStorageString(startDateTimeCode) + VERTICAL_LINE_SPACED
+                + Appointment.getDateTimeStorageString(endDateTimeCode);
+    }
+}
@@ -14,6 +14,16 @@ public abstract class Command {
         return false;
     }
 
+    /**
+     * Returns if the command only reads the scheduler, so that it can be executed at the same time as other
+     * commands that only read the scheduler.
+     *
+     * @return boolean value of whether the command only reads the scheduler
+     */
+    public boolean isReadOnly() {
+        return false;
+    }
+
     /**
      * Abstract method that executes the command.
      *
@@ -1,5 +1,6 @@
 package medbot.command;
 
 public enum CommandType {
-    HELP, EXIT, SWITCH, ADD, DELETE, EDIT, VIEW, LIST, FIND, HIDE, SHOW, GET_VIEW
+    HELP, EXIT, SWITCH, ADD, DELETE, EDIT, VIEW, LIST, FIND, HIDE, SHOW, GET_VIEW, BEGIN, COMMIT, ROLLBACK,
+    RESCHEDULE, FREE, REPORT, RESOURCE, WAITLIST, SOLVE, ARCHIVE
 }
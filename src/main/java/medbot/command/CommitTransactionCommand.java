@@ -0,0 +1,14 @@
+package medbot.command;
+
+import medbot.Scheduler;
+import medbot.exceptions.MedBotException;
+import medbot.ui.Ui;
+
+public class CommitTransactionCommand extends Command {
+
+    @Override
+    public void execute(Scheduler scheduler, Ui ui) throws MedBotException {
+        scheduler.commitTransaction();
+        ui.printOutput(Ui.getCommitTransactionMessage());
+    }
+}
@@ -9,6 +9,11 @@ public class ExitCommand extends Command {
         return true;
     }
 
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
     @Override
     public void execute(Scheduler scheduler, Ui ui) {
         String exitMessage = Ui.getExitMessage();
@@ -12,6 +12,11 @@ public class GetCurrentViewCommand extends Command {
         this.viewType = viewType;
     }
 
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
     @Override
     public void execute(Scheduler scheduler, Ui ui) throws MedBotException {
         String viewMessage = Ui.getCurrentViewMessage(viewType);
@@ -21,6 +21,11 @@ public class HelpCommand extends Command {
     }
 
 
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
     @Override
     public void execute(Scheduler scheduler, Ui ui) throws MedBotException {
         String output;
@@ -63,6 +68,36 @@ public class HelpCommand extends Command {
         case GET_VIEW:
             output = ui.getGetCurrentViewHelpMessage();
             break;
+        case BEGIN:
+            output = ui.getBeginHelpMessage();
+            break;
+        case COMMIT:
+            output = ui.getCommitHelpMessage();
+            break;
+        case ROLLBACK:
+            output = ui.getRollbackHelpMessage();
+            break;
+        case RESCHEDULE:
+            output = ui.getRescheduleHelpMessage(viewType);
+            break;
+        case FREE:
+            output = ui.getFreeHelpMessage(viewType);
+            break;
+        case REPORT:
+            output = ui.getReportHelpMessage(viewType);
+            break;
+        case RESOURCE:
+            output = ui.getResourceHelpMessage(viewType);
+            break;
+        case WAITLIST:
+            output = ui.getWaitlistHelpMessage(viewType);
+            break;
+        case SOLVE:
+            output = ui.getSolveHelpMessage(viewType);
+            break;
+        case ARCHIVE:
+            output = ui.getArchiveHelpMessage(viewType);
+            break;
         default:
             output = Ui.getCommandList(viewType);
             break;
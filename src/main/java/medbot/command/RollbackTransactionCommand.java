@@ -0,0 +1,14 @@
+package medbot.command;
+
+import medbot.Scheduler;
+import medbot.exceptions.MedBotException;
+import medbot.ui.Ui;
+
+public class RollbackTransactionCommand extends Command {
+
+    @Override
+    public void execute(Scheduler scheduler, Ui ui) throws MedBotException {
+        scheduler.rollbackTransaction();
+        ui.printOutput(Ui.getRollbackTransactionMessage());
+    }
+}
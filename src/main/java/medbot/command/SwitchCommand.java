@@ -1,26 +1,42 @@
 package medbot.command;
 
-import medbot.parser.Parser;
 import medbot.Scheduler;
+import medbot.Session;
 import medbot.ui.Ui;
 import medbot.utilities.ViewType;
 
 //@@author Kureans
 
 public class SwitchCommand extends Command {
+    private final Session session;
     private ViewType newViewType = null;
     private boolean isChanged = false;
 
-    public SwitchCommand(ViewType viewType, boolean isChanged) {
+    public SwitchCommand(Session session, ViewType viewType, boolean isChanged) {
+        this.session = session;
         newViewType = viewType;
         this.isChanged = isChanged;
     }
 
+    /**
+     * Returns the view that the session is in after this command, whether or not it switches views.
+     *
+     * @return the view type after this command
+     */
+    public ViewType getNewViewType() {
+        return newViewType;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
     @Override
     public void execute(Scheduler scheduler, Ui ui) {
         if (isChanged) {
-            Parser.setViewType(newViewType);
-            Ui.clearConsoleFromIde();
+            session.setViewType(newViewType);
+            ui.clearConsoleFromIde();
             ui.printSwitchedViewMessage(newViewType);
         } else {
             ui.printUnchangedViewMessage(newViewType);
@@ -0,0 +1,23 @@
+package medbot.command.appointmentcommand;
+
+import medbot.Appointment;
+import medbot.Scheduler;
+import medbot.command.Command;
+import medbot.exceptions.MedBotException;
+import medbot.ui.SchedulerUi;
+import medbot.ui.Ui;
+
+public class ArchiveCommand extends Command {
+    private final int cutoffDateTimeCode;
+
+    public ArchiveCommand(int cutoffDateTimeCode) {
+        this.cutoffDateTimeCode = cutoffDateTimeCode;
+    }
+
+    @Override
+    public void execute(Scheduler scheduler, Ui ui) throws MedBotException {
+        int appointmentCount = scheduler.archiveAppointmentsBefore(cutoffDateTimeCode);
+        ui.printOutput(SchedulerUi.getArchiveMessage(appointmentCount,
+                Appointment.formatDateTimeCode(cutoffDateTimeCode)));
+    }
+}
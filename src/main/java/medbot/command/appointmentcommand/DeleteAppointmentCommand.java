@@ -1,11 +1,14 @@
 package medbot.command.appointmentcommand;
 
+import medbot.Appointment;
 import medbot.Scheduler;
 import medbot.ui.SchedulerUi;
 import medbot.ui.Ui;
 import medbot.command.Command;
 import medbot.exceptions.MedBotException;
 
+import java.util.List;
+
 public class DeleteAppointmentCommand extends Command {
     int appointmentId = 0;
 
@@ -15,8 +18,18 @@ public class DeleteAppointmentCommand extends Command {
 
     @Override
     public void execute(Scheduler scheduler, Ui ui) throws MedBotException {
-        scheduler.deleteAppointment(appointmentId);
-        String deleteAppointmentMessage = SchedulerUi.getDeleteAppointmentMessage(appointmentId);
-        ui.printOutput(deleteAppointmentMessage);
+        Appointment deletedAppointment = scheduler.getAppointment(appointmentId);
+        StringBuilder deleteAppointmentMessage = new StringBuilder();
+        //the appointment stays if its slot cannot be filled or the message cannot be built
+        scheduler.runAtomically(() -> {
+            scheduler.deleteAppointment(appointmentId);
+            deleteAppointmentMessage.append(SchedulerUi.getDeleteAppointmentMessage(appointmentId));
+            List<Integer> bookedAppointmentIds = scheduler.fillFromWaitlist(List.of(deletedAppointment));
+            if (!bookedAppointmentIds.isEmpty()) {
+                deleteAppointmentMessage.append(SchedulerUi.getWaitlistBookedMessage(
+                        scheduler.listAppointments(bookedAppointmentIds)));
+            }
+        });
+        ui.printOutput(deleteAppointmentMessage.toString());
     }
 }
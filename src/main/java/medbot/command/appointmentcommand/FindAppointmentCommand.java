@@ -23,6 +23,11 @@ public class FindAppointmentCommand extends Command {
         this.dateTimeCode = dateTimeCode;
     }
 
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
     @Override
     public void execute(Scheduler scheduler, Ui ui) throws MedBotException {
         String output;
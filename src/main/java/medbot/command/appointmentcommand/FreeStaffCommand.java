@@ -0,0 +1,37 @@
+package medbot.command.appointmentcommand;
+
+import medbot.Appointment;
+import medbot.Scheduler;
+import medbot.command.Command;
+import medbot.exceptions.MedBotException;
+import medbot.ui.SchedulerUi;
+import medbot.ui.Ui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class FreeStaffCommand extends Command {
+    private final List<Integer> staffIds;
+    private final int dateTimeCode;
+    private final boolean isFindFirstFreeHour;
+
+    public FreeStaffCommand(List<Integer> staffIds, int dateTimeCode, boolean isFindFirstFreeHour) {
+        this.staffIds = staffIds;
+        this.dateTimeCode = dateTimeCode;
+        this.isFindFirstFreeHour = isFindFirstFreeHour;
+    }
+
+    @Override
+    public void execute(Scheduler scheduler, Ui ui) throws MedBotException {
+        int freeDateTimeCode = dateTimeCode;
+        if (isFindFirstFreeHour) {
+            freeDateTimeCode = scheduler.findFirstFreeHour(staffIds, dateTimeCode);
+        }
+        List<String> freeStaff = new ArrayList<>();
+        for (int staffId : scheduler.getFreeStaff(staffIds, freeDateTimeCode)) {
+            freeStaff.add(staffId + " - " + scheduler.getStaffName(staffId));
+        }
+        String output = SchedulerUi.getFreeStaffMessage(Appointment.formatDateTimeCode(freeDateTimeCode), freeStaff);
+        ui.printOutput(output);
+    }
+}
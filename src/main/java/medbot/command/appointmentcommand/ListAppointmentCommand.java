@@ -8,14 +8,20 @@ import medbot.exceptions.MedBotException;
 
 public class ListAppointmentCommand extends Command {
 
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
     @Override
     public void execute(Scheduler scheduler, Ui ui) throws MedBotException {
-        String output = scheduler.listAllAppointments();
-        if (output.isEmpty()) {
-            output = SchedulerUi.getNoAppointmentsMessage();
-        } else {
-            output = SchedulerUi.getListAppointmentListMessage(output);
+        if (!scheduler.hasAppointments()) {
+            ui.printOutput(SchedulerUi.getNoAppointmentsMessage());
+            return;
         }
-        ui.printOutput(output);
+        //rows are printed as they are generated, without joining the whole table first
+        ui.print(SchedulerUi.getListAppointmentListHeader());
+        scheduler.listAllAppointments(ui::printOutput);
+        ui.printOutput(SchedulerUi.getAppointmentTableFooter());
     }
 }
@@ -0,0 +1,26 @@
+package medbot.command.appointmentcommand;
+
+import medbot.Scheduler;
+import medbot.command.Command;
+import medbot.exceptions.MedBotException;
+import medbot.ui.SchedulerUi;
+import medbot.ui.Ui;
+
+public class ReportCommand extends Command {
+    private final int dateTimeCode;
+
+    public ReportCommand(int dateTimeCode) {
+        this.dateTimeCode = dateTimeCode;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public void execute(Scheduler scheduler, Ui ui) throws MedBotException {
+        String report = scheduler.getUtilisationReport(dateTimeCode);
+        ui.printOutput(SchedulerUi.getReportMessage(Scheduler.getWeekString(dateTimeCode), report));
+    }
+}
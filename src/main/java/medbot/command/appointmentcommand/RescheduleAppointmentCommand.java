@@ -0,0 +1,46 @@
+package medbot.command.appointmentcommand;
+
+import medbot.Appointment;
+import medbot.Scheduler;
+import medbot.command.Command;
+import medbot.exceptions.MedBotException;
+import medbot.ui.SchedulerUi;
+import medbot.ui.Ui;
+
+import java.util.List;
+
+public class RescheduleAppointmentCommand extends Command {
+    private final int staffId;
+    private final int startDateTimeCode;
+    private final int endDateTimeCode;
+    private final int newStaffId;
+    private final int newStartDateTimeCode;
+
+    public RescheduleAppointmentCommand(int staffId, int startDateTimeCode, int endDateTimeCode, int newStaffId,
+            int newStartDateTimeCode) {
+        this.staffId = staffId;
+        this.startDateTimeCode = startDateTimeCode;
+        this.endDateTimeCode = endDateTimeCode;
+        this.newStaffId = newStaffId;
+        this.newStartDateTimeCode = newStartDateTimeCode;
+    }
+
+    @Override
+    public void execute(Scheduler scheduler, Ui ui) throws MedBotException {
+        List<Appointment> originalAppointments = scheduler.getStaffAppointmentsBetween(staffId, startDateTimeCode,
+                endDateTimeCode);
+        StringBuilder output = new StringBuilder();
+        //the appointments are not moved if their slots cannot be filled or the message cannot be built
+        scheduler.runAtomically(() -> {
+            List<Integer> appointmentIds = scheduler.rescheduleStaffAppointments(staffId, startDateTimeCode,
+                    endDateTimeCode, newStaffId, newStartDateTimeCode);
+            output.append(SchedulerUi.getRescheduleAppointmentMessage(appointmentIds.size(),
+                    scheduler.listAppointments(appointmentIds)));
+            List<Integer> bookedAppointmentIds = scheduler.fillFromWaitlist(originalAppointments);
+            if (!bookedAppointmentIds.isEmpty()) {
+                output.append(SchedulerUi.getWaitlistBookedMessage(scheduler.listAppointments(bookedAppointmentIds)));
+            }
+        });
+        ui.printOutput(output.toString());
+    }
+}
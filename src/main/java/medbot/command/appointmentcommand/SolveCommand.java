@@ -0,0 +1,69 @@
+package medbot.command.appointmentcommand;
+
+import medbot.PlacementRequest;
+import medbot.Scheduler;
+import medbot.command.Command;
+import medbot.exceptions.MedBotException;
+import medbot.parser.ParserUtils;
+import medbot.ui.SchedulerUi;
+import medbot.ui.Ui;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SolveCommand extends Command {
+    private static final String ERROR_READ_FILE = "Unable to read %s.";
+    private static final String ERROR_INVALID_LINE = "Line %d: %s";
+    private static final String ERROR_NO_REQUESTS = "There are no requests in %s.";
+
+    private final String filePath;
+
+    public SolveCommand(String filePath) {
+        this.filePath = filePath;
+    }
+
+    @Override
+    public void execute(Scheduler scheduler, Ui ui) throws MedBotException {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(Paths.get(filePath));
+        } catch (IOException | SecurityException e) {
+            throw new MedBotException(String.format(ERROR_READ_FILE, filePath));
+        }
+        List<PlacementRequest> requests = new ArrayList<>();
+        List<Integer> lineNumbers = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (lines.get(i).isBlank()) {
+                continue;
+            }
+            try {
+                requests.add(ParserUtils.parsePlacementRequest(lines.get(i)));
+            } catch (MedBotException mbe) {
+                throw new MedBotException(String.format(ERROR_INVALID_LINE, i + 1, mbe.getMessage()));
+            }
+            lineNumbers.add(i + 1);
+        }
+        if (requests.isEmpty()) {
+            throw new MedBotException(String.format(ERROR_NO_REQUESTS, filePath));
+        }
+
+        long startTime = System.nanoTime();
+        int[] appointmentIds = scheduler.solvePlacements(requests);
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+
+        List<Integer> bookedAppointmentIds = new ArrayList<>();
+        List<Integer> unbookedLineNumbers = new ArrayList<>();
+        for (int i = 0; i < appointmentIds.length; i++) {
+            if (appointmentIds[i] == -1) {
+                unbookedLineNumbers.add(lineNumbers.get(i));
+            } else {
+                bookedAppointmentIds.add(appointmentIds[i]);
+            }
+        }
+        ui.printOutput(SchedulerUi.getSolveMessage(requests.size(), bookedAppointmentIds.size(), elapsedMillis,
+                scheduler.listAppointments(bookedAppointmentIds), unbookedLineNumbers));
+    }
+}
@@ -14,6 +14,11 @@ public class ViewAppointmentCommand extends Command {
 
     }
 
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
     @Override
     public void execute(Scheduler scheduler, Ui ui) throws MedBotException {
         String appointmentInfo = scheduler.getAppointment(appointmentId).toString();
@@ -9,4 +9,9 @@ public abstract class FindPersonCommand extends Command {
     public FindPersonCommand(String[] parameters) {
         this.parameters = parameters;
     }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
 }
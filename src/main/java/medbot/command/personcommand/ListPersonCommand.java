@@ -12,4 +12,9 @@ public abstract class ListPersonCommand extends Command {
     public boolean getHidden() {
         return getHidden;
     }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
 }
@@ -9,4 +9,9 @@ public abstract class ViewPersonCommand extends Command {
     public ViewPersonCommand(int personId) {
         this.personId = personId;
     }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
 }
@@ -14,7 +14,8 @@ public class ListPatientCommand extends ListPersonCommand {
     @Override
     public void execute(Scheduler scheduler, Ui ui) {
         boolean isHidden = getHidden();
-        String allPatientsString = PatientUi.getAllPatientsString(scheduler.listPatients(isHidden), isHidden);
-        ui.printOutput(allPatientsString);
+        ui.print(PatientUi.getAllPatientsHeader(isHidden));
+        scheduler.listPatients(isHidden, ui::printOutput);
+        ui.printOutput(PatientUi.getTableFooter());
     }
 }
@@ -14,7 +14,8 @@ public class ListStaffCommand extends ListPersonCommand {
     @Override
     public void execute(Scheduler scheduler, Ui ui) {
         boolean isHidden = getHidden();
-        String allStaffString = StaffUi.getAllStaffsString(scheduler.listStaff(isHidden), isHidden);
-        ui.printOutput(allStaffString);
+        ui.print(StaffUi.getAllStaffsHeader(isHidden));
+        scheduler.listStaff(isHidden, ui::printOutput);
+        ui.printOutput(StaffUi.getTableFooter());
     }
 }
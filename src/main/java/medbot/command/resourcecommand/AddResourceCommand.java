@@ -0,0 +1,22 @@
+package medbot.command.resourcecommand;
+
+import medbot.Resource;
+import medbot.Scheduler;
+import medbot.command.Command;
+import medbot.exceptions.MedBotException;
+import medbot.ui.SchedulerUi;
+import medbot.ui.Ui;
+
+public class AddResourceCommand extends Command {
+    private final Resource resource;
+
+    public AddResourceCommand(Resource resource) {
+        this.resource = resource;
+    }
+
+    @Override
+    public void execute(Scheduler scheduler, Ui ui) throws MedBotException {
+        scheduler.addResource(resource);
+        ui.printOutput(SchedulerUi.getAddResourceMessage(resource.toString()));
+    }
+}
@@ -0,0 +1,21 @@
+package medbot.command.resourcecommand;
+
+import medbot.Scheduler;
+import medbot.command.Command;
+import medbot.exceptions.MedBotException;
+import medbot.ui.SchedulerUi;
+import medbot.ui.Ui;
+
+public class DeleteResourceCommand extends Command {
+    private final int resourceId;
+
+    public DeleteResourceCommand(int resourceId) {
+        this.resourceId = resourceId;
+    }
+
+    @Override
+    public void execute(Scheduler scheduler, Ui ui) throws MedBotException {
+        scheduler.deleteResource(resourceId);
+        ui.printOutput(SchedulerUi.getDeleteResourceMessage(resourceId));
+    }
+}
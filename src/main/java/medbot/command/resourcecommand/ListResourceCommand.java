@@ -0,0 +1,20 @@
+package medbot.command.resourcecommand;
+
+import medbot.Scheduler;
+import medbot.command.Command;
+import medbot.exceptions.MedBotException;
+import medbot.ui.SchedulerUi;
+import medbot.ui.Ui;
+
+public class ListResourceCommand extends Command {
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public void execute(Scheduler scheduler, Ui ui) throws MedBotException {
+        ui.printOutput(SchedulerUi.getListResourceMessage(scheduler.listResources()));
+    }
+}
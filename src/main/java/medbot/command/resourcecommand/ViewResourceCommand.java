@@ -0,0 +1,27 @@
+package medbot.command.resourcecommand;
+
+import medbot.Scheduler;
+import medbot.command.Command;
+import medbot.exceptions.MedBotException;
+import medbot.ui.SchedulerUi;
+import medbot.ui.Ui;
+
+public class ViewResourceCommand extends Command {
+    private final int resourceId;
+
+    public ViewResourceCommand(int resourceId) {
+        this.resourceId = resourceId;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public void execute(Scheduler scheduler, Ui ui) throws MedBotException {
+        String resourceInfo = scheduler.getResourceInfo(resourceId);
+        String appointmentString = scheduler.listResourceAppointments(resourceId);
+        ui.printOutput(SchedulerUi.getViewResourceMessage(resourceInfo, appointmentString));
+    }
+}
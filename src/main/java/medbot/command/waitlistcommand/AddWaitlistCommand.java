@@ -0,0 +1,22 @@
+package medbot.command.waitlistcommand;
+
+import medbot.Scheduler;
+import medbot.WaitlistEntry;
+import medbot.command.Command;
+import medbot.exceptions.MedBotException;
+import medbot.ui.SchedulerUi;
+import medbot.ui.Ui;
+
+public class AddWaitlistCommand extends Command {
+    private final WaitlistEntry entry;
+
+    public AddWaitlistCommand(WaitlistEntry entry) {
+        this.entry = entry;
+    }
+
+    @Override
+    public void execute(Scheduler scheduler, Ui ui) throws MedBotException {
+        scheduler.addWaitlistEntry(entry);
+        ui.printOutput(SchedulerUi.getAddWaitlistMessage(entry.toString()));
+    }
+}
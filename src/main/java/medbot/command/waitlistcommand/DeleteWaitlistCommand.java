@@ -0,0 +1,21 @@
+package medbot.command.waitlistcommand;
+
+import medbot.Scheduler;
+import medbot.command.Command;
+import medbot.exceptions.MedBotException;
+import medbot.ui.SchedulerUi;
+import medbot.ui.Ui;
+
+public class DeleteWaitlistCommand extends Command {
+    private final int entryId;
+
+    public DeleteWaitlistCommand(int entryId) {
+        this.entryId = entryId;
+    }
+
+    @Override
+    public void execute(Scheduler scheduler, Ui ui) throws MedBotException {
+        scheduler.deleteWaitlistEntry(entryId);
+        ui.printOutput(SchedulerUi.getDeleteWaitlistMessage(entryId));
+    }
+}
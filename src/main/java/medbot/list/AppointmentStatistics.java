@@ -0,0 +1,214 @@
+package medbot.list;
+
+import medbot.Appointment;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Keeps appointment counts per day, per hour and per person, updated as appointments are added and removed, so
+ * that utilisation reports do not need to go through every appointment.
+ *
+ * <p>Days and weeks are in the clinic's local time, and weeks start on Monday. Recurring appointments are not
+ * expanded into counters, but are counted by their recurrence rule when a week is reported on.
+ */
+public class AppointmentStatistics {
+    public static final int DAYS_PER_WEEK = 7;
+    public static final int HOURS_PER_DAY = 24;
+
+    private static final int MINUTES_PER_HOUR = 60;
+    private static final int MINUTES_PER_DAY = HOURS_PER_DAY * MINUTES_PER_HOUR;
+    //dateTimeCodes are in UTC, while the clinic is at UTC+8
+    private static final int LOCAL_OFFSET_MINUTES = 8 * MINUTES_PER_HOUR;
+    //1 January 1970 was a Thursday
+    private static final int EPOCH_DAY_OF_WEEK = 3;
+
+    //Counts of all appointments, indexed by dayOfWeek * HOURS_PER_DAY + hour
+    private final int[] hourOfWeekCounts = new int[DAYS_PER_WEEK * HOURS_PER_DAY];
+    //Counts of each week's appointments, indexed by dayOfWeek
+    private final Map<Integer, int[]> weekDayCounts = new HashMap<>();
+    //Counts of each week's appointments of each person, indexed by dayOfWeek
+    private final Map<Integer, SortedMap<Integer, int[]>> weekStaffDayCounts = new HashMap<>();
+    private final Map<Integer, SortedMap<Integer, int[]>> weekPatientDayCounts = new HashMap<>();
+    private final Map<Integer, Appointment> recurringAppointments = new HashMap<>();
+
+    public void addAppointment(Appointment appointment) {
+        if (appointment.isRecurring()) {
+            recurringAppointments.put(appointment.getId(), appointment);
+            updateRecurringHourOfWeekCounts(appointment, 1);
+            return;
+        }
+        updateCounts(appointment, 1);
+    }
+
+    public void removeAppointment(Appointment appointment) {
+        if (appointment.isRecurring()) {
+            recurringAppointments.remove(appointment.getId());
+            updateRecurringHourOfWeekCounts(appointment, -1);
+            return;
+        }
+        updateCounts(appointment, -1);
+    }
+
+    /**
+     * Updates hourOfWeekCounts with all occurrences of a recurring appointment without expanding them.
+     *
+     * <p>The occurrences keep the same hour, and their day of the week repeats every 7 occurrences.
+     */
+    private void updateRecurringHourOfWeekCounts(Appointment appointment, int change) {
+        int localMinutes = appointment.getDateTimeCode() + LOCAL_OFFSET_MINUTES;
+        int hour = Math.floorMod(localMinutes, MINUTES_PER_DAY) / MINUTES_PER_HOUR;
+        int firstDayOfWeek = getDayOfWeek(appointment.getDateTimeCode());
+        int count = appointment.getRecurrenceCount();
+        int intervalDays = appointment.getRecurrenceIntervalDays();
+        for (int i = 0; i < DAYS_PER_WEEK && i < count; i++) {
+            int dayOfWeek = (firstDayOfWeek + i * intervalDays) % DAYS_PER_WEEK;
+            int occurrences = (count - 1 - i) / DAYS_PER_WEEK + 1;
+            hourOfWeekCounts[dayOfWeek * HOURS_PER_DAY + hour] += change * occurrences;
+        }
+    }
+
+    private void updateCounts(Appointment appointment, int change) {
+        int localMinutes = appointment.getDateTimeCode() + LOCAL_OFFSET_MINUTES;
+        int epochDay = Math.floorDiv(localMinutes, MINUTES_PER_DAY);
+        int hour = Math.floorMod(localMinutes, MINUTES_PER_DAY) / MINUTES_PER_HOUR;
+        int weekIndex = Math.floorDiv(epochDay + EPOCH_DAY_OF_WEEK, DAYS_PER_WEEK);
+        int dayOfWeek = Math.floorMod(epochDay + EPOCH_DAY_OF_WEEK, DAYS_PER_WEEK);
+
+        hourOfWeekCounts[dayOfWeek * HOURS_PER_DAY + hour] += change;
+        updateDayCount(weekDayCounts, weekIndex, dayOfWeek, change);
+        SortedMap<Integer, int[]> staffDayCounts = weekStaffDayCounts.computeIfAbsent(weekIndex,
+                week -> new TreeMap<>());
+        updateDayCount(staffDayCounts, appointment.getMedicalStaffId(), dayOfWeek, change);
+        SortedMap<Integer, int[]> patientDayCounts = weekPatientDayCounts.computeIfAbsent(weekIndex,
+                week -> new TreeMap<>());
+        updateDayCount(patientDayCounts, appointment.getPatientId(), dayOfWeek, change);
+    }
+
+    private static void updateDayCount(Map<Integer, int[]> dayCounts, int key, int dayOfWeek, int change) {
+        int[] counts = dayCounts.computeIfAbsent(key, k -> new int[DAYS_PER_WEEK]);
+        counts[dayOfWeek] += change;
+        assert counts[dayOfWeek] >= 0;
+        if (sum(counts) == 0) {
+            dayCounts.remove(key);
+        }
+    }
+
+    /**
+     * Returns the index of the week containing the specified dateTimeCode.
+     *
+     * @param dateTimeCode the dateTimeCode of a time within the week
+     * @return the index of the week
+     */
+    public static int getWeekIndex(int dateTimeCode) {
+        int epochDay = Math.floorDiv(dateTimeCode + LOCAL_OFFSET_MINUTES, MINUTES_PER_DAY);
+        return Math.floorDiv(epochDay + EPOCH_DAY_OF_WEEK, DAYS_PER_WEEK);
+    }
+
+    private static int getDayOfWeek(int dateTimeCode) {
+        int epochDay = Math.floorDiv(dateTimeCode + LOCAL_OFFSET_MINUTES, MINUTES_PER_DAY);
+        return Math.floorMod(epochDay + EPOCH_DAY_OF_WEEK, DAYS_PER_WEEK);
+    }
+
+    /**
+     * Returns the dateTimeCode of the start of the specified day of the specified week.
+     *
+     * @param weekIndex the index of the week
+     * @param dayOfWeek the day of the week, starting from 0 for Monday
+     * @return the dateTimeCode of midnight of that day
+     */
+    public static int getDayStartDateTimeCode(int weekIndex, int dayOfWeek) {
+        int epochDay = weekIndex * DAYS_PER_WEEK - EPOCH_DAY_OF_WEEK + dayOfWeek;
+        return epochDay * MINUTES_PER_DAY - LOCAL_OFFSET_MINUTES;
+    }
+
+    /**
+     * Returns the number of appointments on each day of the specified week.
+     *
+     * @param weekIndex the index of the week
+     * @return array of the number of appointments, indexed by day of the week starting from Monday
+     */
+    public int[] getDayCounts(int weekIndex) {
+        int[] counts = weekDayCounts.get(weekIndex);
+        counts = counts == null ? new int[DAYS_PER_WEEK] : counts.clone();
+        for (Appointment recurringAppointment : recurringAppointments.values()) {
+            addRecurringDayCounts(counts, recurringAppointment, weekIndex);
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the number of appointments of each staff with appointments in the specified week, on each day of
+     * that week.
+     *
+     * @param weekIndex the index of the week
+     * @return map of staff ids in ascending order to their number of appointments on each day of the week
+     */
+    public SortedMap<Integer, int[]> getStaffDayCounts(int weekIndex) {
+        SortedMap<Integer, int[]> staffDayCounts = copyOf(weekStaffDayCounts.get(weekIndex));
+        for (Appointment recurringAppointment : recurringAppointments.values()) {
+            int[] counts = staffDayCounts.computeIfAbsent(recurringAppointment.getMedicalStaffId(),
+                    id -> new int[DAYS_PER_WEEK]);
+            addRecurringDayCounts(counts, recurringAppointment, weekIndex);
+        }
+        staffDayCounts.values().removeIf(counts -> sum(counts) == 0);
+        return staffDayCounts;
+    }
+
+    /**
+     * Returns the number of appointments of each patient with appointments in the specified week, on each day of
+     * that week.
+     *
+     * @param weekIndex the index of the week
+     * @return map of patient ids in ascending order to their number of appointments on each day of the week
+     */
+    public SortedMap<Integer, int[]> getPatientDayCounts(int weekIndex) {
+        SortedMap<Integer, int[]> patientDayCounts = copyOf(weekPatientDayCounts.get(weekIndex));
+        for (Appointment recurringAppointment : recurringAppointments.values()) {
+            int[] counts = patientDayCounts.computeIfAbsent(recurringAppointment.getPatientId(),
+                    id -> new int[DAYS_PER_WEEK]);
+            addRecurringDayCounts(counts, recurringAppointment, weekIndex);
+        }
+        patientDayCounts.values().removeIf(counts -> sum(counts) == 0);
+        return patientDayCounts;
+    }
+
+    /**
+     * Returns the number of appointments at each hour of each day of the week, over all weeks.
+     *
+     * @return array of the number of appointments, indexed by dayOfWeek * HOURS_PER_DAY + hour
+     */
+    public int[] getHourOfWeekCounts() {
+        return hourOfWeekCounts.clone();
+    }
+
+    private static void addRecurringDayCounts(int[] counts, Appointment recurringAppointment, int weekIndex) {
+        int weekStartDateTimeCode = getDayStartDateTimeCode(weekIndex, 0);
+        int weekEndDateTimeCode = getDayStartDateTimeCode(weekIndex + 1, 0) - 1;
+        for (int occurrence : recurringAppointment.listOccurrencesBetween(weekStartDateTimeCode,
+                weekEndDateTimeCode)) {
+            counts[getDayOfWeek(occurrence)]++;
+        }
+    }
+
+    private static SortedMap<Integer, int[]> copyOf(SortedMap<Integer, int[]> dayCounts) {
+        if (dayCounts == null) {
+            return new TreeMap<>();
+        }
+        SortedMap<Integer, int[]> copy = new TreeMap<>();
+        for (Map.Entry<Integer, int[]> entry : dayCounts.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue().clone());
+        }
+        return copy;
+    }
+
+    public static int sum(int[] counts) {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,152 @@
+package medbot.list;
+
+import medbot.Appointment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact store of the appointments of all persons in a PersonList, sorted by person and then by date time, so
+ * that the appointments of one person can be found with a binary search.
+ *
+ * <p>Appointments are kept in two parallel arrays instead of a tree per person. Appointments added since the
+ * last query are kept unsorted at the end of the arrays, so that loading many appointments only sorts them once.
+ */
+class AppointmentStore {
+    private static final int INITIAL_CAPACITY = 16;
+
+    //Each key holds the personId in its upper 32 bits and the dateTimeCode, shifted to be unsigned, in its lower
+    //32 bits, so that comparing keys compares by person and then by date time
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private Appointment[] appointments = new Appointment[INITIAL_CAPACITY];
+    private int size = 0;
+    //Entries from sortedSize onwards were added since the last sort
+    private int sortedSize = 0;
+
+    /**
+     * Adds the given appointment as an appointment of the person with the specified personId.
+     *
+     * @param personId    the id of the person
+     * @param appointment the appointment to be added
+     */
+    void add(int personId, Appointment appointment) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            appointments = Arrays.copyOf(appointments, size * 2);
+        }
+        long key = toKey(personId, appointment.getDateTimeCode());
+        keys[size] = key;
+        appointments[size] = appointment;
+        //Appointments added in order do not need to be sorted later
+        if (sortedSize == size && (size == 0 || keys[size - 1] <= key)) {
+            sortedSize++;
+        }
+        size++;
+    }
+
+    /**
+     * Removes the appointment of the person with the specified personId at the specified dateTimeCode.
+     *
+     * @param personId     the id of the person
+     * @param dateTimeCode the dateTimeCode of the appointment to be removed
+     * @return true if there was such an appointment
+     */
+    boolean remove(int personId, int dateTimeCode) {
+        sort();
+        long key = toKey(personId, dateTimeCode);
+        int index = findFirstIndexFrom(key);
+        if (index == size || keys[index] != key) {
+            return false;
+        }
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(appointments, index + 1, appointments, index, size - index - 1);
+        size--;
+        sortedSize--;
+        appointments[size] = null;
+        return true;
+    }
+
+    /**
+     * Returns the appointments of the person with the specified personId, in order of their date time.
+     *
+     * @param personId the id of the person
+     * @return list of the person's appointments
+     */
+    List<Appointment> getAppointments(int personId) {
+        sort();
+        int startIndex = findFirstIndexFrom(toKey(personId, Integer.MIN_VALUE));
+        int endIndex = findFirstIndexFrom(toKey(personId + 1, Integer.MIN_VALUE));
+        return new ArrayList<>(Arrays.asList(appointments).subList(startIndex, endIndex));
+    }
+
+    /**
+     * Sorts the entries added since the last sort and merges them into the sorted entries.
+     */
+    private void sort() {
+        if (sortedSize == size) {
+            return;
+        }
+        int[] addedIndexes = new int[size - sortedSize];
+        for (int i = 0; i < addedIndexes.length; i++) {
+            addedIndexes[i] = sortedSize + i;
+        }
+        sortIndexesByKey(addedIndexes);
+
+        long[] mergedKeys = new long[keys.length];
+        Appointment[] mergedAppointments = new Appointment[appointments.length];
+        int sortedIndex = 0;
+        int addedIndex = 0;
+        for (int i = 0; i < size; i++) {
+            boolean isFromSorted = addedIndex == addedIndexes.length
+                    || (sortedIndex < sortedSize && keys[sortedIndex] <= keys[addedIndexes[addedIndex]]);
+            int index = isFromSorted ? sortedIndex++ : addedIndexes[addedIndex++];
+            mergedKeys[i] = keys[index];
+            mergedAppointments[i] = appointments[index];
+        }
+        keys = mergedKeys;
+        appointments = mergedAppointments;
+        sortedSize = size;
+    }
+
+    /**
+     * Sorts the given indexes by the keys at those indexes, using a bottom-up merge sort on primitive arrays.
+     */
+    private void sortIndexesByKey(int[] indexes) {
+        int[] buffer = new int[indexes.length];
+        for (int width = 1; width < indexes.length; width *= 2) {
+            for (int start = 0; start < indexes.length; start += 2 * width) {
+                int middle = Math.min(start + width, indexes.length);
+                int end = Math.min(start + 2 * width, indexes.length);
+                int left = start;
+                int right = middle;
+                for (int i = start; i < end; i++) {
+                    boolean isFromLeft = right == end || (left < middle && keys[indexes[left]] <= keys[indexes[right]]);
+                    buffer[i] = isFromLeft ? indexes[left++] : indexes[right++];
+                }
+            }
+            System.arraycopy(buffer, 0, indexes, 0, indexes.length);
+        }
+    }
+
+    /**
+     * Returns the index of the first entry with a key that is not smaller than the given key.
+     */
+    private int findFirstIndexFrom(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    static long toKey(int personId, int dateTimeCode) {
+        return ((long) personId << Integer.SIZE) | Integer.toUnsignedLong(dateTimeCode ^ Integer.MIN_VALUE);
+    }
+}
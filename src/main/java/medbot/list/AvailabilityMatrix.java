@@ -0,0 +1,237 @@
+package medbot.list;
+
+import medbot.Appointment;
+import medbot.exceptions.MedBotException;
+import medbot.utilities.Pair;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps a bitset of the booked hours of each staff over a rolling horizon, so that availability queries across
+ * many staff can be answered with bitwise operations on 64 hours at a time. An hour is booked if any appointment
+ * of the staff takes place during part of it.
+ *
+ * <p>Bookings outside the horizon are not kept. When a query falls outside the horizon, the horizon is moved and
+ * rebuilt from the staff's personal appointment lists.
+ */
+public class AvailabilityMatrix {
+    private static final int MINUTES_PER_HOUR = 60;
+    private static final int HOURS_PER_DAY = 24;
+    private static final int HOURS_PER_WORD = Long.SIZE;
+    //16 weeks
+    private static final int HORIZON_WORDS = 42;
+    private static final int HORIZON_HOURS = HORIZON_WORDS * HOURS_PER_WORD;
+
+    private final MedicalStaffList medicalStaffList;
+    //Staff without an entry have no bookings within the horizon
+    private final Map<Integer, long[]> bookedHours = new HashMap<>();
+    private int horizonStartHour;
+
+    public AvailabilityMatrix(MedicalStaffList medicalStaffList) {
+        this.medicalStaffList = medicalStaffList;
+        int currentHour = (int) (System.currentTimeMillis() / 1000 / 60 / MINUTES_PER_HOUR);
+        horizonStartHour = getStartOfDay(currentHour);
+    }
+
+    /**
+     * Marks the hours of the occurrences of the specified appointment within the horizon as booked for its staff.
+     *
+     * @param appointment the booked appointment
+     */
+    public void book(Appointment appointment) {
+        for (int dateTimeCode : listOccurrencesInHorizon(appointment)) {
+            bookHours(appointment.getMedicalStaffId(), dateTimeCode, dateTimeCode + appointment.getDurationMinutes());
+        }
+    }
+
+    /**
+     * Marks the hours of the occurrences of the specified appointment within the horizon as free for its staff.
+     *
+     * <p>An hour that the appointment only takes up part of may be shared with another appointment of the staff,
+     * so the staff's appointments during such hours are booked again.
+     *
+     * @param appointment the removed appointment
+     * @throws MedBotException if the staff of the appointment does not exist
+     */
+    public void unbook(Appointment appointment) throws MedBotException {
+        int staffId = appointment.getMedicalStaffId();
+        int durationMinutes = appointment.getDurationMinutes();
+        boolean isWholeHours = durationMinutes % MINUTES_PER_HOUR == 0
+                && Math.floorMod(appointment.getDateTimeCode(), MINUTES_PER_HOUR) == 0;
+        for (int dateTimeCode : listOccurrencesInHorizon(appointment)) {
+            int startHour = toHour(dateTimeCode);
+            int endHour = toHour(dateTimeCode + durationMinutes - 1) + 1;
+            unbookHours(staffId, startHour, endHour);
+            if (!isWholeHours) {
+                bookAll(staffId, startHour * MINUTES_PER_HOUR, endHour * MINUTES_PER_HOUR - 1);
+            }
+        }
+    }
+
+    private List<Integer> listOccurrencesInHorizon(Appointment appointment) {
+        return appointment.listOccurrencesBetween(
+                horizonStartHour * MINUTES_PER_HOUR - appointment.getDurationMinutes() + 1,
+                (horizonStartHour + HORIZON_HOURS) * MINUTES_PER_HOUR - 1);
+    }
+
+    /**
+     * Marks the hours from startDateTimeCode to endDateTimeCode, exclusive, as booked for the specified staff.
+     *
+     * @param staffId           the id of the staff
+     * @param startDateTimeCode the start of the booking
+     * @param endDateTimeCode   the end of the booking, exclusive
+     */
+    private void bookHours(int staffId, int startDateTimeCode, int endDateTimeCode) {
+        long[] row = bookedHours.computeIfAbsent(staffId, id -> new long[HORIZON_WORDS]);
+        for (int hour = toHour(startDateTimeCode); hour <= toHour(endDateTimeCode - 1); hour++) {
+            int offset = hour - horizonStartHour;
+            if (isInHorizon(offset)) {
+                row[offset / HOURS_PER_WORD] |= 1L << (offset % HOURS_PER_WORD);
+            }
+        }
+    }
+
+    /**
+     * Marks the hours from startHour to endHour, exclusive, as free for the specified staff.
+     *
+     * @param staffId   the id of the staff
+     * @param startHour the first hour to mark
+     * @param endHour   the hour after the last hour to mark
+     */
+    private void unbookHours(int staffId, int startHour, int endHour) {
+        long[] row = bookedHours.get(staffId);
+        if (row == null) {
+            return;
+        }
+        for (int hour = startHour; hour < endHour; hour++) {
+            int offset = hour - horizonStartHour;
+            if (isInHorizon(offset)) {
+                row[offset / HOURS_PER_WORD] &= ~(1L << (offset % HOURS_PER_WORD));
+            }
+        }
+    }
+
+    /**
+     * Books the hours of all appointments of the specified staff between the two date times indicated, inclusive.
+     */
+    private void bookAll(int staffId, int startDateTimeCode, int endDateTimeCode) throws MedBotException {
+        List<Pair<Integer, Integer>> occurrences = medicalStaffList.listAppointmentOccurrencesBetween(staffId,
+                startDateTimeCode, endDateTimeCode);
+        for (Pair<Integer, Integer> occurrence : occurrences) {
+            bookHours(staffId, occurrence.first, occurrence.second);
+        }
+    }
+
+    /**
+     * Removes all bookings of the specified staff.
+     *
+     * @param staffId the id of the staff
+     */
+    public void removeStaff(int staffId) {
+        bookedHours.remove(staffId);
+    }
+
+    /**
+     * Returns the ids of the staff among staffIds that are free at the hour of the specified dateTimeCode.
+     *
+     * @param staffIds     the ids of the staff to check
+     * @param dateTimeCode the date time to check
+     * @return list of the ids of the free staff, in the order of staffIds
+     * @throws MedBotException if the horizon cannot be rebuilt
+     */
+    public List<Integer> getFreeStaff(List<Integer> staffIds, int dateTimeCode) throws MedBotException {
+        int offset = moveHorizonToInclude(toHour(dateTimeCode));
+        int wordIndex = offset / HOURS_PER_WORD;
+        long hourMask = 1L << (offset % HOURS_PER_WORD);
+        List<Integer> freeStaffIds = new ArrayList<>();
+        for (int staffId : staffIds) {
+            long[] row = bookedHours.get(staffId);
+            if (row == null || (row[wordIndex] & hourMask) == 0) {
+                freeStaffIds.add(staffId);
+            }
+        }
+        return freeStaffIds;
+    }
+
+    /**
+     * Returns the dateTimeCode of the first hour at or after fromDateTimeCode when at least one of the staff in
+     * staffIds is free.
+     *
+     * <p>The booked hours of all the staff are combined 64 hours at a time, so the search does not depend on
+     * the number of appointments.
+     *
+     * @param staffIds         the ids of the staff to check
+     * @param fromDateTimeCode the earliest date time to consider
+     * @param maxHours         the number of hours to search before giving up
+     * @return the dateTimeCode of the first such hour, or -1 if there is none within maxHours
+     * @throws MedBotException if the horizon cannot be rebuilt
+     */
+    public int findFirstFreeDateTimeCode(List<Integer> staffIds, int fromDateTimeCode, int maxHours)
+            throws MedBotException {
+        int hour = toHour(fromDateTimeCode);
+        int endHour = hour + maxHours;
+        while (hour < endHour) {
+            int offset = moveHorizonToInclude(hour);
+            List<long[]> rows = new ArrayList<>();
+            for (int staffId : staffIds) {
+                long[] row = bookedHours.get(staffId);
+                if (row == null) {
+                    //This staff has no bookings within the horizon
+                    return hour * MINUTES_PER_HOUR;
+                }
+                rows.add(row);
+            }
+            for (int wordIndex = offset / HOURS_PER_WORD; wordIndex < HORIZON_WORDS; wordIndex++) {
+                long allBooked = -1L;
+                for (long[] row : rows) {
+                    allBooked &= row[wordIndex];
+                }
+                long anyFree = ~allBooked;
+                if (wordIndex == offset / HOURS_PER_WORD) {
+                    anyFree &= -1L << (offset % HOURS_PER_WORD);
+                }
+                if (anyFree != 0) {
+                    int freeHour = horizonStartHour + wordIndex * HOURS_PER_WORD + Long.numberOfTrailingZeros(anyFree);
+                    return freeHour < endHour ? freeHour * MINUTES_PER_HOUR : -1;
+                }
+            }
+            hour = horizonStartHour + HORIZON_HOURS;
+        }
+        return -1;
+    }
+
+    /**
+     * Moves the horizon if it does not include the specified hour and returns the offset of the hour within it.
+     */
+    private int moveHorizonToInclude(int hour) throws MedBotException {
+        if (!isInHorizon(hour - horizonStartHour)) {
+            moveHorizon(getStartOfDay(hour));
+        }
+        return hour - horizonStartHour;
+    }
+
+    private void moveHorizon(int newHorizonStartHour) throws MedBotException {
+        horizonStartHour = newHorizonStartHour;
+        bookedHours.clear();
+        int startDateTimeCode = horizonStartHour * MINUTES_PER_HOUR;
+        int endDateTimeCode = (horizonStartHour + HORIZON_HOURS) * MINUTES_PER_HOUR - 1;
+        for (int staffId : medicalStaffList.listPersonIds(true)) {
+            bookAll(staffId, startDateTimeCode, endDateTimeCode);
+        }
+    }
+
+    private boolean isInHorizon(int offset) {
+        return offset >= 0 && offset < HORIZON_HOURS;
+    }
+
+    private static int toHour(int dateTimeCode) {
+        return Math.floorDiv(dateTimeCode, MINUTES_PER_HOUR);
+    }
+
+    private static int getStartOfDay(int hour) {
+        return hour - Math.floorMod(hour, HOURS_PER_DAY);
+    }
+}
@@ -1,5 +1,5 @@
 package medbot.list;
 
 public enum ListItemType {
-    STAFF, PATIENT, APPOINTMENT
+    STAFF, PATIENT, APPOINTMENT, RESOURCE, WAITLIST
 }
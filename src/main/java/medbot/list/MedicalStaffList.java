@@ -1,10 +1,17 @@
 package medbot.list;
 
+import medbot.person.Staff;
+
 import static medbot.ui.Ui.END_LINE;
 
 //@@author jushg
 public class MedicalStaffList extends PersonList {
 
+    @Override
+    protected Staff createPerson() {
+        return new Staff();
+    }
+
     @Override
     protected String getPersonNotFoundErrorMessage(int staffId) {
         return "No staff with ID " + staffId + " found." + END_LINE;
@@ -1,9 +1,16 @@
 package medbot.list;
 
+import medbot.person.Patient;
+
 import static medbot.ui.Ui.END_LINE;
 
 public class PatientList extends PersonList {
 
+    @Override
+    protected Patient createPerson() {
+        return new Patient();
+    }
+
     @Override
     protected String getPersonNotFoundErrorMessage(int patientId) {
         return "No patient with ID " + patientId + " found." + END_LINE;
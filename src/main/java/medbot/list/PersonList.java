@@ -4,12 +4,16 @@ import medbot.Appointment;
 import medbot.exceptions.MedBotException;
 import medbot.person.Person;
 import medbot.utilities.FilterType;
+import medbot.utilities.Pair;
+import medbot.utilities.PersistentSortedMap;
 
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.function.Consumer;
 
 import static medbot.ui.Ui.END_LINE;
 
@@ -19,6 +23,25 @@ public abstract class PersonList {
     //Sorted to ensure that persons will always be printed in ascending order of ID when storage is manipulated
     private final SortedMap<Integer, Person> persons = new TreeMap<>();
     private int lastId = 1;
+    //Copies of the persons, replaced whenever a person changes, so that old versions can be read by other threads
+    private PersistentSortedMap<Person> personSnapshots = PersistentSortedMap.empty();
+    private long storageGeneration = 0;
+    //Only set when appointment lists are built lazily, in which case it holds the appointments of all persons
+    private PersonalAppointmentCache appointmentCache = null;
+
+    /**
+     * Makes the appointment lists of persons in this list only be built when they are needed, and dropped when
+     * they have not been used recently. Must be called before any appointment is added.
+     *
+     * @param cacheCapacity the number of persons whose appointment lists are kept
+     */
+    public void useLazyAppointmentLists(int cacheCapacity) {
+        appointmentCache = new PersonalAppointmentCache(cacheCapacity);
+    }
+
+    public boolean hasLazyAppointmentLists() {
+        return appointmentCache != null;
+    }
 
     /**
      * Adds the given person into the person list, allocates an id to the person and returns the id value.
@@ -36,6 +59,7 @@ public abstract class PersonList {
             person.setId(personId);
         }
         persons.put(personId, person);
+        updateSnapshot(personId);
         return personId;
     }
 
@@ -76,6 +100,19 @@ public abstract class PersonList {
         return persons.get(personId).getName();
     }
 
+    /**
+     * Returns the name of the person with the specified personId, padded or truncated to the width of the name
+     * column of a table.
+     *
+     * @param personId the id of the person to search for
+     * @return the person's name in the width of a name column
+     * @throws MedBotException if there is no person with that id
+     */
+    public String getPersonNameInTableFormat(int personId) throws MedBotException {
+        checkPersonExists(personId);
+        return persons.get(personId).getNameInTableFormat();
+    }
+
     public boolean getPersonIsHidden(int personId) {
         return persons.get(personId).isHidden();
     }
@@ -91,6 +128,7 @@ public abstract class PersonList {
         checkPersonExists(personId);
         assert (personId > 0);
         mergeEditPersonData(persons.get(personId), newPersonData);
+        updateSnapshot(personId);
     }
 
     /**
@@ -118,16 +156,63 @@ public abstract class PersonList {
         }
     }
 
+    /**
+     * Returns a copy of the personal information of the person with the specified personId.
+     *
+     * <p>The copy does not contain the id, hidden status or appointments of the person.
+     *
+     * @param personId the id of the person whose information will be copied
+     * @return a Person containing a copy of the personal information
+     * @throws MedBotException if there is no person with that id
+     */
+    public Person getPersonalInformationCopy(int personId) throws MedBotException {
+        checkPersonExists(personId);
+        Person person = persons.get(personId);
+        Person personCopy = createPerson();
+        personCopy.setIcNumber(person.getIcNumber());
+        personCopy.setName(person.getName());
+        personCopy.setPhoneNumber(person.getPhoneNumber());
+        personCopy.setEmailAddress(person.getEmailAddress());
+        personCopy.setResidentialAddress(person.getResidentialAddress());
+        return personCopy;
+    }
+
+    /**
+     * Overwrites all personal information of the person with the specified personId with that of oldPersonData.
+     *
+     * <p>Used to undo an edit, so the IC number is not checked for duplicates.
+     *
+     * @param personId      the id of the person whose information will be restored
+     * @param oldPersonData Person containing the personal information to be restored
+     * @throws MedBotException if there is no person with that id
+     */
+    public void restorePersonalInformation(int personId, Person oldPersonData) throws MedBotException {
+        checkPersonExists(personId);
+        Person person = persons.get(personId);
+        person.setIcNumber(oldPersonData.getIcNumber());
+        person.setName(oldPersonData.getName());
+        person.setPhoneNumber(oldPersonData.getPhoneNumber());
+        person.setEmailAddress(oldPersonData.getEmailAddress());
+        person.setResidentialAddress(oldPersonData.getResidentialAddress());
+        updateSnapshot(personId);
+    }
+
     /**
      * Deletes the specified Person.
      *
      * @param personId The Person to delete.
+     * @return the Person that was deleted
      * @throws MedBotException when the Person ID cannot be found.
      */
-    public void deletePerson(int personId) throws MedBotException {
+    public Person deletePerson(int personId) throws MedBotException {
         checkPersonExists(personId);
         assert (personId > 0);
-        persons.remove(personId);
+        if (appointmentCache != null) {
+            appointmentCache.unload(personId);
+        }
+        personSnapshots = personSnapshots.remove(personId);
+        storageGeneration++;
+        return persons.remove(personId);
     }
 
     /**
@@ -155,17 +240,39 @@ public abstract class PersonList {
      * @return String that contains information of all hidden or not-hidden persons
      */
     public String listPersons(boolean getHiddenPersons) {
-        String output = "";
-
-        for (int key : persons.keySet()) {
-            boolean isPersonHidden = persons.get(key).isHidden();
+        StringBuilder output = new StringBuilder();
+        listPersons(getHiddenPersons, row -> output.append(row).append(END_LINE));
+        return output.toString();
+    }
 
-            if (isPersonHidden == getHiddenPersons) {
-                output += persons.get(key).getInfoInTableFormat() + END_LINE;
+    /**
+     * Passes the table row of each hidden or not-hidden person, in order of their ids, to the row printer.
+     *
+     * @param getHiddenPersons The boolean to indicate whether to list hidden or not-hidden persons.
+     * @param rowPrinter       receives each table row, without a line separator
+     */
+    public void listPersons(boolean getHiddenPersons, Consumer<String> rowPrinter) {
+        for (Person person : persons.values()) {
+            if (person.isHidden() == getHiddenPersons) {
+                rowPrinter.accept(person.getInfoInTableFormat());
             }
         }
+    }
 
-        return output;
+    /**
+     * Returns the ids of all persons in ascending order.
+     *
+     * @param includeHiddenPersons whether the ids of hidden persons should be included
+     * @return list of the ids of the persons
+     */
+    public List<Integer> listPersonIds(boolean includeHiddenPersons) {
+        List<Integer> personIds = new ArrayList<>();
+        for (int key : persons.keySet()) {
+            if (includeHiddenPersons || !persons.get(key).isHidden()) {
+                personIds.add(key);
+            }
+        }
+        return personIds;
     }
 
     /**
@@ -182,6 +289,7 @@ public abstract class PersonList {
             throw new MedBotException(getAlreadyHiddenErrorMessage(personId));
         }
         persons.get(personId).hide();
+        updateSnapshot(personId);
     }
 
     /**
@@ -198,6 +306,7 @@ public abstract class PersonList {
             throw new MedBotException(getAlreadyShownErrorMessage(personId));
         }
         persons.get(personId).show();
+        updateSnapshot(personId);
     }
 
     /**
@@ -210,8 +319,7 @@ public abstract class PersonList {
      * @throws MedBotException if there is no person with the specified personId
      */
     public int getAppointmentId(int personId, int dateTimeCode) throws MedBotException {
-        checkPersonExists(personId);
-        return persons.get(personId).getAppointmentId(dateTimeCode);
+        return getPersonWithAppointments(personId).getAppointmentId(dateTimeCode);
     }
 
     /**
@@ -222,8 +330,7 @@ public abstract class PersonList {
      * @throws MedBotException if there is no person with the specified personId
      */
     public LinkedList<Integer> getAllAppointmentIds(int personId) throws MedBotException {
-        checkPersonExists(personId);
-        return persons.get(personId).getAllAppointmentIds();
+        return getPersonWithAppointments(personId).getAllAppointmentIds();
     }
 
     /**
@@ -235,6 +342,10 @@ public abstract class PersonList {
      */
     public void addAppointment(int personId, Appointment appointment) throws MedBotException {
         checkPersonExists(personId);
+        if (appointmentCache != null) {
+            appointmentCache.addAppointment(persons.get(personId), appointment);
+            return;
+        }
         persons.get(personId).addAppointment(appointment);
     }
 
@@ -248,6 +359,10 @@ public abstract class PersonList {
      */
     public void deleteAppointment(int personId, int dateTimeCode) throws MedBotException {
         checkPersonExists(personId);
+        if (appointmentCache != null) {
+            appointmentCache.deleteAppointment(persons.get(personId), dateTimeCode);
+            return;
+        }
         persons.get(personId).deleteAppointment(dateTimeCode);
     }
 
@@ -260,8 +375,113 @@ public abstract class PersonList {
      */
     public List<Integer> listAppointments(int personId, FilterType filterType, int dateTimeCode)
             throws MedBotException {
+        return getPersonWithAppointments(personId).listAppointments(filterType, dateTimeCode);
+    }
+
+    /**
+     * Returns the appointmentIds of the appointments of the person with the specified personId between the two
+     * date times indicated, inclusive.
+     *
+     * @param personId          the id of the person whose appointments will be listed
+     * @param startDateTimeCode the earliest date time of the appointments to look for
+     * @param endDateTimeCode   the latest date time of the appointments to look for
+     * @return list of the appointmentIds of the appointments between the two date times
+     * @throws MedBotException if there is no person with the specified personId
+     */
+    public List<Integer> listAppointmentsBetween(int personId, int startDateTimeCode, int endDateTimeCode)
+            throws MedBotException {
+        return getPersonWithAppointments(personId).listAppointmentsBetween(startDateTimeCode, endDateTimeCode);
+    }
+
+    /**
+     * Returns the start and end of the occurrences of appointments of the person with the specified personId
+     * between the two date times indicated, inclusive.
+     *
+     * @param personId          the id of the person whose appointments will be listed
+     * @param startDateTimeCode the earliest date time to look for
+     * @param endDateTimeCode   the latest date time to look for
+     * @return list of (start, end) dateTimeCode pairs of the occurrences, ordered by start
+     * @throws MedBotException if there is no person with the specified personId
+     */
+    public List<Pair<Integer, Integer>> listAppointmentOccurrencesBetween(int personId, int startDateTimeCode,
+            int endDateTimeCode) throws MedBotException {
+        return getPersonWithAppointments(personId).listAppointmentOccurrencesBetween(startDateTimeCode,
+                endDateTimeCode);
+    }
+
+    /**
+     * For the person with the specified personId, returns the appointmentId of an appointment that clashes with the
+     * given appointment, or -1 if there is none.
+     *
+     * @param personId              the id of the person whose appointments will be checked
+     * @param appointment           the appointment to check
+     * @param ignoredAppointmentIds ids of appointments that should not be treated as clashes
+     * @return the appointmentId of a clashing appointment
+     * @throws MedBotException if there is no person with the specified personId
+     */
+    public int getClashingAppointmentId(int personId, Appointment appointment, Set<Integer> ignoredAppointmentIds)
+            throws MedBotException {
+        return getPersonWithAppointments(personId).getClashingAppointmentId(appointment, ignoredAppointmentIds);
+    }
+
+    /**
+     * For the person with the specified personId, returns the clashes between the given appointments and the
+     * person's appointments.
+     *
+     * @param personId              the id of the person whose appointments will be checked
+     * @param appointments          the appointments to check, which are not recurring, sorted by dateTimeCode
+     * @param ignoredAppointmentIds ids of appointments that should not be treated as clashes
+     * @return list of (appointmentId of the given appointment, appointmentId of the clashing appointment) pairs
+     * @throws MedBotException if there is no person with the specified personId
+     */
+    public List<Pair<Integer, Integer>> findAppointmentClashes(int personId, List<Appointment> appointments,
+            Set<Integer> ignoredAppointmentIds) throws MedBotException {
+        return getPersonWithAppointments(personId).findAppointmentClashes(appointments, ignoredAppointmentIds);
+    }
+
+    /**
+     * Returns a map of person ids to read-only copies of the persons, which is not affected by later changes.
+     *
+     * @return map of person ids to copies of the persons
+     */
+    public PersistentSortedMap<Person> getSnapshot() {
+        return personSnapshots;
+    }
+
+    /**
+     * Replaces the copy of the person with the specified personId in the snapshot of this list.
+     */
+    private void updateSnapshot(int personId) {
+        Person person = persons.get(personId);
+        Person personCopy = createPerson();
+        personCopy.setId(personId);
+        personCopy.setIcNumber(person.getIcNumber());
+        personCopy.setName(person.getName());
+        personCopy.setPhoneNumber(person.getPhoneNumber());
+        personCopy.setEmailAddress(person.getEmailAddress());
+        personCopy.setResidentialAddress(person.getResidentialAddress());
+        if (person.isHidden()) {
+            personCopy.hide();
+        }
+        personSnapshots = personSnapshots.put(personId, personCopy);
+        storageGeneration++;
+    }
+
+    /**
+     * Returns the person with the specified personId, with their appointment list built if appointment lists are
+     * built lazily.
+     *
+     * @param personId the id of the person
+     * @return the person with the specified personId
+     * @throws MedBotException if there is no person with the specified personId
+     */
+    private Person getPersonWithAppointments(int personId) throws MedBotException {
         checkPersonExists(personId);
-        return persons.get(personId).listAppointments(filterType, dateTimeCode);
+        Person person = persons.get(personId);
+        if (appointmentCache != null) {
+            appointmentCache.load(person);
+        }
+        return person;
     }
 
     /**
@@ -270,7 +490,7 @@ public abstract class PersonList {
      * @param personId the id of the person to search for
      * @throws MedBotException if there is no person with the specified personId
      */
-    private void checkPersonExists(int personId) throws MedBotException {
+    public void checkPersonExists(int personId) throws MedBotException {
         if (!persons.containsKey(personId)) {
             throw new MedBotException(getPersonNotFoundErrorMessage(personId));
         }
@@ -294,6 +514,15 @@ public abstract class PersonList {
         }
     }
 
+    /**
+     * Creates an empty Person of the type stored in this list.
+     *
+     * <p>Is overrode by subclasses
+     *
+     * @return an empty Person of the type stored in this list
+     */
+    protected abstract Person createPerson();
+
     /**
      * Generates the exception message for MedBotExceptions when the recently added Ic Number exists in the record.
      *
@@ -350,6 +579,16 @@ public abstract class PersonList {
         return output;
     }
 
+    /**
+     * Returns the storage generation of this list, which goes up each time the snapshot of a person is replaced or
+     * removed. Hiding or showing a person counts, as the hidden status is saved with the person.
+     *
+     * @return the storage generation of this list
+     */
+    public long getStorageGeneration() {
+        return storageGeneration;
+    }
+
     /**
      * Set lastId to newLastId.
      *
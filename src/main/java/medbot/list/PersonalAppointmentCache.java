@@ -0,0 +1,98 @@
+package medbot.list;
+
+import medbot.Appointment;
+import medbot.exceptions.MedBotException;
+import medbot.person.Person;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the appointments of all persons in a PersonList in an AppointmentStore, and only builds the
+ * PersonalAppointmentList of a person when it is needed.
+ *
+ * <p>The most recently used lists are kept in their persons, up to a fixed number of persons. When the limit is
+ * exceeded, the least recently used list is dropped, and built again from the store the next time it is needed.
+ */
+class PersonalAppointmentCache {
+    private static final String ERROR_APPOINTMENT_NOT_FOUND = "No appointment at %s found.";
+
+    private final AppointmentStore appointmentStore = new AppointmentStore();
+    //Persons whose appointment lists are built, least recently used first
+    private final Map<Integer, Person> loadedPersons;
+
+    PersonalAppointmentCache(int capacity) {
+        assert capacity > 0;
+        loadedPersons = new LinkedHashMap<>(capacity, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Person> eldest) {
+                if (size() <= capacity) {
+                    return false;
+                }
+                eldest.getValue().setPersonalAppointmentList(null);
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Builds the appointment list of the given person if it is not already built.
+     *
+     * @param person the person whose appointment list is needed
+     * @throws MedBotException if the stored appointments of the person clash with each other
+     */
+    void load(Person person) throws MedBotException {
+        if (loadedPersons.get(person.getId()) != null) {
+            return;
+        }
+        PersonalAppointmentList personalAppointmentList = new PersonalAppointmentList();
+        for (Appointment appointment : appointmentStore.getAppointments(person.getId())) {
+            personalAppointmentList.addAppointment(appointment);
+        }
+        person.setPersonalAppointmentList(personalAppointmentList);
+        loadedPersons.put(person.getId(), person);
+    }
+
+    /**
+     * Adds the appointment to the given person. The person's appointment list is only updated if it is built.
+     *
+     * @param person      the person to whom the appointment will be added
+     * @param appointment the appointment to be added
+     * @throws MedBotException if the appointment clashes with another appointment in the person's built list
+     */
+    void addAppointment(Person person, Appointment appointment) throws MedBotException {
+        if (loadedPersons.containsKey(person.getId())) {
+            person.addAppointment(appointment);
+        }
+        appointmentStore.add(person.getId(), appointment);
+    }
+
+    /**
+     * Removes the appointment with the specified dateTimeCode from the given person.
+     *
+     * @param person       the person whose appointment will be removed
+     * @param dateTimeCode the dateTimeCode of the appointment to be removed
+     * @throws MedBotException if the person has no appointment at that dateTimeCode
+     */
+    void deleteAppointment(Person person, int dateTimeCode) throws MedBotException {
+        if (!appointmentStore.remove(person.getId(), dateTimeCode)) {
+            throw new MedBotException(String.format(ERROR_APPOINTMENT_NOT_FOUND,
+                    Appointment.formatDateTimeCode(dateTimeCode)));
+        }
+        if (loadedPersons.containsKey(person.getId())) {
+            person.deleteAppointment(dateTimeCode);
+        }
+    }
+
+    /**
+     * Drops the appointment list of the person with the specified personId, if it is built.
+     *
+     * @param personId the id of the person
+     */
+    void unload(int personId) {
+        Person person = loadedPersons.remove(personId);
+        if (person != null) {
+            person.setPersonalAppointmentList(null);
+        }
+    }
+}
@@ -2,11 +2,15 @@ package medbot.list;
 
 import medbot.Appointment;
 import medbot.exceptions.MedBotException;
+import medbot.utilities.Pair;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.NavigableSet;
+import java.util.Set;
 import java.util.TreeSet;
 
 //@@author Kureans
@@ -24,6 +28,9 @@ public class PersonalAppointmentList {
         assert o1.getDateTimeCode() == o2.getDateTimeCode();
         return 0;
     });
+    //Recurring appointments are also in appointments, ordered by their first occurrence.
+    //The appointments of a person never overlap, so they are also in order of their end times.
+    private final List<Appointment> recurringAppointments = new ArrayList<>();
 
     public PersonalAppointmentList() {
 
@@ -40,11 +47,56 @@ public class PersonalAppointmentList {
         if (appointmentId == 0) {
             throw new MedBotException(ERROR_APPOINTMENT_ID_NOT_SET);
         }
-        boolean isNotClash = appointments.add(appointment);
-        if (!isNotClash) {
+        if (getClashingAppointmentId(appointment, Set.of()) != -1) {
             throw new MedBotException(ERROR_ADD_APPOINTMENT_CLASH);
         }
+        appointments.add(appointment);
+        if (appointment.isRecurring()) {
+            recurringAppointments.add(appointment);
+        }
+    }
 
+    /**
+     * Returns the appointmentId of an appointment in this list that clashes with the given appointment, or -1 if
+     * there is none.
+     *
+     * <p>Recurring appointments are compared by their recurrence rules without expanding their occurrences. A
+     * single appointment only needs to be compared with the latest appointment starting before it ends, which is
+     * found in O(log n).
+     *
+     * @param appointment           the appointment to check
+     * @param ignoredAppointmentIds ids of appointments that should not be treated as clashes
+     * @return the appointmentId of a clashing appointment
+     */
+    public int getClashingAppointmentId(Appointment appointment, Set<Integer> ignoredAppointmentIds) {
+        for (Appointment recurringAppointment : recurringAppointments) {
+            if (!ignoredAppointmentIds.contains(recurringAppointment.getId())
+                    && Appointment.isOverlapping(appointment, recurringAppointment)) {
+                return recurringAppointment.getId();
+            }
+        }
+        if (!appointment.isRecurring()) {
+            NavigableSet<Appointment> appointmentsBefore = appointments.headSet(
+                    createReferenceAppointment(appointment.getEndDateTimeCode()), false).descendingSet();
+            for (Appointment otherAppointment : appointmentsBefore) {
+                if (otherAppointment.getEndDateTimeCode() <= appointment.getDateTimeCode()) {
+                    break;
+                }
+                if (!ignoredAppointmentIds.contains(otherAppointment.getId()) && !otherAppointment.isRecurring()) {
+                    return otherAppointment.getId();
+                }
+            }
+            return -1;
+        }
+        for (Appointment otherAppointment : getAppointmentsOverlapping(appointment.getDateTimeCode(),
+                appointment.getLastDateTimeCode() + appointment.getDurationMinutes())) {
+            if (!ignoredAppointmentIds.contains(otherAppointment.getId()) && !otherAppointment.isRecurring()
+                    && appointment.occursDuring(otherAppointment.getDateTimeCode(),
+                    otherAppointment.getEndDateTimeCode())) {
+                return otherAppointment.getId();
+            }
+        }
+        return -1;
     }
 
     /**
@@ -54,14 +106,67 @@ public class PersonalAppointmentList {
      * @return the appointmentId of the appointment with that dateTimeCode
      */
     public int getAppointmentId(int dateTimeCode) {
-        for (Appointment appointment : appointments) {
-            if (appointment != null && appointment.getDateTimeCode() == dateTimeCode) {
-                return appointment.getId();
+        Appointment appointment = appointments.floor(createReferenceAppointment(dateTimeCode));
+        if (appointment != null && appointment.getDateTimeCode() == dateTimeCode) {
+            return appointment.getId();
+        }
+        for (Appointment recurringAppointment : recurringAppointments) {
+            if (recurringAppointment.occursAt(dateTimeCode)) {
+                return recurringAppointment.getId();
             }
         }
         return -1;
     }
 
+    /**
+     * Returns the clashes between the given appointments and the appointments in this list. Single appointments
+     * are compared in a single merge pass over both.
+     *
+     * <p>Appointments whose id is in ignoredAppointmentIds are treated as absent.
+     *
+     * @param newAppointments       the appointments to check, which do not overlap each other and are not
+     *                              recurring, sorted by dateTimeCode in ascending order
+     * @param ignoredAppointmentIds ids of appointments that should not be treated as clashes
+     * @return list of (appointmentId of the new appointment, appointmentId of the clashing appointment) pairs
+     */
+    public List<Pair<Integer, Integer>> findClashes(List<Appointment> newAppointments,
+            Set<Integer> ignoredAppointmentIds) {
+        List<Pair<Integer, Integer>> clashes = new ArrayList<>();
+        if (newAppointments.isEmpty()) {
+            return clashes;
+        }
+        int startDateTimeCode = newAppointments.get(0).getDateTimeCode();
+        int endDateTimeCode = newAppointments.get(newAppointments.size() - 1).getEndDateTimeCode();
+        Iterator<Appointment> it = getAppointmentsOverlapping(startDateTimeCode, endDateTimeCode).stream()
+                .filter(appointment -> !appointment.isRecurring()
+                        && !ignoredAppointmentIds.contains(appointment.getId()))
+                .iterator();
+        Iterator<Appointment> newAppointmentIterator = newAppointments.iterator();
+        Appointment appointment = it.hasNext() ? it.next() : null;
+        Appointment newAppointment = newAppointmentIterator.next();
+        while (appointment != null && newAppointment != null) {
+            if (appointment.getEndDateTimeCode() <= newAppointment.getDateTimeCode()) {
+                appointment = it.hasNext() ? it.next() : null;
+            } else if (newAppointment.getEndDateTimeCode() <= appointment.getDateTimeCode()) {
+                newAppointment = newAppointmentIterator.hasNext() ? newAppointmentIterator.next() : null;
+            } else {
+                clashes.add(new Pair<>(newAppointment.getId(), appointment.getId()));
+                newAppointment = newAppointmentIterator.hasNext() ? newAppointmentIterator.next() : null;
+            }
+        }
+        for (Appointment recurringAppointment : recurringAppointments) {
+            if (ignoredAppointmentIds.contains(recurringAppointment.getId())) {
+                continue;
+            }
+            for (Appointment otherAppointment : newAppointments) {
+                if (Appointment.isOverlapping(otherAppointment, recurringAppointment)) {
+                    clashes.add(new Pair<>(otherAppointment.getId(), recurringAppointment.getId()));
+                }
+            }
+        }
+        return clashes;
+    }
+
     /**
      * Returns a LinkedList of the appointmentId of all appointments.
      *
@@ -85,15 +190,11 @@ public class PersonalAppointmentList {
      * @throws MedBotException if there is no appointment with that dateTimeCode.
      */
     public void deleteAppointment(int dateTimeCode) throws MedBotException {
-        Iterator<Appointment> it = appointments.iterator();
-        while (it.hasNext()) {
-            Appointment appointment = it.next();
-            if (appointment.getDateTimeCode() == dateTimeCode) {
-                it.remove();
-                return;
-            }
+        boolean isDeleted = appointments.remove(createReferenceAppointment(dateTimeCode));
+        if (!isDeleted) {
+            throw new MedBotException(getAppointmentNotFoundErrorMessage(dateTimeCode));
         }
-        throw new MedBotException(getAppointmentNotFoundErrorMessage(dateTimeCode));
+        recurringAppointments.removeIf(appointment -> appointment.getDateTimeCode() == dateTimeCode);
     }
 
     /**
@@ -115,7 +216,48 @@ public class PersonalAppointmentList {
     }
 
     /**
-     * Returns the list of appointment after the date time indicated.
+     * Returns the list of appointments between the two date times indicated, inclusive, ordered by their first
+     * occurrence between the two date times.
+     *
+     * @param startDateTimeCode the earliest date time of the appointments to look for.
+     * @param endDateTimeCode   the latest date time of the appointments to look for.
+     * @return the list of appointments between the two date times.
+     */
+    public List<Integer> listAppointmentsBetween(int startDateTimeCode, int endDateTimeCode) {
+        NavigableSet<Appointment> appointmentsBetween = appointments.subSet(
+                createReferenceAppointment(startDateTimeCode), true, createReferenceAppointment(endDateTimeCode), true);
+        return mergeRecurringAppointmentsStartingBefore(appointmentsBetween, startDateTimeCode, endDateTimeCode);
+    }
+
+    /**
+     * Returns the start and end of the occurrences of appointments that overlap the time between the two date
+     * times indicated, inclusive.
+     *
+     * @param startDateTimeCode the earliest date time to look for
+     * @param endDateTimeCode   the latest date time to look for
+     * @return list of (start, end) dateTimeCode pairs of the occurrences, ordered by start, where the end is
+     *         exclusive
+     */
+    public List<Pair<Integer, Integer>> listOccurrencesBetween(int startDateTimeCode, int endDateTimeCode) {
+        List<Pair<Integer, Integer>> occurrences = new ArrayList<>();
+        for (Appointment appointment : getAppointmentsOverlapping(startDateTimeCode, endDateTimeCode + 1)) {
+            if (!appointment.isRecurring()) {
+                occurrences.add(new Pair<>(appointment.getDateTimeCode(), appointment.getEndDateTimeCode()));
+            }
+        }
+        for (Appointment recurringAppointment : recurringAppointments) {
+            int durationMinutes = recurringAppointment.getDurationMinutes();
+            for (int occurrence : recurringAppointment.listOccurrencesBetween(
+                    startDateTimeCode - durationMinutes + 1, endDateTimeCode)) {
+                occurrences.add(new Pair<>(occurrence, occurrence + durationMinutes));
+            }
+        }
+        occurrences.sort(Comparator.comparingInt(occurrence -> occurrence.first));
+        return occurrences;
+    }
+
+    /**
+     * Returns the list of appointment after the date time indicated, ordered by their first occurrence after it.
      *
      * @param dateTimeCode the date time of the appointments to look for.
      * @return the list of appointments after the date.
@@ -124,11 +266,7 @@ public class PersonalAppointmentList {
         Appointment referenceAppointment = new Appointment();
         referenceAppointment.setDateTimeCode(dateTimeCode);
         NavigableSet<Appointment> appointmentsAfter = appointments.tailSet(referenceAppointment, true);
-        List<Integer> appointmentIds = new LinkedList<>();
-        for (Appointment appointment : appointmentsAfter) {
-            appointmentIds.add(appointment.getId());
-        }
-        return appointmentIds;
+        return mergeRecurringAppointmentsStartingBefore(appointmentsAfter, dateTimeCode, Integer.MAX_VALUE);
     }
 
     /**
@@ -148,4 +286,61 @@ public class PersonalAppointmentList {
         return appointmentIds;
     }
 
+    /**
+     * Returns the ids of the given appointments, which all start between the two date times indicated, together
+     * with those of the recurring appointments that start before startDateTimeCode but have an occurrence between
+     * the two date times. The ids are ordered by the first occurrence of each appointment from startDateTimeCode.
+     */
+    private List<Integer> mergeRecurringAppointmentsStartingBefore(NavigableSet<Appointment> appointmentsBetween,
+            int startDateTimeCode, int endDateTimeCode) {
+        List<Pair<Integer, Integer>> recurringOccurrences = new ArrayList<>();
+        for (Appointment recurringAppointment : recurringAppointments) {
+            int occurrence = recurringAppointment.getFirstOccurrenceFrom(startDateTimeCode);
+            if (recurringAppointment.getDateTimeCode() < startDateTimeCode && occurrence != -1
+                    && occurrence <= endDateTimeCode) {
+                recurringOccurrences.add(new Pair<>(occurrence, recurringAppointment.getId()));
+            }
+        }
+        recurringOccurrences.sort(Comparator.comparingInt(occurrence -> occurrence.first));
+
+        List<Integer> appointmentIds = new LinkedList<>();
+        Iterator<Pair<Integer, Integer>> recurringIterator = recurringOccurrences.iterator();
+        Pair<Integer, Integer> nextRecurring = recurringIterator.hasNext() ? recurringIterator.next() : null;
+        for (Appointment appointment : appointmentsBetween) {
+            while (nextRecurring != null && nextRecurring.first < appointment.getDateTimeCode()) {
+                appointmentIds.add(nextRecurring.second);
+                nextRecurring = recurringIterator.hasNext() ? recurringIterator.next() : null;
+            }
+            appointmentIds.add(appointment.getId());
+        }
+        while (nextRecurring != null) {
+            appointmentIds.add(nextRecurring.second);
+            nextRecurring = recurringIterator.hasNext() ? recurringIterator.next() : null;
+        }
+        return appointmentIds;
+    }
+
+    /**
+     * Returns the appointments whose first occurrence overlaps the time from startDateTimeCode, inclusive, to
+     * endDateTimeCode, exclusive.
+     */
+    private List<Appointment> getAppointmentsOverlapping(int startDateTimeCode, int endDateTimeCode) {
+        //No appointment is longer than MAX_DURATION_MINUTES, so earlier appointments end before startDateTimeCode
+        NavigableSet<Appointment> appointmentsNear = appointments.subSet(
+                createReferenceAppointment(startDateTimeCode - Appointment.MAX_DURATION_MINUTES + 1), true,
+                createReferenceAppointment(endDateTimeCode), false);
+        List<Appointment> appointmentsOverlapping = new ArrayList<>();
+        for (Appointment appointment : appointmentsNear) {
+            if (appointment.getEndDateTimeCode() > startDateTimeCode) {
+                appointmentsOverlapping.add(appointment);
+            }
+        }
+        return appointmentsOverlapping;
+    }
+
+    private Appointment createReferenceAppointment(int dateTimeCode) {
+        Appointment referenceAppointment = new Appointment();
+        referenceAppointment.setDateTimeCode(dateTimeCode);
+        return referenceAppointment;
+    }
 }
@@ -0,0 +1,185 @@
+package medbot.list;
+
+import medbot.Appointment;
+import medbot.Resource;
+import medbot.exceptions.MedBotException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static medbot.ui.Ui.END_LINE;
+
+public class ResourceList {
+    //Sorted so that resources are always listed and stored in ascending order of ID
+    private final SortedMap<Integer, Resource> resources = new TreeMap<>();
+    private int lastId = 1;
+    private long storageGeneration = 0;
+
+    /**
+     * Adds the given resource into the resource list, allocates an id to the resource if it does not have one and
+     * returns the id value.
+     *
+     * @param resource Resource to be added into the list
+     * @return resourceId of the resource
+     * @throws MedBotException if another resource with that id already exists
+     */
+    public int addResource(Resource resource) throws MedBotException {
+        int resourceId = resource.getId();
+        if (resources.containsKey(resourceId)) {
+            throw new MedBotException("Resource with ID " + resourceId + " already exists!");
+        }
+        if (resourceId <= 0) {
+            resourceId = generateResourceId();
+            resource.setId(resourceId);
+        }
+        resources.put(resourceId, resource);
+        storageGeneration++;
+        return resourceId;
+    }
+
+    private int generateResourceId() {
+        while (resources.containsKey(lastId)) {
+            lastId++;
+        }
+        return lastId;
+    }
+
+    /**
+     * Removes the resource with the specified resourceId.
+     *
+     * @param resourceId the id of the resource to be removed
+     * @return the Resource that was removed
+     * @throws MedBotException if there is no resource with that id
+     */
+    public Resource deleteResource(int resourceId) throws MedBotException {
+        checkResourceExists(resourceId);
+        storageGeneration++;
+        return resources.remove(resourceId);
+    }
+
+    /**
+     * Returns a String containing the information of the resource with the specified resourceId.
+     *
+     * @param resourceId the id of the resource to search for
+     * @return a String containing the resource's information
+     * @throws MedBotException if there is no resource with that id
+     */
+    public String getResourceInfo(int resourceId) throws MedBotException {
+        checkResourceExists(resourceId);
+        return resources.get(resourceId).toString();
+    }
+
+    /**
+     * Returns a list of Strings containing the id and name of each resource, in ascending order of id.
+     *
+     * @return list of Strings containing the id and name of each resource
+     */
+    public List<String> listResources() {
+        List<String> resourceStrings = new ArrayList<>();
+        for (Resource resource : resources.values()) {
+            resourceStrings.add(resource.getId() + " - " + resource.getName());
+        }
+        return resourceStrings;
+    }
+
+    /**
+     * For the resource with the specified resourceId, adds the appointment into its appointment list.
+     *
+     * @param resourceId  the id of the resource to which the appointment will be added
+     * @param appointment the appointment to be added
+     * @throws MedBotException if there is no resource with the specified id or it is booked at that time
+     */
+    public void addAppointment(int resourceId, Appointment appointment) throws MedBotException {
+        checkResourceExists(resourceId);
+        resources.get(resourceId).getAppointmentList().addAppointment(appointment);
+    }
+
+    /**
+     * For the resource with the specified resourceId, deletes the appointment with the specified dateTimeCode.
+     *
+     * @param resourceId   the id of the resource whose appointment will be deleted
+     * @param dateTimeCode the dateTimeCode of the appointment to be deleted
+     * @throws MedBotException if there is no resource with the specified id, or if there is no appointment at
+     *                         the specified dateTimeCode for that resource
+     */
+    public void deleteAppointment(int resourceId, int dateTimeCode) throws MedBotException {
+        checkResourceExists(resourceId);
+        resources.get(resourceId).getAppointmentList().deleteAppointment(dateTimeCode);
+    }
+
+    /**
+     * Returns the appointmentIds of all appointments of the resource with the specified resourceId, in order of
+     * their date time.
+     *
+     * @param resourceId the id of the resource whose appointments will be listed
+     * @return list of the appointmentIds of the resource's appointments
+     * @throws MedBotException if there is no resource with the specified id
+     */
+    public List<Integer> listAppointments(int resourceId) throws MedBotException {
+        checkResourceExists(resourceId);
+        return resources.get(resourceId).getAppointmentList().listAppointments();
+    }
+
+    /**
+     * For the resource with the specified resourceId, returns the appointmentId of an appointment that clashes with
+     * the given appointment, or -1 if there is none.
+     *
+     * @param resourceId            the id of the resource whose appointments will be checked
+     * @param appointment           the appointment to check
+     * @param ignoredAppointmentIds ids of appointments that should not be treated as clashes
+     * @return the appointmentId of a clashing appointment
+     * @throws MedBotException if there is no resource with the specified id
+     */
+    public int getClashingAppointmentId(int resourceId, Appointment appointment, Set<Integer> ignoredAppointmentIds)
+            throws MedBotException {
+        checkResourceExists(resourceId);
+        return resources.get(resourceId).getAppointmentList().getClashingAppointmentId(appointment,
+                ignoredAppointmentIds);
+    }
+
+    /**
+     * Checks if a resource with the specified id is present in the list.
+     *
+     * @param resourceId the id of the resource to search for
+     * @throws MedBotException if there is no resource with the specified id
+     */
+    public void checkResourceExists(int resourceId) throws MedBotException {
+        if (!resources.containsKey(resourceId)) {
+            throw new MedBotException("No resource with ID " + resourceId + " found.");
+        }
+    }
+
+    /**
+     * Get storageString for all resources.
+     *
+     * @return storageString of all resources
+     */
+    public String getStorageString() {
+        String output = "";
+        for (Resource resource : resources.values()) {
+            output += resource.getStorageString() + END_LINE;
+        }
+        return output;
+    }
+
+    /**
+     * Returns the storage generation of this list. Resources cannot be edited, so it only goes up when a resource
+     * is added or deleted.
+     *
+     * @return the storage generation of this list
+     */
+    public long getStorageGeneration() {
+        return storageGeneration;
+    }
+
+    public void setLastId(int lastId) {
+        this.lastId = lastId;
+    }
+
+    public int getLastId() {
+        return lastId;
+    }
+}
@@ -7,12 +7,19 @@ import java.util.List;
 
 import medbot.Appointment;
 import medbot.exceptions.MedBotException;
+import medbot.utilities.PersistentSortedMap;
 
 public class SchedulerAppointmentList {
     private static final String END_LINE = System.lineSeparator();
 
     protected HashMap<Integer, Appointment> appointments = new HashMap<>();
     private int lastId = 1;
+    //Maps replaced whenever an appointment is added or removed, so that old versions can be read by other threads.
+    //Stored appointments are never modified, so the maps share them with this list.
+    private PersistentSortedMap<Appointment> appointmentSnapshots = PersistentSortedMap.empty();
+    private PersistentSortedMap<Appointment> patientAppointmentSnapshots = PersistentSortedMap.empty();
+    private PersistentSortedMap<Appointment> staffAppointmentSnapshots = PersistentSortedMap.empty();
+    private long storageGeneration = 0;
 
     public SchedulerAppointmentList() {
 
@@ -57,6 +64,12 @@ public class SchedulerAppointmentList {
             appointment.setId(appointmentId);
         }
         appointments.put(appointmentId, appointment);
+        storageGeneration++;
+        appointmentSnapshots = appointmentSnapshots.put(appointmentId, appointment);
+        patientAppointmentSnapshots = patientAppointmentSnapshots.put(
+                getPersonKey(appointment.getPatientId(), appointment.getDateTimeCode()), appointment);
+        staffAppointmentSnapshots = staffAppointmentSnapshots.put(
+                getPersonKey(appointment.getMedicalStaffId(), appointment.getDateTimeCode()), appointment);
         return appointmentId;
     }
 
@@ -83,7 +96,55 @@ public class SchedulerAppointmentList {
         if (!appointments.containsKey(appointmentId)) {
             throw new MedBotException(getAppointmentNotFoundErrorMessage(appointmentId));
         }
-        return appointments.remove(appointmentId);
+        Appointment appointment = appointments.remove(appointmentId);
+        storageGeneration++;
+        appointmentSnapshots = appointmentSnapshots.remove(appointmentId);
+        patientAppointmentSnapshots = patientAppointmentSnapshots.remove(
+                getPersonKey(appointment.getPatientId(), appointment.getDateTimeCode()));
+        staffAppointmentSnapshots = staffAppointmentSnapshots.remove(
+                getPersonKey(appointment.getMedicalStaffId(), appointment.getDateTimeCode()));
+        return appointment;
+    }
+
+    /**
+     * Returns a map of appointment ids to the appointments, which is not affected by later changes.
+     *
+     * @return map of appointment ids to appointments
+     */
+    public PersistentSortedMap<Appointment> getSnapshot() {
+        return appointmentSnapshots;
+    }
+
+    /**
+     * Returns a map of the appointments keyed by their patient and then their date time, which is not affected by
+     * later changes. The keys are formed by getPersonKey.
+     *
+     * @return map of the appointments keyed by patient and date time
+     */
+    public PersistentSortedMap<Appointment> getPatientSnapshot() {
+        return patientAppointmentSnapshots;
+    }
+
+    /**
+     * Returns a map of the appointments keyed by their staff and then their date time, which is not affected by
+     * later changes. The keys are formed by getPersonKey.
+     *
+     * @return map of the appointments keyed by staff and date time
+     */
+    public PersistentSortedMap<Appointment> getStaffSnapshot() {
+        return staffAppointmentSnapshots;
+    }
+
+    /**
+     * Returns the key of the appointment of a person at the specified dateTimeCode in the maps returned by
+     * getPatientSnapshot and getStaffSnapshot.
+     *
+     * @param personId     the id of the person
+     * @param dateTimeCode the date time of the appointment
+     * @return the key of the appointment
+     */
+    public static long getPersonKey(int personId, int dateTimeCode) {
+        return AppointmentStore.toKey(personId, dateTimeCode);
     }
 
     private String getAppointmentNotFoundErrorMessage(int appointmentId) {
@@ -99,6 +160,10 @@ public class SchedulerAppointmentList {
         return new LinkedList<>(appointments.keySet());
     }
 
+    public boolean hasAppointments() {
+        return !appointments.isEmpty();
+    }
+
     /**
      * Get storageString for all appointments.
      *
@@ -114,6 +179,16 @@ public class SchedulerAppointmentList {
         return output;
     }
 
+    /**
+     * Returns the storage generation of this list. An edited appointment is deleted and added again, so the
+     * generation goes up twice for each edit.
+     *
+     * @return the storage generation of this list
+     */
+    public long getStorageGeneration() {
+        return storageGeneration;
+    }
+
 
     public void setLastId(int lastId) {
         this.lastId = lastId;
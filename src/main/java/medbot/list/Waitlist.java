@@ -0,0 +1,165 @@
+package medbot.list;
+
+import medbot.WaitlistEntry;
+import medbot.exceptions.MedBotException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static medbot.ui.Ui.END_LINE;
+
+/**
+ * Patients waiting for an appointment, indexed by staff so that a freed slot can be matched to a waiting patient
+ * without going through the whole waitlist.
+ */
+public class Waitlist {
+    //Sorted so that entries are always listed and stored in ascending order of ID
+    private final SortedMap<Integer, WaitlistEntry> entries = new TreeMap<>();
+    private final Map<Integer, WaitlistIndex> staffIndexes = new HashMap<>();
+    private int lastId = 1;
+    private long storageGeneration = 0;
+
+    /**
+     * Adds the given entry into the waitlist, allocates an id to the entry if it does not have one and returns the
+     * id value.
+     *
+     * @param entry WaitlistEntry to be added into the waitlist
+     * @return entryId of the entry
+     * @throws MedBotException if another entry with that id already exists
+     */
+    public int addEntry(WaitlistEntry entry) throws MedBotException {
+        int entryId = entry.getId();
+        if (entries.containsKey(entryId)) {
+            throw new MedBotException("Waitlist entry with ID " + entryId + " already exists!");
+        }
+        if (entryId <= 0) {
+            entryId = generateEntryId();
+            entry.setId(entryId);
+        }
+        entries.put(entryId, entry);
+        storageGeneration++;
+        staffIndexes.computeIfAbsent(entry.getMedicalStaffId(), id -> new WaitlistIndex()).add(entry);
+        return entryId;
+    }
+
+    private int generateEntryId() {
+        while (entries.containsKey(lastId)) {
+            lastId++;
+        }
+        return lastId;
+    }
+
+    /**
+     * Removes the entry with the specified entryId.
+     *
+     * @param entryId the id of the entry to be removed
+     * @return the WaitlistEntry that was removed
+     * @throws MedBotException if there is no entry with that id
+     */
+    public WaitlistEntry deleteEntry(int entryId) throws MedBotException {
+        checkEntryExists(entryId);
+        WaitlistEntry entry = entries.remove(entryId);
+        storageGeneration++;
+        WaitlistIndex staffIndex = staffIndexes.get(entry.getMedicalStaffId());
+        staffIndex.remove(entry);
+        if (staffIndex.isEmpty()) {
+            staffIndexes.remove(entry.getMedicalStaffId());
+        }
+        return entry;
+    }
+
+    /**
+     * Returns the first entry after previousEntry waiting for the specified staff that accepts an appointment at
+     * the specified dateTimeCode. Entries whose windows end earlier come first, as they have less time left.
+     *
+     * @param medicalStaffId the id of the staff
+     * @param dateTimeCode   the start of the appointment
+     * @param previousEntry  the entry to continue the search from, or null to start from the first entry
+     * @return the first such entry, or null if there is none
+     */
+    public WaitlistEntry findFirstAccepting(int medicalStaffId, int dateTimeCode, WaitlistEntry previousEntry) {
+        WaitlistIndex staffIndex = staffIndexes.get(medicalStaffId);
+        if (staffIndex == null) {
+            return null;
+        }
+        return staffIndex.findFirstAccepting(dateTimeCode, previousEntry);
+    }
+
+    /**
+     * Returns the entries of the specified person, who may be a patient or a staff.
+     *
+     * @param personId  the id of the person
+     * @param isPatient whether the person is a patient
+     * @return list of the person's entries, in ascending order of id
+     */
+    public List<WaitlistEntry> getEntriesOf(int personId, boolean isPatient) {
+        List<WaitlistEntry> personEntries = new ArrayList<>();
+        for (WaitlistEntry entry : entries.values()) {
+            int entryPersonId = isPatient ? entry.getPatientId() : entry.getMedicalStaffId();
+            if (entryPersonId == personId) {
+                personEntries.add(entry);
+            }
+        }
+        return personEntries;
+    }
+
+    /**
+     * Returns a list of Strings containing the information of each entry, in ascending order of id.
+     *
+     * @return list of Strings containing the information of each entry
+     */
+    public List<String> listEntries() {
+        List<String> entryStrings = new ArrayList<>();
+        for (WaitlistEntry entry : entries.values()) {
+            entryStrings.add(entry.toString());
+        }
+        return entryStrings;
+    }
+
+    /**
+     * Checks if an entry with the specified id is present in the waitlist.
+     *
+     * @param entryId the id of the entry to search for
+     * @throws MedBotException if there is no entry with the specified id
+     */
+    public void checkEntryExists(int entryId) throws MedBotException {
+        if (!entries.containsKey(entryId)) {
+            throw new MedBotException("No waitlist entry with ID " + entryId + " found.");
+        }
+    }
+
+    /**
+     * Get storageString for all entries.
+     *
+     * @return storageString of all entries
+     */
+    public String getStorageString() {
+        String output = "";
+        for (WaitlistEntry entry : entries.values()) {
+            output += entry.getStorageString() + END_LINE;
+        }
+        return output;
+    }
+
+    /**
+     * Returns the storage generation of this waitlist, which goes up each time an entry is added or deleted,
+     * including when an entry is taken off the waitlist to fill a freed slot.
+     *
+     * @return the storage generation of this waitlist
+     */
+    public long getStorageGeneration() {
+        return storageGeneration;
+    }
+
+    public void setLastId(int lastId) {
+        this.lastId = lastId;
+    }
+
+    public int getLastId() {
+        return lastId;
+    }
+}
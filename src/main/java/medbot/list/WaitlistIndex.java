@@ -0,0 +1,153 @@
+package medbot.list;
+
+import medbot.WaitlistEntry;
+
+import java.util.Random;
+
+/**
+ * Waitlist entries of one staff, kept in a treap ordered by the end of their time windows and then by their id.
+ * Each node also keeps the earliest window start within its subtree, so that subtrees whose windows all start
+ * after a given time can be skipped.
+ *
+ * <p>This allows the entry with the earliest ending window that accepts a given time to be found without going
+ * through all the entries.
+ */
+class WaitlistIndex {
+    private static final Random RANDOM = new Random();
+
+    private static class Node {
+        private final WaitlistEntry entry;
+        private final int priority = RANDOM.nextInt();
+        private Node left;
+        private Node right;
+        private int minStartDateTimeCode;
+
+        private Node(WaitlistEntry entry) {
+            this.entry = entry;
+            minStartDateTimeCode = entry.getStartDateTimeCode();
+        }
+    }
+
+    private Node root;
+    private int size = 0;
+
+    public void add(WaitlistEntry entry) {
+        root = insert(root, new Node(entry));
+        size++;
+    }
+
+    public void remove(WaitlistEntry entry) {
+        root = delete(root, entry);
+        size--;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the first entry after previousEntry, in order of the end of their windows, that accepts an
+     * appointment at the specified dateTimeCode.
+     *
+     * @param dateTimeCode  the start of the appointment
+     * @param previousEntry the entry to continue the search from, or null to start from the first entry
+     * @return the first such entry, or null if there is none
+     */
+    public WaitlistEntry findFirstAccepting(int dateTimeCode, WaitlistEntry previousEntry) {
+        return findFirstAccepting(root, dateTimeCode, previousEntry);
+    }
+
+    private static WaitlistEntry findFirstAccepting(Node node, int dateTimeCode, WaitlistEntry previousEntry) {
+        if (node == null || node.minStartDateTimeCode > dateTimeCode) {
+            return null;
+        }
+        boolean isAfterLowerBound = node.entry.getEndDateTimeCode() >= dateTimeCode
+                && (previousEntry == null || compare(node.entry, previousEntry) > 0);
+        if (isAfterLowerBound) {
+            WaitlistEntry entry = findFirstAccepting(node.left, dateTimeCode, previousEntry);
+            if (entry != null) {
+                return entry;
+            }
+            if (node.entry.getStartDateTimeCode() <= dateTimeCode) {
+                return node.entry;
+            }
+        }
+        //Every entry in the left subtree ends before dateTimeCode or comes before previousEntry
+        return findFirstAccepting(node.right, dateTimeCode, previousEntry);
+    }
+
+    private static Node insert(Node node, Node newNode) {
+        if (node == null) {
+            return newNode;
+        }
+        if (compare(newNode.entry, node.entry) < 0) {
+            node.left = insert(node.left, newNode);
+            if (node.left.priority > node.priority) {
+                return rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, newNode);
+            if (node.right.priority > node.priority) {
+                return rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node delete(Node node, WaitlistEntry entry) {
+        assert node != null : "Entry to delete is not in the index";
+        int comparison = compare(entry, node.entry);
+        if (comparison < 0) {
+            node.left = delete(node.left, entry);
+        } else if (comparison > 0) {
+            node.right = delete(node.right, entry);
+        } else if (node.left == null) {
+            return node.right;
+        } else if (node.right == null) {
+            return node.left;
+        } else if (node.left.priority > node.right.priority) {
+            node = rotateRight(node);
+            node.right = delete(node.right, entry);
+        } else {
+            node = rotateLeft(node);
+            node.left = delete(node.left, entry);
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static void update(Node node) {
+        int minStartDateTimeCode = node.entry.getStartDateTimeCode();
+        if (node.left != null) {
+            minStartDateTimeCode = Math.min(minStartDateTimeCode, node.left.minStartDateTimeCode);
+        }
+        if (node.right != null) {
+            minStartDateTimeCode = Math.min(minStartDateTimeCode, node.right.minStartDateTimeCode);
+        }
+        node.minStartDateTimeCode = minStartDateTimeCode;
+    }
+
+    private static int compare(WaitlistEntry entry1, WaitlistEntry entry2) {
+        int comparison = Integer.compare(entry1.getEndDateTimeCode(), entry2.getEndDateTimeCode());
+        return comparison != 0 ? comparison : Integer.compare(entry1.getId(), entry2.getId());
+    }
+}
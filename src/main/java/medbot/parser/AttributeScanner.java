@@ -0,0 +1,136 @@
+package medbot.parser;
+
+import medbot.exceptions.MedBotParserException;
+
+/**
+ * Reads the attributes in user input one at a time, in a single pass over the input and without copying it.
+ *
+ * <p>An attribute is an attribute specifier, a letter followed by "/" after a space, e.g. " n/", and the value after
+ * it. The value runs up to the space before the next attribute specifier, or the end of the input, and its
+ * position is given without leading and trailing whitespace. Anything before the first attribute specifier, such
+ * as the command word, is skipped.
+ */
+public class AttributeScanner {
+    private static final String ERROR_NO_PARAMETER = "No parameters given.";
+    //the space, letter and "/" of an attribute specifier
+    private static final int SPECIFIER_LENGTH = 3;
+
+    private final String input;
+    //index of the space before the next attribute specifier, or -1 if there are no more attributes
+    private int nextSpecifierIndex;
+    private char specifier;
+    private int valueStart;
+    private int valueEnd;
+
+    public AttributeScanner(String input) {
+        this.input = input;
+        nextSpecifierIndex = findSpecifier(0);
+    }
+
+    /**
+     * Returns a scanner of the attributes in the user input.
+     *
+     * @param userInput String containing the full user input.
+     * @return AttributeScanner before the first attribute of the user input.
+     * @throws MedBotParserException if the user input has no attributes.
+     */
+    public static AttributeScanner scanAttributes(String userInput) throws MedBotParserException {
+        AttributeScanner attributes = new AttributeScanner(userInput);
+        if (!attributes.hasNext()) {
+            throw new MedBotParserException(ERROR_NO_PARAMETER);
+        }
+        return attributes;
+    }
+
+    /**
+     * Returns true if there are attributes after the current one.
+     *
+     * @return whether there are more attributes.
+     */
+    public boolean hasNext() {
+        return nextSpecifierIndex >= 0;
+    }
+
+    /**
+     * Moves to the next attribute.
+     *
+     * @return true if moved to the next attribute, false if there are no more attributes.
+     */
+    public boolean next() {
+        if (nextSpecifierIndex < 0) {
+            return false;
+        }
+        specifier = input.charAt(nextSpecifierIndex + 1);
+        int start = nextSpecifierIndex + SPECIFIER_LENGTH;
+        nextSpecifierIndex = findSpecifier(start);
+        int end = nextSpecifierIndex < 0 ? input.length() : nextSpecifierIndex;
+        while (start < end && Character.isWhitespace(input.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(input.charAt(end - 1))) {
+            end--;
+        }
+        valueStart = start;
+        valueEnd = end;
+        return true;
+    }
+
+    /**
+     * Returns the number of attributes after the current one, without moving to them.
+     *
+     * @return the number of attributes left.
+     */
+    public int countRemaining() {
+        int count = 0;
+        for (int i = nextSpecifierIndex; i >= 0; i = findSpecifier(i + SPECIFIER_LENGTH)) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the letter of the attribute specifier of the current attribute, e.g. 'n' for "n/".
+     *
+     * @return the letter of the current attribute specifier.
+     */
+    public char getSpecifier() {
+        return specifier;
+    }
+
+    public String getInput() {
+        return input;
+    }
+
+    public int getValueStart() {
+        return valueStart;
+    }
+
+    public int getValueEnd() {
+        return valueEnd;
+    }
+
+    /**
+     * Returns the value of the current attribute, without leading and trailing whitespace.
+     *
+     * @return the value of the current attribute.
+     */
+    public String getValue() {
+        return input.substring(valueStart, valueEnd);
+    }
+
+    /**
+     * Returns the index of the space before the first attribute specifier at or after fromIndex, or -1 if there
+     * is none.
+     */
+    private int findSpecifier(int fromIndex) {
+        int lastSpaceIndex = input.length() - SPECIFIER_LENGTH;
+        for (int i = input.indexOf(' ', fromIndex); i >= 0 && i <= lastSpaceIndex; i = input.indexOf(' ', i + 1)) {
+            char letter = input.charAt(i + 1);
+            boolean isLetter = (letter >= 'a' && letter <= 'z') || (letter >= 'A' && letter <= 'Z');
+            if (isLetter && input.charAt(i + 2) == '/') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
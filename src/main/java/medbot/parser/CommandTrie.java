@@ -0,0 +1,107 @@
+package medbot.parser;
+
+import medbot.Session;
+import medbot.command.Command;
+import medbot.exceptions.MedBotParserException;
+
+/**
+ * Maps command words to the parsers of their commands, so that the command word of a user input is found in a
+ * single pass over the input, instead of one startsWith check per command word.
+ *
+ * <p>A command word matches every input that starts with it, unless it is added as an exact command word, which
+ * only matches an input equal to it. As an input can then only match one command word, no command word may start
+ * with another.
+ */
+class CommandTrie {
+    //Command words only contain ASCII characters, so a child can be found by indexing with the character
+    private static final int CHARACTER_COUNT = 128;
+
+    /**
+     * Parses user input whose command word has been found into its command.
+     */
+    @FunctionalInterface
+    interface CommandWordParser {
+        Command parse(String userInput, Session session) throws MedBotParserException;
+    }
+
+    private static class Node {
+        private final Node[] children = new Node[CHARACTER_COUNT];
+        private CommandWordParser parser = null;
+        private boolean isExact = false;
+    }
+
+    private final Node root = new Node();
+
+    /**
+     * Adds a command word that matches every input starting with it.
+     *
+     * @param commandWord the command word
+     * @param parser      parser of the inputs that the command word matches
+     * @return this trie
+     */
+    CommandTrie add(String commandWord, CommandWordParser parser) {
+        addNode(commandWord, parser, false);
+        return this;
+    }
+
+    /**
+     * Adds a command word that only matches an input equal to it.
+     *
+     * @param commandWord the command word
+     * @param parser      parser of the input that the command word matches
+     * @return this trie
+     */
+    CommandTrie addExact(String commandWord, CommandWordParser parser) {
+        addNode(commandWord, parser, true);
+        return this;
+    }
+
+    /**
+     * Returns the parser of the command word that matches the user input, or null if no command word matches it.
+     *
+     * @param userInput String containing the preprocessed user input
+     * @return parser of the matching command word, or null if there is none
+     */
+    CommandWordParser find(String userInput) {
+        Node node = root;
+        for (int i = 0; i < userInput.length(); i++) {
+            char c = userInput.charAt(i);
+            if (c >= CHARACTER_COUNT || node.children[c] == null) {
+                return null;
+            }
+            node = node.children[c];
+            if (node.parser != null) {
+                boolean isWholeInput = i == userInput.length() - 1;
+                return !node.isExact || isWholeInput ? node.parser : null;
+            }
+        }
+        return null;
+    }
+
+    private void addNode(String commandWord, CommandWordParser parser, boolean isExact) {
+        assert !commandWord.isEmpty();
+        Node node = root;
+        for (int i = 0; i < commandWord.length(); i++) {
+            char c = commandWord.charAt(i);
+            assert c < CHARACTER_COUNT;
+            if (node.children[c] == null) {
+                node.children[c] = new Node();
+            }
+            node = node.children[c];
+            //no command word may start with another, or be the start of another
+            assert node.parser == null;
+        }
+        assert isLeaf(node);
+        node.parser = parser;
+        node.isExact = isExact;
+    }
+
+    private static boolean isLeaf(Node node) {
+        for (Node child : node.children) {
+            if (child != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,15 +1,22 @@
 package medbot.parser;
 
 
+import medbot.Session;
+import medbot.command.BeginTransactionCommand;
 import medbot.command.Command;
 import medbot.command.CommandType;
+import medbot.command.CommitTransactionCommand;
 import medbot.command.ExitCommand;
 import medbot.command.GetCurrentViewCommand;
 import medbot.command.HelpCommand;
+import medbot.command.RollbackTransactionCommand;
 import medbot.command.SwitchCommand;
 import medbot.exceptions.MedBotParserException;
 import medbot.utilities.ViewType;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 //@@author Kureans
 public abstract class Parser {
     private static final String END_LINE = System.lineSeparator();
@@ -27,6 +34,16 @@ public abstract class Parser {
     private static final String COMMAND_HIDE = "hide";
     private static final String COMMAND_SHOW = "show";
     private static final String COMMAND_GET_VIEW = "get view";
+    private static final String COMMAND_BEGIN = "begin";
+    private static final String COMMAND_COMMIT = "commit";
+    private static final String COMMAND_ROLLBACK = "rollback";
+    private static final String COMMAND_RESCHEDULE = "reschedule";
+    private static final String COMMAND_FREE = "free";
+    private static final String COMMAND_REPORT = "report";
+    private static final String COMMAND_RESOURCE = "resource";
+    private static final String COMMAND_WAITLIST = "waitlist";
+    private static final String COMMAND_SOLVE = "solve";
+    private static final String COMMAND_ARCHIVE = "archive";
 
     private static final String VIEW_TYPE_PATIENT_VIEW = "p";
     private static final String VIEW_TYPE_PATIENT_VIEW_ALT = "1";
@@ -39,73 +56,83 @@ public abstract class Parser {
     private static final String ERROR_NO_VIEW_FOUND = "Unidentified view." + END_LINE;
     private static final String ERROR_INVALID_VIEW_TYPE = "Invalid view type code." + END_LINE;
 
-    private static ViewType viewType = ViewType.PATIENT_INFO;
-
-    public static ViewType getViewType() {
-        return viewType;
-    }
-
-    public static void setViewType(ViewType viewType) {
-        Parser.viewType = viewType;
-    }
+    private static final Map<ViewType, CommandTrie> COMMANDS_BY_VIEW_TYPE = createCommandTries();
 
     /**
-     * Parses the user input and returns the corresponding command based on the parser's view type.
+     * Parses the user input and returns the corresponding command based on the view type of the given session.
+     *
+     * <p>The command word is looked up in the command words of the session's view type in one pass over the input.
+     * The parser keeps no state of its own, so inputs from different sessions can be parsed at the same time.
      *
      * @param userInput String containing the full user input.
+     * @param session   the session of the user who entered the input.
      * @return the corresponding Command object.
      * @throws MedBotParserException if command is unrecognised.
      */
-    public static Command parseCommand(String userInput) throws MedBotParserException {
+    public static Command parseCommand(String userInput, Session session) throws MedBotParserException {
         userInput = ParserUtils.preprocessInput(userInput);
-        //commands valid in all viewTypes
-        if (userInput.startsWith(COMMAND_SWITCH)) {
-            return parseSwitchCommand(userInput);
-        }
-        if (userInput.equals(COMMAND_EXIT)) {
-            return new ExitCommand();
+        CommandTrie commands = COMMANDS_BY_VIEW_TYPE.get(session.getViewType());
+        if (commands == null) {
+            assert false;
+            throw new MedBotParserException(ERROR_NO_VIEW_FOUND);
         }
-        if (userInput.startsWith(COMMAND_HELP)) {
-            return parseHelpCommand(userInput);
+        CommandTrie.CommandWordParser parser = commands.find(userInput);
+        if (parser == null) {
+            throw new MedBotParserException(ERROR_WRONG_COMMAND);
         }
+        return parser.parse(userInput, session);
+    }
 
-        if (userInput.startsWith(COMMAND_GET_VIEW)) {
-            return new GetCurrentViewCommand(getViewType());
-        }
+    /**
+     * Returns the command words of each view type, which are the command words valid in all view types together
+     * with those valid only in that view type.
+     *
+     * @return map of each view type to its command words.
+     */
+    private static Map<ViewType, CommandTrie> createCommandTries() {
+        Map<ViewType, CommandTrie> commandTries = new EnumMap<>(ViewType.class);
+        commandTries.put(ViewType.PATIENT_INFO, PatientCommandParser.addPatientCommands(createGlobalCommandTrie()));
+        commandTries.put(ViewType.MEDICAL_STAFF_INFO, StaffCommandParser.addStaffCommands(createGlobalCommandTrie()));
+        commandTries.put(ViewType.SCHEDULER, SchedulerCommandParser.addSchedulingCommands(createGlobalCommandTrie()));
+        return commandTries;
+    }
 
-        //commands valid in only some viewTypes
-        switch (viewType) {
-        case PATIENT_INFO:
-            return PatientCommandParser.parsePatientCommand(userInput);
-        case MEDICAL_STAFF_INFO:
-            return StaffCommandParser.parseStaffCommand(userInput);
-        case SCHEDULER:
-            return SchedulerCommandParser.parseSchedulingCommand(userInput);
-        default:
-            assert false;
-            throw new MedBotParserException(ERROR_NO_VIEW_FOUND);
-        }
+    /**
+     * Returns a trie of the command words valid in all view types.
+     *
+     * @return CommandTrie of the command words valid in all view types.
+     */
+    private static CommandTrie createGlobalCommandTrie() {
+        return new CommandTrie()
+                .add(COMMAND_SWITCH, Parser::parseSwitchCommand)
+                .addExact(COMMAND_EXIT, (userInput, session) -> new ExitCommand())
+                .add(COMMAND_HELP, (userInput, session) -> parseHelpCommand(userInput, session.getViewType()))
+                .add(COMMAND_GET_VIEW, (userInput, session) -> new GetCurrentViewCommand(session.getViewType()))
+                .addExact(COMMAND_BEGIN, (userInput, session) -> new BeginTransactionCommand())
+                .addExact(COMMAND_COMMIT, (userInput, session) -> new CommitTransactionCommand())
+                .addExact(COMMAND_ROLLBACK, (userInput, session) -> new RollbackTransactionCommand());
     }
 
     /**
      * Parses user input to pass relevant parameters into the HelpCommand constructor.
      *
      * @param userInput String containing the full user input.
+     * @param viewType  the view type of the user.
      * @return HelpCommand object.
      * @throws MedBotParserException if parameters.length < 1 && > 2
      */
-    private static HelpCommand parseHelpCommand(String userInput) throws MedBotParserException {
+    private static HelpCommand parseHelpCommand(String userInput, ViewType viewType) throws MedBotParserException {
         String commandTypeString = EMPTY_STRING;
         try {
             commandTypeString = userInput.substring(4).strip();
         } catch (IndexOutOfBoundsException ie) {
-            return new HelpCommand(getViewType());
+            return new HelpCommand(viewType);
         }
         if (commandTypeString.equals(EMPTY_STRING)) {
-            return new HelpCommand(getViewType());
+            return new HelpCommand(viewType);
         }
         CommandType commandType = parseHelpCommandType(commandTypeString);
-        return new HelpCommand(getViewType(),commandType);
+        return new HelpCommand(viewType,commandType);
     }
 
     private static CommandType parseHelpCommandType(String commandTypeString) throws MedBotParserException {
@@ -134,6 +161,26 @@ public abstract class Parser {
             return CommandType.SHOW;
         case COMMAND_GET_VIEW:
             return CommandType.GET_VIEW;
+        case COMMAND_BEGIN:
+            return CommandType.BEGIN;
+        case COMMAND_COMMIT:
+            return CommandType.COMMIT;
+        case COMMAND_ROLLBACK:
+            return CommandType.ROLLBACK;
+        case COMMAND_RESCHEDULE:
+            return CommandType.RESCHEDULE;
+        case COMMAND_FREE:
+            return CommandType.FREE;
+        case COMMAND_REPORT:
+            return CommandType.REPORT;
+        case COMMAND_RESOURCE:
+            return CommandType.RESOURCE;
+        case COMMAND_WAITLIST:
+            return CommandType.WAITLIST;
+        case COMMAND_SOLVE:
+            return CommandType.SOLVE;
+        case COMMAND_ARCHIVE:
+            return CommandType.ARCHIVE;
         default:
             throw new MedBotParserException(ERROR_WRONG_COMMAND);
         }
@@ -146,10 +193,13 @@ public abstract class Parser {
      * a switch command that iterates through the various views.
      *
      * @param userInput String containing the full user input.
+     * @param session   the session whose view will be switched.
      * @return SwitchCommand with the new view type if specified
      * @throws MedBotParserException if an invalid view type code is specified
      */
-    private static SwitchCommand parseSwitchCommand(String userInput) throws MedBotParserException {
+    private static SwitchCommand parseSwitchCommand(String userInput, Session session)
+            throws MedBotParserException {
+        ViewType viewType = session.getViewType();
         String newType;
         try {
             newType = userInput.substring(6).strip();
@@ -159,19 +209,19 @@ public abstract class Parser {
         boolean isChanged;
         switch (newType) {
         case EMPTY_STRING:
-            return new SwitchCommand(ViewType.getNextView(viewType), true);
+            return new SwitchCommand(session, ViewType.getNextView(viewType), true);
         case VIEW_TYPE_PATIENT_VIEW:
         case VIEW_TYPE_PATIENT_VIEW_ALT:
             isChanged = viewType != ViewType.PATIENT_INFO;
-            return new SwitchCommand(ViewType.PATIENT_INFO, isChanged);
+            return new SwitchCommand(session, ViewType.PATIENT_INFO, isChanged);
         case VIEW_TYPE_MEDICAL_STAFF_VIEW:
         case VIEW_TYPE_MEDICAL_STAFF_VIEW_ALT:
             isChanged = viewType != ViewType.MEDICAL_STAFF_INFO;
-            return new SwitchCommand(ViewType.MEDICAL_STAFF_INFO, isChanged);
+            return new SwitchCommand(session, ViewType.MEDICAL_STAFF_INFO, isChanged);
         case VIEW_TYPE_SCHEDULER_VIEW:
         case VIEW_TYPE_SCHEDULER_VIEW_ALT:
             isChanged = viewType != ViewType.SCHEDULER;
-            return new SwitchCommand(ViewType.SCHEDULER, isChanged);
+            return new SwitchCommand(session, ViewType.SCHEDULER, isChanged);
         default:
             throw new MedBotParserException(ERROR_INVALID_VIEW_TYPE);
         }
@@ -1,44 +1,47 @@
 package medbot.parser;
 
 import medbot.Appointment;
+import medbot.PlacementRequest;
+import medbot.Resource;
+import medbot.WaitlistEntry;
 import medbot.exceptions.MedBotParserException;
 import medbot.person.Person;
 import medbot.person.PersonType;
+import medbot.utilities.DateTimeCodec;
 import medbot.utilities.FilterType;
 
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 import java.util.function.Function;
 import java.util.regex.MatchResult;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import static java.util.stream.Collectors.toList;
-
 
 public abstract class ParserUtils {
     private static final String PARAMETER_HIDE = "-h";
-    private static final String PARAMETER_NAME = "n/";
-    private static final String PARAMETER_PHONE = "p/";
     private static final String PARAMETER_PATIENT = "p/";
     private static final String PARAMETER_STAFF = "s/";
-    private static final String PARAMETER_EMAIL = "e/";
-    private static final String PARAMETER_IC = "i/";
-    private static final String PARAMETER_ADDRESS = "a/";
     private static final String PARAMETER_BEFORE = "b/";
     private static final String PARAMETER_AFTER = "a/";
     private static final int PARAMETER_BUFFER = 2;
-    private static final String PARAMETER_APPOINTMENT_PATIENT_ID = "p/";
-    private static final String PARAMETER_APPOINTMENT_MEDICAL_STAFF_ID = "s/";
-    private static final String PARAMETER_APPOINTMENT_DATE_TIME = "d/";
+    private static final char SPECIFIER_NAME = 'n';
+    private static final char SPECIFIER_PHONE = 'p';
+    private static final char SPECIFIER_EMAIL = 'e';
+    private static final char SPECIFIER_IC = 'i';
+    private static final char SPECIFIER_ADDRESS = 'a';
+    private static final char SPECIFIER_PATIENT = 'p';
+    private static final char SPECIFIER_STAFF = 's';
+    private static final char SPECIFIER_AFTER = 'a';
+    private static final char SPECIFIER_BEFORE = 'b';
+    private static final char SPECIFIER_APPOINTMENT_DATE_TIME = 'd';
+    private static final char SPECIFIER_APPOINTMENT_RECURRENCE_INTERVAL = 'r';
+    private static final char SPECIFIER_APPOINTMENT_RECURRENCE_COUNT = 'c';
+    private static final char SPECIFIER_APPOINTMENT_DURATION = 'l';
+    private static final char SPECIFIER_APPOINTMENT_RESOURCE = 'e';
+    private static final char SPECIFIER_END = '/';
+    private static final int MAX_RECURRENCE_INTERVAL_DAYS = 365;
+    private static final int MAX_RECURRENCE_COUNT = 1000;
     private static final String ERROR_INVALID_PARAM_SPECIFIER = "\"%s\" is not a valid attribute specifier";
     private static final String ERROR_NO_PARAMETER = "No parameters given.";
-    private static final String ERROR_TOO_MANY_SPECIFIERS = "Too many attribute specifiers.";
     private static final String ERROR_ID_NOT_SPECIFIED = "ID not specified or not a positive number.";
     private static final String ERROR_PERSON_TYPE_INVALID = "Person type specified is not valid.";
     private static final String ERROR_FILTER_TYPE_INVALID = "Filter type specified is not valid.";
@@ -54,34 +57,41 @@ public abstract class ParserUtils {
     private static final String ERROR_EMAIL_ADDRESS_WRONG_FORMAT = "" + "Incorrect email address format.";
     private static final String ERROR_ADDRESS_NOT_SPECIFIED = "Address not specified.";
     private static final String ERROR_DATE_TIME_WRONG_FORMAT = "Incorrect Date/Time format.";
+    private static final String ERROR_RECURRENCE_INTERVAL_INVALID = "Recurrence interval must be between 1 and "
+            + MAX_RECURRENCE_INTERVAL_DAYS + " days.";
+    private static final String ERROR_RECURRENCE_COUNT_INVALID = "Number of occurrences must be between 1 and "
+            + MAX_RECURRENCE_COUNT + ".";
+    private static final String ERROR_DURATION_INVALID = "Duration must be between 1 and "
+            + Appointment.MAX_DURATION_MINUTES + " minutes.";
 
     private static final String REGEX_VERTICAL_LINE = "\\|";
-    private static final String REGEX_INPUT_PARAMETER = " [a-zA-Z]/";
-    private static final String REGEX_EMAIL = "(([a-zA-Z0-9][\\w-.]*[a-zA-Z0-9])|[a-zA-Z0-9])@([\\w]+\\.)+[\\w]+";
-    private static final String REGEX_IC = "[STFGM][0-9]{7}[A-Z]";
-    private static final String REGEX_PHONE_NUMBER = "[\\d]{8}";
-    private static final String REGEX_PHONE_NUMBER_SPACERS = "[- _]";
-    private static final String REGEX_ID = "([0-9]+$)|([0-9]+ )";
-    private static final String REGEX_CAPITALISE_POSITION = "(\\A|[ _-])[a-z]";
+    //Patterns are compiled once, as compiling them takes longer than matching them against a short attribute
+    private static final Pattern PATTERN_INPUT_PARAMETER = Pattern.compile(" [a-zA-Z]/");
+    private static final Pattern PATTERN_EMAIL =
+            Pattern.compile("(([a-zA-Z0-9][\\w-.]*[a-zA-Z0-9])|[a-zA-Z0-9])@([\\w]+\\.)+[\\w]+");
+    private static final Pattern PATTERN_IC = Pattern.compile("[STFGM][0-9]{7}[A-Z]");
+    private static final Pattern PATTERN_PHONE_NUMBER = Pattern.compile("[\\d]{8}");
+    private static final Pattern PATTERN_PHONE_NUMBER_SPACERS = Pattern.compile("[- _]");
 
     private static final String VERTICAL_LINE = "|";
+    private static final String RESOURCE_ID_SEPARATOR = ",";
     private static final String EMPTY_STRING = "";
+    private static final String SPACE = " ";
+    private static final String WORD_SEPARATORS = " _-";
 
-    private static final String DATE_TIME_FORMATTER_PATTERN = "ddMMyy HHmm";
-    private static final ZoneOffset ZONE_OFFSET = ZoneOffset.ofHours(8);
 
     /**
-     * Parses attributeStrings array and modifies all the corresponding attribute in appointment.
+     * Parses all the attributes of the scanner and modifies the corresponding attributes in appointment.
      *
-     * @param appointment      Appointment whose information will be updated
-     * @param attributeStrings String Array containing Strings of an attribute specifier and the corresponding
-     *                         appointment information
-     * @throws MedBotParserException if the attributeString contains missing/invalid information
+     * @param appointment Appointment whose information will be updated
+     * @param attributes  AttributeScanner of the attribute specifiers and the corresponding appointment information
+     * @throws MedBotParserException if an attribute contains missing/invalid information
      */
-    static void updateMultipleAppointmentInformation(Appointment appointment, String[] attributeStrings)
+    static void updateMultipleAppointmentInformation(Appointment appointment, AttributeScanner attributes)
             throws MedBotParserException {
-        for (String attributeString : attributeStrings) {
-            updateAppointmentInformation(appointment, attributeString);
+        while (attributes.next()) {
+            updateAppointmentInformation(appointment, attributes.getSpecifier(), attributes.getInput(),
+                    attributes.getValueStart(), attributes.getValueEnd());
         }
     }
 
@@ -94,20 +104,204 @@ public abstract class ParserUtils {
      */
     public static void updateAppointmentInformation(Appointment appointment, String attributeString)
             throws MedBotParserException {
-        if (attributeString.startsWith(PARAMETER_APPOINTMENT_PATIENT_ID)) {
-            int patientId = parseId(attributeString.substring(PARAMETER_BUFFER));
-            appointment.setPatientId(patientId);
+        if (attributeString.length() < PARAMETER_BUFFER || attributeString.charAt(1) != SPECIFIER_END) {
             return;
         }
-        if (attributeString.startsWith(PARAMETER_APPOINTMENT_MEDICAL_STAFF_ID)) {
-            int medicalStaffId = parseId(attributeString.substring(PARAMETER_BUFFER));
-            appointment.setMedicalStaffId(medicalStaffId);
-            return;
+        updateAppointmentInformation(appointment, attributeString.charAt(0), attributeString, PARAMETER_BUFFER,
+                attributeString.length());
+    }
+
+    /**
+     * Parses the value of an attribute, found between valueStart and valueEnd of source, and modifies the
+     * corresponding attribute in appointment. Attributes with unknown specifiers are ignored.
+     *
+     * @param appointment Appointment whose information will be updated
+     * @param specifier   letter of the attribute specifier, e.g. 'd' for "d/"
+     * @param source      String containing the value of the attribute
+     * @param valueStart  index of the start of the value in source
+     * @param valueEnd    index after the end of the value in source
+     * @throws MedBotParserException if the value is missing/invalid
+     */
+    public static void updateAppointmentInformation(Appointment appointment, char specifier, String source,
+            int valueStart, int valueEnd) throws MedBotParserException {
+        switch (specifier) {
+        case SPECIFIER_PATIENT:
+            appointment.setPatientId(parseId(source, valueStart, valueEnd));
+            break;
+        case SPECIFIER_STAFF:
+            appointment.setMedicalStaffId(parseId(source, valueStart, valueEnd));
+            break;
+        case SPECIFIER_APPOINTMENT_DATE_TIME:
+            appointment.setDateTimeCode(parseDateTime(source, valueStart, valueEnd));
+            break;
+        case SPECIFIER_APPOINTMENT_RECURRENCE_INTERVAL:
+            appointment.setRecurrenceIntervalDays(parseBoundedInteger(source, valueStart, valueEnd,
+                    MAX_RECURRENCE_INTERVAL_DAYS, ERROR_RECURRENCE_INTERVAL_INVALID));
+            break;
+        case SPECIFIER_APPOINTMENT_RECURRENCE_COUNT:
+            appointment.setRecurrenceCount(parseBoundedInteger(source, valueStart, valueEnd, MAX_RECURRENCE_COUNT,
+                    ERROR_RECURRENCE_COUNT_INVALID));
+            break;
+        case SPECIFIER_APPOINTMENT_DURATION:
+            appointment.setDurationMinutes(parseBoundedInteger(source, valueStart, valueEnd,
+                    Appointment.MAX_DURATION_MINUTES, ERROR_DURATION_INVALID));
+            break;
+        case SPECIFIER_APPOINTMENT_RESOURCE:
+            //Resources can be given as separate e/ parameters or as a comma-separated list, as in storage
+            while (valueEnd > valueStart && source.startsWith(RESOURCE_ID_SEPARATOR, valueEnd - 1)) {
+                valueEnd--;
+            }
+            int idStart = valueStart;
+            while (idStart < valueEnd) {
+                int idEnd = source.indexOf(RESOURCE_ID_SEPARATOR, idStart);
+                if (idEnd < 0 || idEnd > valueEnd) {
+                    idEnd = valueEnd;
+                }
+                appointment.addResourceId(parseId(source, idStart, idEnd));
+                idStart = idEnd + 1;
+            }
+            break;
+        default:
+            break;
+        }
+    }
+
+    /**
+     * Parses attributeString and modifies the corresponding attribute in resource.
+     *
+     * @param resource        Resource whose information will be updated
+     * @param attributeString String containing an attribute specifier and the corresponding resource information
+     * @throws MedBotParserException if the attributeString contains missing/invalid information
+     */
+    public static void updateResourceInformation(Resource resource, String attributeString)
+            throws MedBotParserException {
+        if (attributeString.length() < PARAMETER_BUFFER || attributeString.charAt(1) != SPECIFIER_END) {
+            throw new MedBotParserException(String.format(ERROR_INVALID_PARAM_SPECIFIER,
+                    attributeString.substring(0, PARAMETER_BUFFER)));
+        }
+        updateResourceInformation(resource, attributeString.charAt(0), attributeString, PARAMETER_BUFFER,
+                attributeString.length());
+    }
+
+    /**
+     * Parses the value of an attribute, found between valueStart and valueEnd of source, and modifies the
+     * corresponding attribute in resource.
+     *
+     * @param resource   Resource whose information will be updated
+     * @param specifier  letter of the attribute specifier, e.g. 'n' for "n/"
+     * @param source     String containing the value of the attribute
+     * @param valueStart index of the start of the value in source
+     * @param valueEnd   index after the end of the value in source
+     * @throws MedBotParserException if the specifier is not valid or the value is missing
+     */
+    public static void updateResourceInformation(Resource resource, char specifier, String source, int valueStart,
+            int valueEnd) throws MedBotParserException {
+        if (specifier != SPECIFIER_NAME) {
+            throw new MedBotParserException(String.format(ERROR_INVALID_PARAM_SPECIFIER, specifier + "/"));
+        }
+        String name = source.substring(valueStart, valueEnd).strip();
+        if (name.isEmpty()) {
+            throw new MedBotParserException(ERROR_NAME_NOT_SPECIFIED);
+        }
+        resource.setName(name);
+    }
+
+    /**
+     * Parses attributeString and modifies the corresponding attribute in entry.
+     *
+     * @param entry           WaitlistEntry whose information will be updated
+     * @param attributeString String containing an attribute specifier and the corresponding entry information
+     * @throws MedBotParserException if the attributeString contains missing/invalid information
+     */
+    public static void updateWaitlistEntryInformation(WaitlistEntry entry, String attributeString)
+            throws MedBotParserException {
+        if (attributeString.length() < PARAMETER_BUFFER || attributeString.charAt(1) != SPECIFIER_END) {
+            throw new MedBotParserException(String.format(ERROR_INVALID_PARAM_SPECIFIER,
+                    attributeString.substring(0, PARAMETER_BUFFER)));
+        }
+        updateWaitlistEntryInformation(entry, attributeString.charAt(0), attributeString, PARAMETER_BUFFER,
+                attributeString.length());
+    }
+
+    /**
+     * Parses the value of an attribute, found between valueStart and valueEnd of source, and modifies the
+     * corresponding attribute in entry.
+     *
+     * @param entry      WaitlistEntry whose information will be updated
+     * @param specifier  letter of the attribute specifier, e.g. 'p' for "p/"
+     * @param source     String containing the value of the attribute
+     * @param valueStart index of the start of the value in source
+     * @param valueEnd   index after the end of the value in source
+     * @throws MedBotParserException if the specifier is not valid or the value is missing/invalid
+     */
+    public static void updateWaitlistEntryInformation(WaitlistEntry entry, char specifier, String source,
+            int valueStart, int valueEnd) throws MedBotParserException {
+        switch (specifier) {
+        case SPECIFIER_PATIENT:
+            entry.setPatientId(parseId(source, valueStart, valueEnd));
+            break;
+        case SPECIFIER_STAFF:
+            entry.setMedicalStaffId(parseId(source, valueStart, valueEnd));
+            break;
+        case SPECIFIER_AFTER:
+            entry.setStartDateTimeCode(parseDateTime(source, valueStart, valueEnd));
+            break;
+        case SPECIFIER_BEFORE:
+            entry.setEndDateTimeCode(parseDateTime(source, valueStart, valueEnd));
+            break;
+        default:
+            throw new MedBotParserException(String.format(ERROR_INVALID_PARAM_SPECIFIER, specifier + "/"));
+        }
+    }
+
+    /**
+     * Parses a line of a placement request file and returns the corresponding placement request.
+     *
+     * @param requestString String containing the attribute specifiers and information of the request
+     * @return PlacementRequest with the specified information
+     * @throws MedBotParserException if the requestString contains missing/invalid information
+     */
+    public static PlacementRequest parsePlacementRequest(String requestString) throws MedBotParserException {
+        PlacementRequest request = new PlacementRequest();
+        //The line has no command word, so a space is added for the first specifier to be found
+        AttributeScanner attributes = AttributeScanner.scanAttributes(SPACE + preprocessInput(requestString));
+        while (attributes.next()) {
+            String source = attributes.getInput();
+            int valueStart = attributes.getValueStart();
+            int valueEnd = attributes.getValueEnd();
+            switch (attributes.getSpecifier()) {
+            case SPECIFIER_PATIENT:
+                request.setPatientId(parseId(source, valueStart, valueEnd));
+                break;
+            case SPECIFIER_STAFF:
+                request.addMedicalStaffId(parseId(source, valueStart, valueEnd));
+                break;
+            case SPECIFIER_AFTER:
+                request.setStartDateTimeCode(parseDateTime(attributes.getValue()));
+                break;
+            case SPECIFIER_BEFORE:
+                request.setEndDateTimeCode(parseDateTime(attributes.getValue()));
+                break;
+            default:
+                throw new MedBotParserException(String.format(ERROR_INVALID_PARAM_SPECIFIER,
+                        attributes.getSpecifier() + "/"));
+            }
+        }
+        return request;
+    }
+
+    private static int parseBoundedInteger(String source, int start, int end, int max, String errorMessage)
+            throws MedBotParserException {
+        int value;
+        try {
+            value = parseId(source, start, end);
+        } catch (MedBotParserException mbpe) {
+            throw new MedBotParserException(errorMessage);
         }
-        if (attributeString.startsWith(PARAMETER_APPOINTMENT_DATE_TIME)) {
-            int dateTimeCode = parseDateTime(attributeString.substring(PARAMETER_BUFFER).strip());
-            appointment.setDateTimeCode(dateTimeCode);
+        if (value < 1 || value > max) {
+            throw new MedBotParserException(errorMessage);
         }
+        return value;
     }
 
     /**
@@ -129,37 +323,6 @@ public abstract class ParserUtils {
         return parameters;
     }
 
-    static List<String> getParametersWithoutSpecifiers(String userInput) throws MedBotParserException {
-        String processedInput = preprocessMultiAttributeInput(userInput);
-        String[] words = processedInput.split(REGEX_VERTICAL_LINE);
-        if (words.length == 1) {
-            throw new MedBotParserException(ERROR_NO_PARAMETER);
-        }
-        assert words.length > 1;
-        String[] parameters = Arrays.copyOfRange(words, 1, words.length);
-        List<String> p = Arrays.asList(parameters);
-        assert parameters.length >= 1;
-
-        return p.stream()
-                .map(s -> s.substring(PARAMETER_BUFFER))
-                .collect(toList());
-    }
-
-    static List<String> getSpecifiers(String userInput) throws MedBotParserException {
-        Pattern pattern = Pattern.compile(REGEX_INPUT_PARAMETER);
-        Matcher matcher = pattern.matcher(userInput);
-        List<String> specifiers = new ArrayList<>();
-
-        while (matcher.find()) {
-            specifiers.add(matcher.group());
-        }
-        if (specifiers.size() > 2) {
-            throw new MedBotParserException(ERROR_TOO_MANY_SPECIFIERS);
-        }
-
-        return specifiers;
-    }
-
     /**
      * Preprocesses user input to remove invalid substring that can not be parsed.
      *
@@ -185,6 +348,21 @@ public abstract class ParserUtils {
         }
     }
 
+    /**
+     * Parses all the attributes of the scanner and modifies the corresponding attributes in person.
+     *
+     * @param person     Person whose personal information will be updated
+     * @param attributes AttributeScanner of the attribute specifiers and the corresponding personal information
+     * @throws MedBotParserException if an attribute contains missing/invalid information
+     */
+    static void updateMultiplePersonalInformation(Person person, AttributeScanner attributes)
+            throws MedBotParserException {
+        while (attributes.next()) {
+            updatePersonalInformation(person, attributes.getSpecifier(), attributes.getInput(),
+                    attributes.getValueStart(), attributes.getValueEnd());
+        }
+    }
+
     /**
      * Parses attributeString and modifies the corresponding attribute in person.
      *
@@ -193,32 +371,47 @@ public abstract class ParserUtils {
      * @throws MedBotParserException if the attributeString contains missing/invalid information
      */
     public static void updatePersonalInformation(Person person, String attributeString) throws MedBotParserException {
-        if (attributeString.startsWith(PARAMETER_NAME)) {
-            String name = parseName(attributeString.substring(PARAMETER_BUFFER));
-            person.setName(name);
-            return;
-        }
-        if (attributeString.startsWith(PARAMETER_PHONE)) {
-            String phoneNumber = parsePhoneNumber(attributeString.substring(PARAMETER_BUFFER));
-            person.setPhoneNumber(phoneNumber);
-            return;
-        }
-        if (attributeString.startsWith(PARAMETER_EMAIL)) {
-            String email = parseEmailAddress(attributeString.substring(PARAMETER_BUFFER));
-            person.setEmailAddress(email);
-            return;
-        }
-        if (attributeString.startsWith(PARAMETER_IC)) {
-            String icNumber = parseIcNumber(attributeString.substring(PARAMETER_BUFFER));
-            person.setIcNumber(icNumber);
-            return;
+        if (attributeString.length() < PARAMETER_BUFFER || attributeString.charAt(1) != SPECIFIER_END) {
+            throw new MedBotParserException(String.format(ERROR_INVALID_PARAM_SPECIFIER,
+                    attributeString.substring(0, PARAMETER_BUFFER)));
         }
-        if (attributeString.startsWith(PARAMETER_ADDRESS)) {
-            String address = parseResidentialAddress(attributeString.substring(PARAMETER_BUFFER));
-            person.setResidentialAddress(address);
-            return;
+        updatePersonalInformation(person, attributeString.charAt(0), attributeString, PARAMETER_BUFFER,
+                attributeString.length());
+    }
+
+    /**
+     * Parses the value of an attribute, found between valueStart and valueEnd of source, and modifies the
+     * corresponding attribute in person.
+     *
+     * @param person     Person whose personal information will be updated
+     * @param specifier  letter of the attribute specifier, e.g. 'n' for "n/"
+     * @param source     String containing the value of the attribute
+     * @param valueStart index of the start of the value in source
+     * @param valueEnd   index after the end of the value in source
+     * @throws MedBotParserException if the specifier is not valid or the value is missing/invalid
+     */
+    public static void updatePersonalInformation(Person person, char specifier, String source, int valueStart,
+            int valueEnd) throws MedBotParserException {
+        String attribute = source.substring(valueStart, valueEnd);
+        switch (specifier) {
+        case SPECIFIER_NAME:
+            person.setName(parseName(attribute));
+            break;
+        case SPECIFIER_PHONE:
+            person.setPhoneNumber(parsePhoneNumber(attribute));
+            break;
+        case SPECIFIER_EMAIL:
+            person.setEmailAddress(parseEmailAddress(attribute));
+            break;
+        case SPECIFIER_IC:
+            person.setIcNumber(parseIcNumber(attribute));
+            break;
+        case SPECIFIER_ADDRESS:
+            person.setResidentialAddress(parseResidentialAddress(attribute));
+            break;
+        default:
+            throw new MedBotParserException(String.format(ERROR_INVALID_PARAM_SPECIFIER, specifier + "/"));
         }
-        throw new MedBotParserException(String.format(ERROR_INVALID_PARAM_SPECIFIER, attributeString.substring(0, 2)));
     }
 
     /**
@@ -250,7 +443,7 @@ public abstract class ParserUtils {
         if (icString.equals(EMPTY_STRING)) {
             throw new MedBotParserException(ERROR_IC_NUMBER_NOT_SPECIFIED);
         }
-        if (!icString.matches(REGEX_IC)) {
+        if (!PATTERN_IC.matcher(icString).matches()) {
             throw new MedBotParserException(ERROR_IC_NUMBER_INCORRECT_FORMAT);
         }
         assert icString.length() == 9;
@@ -268,7 +461,7 @@ public abstract class ParserUtils {
      *                               has too many/few digits or contains unexpected characters
      */
     public static String parsePhoneNumber(String attributeString) throws MedBotParserException {
-        String numberString = attributeString.replaceAll(REGEX_PHONE_NUMBER_SPACERS, EMPTY_STRING).strip();
+        String numberString = PATTERN_PHONE_NUMBER_SPACERS.matcher(attributeString).replaceAll(EMPTY_STRING).strip();
         if (numberString.equals(EMPTY_STRING)) {
             throw new MedBotParserException(ERROR_PHONE_NUMBER_NOT_SPECIFIED);
         }
@@ -278,7 +471,7 @@ public abstract class ParserUtils {
         if (numberString.length() < 8) {
             throw new MedBotParserException(ERROR_PHONE_NUMBER_TOO_FEW_DIGITS);
         }
-        if (!numberString.matches(REGEX_PHONE_NUMBER)) {
+        if (!PATTERN_PHONE_NUMBER.matcher(numberString).matches()) {
             throw new MedBotParserException(ERROR_PHONE_NUMBER_UNEXPECTED_CHARS);
         }
         return numberString;
@@ -298,7 +491,7 @@ public abstract class ParserUtils {
         if (emailString.equals(EMPTY_STRING)) {
             throw new MedBotParserException(ERROR_EMAIL_ADDRESS_NOT_SPECIFIED);
         }
-        if (!emailString.matches(REGEX_EMAIL)) {
+        if (!PATTERN_EMAIL.matcher(emailString).matches()) {
             throw new MedBotParserException(ERROR_EMAIL_ADDRESS_WRONG_FORMAT);
         }
         return emailString;
@@ -332,22 +525,41 @@ public abstract class ParserUtils {
      * @throws MedBotParserException if no integer is found
      */
     public static int parseId(String string) throws MedBotParserException {
-        string = string.strip();
-        if (string.equals(EMPTY_STRING)) {
-            throw new MedBotParserException(ERROR_ID_NOT_SPECIFIED);
-        }
-        Pattern pattern = Pattern.compile(REGEX_ID);
-        Matcher matcher = pattern.matcher(string);
-        if (!matcher.lookingAt()) {
-            throw new MedBotParserException(ERROR_ID_NOT_SPECIFIED);
+        return parseId(string, 0, string.length());
+    }
+
+    /**
+     * Reads the part of source between start and end and returns the non-negative integer at the start of it.
+     *
+     * <p>Finds an integer at the start of the part, after any whitespace, that is immediately followed by a space
+     * character or the end of the part, ignoring trailing whitespace. Returns that integer.
+     *
+     * @param source String containing the integer
+     * @param start  index of the start of the part in source
+     * @param end    index after the end of the part in source
+     * @return integer that was found
+     * @throws MedBotParserException if no integer is found
+     */
+    public static int parseId(String source, int start, int end) throws MedBotParserException {
+        while (start < end && Character.isWhitespace(source.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(source.charAt(end - 1))) {
+            end--;
+        }
+        int digitsEnd = start;
+        long id = 0;
+        while (digitsEnd < end && source.charAt(digitsEnd) >= '0' && source.charAt(digitsEnd) <= '9') {
+            id = id * 10 + source.charAt(digitsEnd) - '0';
+            if (id > Integer.MAX_VALUE) {
+                throw new MedBotParserException(ERROR_ID_NOT_SPECIFIED);
+            }
+            digitsEnd++;
         }
-        try {
-            return Integer.parseInt(matcher.group().stripTrailing());
-        } catch (NumberFormatException ne) {
-            //matched substring should only consist of [0-9], exception should not be thrown by parseInt method
-            assert false;
+        if (digitsEnd == start || (digitsEnd < end && source.charAt(digitsEnd) != ' ')) {
             throw new MedBotParserException(ERROR_ID_NOT_SPECIFIED);
         }
+        return (int) id;
     }
 
     /**
@@ -369,6 +581,24 @@ public abstract class ParserUtils {
         throw new MedBotParserException(ERROR_PERSON_TYPE_INVALID);
     }
 
+    /**
+     * Parses the person type from the letter of an attribute specifier.
+     *
+     * @param specifier the letter of the attribute specifier, 'p' or 's'.
+     * @return the personType (Patient or Staff).
+     * @throws MedBotParserException when the person type cannot be parsed.
+     */
+    public static PersonType parsePersonType(char specifier) throws MedBotParserException {
+        switch (specifier) {
+        case SPECIFIER_PATIENT:
+            return PersonType.PATIENT;
+        case SPECIFIER_STAFF:
+            return PersonType.STAFF;
+        default:
+            throw new MedBotParserException(ERROR_PERSON_TYPE_INVALID);
+        }
+    }
+
     /**
      * Returns the filter type of the appointment class.
      *
@@ -389,6 +619,24 @@ public abstract class ParserUtils {
         throw new MedBotParserException(ERROR_FILTER_TYPE_INVALID);
     }
 
+    /**
+     * Returns the filter type given by the letter of an attribute specifier.
+     *
+     * @param specifier the letter of the attribute specifier, 'b' or 'a'.
+     * @return the FilterType
+     * @throws MedBotParserException when the filter type cannot be identified
+     */
+    public static FilterType parseFilterType(char specifier) throws MedBotParserException {
+        switch (specifier) {
+        case SPECIFIER_BEFORE:
+            return FilterType.BEFORE;
+        case SPECIFIER_AFTER:
+            return FilterType.AFTER;
+        default:
+            throw new MedBotParserException(ERROR_FILTER_TYPE_INVALID);
+        }
+    }
+
     /**
      * Returns the flag in the list command (show hidden listItem or not).
      *
@@ -418,20 +666,14 @@ public abstract class ParserUtils {
      * @return String with each word capitalised
      */
     private static String capitaliseEachWord(String input) {
-        input = input.toLowerCase();
-        Function<MatchResult, String> multiAttributeReplacementFunction = x -> {
-            String match = x.group();
-            if (match.length() == 1) {
-                //if substring is the first character of the string
-                return match.toUpperCase();
-            } else {
-                //if substring consists of one of the characters " _-" followed by a letter
-                return match.charAt(0) + match.substring(1).toUpperCase();
+        char[] characters = input.toLowerCase().toCharArray();
+        for (int i = 0; i < characters.length; i++) {
+            boolean isFirstLetter = i == 0 || WORD_SEPARATORS.indexOf(characters[i - 1]) >= 0;
+            if (isFirstLetter && characters[i] >= 'a' && characters[i] <= 'z') {
+                characters[i] = Character.toUpperCase(characters[i]);
             }
-        };
-        Pattern pattern = Pattern.compile(REGEX_CAPITALISE_POSITION);
-        Matcher matcher = pattern.matcher(input);
-        return matcher.replaceAll(multiAttributeReplacementFunction);
+        }
+        return new String(characters);
     }
 
     /**
@@ -446,27 +688,45 @@ public abstract class ParserUtils {
     private static String preprocessMultiAttributeInput(String input) {
         //replacement function to add a "|" character before an attribute specifier
         Function<MatchResult, String> replacementFunction = x -> " " + VERTICAL_LINE + x.group().substring(1);
-        Pattern pattern = Pattern.compile(REGEX_INPUT_PARAMETER);
-        Matcher matcher = pattern.matcher(input);
-        return matcher.replaceAll(replacementFunction);
+        return PATTERN_INPUT_PARAMETER.matcher(input).replaceAll(replacementFunction);
     }
 
     /**
-     * Parses a String that corresponds to a date and time and returns the number of hours since Unix epoch that
-     * it corresponds to, rounded down.
+     * Parses a String that corresponds to a date and time and returns the number of minutes since Unix epoch that
+     * it corresponds to.
      *
      * @param dateTimeString String corresponding to a date and time
-     * @return the number of hours since Unix epoch, rounded down to the nearest hour
+     * @return the number of minutes since Unix epoch
      */
     public static int parseDateTime(String dateTimeString) throws MedBotParserException {
-        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern(DATE_TIME_FORMATTER_PATTERN);
-        LocalDateTime parsedDate;
-        try {
-            parsedDate = LocalDateTime.parse(dateTimeString, dateTimeFormatter);
-            parsedDate = parsedDate.withMinute(0);
-        } catch (DateTimeParseException dte) {
+        return parseExactDateTime(dateTimeString, 0, dateTimeString.length());
+    }
+
+    /**
+     * Parses the part of source between valueStart and valueEnd, without leading and trailing whitespace, as a date
+     * and time and returns the number of minutes since Unix epoch that it corresponds to.
+     *
+     * @param source     String containing the date and time
+     * @param valueStart index of the start of the date and time
+     * @param valueEnd   index after the end of the date and time
+     * @return the number of minutes since Unix epoch
+     * @throws MedBotParserException if the date and time is not in the format ddMMyy HHmm
+     */
+    public static int parseDateTime(String source, int valueStart, int valueEnd) throws MedBotParserException {
+        while (valueStart < valueEnd && Character.isWhitespace(source.charAt(valueStart))) {
+            valueStart++;
+        }
+        while (valueEnd > valueStart && Character.isWhitespace(source.charAt(valueEnd - 1))) {
+            valueEnd--;
+        }
+        return parseExactDateTime(source, valueStart, valueEnd);
+    }
+
+    private static int parseExactDateTime(String source, int start, int end) throws MedBotParserException {
+        int dateTimeCode = DateTimeCodec.parseStorageString(source, start, end);
+        if (dateTimeCode == DateTimeCodec.INVALID_DATE_TIME_CODE) {
             throw new MedBotParserException(ERROR_DATE_TIME_WRONG_FORMAT);
         }
-        return (int) (parsedDate.toEpochSecond(ZONE_OFFSET) / 60);
+        return dateTimeCode;
     }
 }
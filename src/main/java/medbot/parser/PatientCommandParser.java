@@ -27,6 +27,8 @@ public abstract class PatientCommandParser {
 
     private static final String ERROR_WRONG_COMMAND = "Unable to parse command." + END_LINE;
 
+    private static final CommandTrie PATIENT_COMMANDS = addPatientCommands(new CommandTrie());
+
     /**
      * Parses the user input and returns the corresponding command when the view type is PATIENT_INFO.
      *
@@ -35,32 +37,29 @@ public abstract class PatientCommandParser {
      * @throws MedBotParserException if user input is not a recognised command or contains invalid information.
      */
     public static Command parsePatientCommand(String userInput) throws MedBotParserException {
-        if (userInput.startsWith(COMMAND_ADD)) {
-            return parseAddPatientCommand(userInput);
-        }
-        if (userInput.startsWith(COMMAND_DELETE)) {
-            return parseDeletePatientCommand(userInput);
-        }
-        if (userInput.startsWith(COMMAND_VIEW)) {
-            return parseViewPatientCommand(userInput);
-        }
-        if (userInput.startsWith(COMMAND_LIST)) {
-            return parseListPatientCommand(userInput);
-        }
-        if (userInput.startsWith(COMMAND_EDIT)) {
-            return parseEditPatientCommand(userInput);
-        }
-        if (userInput.startsWith(COMMAND_FIND)) {
-            return parseFindPatientCommand(userInput);
-        }
-        if (userInput.startsWith(COMMAND_HIDE)) {
-            return parseHidePatientCommand(userInput);
-        }
-        if (userInput.startsWith(COMMAND_SHOW)) {
-            return parseShowPatientCommand(userInput);
+        CommandTrie.CommandWordParser parser = PATIENT_COMMANDS.find(userInput);
+        if (parser == null) {
+            throw new MedBotParserException(ERROR_WRONG_COMMAND);
         }
+        return parser.parse(userInput, null);
+    }
 
-        throw new MedBotParserException(ERROR_WRONG_COMMAND);
+    /**
+     * Adds the command words of the commands valid only when the view type is PATIENT_INFO to the given trie.
+     *
+     * @param commands the CommandTrie to add the command words to.
+     * @return the given CommandTrie.
+     */
+    static CommandTrie addPatientCommands(CommandTrie commands) {
+        return commands
+                .add(COMMAND_ADD, (userInput, session) -> parseAddPatientCommand(userInput))
+                .add(COMMAND_DELETE, (userInput, session) -> parseDeletePatientCommand(userInput))
+                .add(COMMAND_VIEW, (userInput, session) -> parseViewPatientCommand(userInput))
+                .add(COMMAND_LIST, (userInput, session) -> parseListPatientCommand(userInput))
+                .add(COMMAND_EDIT, (userInput, session) -> parseEditPatientCommand(userInput))
+                .add(COMMAND_FIND, (userInput, session) -> parseFindPatientCommand(userInput))
+                .add(COMMAND_HIDE, (userInput, session) -> parseHidePatientCommand(userInput))
+                .add(COMMAND_SHOW, (userInput, session) -> parseShowPatientCommand(userInput));
     }
 
     /**
@@ -97,10 +96,10 @@ public abstract class PatientCommandParser {
      */
     private static EditPatientCommand parseEditPatientCommand(String userInput) throws MedBotParserException {
         int patientId = ParserUtils.parseId(userInput.substring(4));
-        String[] parameters = ParserUtils.getParameters(userInput);
+        AttributeScanner attributes = AttributeScanner.scanAttributes(userInput);
         Patient patient = new Patient();
         patient.setNull();
-        ParserUtils.updateMultiplePersonalInformation(patient, parameters);
+        ParserUtils.updateMultiplePersonalInformation(patient, attributes);
         return new EditPatientCommand(patientId, patient);
     }
 
@@ -123,9 +122,9 @@ public abstract class PatientCommandParser {
      * @throws MedBotParserException when no parameters are specified, or when the parameters given cannot be parsed.
      */
     private static AddPatientCommand parseAddPatientCommand(String userInput) throws MedBotParserException {
-        String[] parameters = ParserUtils.getParameters(userInput);
+        AttributeScanner attributes = AttributeScanner.scanAttributes(userInput);
         Patient patient = new Patient();
-        ParserUtils.updateMultiplePersonalInformation(patient, parameters);
+        ParserUtils.updateMultiplePersonalInformation(patient, attributes);
         return new AddPatientCommand(patient);
     }
 
@@ -1,17 +1,32 @@
 package medbot.parser;
 
 import medbot.Appointment;
+import medbot.Resource;
+import medbot.WaitlistEntry;
 import medbot.command.Command;
 import medbot.command.appointmentcommand.AddAppointmentCommand;
+import medbot.command.appointmentcommand.ArchiveCommand;
 import medbot.command.appointmentcommand.DeleteAppointmentCommand;
 import medbot.command.appointmentcommand.EditAppointmentCommand;
 import medbot.command.appointmentcommand.FindAppointmentCommand;
+import medbot.command.appointmentcommand.FreeStaffCommand;
 import medbot.command.appointmentcommand.ListAppointmentCommand;
+import medbot.command.appointmentcommand.ReportCommand;
+import medbot.command.appointmentcommand.RescheduleAppointmentCommand;
+import medbot.command.appointmentcommand.SolveCommand;
 import medbot.command.appointmentcommand.ViewAppointmentCommand;
+import medbot.command.resourcecommand.AddResourceCommand;
+import medbot.command.resourcecommand.DeleteResourceCommand;
+import medbot.command.resourcecommand.ListResourceCommand;
+import medbot.command.resourcecommand.ViewResourceCommand;
+import medbot.command.waitlistcommand.AddWaitlistCommand;
+import medbot.command.waitlistcommand.DeleteWaitlistCommand;
+import medbot.command.waitlistcommand.ListWaitlistCommand;
 import medbot.exceptions.MedBotParserException;
 import medbot.person.PersonType;
 import medbot.utilities.FilterType;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public abstract class SchedulerCommandParser {
@@ -23,8 +38,32 @@ public abstract class SchedulerCommandParser {
     private static final String COMMAND_VIEW = "view";
     private static final String COMMAND_LIST = "list";
     private static final String COMMAND_FIND = "find";
+    private static final String COMMAND_RESCHEDULE = "reschedule";
+    private static final String COMMAND_FREE = "free";
+    private static final String COMMAND_REPORT = "report";
+    private static final String COMMAND_RESOURCE = "resource";
+    private static final String COMMAND_WAITLIST = "waitlist";
+    private static final String COMMAND_SOLVE = "solve";
+    private static final String COMMAND_ARCHIVE = "archive";
+
+    private static final char SPECIFIER_STAFF = 's';
+    private static final char SPECIFIER_FROM = 'a';
+    private static final char SPECIFIER_TO = 'b';
+    private static final char SPECIFIER_NEW_STAFF = 't';
+    private static final char SPECIFIER_NEW_DATE_TIME = 'd';
 
     private static final String ERROR_WRONG_COMMAND = "Unable to parse command." + END_LINE;
+    private static final String ERROR_RESCHEDULE_MISSING_PARAMETERS = "Staff ID and time window (s/, a/, b/) "
+            + "must be specified.";
+    private static final String ERROR_FREE_MISSING_DATE_TIME = "Exactly one of d/ or a/ must be specified.";
+    private static final String ERROR_REPORT_MISSING_DATE_TIME = "Date/Time (d/) must be specified.";
+    private static final String ERROR_ARCHIVE_MISSING_DATE_TIME = "Date/Time (b/) must be specified.";
+    private static final String ERROR_SOLVE_MISSING_FILE_PATH = "File path must be specified.";
+    private static final String ERROR_RESOURCE_MISSING_NAME = "Name (n/) must be specified.";
+    private static final String ERROR_INVALID_PARAM_SPECIFIER = "\"%s\" is not a valid attribute specifier";
+    private static final String ERROR_TOO_MANY_SPECIFIERS = "Too many attribute specifiers.";
+
+    private static final CommandTrie SCHEDULING_COMMANDS = addSchedulingCommands(new CommandTrie());
 
     /**
      * Parses the user input and returns the corresponding command when the view type is SCHEDULER.
@@ -34,26 +73,36 @@ public abstract class SchedulerCommandParser {
      * @throws MedBotParserException if user input is not a recognised command or contains invalid information.
      */
     public static Command parseSchedulingCommand(String userInput) throws MedBotParserException {
-        if (userInput.startsWith(COMMAND_ADD)) {
-            return parseAddAppointmentCommand(userInput);
-        }
-        if (userInput.startsWith(COMMAND_DELETE)) {
-            return parseDeleteAppointmentCommand(userInput);
-        }
-        if (userInput.startsWith(COMMAND_EDIT)) {
-            return parseEditAppointmentCommand(userInput);
-        }
-        if (userInput.equals(COMMAND_LIST)) {
-            return new ListAppointmentCommand();
-        }
-        if (userInput.startsWith(COMMAND_VIEW)) {
-            return parseViewAppointmentCommand(userInput);
-        }
-        if (userInput.startsWith(COMMAND_FIND)) {
-            return parseFindAppointmentCommand(userInput);
+        CommandTrie.CommandWordParser parser = SCHEDULING_COMMANDS.find(userInput);
+        if (parser == null) {
+            throw new MedBotParserException(ERROR_WRONG_COMMAND);
         }
+        return parser.parse(userInput, null);
+    }
 
-        throw new MedBotParserException(ERROR_WRONG_COMMAND);
+    /**
+     * Adds the command words of the commands valid only when the view type is SCHEDULER to the given trie.
+     *
+     * @param commands the CommandTrie to add the command words to.
+     * @return the given CommandTrie.
+     */
+    static CommandTrie addSchedulingCommands(CommandTrie commands) {
+        return commands
+                .add(COMMAND_RESOURCE, (userInput, session) ->
+                        parseResourceCommand(userInput.substring(COMMAND_RESOURCE.length()).strip()))
+                .add(COMMAND_WAITLIST, (userInput, session) ->
+                        parseWaitlistCommand(userInput.substring(COMMAND_WAITLIST.length()).strip()))
+                .add(COMMAND_ADD, (userInput, session) -> parseAddAppointmentCommand(userInput))
+                .add(COMMAND_DELETE, (userInput, session) -> parseDeleteAppointmentCommand(userInput))
+                .add(COMMAND_EDIT, (userInput, session) -> parseEditAppointmentCommand(userInput))
+                .addExact(COMMAND_LIST, (userInput, session) -> new ListAppointmentCommand())
+                .add(COMMAND_VIEW, (userInput, session) -> parseViewAppointmentCommand(userInput))
+                .add(COMMAND_RESCHEDULE, (userInput, session) -> parseRescheduleAppointmentCommand(userInput))
+                .add(COMMAND_FREE, (userInput, session) -> parseFreeStaffCommand(userInput))
+                .add(COMMAND_REPORT, (userInput, session) -> parseReportCommand(userInput))
+                .add(COMMAND_ARCHIVE, (userInput, session) -> parseArchiveCommand(userInput))
+                .add(COMMAND_SOLVE, (userInput, session) -> parseSolveCommand(userInput))
+                .add(COMMAND_FIND, (userInput, session) -> parseFindAppointmentCommand(userInput));
     }
 
     /**
@@ -65,9 +114,9 @@ public abstract class SchedulerCommandParser {
      *                               invalid
      */
     private static AddAppointmentCommand parseAddAppointmentCommand(String userInput) throws MedBotParserException {
-        String[] attributeStrings = ParserUtils.getParameters(userInput);
+        AttributeScanner attributes = AttributeScanner.scanAttributes(userInput);
         Appointment appointment = new Appointment();
-        ParserUtils.updateMultipleAppointmentInformation(appointment, attributeStrings);
+        ParserUtils.updateMultipleAppointmentInformation(appointment, attributes);
         return new AddAppointmentCommand(appointment);
     }
 
@@ -95,9 +144,9 @@ public abstract class SchedulerCommandParser {
      */
     private static EditAppointmentCommand parseEditAppointmentCommand(String userInput) throws MedBotParserException {
         int appointmentId = ParserUtils.parseId(userInput.substring(4));
-        String[] attributeStrings = ParserUtils.getParameters(userInput);
+        AttributeScanner attributes = AttributeScanner.scanAttributes(userInput);
         Appointment appointment = new Appointment();
-        ParserUtils.updateMultipleAppointmentInformation(appointment, attributeStrings);
+        ParserUtils.updateMultipleAppointmentInformation(appointment, attributes);
         return new EditAppointmentCommand(appointmentId, appointment);
     }
 
@@ -121,24 +170,215 @@ public abstract class SchedulerCommandParser {
      * @throws MedBotParserException if the input cannot be parsed.
      */
     private static Command parseFindAppointmentCommand(String userInput) throws MedBotParserException {
-        String[] attributeStrings = ParserUtils.getParametersWithoutSpecifiers(userInput).toArray(new String[0]);
-        List<String> attributeSpecifiers = ParserUtils.getSpecifiers(userInput);
-
-        assert (attributeSpecifiers.size() == 1 || attributeSpecifiers.size() == 2);
-        assert (attributeStrings.length == 1 || attributeStrings.length == 2);
+        AttributeScanner attributes = AttributeScanner.scanAttributes(userInput);
+        if (attributes.countRemaining() > 2) {
+            throw new MedBotParserException(ERROR_TOO_MANY_SPECIFIERS);
+        }
 
-        PersonType personType = ParserUtils.parsePersonType(attributeSpecifiers.get(0));
-        int personId = ParserUtils.parseId(attributeStrings[0]);
+        attributes.next();
+        PersonType personType = ParserUtils.parsePersonType(attributes.getSpecifier());
+        int personId = ParserUtils.parseId(attributes.getInput(), attributes.getValueStart(),
+                attributes.getValueEnd());
         FilterType filterType = FilterType.NONE;
         int dateTimeCode = -1;
-        if (attributeSpecifiers.size() == 2) {
-            filterType = ParserUtils.parseFilterType(attributeSpecifiers.get(1));
-        }
-        if (attributeStrings.length == 2) {
-            dateTimeCode = ParserUtils.parseDateTime(attributeStrings[1]);
+        if (attributes.next()) {
+            filterType = ParserUtils.parseFilterType(attributes.getSpecifier());
+            dateTimeCode = ParserUtils.parseDateTime(attributes.getValue());
         }
 
         return new FindAppointmentCommand(personId, personType, filterType, dateTimeCode);
     }
 
+    /**
+     * Parses user input and returns a RescheduleAppointmentCommand with the specified staff, time window and
+     * target staff and time.
+     *
+     * @param userInput String containing the full user input.
+     * @return RescheduleAppointmentCommand with the specified information.
+     * @throws MedBotParserException if the staff or time window is not specified, or the information is invalid.
+     */
+    private static Command parseRescheduleAppointmentCommand(String userInput) throws MedBotParserException {
+        AttributeScanner attributes = AttributeScanner.scanAttributes(userInput);
+        int staffId = -1;
+        int startDateTimeCode = -1;
+        int endDateTimeCode = -1;
+        int newStaffId = -1;
+        int newStartDateTimeCode = -1;
+        while (attributes.next()) {
+            switch (attributes.getSpecifier()) {
+            case SPECIFIER_STAFF:
+                staffId = parseAttributeId(attributes);
+                break;
+            case SPECIFIER_FROM:
+                startDateTimeCode = ParserUtils.parseDateTime(attributes.getValue());
+                break;
+            case SPECIFIER_TO:
+                endDateTimeCode = ParserUtils.parseDateTime(attributes.getValue());
+                break;
+            case SPECIFIER_NEW_STAFF:
+                newStaffId = parseAttributeId(attributes);
+                break;
+            case SPECIFIER_NEW_DATE_TIME:
+                newStartDateTimeCode = ParserUtils.parseDateTime(attributes.getValue());
+                break;
+            default:
+                throw new MedBotParserException(String.format(ERROR_INVALID_PARAM_SPECIFIER,
+                        attributes.getSpecifier() + "/"));
+            }
+        }
+        if (staffId == -1 || startDateTimeCode == -1 || endDateTimeCode == -1) {
+            throw new MedBotParserException(ERROR_RESCHEDULE_MISSING_PARAMETERS);
+        }
+        if (newStaffId == -1) {
+            newStaffId = staffId;
+        }
+        if (newStartDateTimeCode == -1) {
+            newStartDateTimeCode = startDateTimeCode;
+        }
+        return new RescheduleAppointmentCommand(staffId, startDateTimeCode, endDateTimeCode, newStaffId,
+                newStartDateTimeCode);
+    }
+
+    /**
+     * Parses user input and returns a FreeStaffCommand with the specified date time and staff.
+     *
+     * @param userInput String containing the full user input.
+     * @return FreeStaffCommand with the specified date time and staff.
+     * @throws MedBotParserException if not exactly one of d/ and a/ is specified, or the information is invalid.
+     */
+    private static Command parseFreeStaffCommand(String userInput) throws MedBotParserException {
+        AttributeScanner attributes = AttributeScanner.scanAttributes(userInput);
+        List<Integer> staffIds = new ArrayList<>();
+        int dateTimeCode = -1;
+        boolean isFindFirstFreeHour = false;
+        while (attributes.next()) {
+            char specifier = attributes.getSpecifier();
+            if (specifier == SPECIFIER_STAFF) {
+                staffIds.add(parseAttributeId(attributes));
+            } else if (specifier != SPECIFIER_NEW_DATE_TIME && specifier != SPECIFIER_FROM) {
+                throw new MedBotParserException(String.format(ERROR_INVALID_PARAM_SPECIFIER, specifier + "/"));
+            } else if (dateTimeCode != -1) {
+                throw new MedBotParserException(ERROR_FREE_MISSING_DATE_TIME);
+            } else {
+                dateTimeCode = ParserUtils.parseDateTime(attributes.getValue());
+                isFindFirstFreeHour = specifier == SPECIFIER_FROM;
+            }
+        }
+        if (dateTimeCode == -1) {
+            throw new MedBotParserException(ERROR_FREE_MISSING_DATE_TIME);
+        }
+        return new FreeStaffCommand(staffIds, dateTimeCode, isFindFirstFreeHour);
+    }
+
+    /**
+     * Parses the user input after the resource command word and returns the corresponding resource command.
+     *
+     * @param userInput String containing the user input after the resource command word.
+     * @return the corresponding Command object.
+     * @throws MedBotParserException if user input is not a recognised resource command or contains invalid
+     *                               information.
+     */
+    private static Command parseResourceCommand(String userInput) throws MedBotParserException {
+        if (userInput.startsWith(COMMAND_ADD)) {
+            Resource resource = new Resource();
+            AttributeScanner attributes = AttributeScanner.scanAttributes(userInput);
+            while (attributes.next()) {
+                ParserUtils.updateResourceInformation(resource, attributes.getSpecifier(), attributes.getInput(),
+                        attributes.getValueStart(), attributes.getValueEnd());
+            }
+            if (resource.getName().isEmpty()) {
+                throw new MedBotParserException(ERROR_RESOURCE_MISSING_NAME);
+            }
+            return new AddResourceCommand(resource);
+        }
+        if (userInput.startsWith(COMMAND_DELETE)) {
+            return new DeleteResourceCommand(ParserUtils.parseId(userInput.substring(COMMAND_DELETE.length())));
+        }
+        if (userInput.equals(COMMAND_LIST)) {
+            return new ListResourceCommand();
+        }
+        if (userInput.startsWith(COMMAND_VIEW)) {
+            return new ViewResourceCommand(ParserUtils.parseId(userInput.substring(COMMAND_VIEW.length())));
+        }
+        throw new MedBotParserException(ERROR_WRONG_COMMAND);
+    }
+
+    /**
+     * Parses the user input after the waitlist command word and returns the corresponding waitlist command.
+     *
+     * @param userInput String containing the user input after the waitlist command word.
+     * @return the corresponding Command object.
+     * @throws MedBotParserException if user input is not a recognised waitlist command or contains invalid
+     *                               information.
+     */
+    private static Command parseWaitlistCommand(String userInput) throws MedBotParserException {
+        if (userInput.startsWith(COMMAND_ADD)) {
+            WaitlistEntry entry = new WaitlistEntry();
+            AttributeScanner attributes = AttributeScanner.scanAttributes(userInput);
+            while (attributes.next()) {
+                ParserUtils.updateWaitlistEntryInformation(entry, attributes.getSpecifier(), attributes.getInput(),
+                        attributes.getValueStart(), attributes.getValueEnd());
+            }
+            return new AddWaitlistCommand(entry);
+        }
+        if (userInput.startsWith(COMMAND_DELETE)) {
+            return new DeleteWaitlistCommand(ParserUtils.parseId(userInput.substring(COMMAND_DELETE.length())));
+        }
+        if (userInput.equals(COMMAND_LIST)) {
+            return new ListWaitlistCommand();
+        }
+        throw new MedBotParserException(ERROR_WRONG_COMMAND);
+    }
+
+    /**
+     * Parses user input and returns an ArchiveCommand for the appointments ending by the specified date time.
+     *
+     * @param userInput String containing the full user input.
+     * @return ArchiveCommand for the appointments ending by the specified date time.
+     * @throws MedBotParserException if the date time is not specified or invalid.
+     */
+    private static Command parseArchiveCommand(String userInput) throws MedBotParserException {
+        AttributeScanner attributes = AttributeScanner.scanAttributes(userInput);
+        attributes.next();
+        if (attributes.hasNext() || attributes.getSpecifier() != SPECIFIER_TO) {
+            throw new MedBotParserException(ERROR_ARCHIVE_MISSING_DATE_TIME);
+        }
+        return new ArchiveCommand(ParserUtils.parseDateTime(attributes.getValue()));
+    }
+
+    /**
+     * Parses user input and returns a SolveCommand for the specified request file.
+     *
+     * @param userInput String containing the full user input.
+     * @return SolveCommand for the specified request file.
+     * @throws MedBotParserException if the file path is not specified.
+     */
+    private static Command parseSolveCommand(String userInput) throws MedBotParserException {
+        String filePath = userInput.substring(COMMAND_SOLVE.length()).strip();
+        if (filePath.isEmpty()) {
+            throw new MedBotParserException(ERROR_SOLVE_MISSING_FILE_PATH);
+        }
+        return new SolveCommand(filePath);
+    }
+
+    /**
+     * Parses user input and returns a ReportCommand for the week containing the specified date time.
+     *
+     * @param userInput String containing the full user input.
+     * @return ReportCommand for the week containing the specified date time.
+     * @throws MedBotParserException if the date time is not specified or invalid.
+     */
+    private static Command parseReportCommand(String userInput) throws MedBotParserException {
+        AttributeScanner attributes = AttributeScanner.scanAttributes(userInput);
+        attributes.next();
+        if (attributes.hasNext() || attributes.getSpecifier() != SPECIFIER_NEW_DATE_TIME) {
+            throw new MedBotParserException(ERROR_REPORT_MISSING_DATE_TIME);
+        }
+        int dateTimeCode = ParserUtils.parseDateTime(attributes.getValue());
+        return new ReportCommand(dateTimeCode);
+    }
+
+    private static int parseAttributeId(AttributeScanner attributes) throws MedBotParserException {
+        return ParserUtils.parseId(attributes.getInput(), attributes.getValueStart(), attributes.getValueEnd());
+    }
 }
@@ -26,6 +26,8 @@ public abstract class StaffCommandParser {
 
     private static final String ERROR_WRONG_COMMAND = "Unable to parse command." + END_LINE;
 
+    private static final CommandTrie STAFF_COMMANDS = addStaffCommands(new CommandTrie());
+
     /**
      * Parses the user input and returns the corresponding command when the view type is MEDICAL_STAFF_INFO.
      *
@@ -34,32 +36,29 @@ public abstract class StaffCommandParser {
      * @throws MedBotParserException if user input is not a recognised command or contains invalid information.
      */
     public static Command parseStaffCommand(String userInput) throws MedBotParserException {
-        if (userInput.startsWith(COMMAND_ADD)) {
-            return parseAddStaffCommand(userInput);
-        }
-        if (userInput.startsWith(COMMAND_DELETE)) {
-            return parseDeleteStaffCommand(userInput);
-        }
-        if (userInput.startsWith(COMMAND_VIEW)) {
-            return parseViewStaffCommand(userInput);
-        }
-        if (userInput.startsWith(COMMAND_LIST)) {
-            return parseListStaffCommand(userInput);
-        }
-        if (userInput.startsWith(COMMAND_EDIT)) {
-            return parseEditStaffCommand(userInput);
-        }
-        if (userInput.startsWith(COMMAND_FIND)) {
-            return parseFindStaffCommand(userInput);
-        }
-        if (userInput.startsWith(COMMAND_HIDE)) {
-            return parseHideStaffCommand(userInput);
-        }
-        if (userInput.startsWith(COMMAND_SHOW)) {
-            return parseShowStaffCommand(userInput);
+        CommandTrie.CommandWordParser parser = STAFF_COMMANDS.find(userInput);
+        if (parser == null) {
+            throw new MedBotParserException(ERROR_WRONG_COMMAND);
         }
+        return parser.parse(userInput, null);
+    }
 
-        throw new MedBotParserException(ERROR_WRONG_COMMAND);
+    /**
+     * Adds the command words of the commands valid only when the view type is MEDICAL_STAFF_INFO to the given trie.
+     *
+     * @param commands the CommandTrie to add the command words to.
+     * @return the given CommandTrie.
+     */
+    static CommandTrie addStaffCommands(CommandTrie commands) {
+        return commands
+                .add(COMMAND_ADD, (userInput, session) -> parseAddStaffCommand(userInput))
+                .add(COMMAND_DELETE, (userInput, session) -> parseDeleteStaffCommand(userInput))
+                .add(COMMAND_VIEW, (userInput, session) -> parseViewStaffCommand(userInput))
+                .add(COMMAND_LIST, (userInput, session) -> parseListStaffCommand(userInput))
+                .add(COMMAND_EDIT, (userInput, session) -> parseEditStaffCommand(userInput))
+                .add(COMMAND_FIND, (userInput, session) -> parseFindStaffCommand(userInput))
+                .add(COMMAND_HIDE, (userInput, session) -> parseHideStaffCommand(userInput))
+                .add(COMMAND_SHOW, (userInput, session) -> parseShowStaffCommand(userInput));
     }
 
     /**
@@ -96,10 +95,10 @@ public abstract class StaffCommandParser {
      */
     private static EditStaffCommand parseEditStaffCommand(String userInput) throws MedBotParserException {
         int staffId = ParserUtils.parseId(userInput.substring(4));
-        String[] parameters = ParserUtils.getParameters(userInput);
+        AttributeScanner attributes = AttributeScanner.scanAttributes(userInput);
         Staff staff = new Staff();
         staff.setNull();
-        ParserUtils.updateMultiplePersonalInformation(staff, parameters);
+        ParserUtils.updateMultiplePersonalInformation(staff, attributes);
         return new EditStaffCommand(staffId, staff);
     }
 
@@ -122,9 +121,9 @@ public abstract class StaffCommandParser {
      * @throws MedBotParserException when no parameters are specified, or when the parameters given cannot be parsed.
      */
     private static AddStaffCommand parseAddStaffCommand(String userInput) throws MedBotParserException {
-        String[] parameters = ParserUtils.getParameters(userInput);
+        AttributeScanner attributes = AttributeScanner.scanAttributes(userInput);
         Staff staff = new Staff();
-        ParserUtils.updateMultiplePersonalInformation(staff, parameters);
+        ParserUtils.updateMultiplePersonalInformation(staff, attributes);
         return new AddStaffCommand(staff);
     }
 
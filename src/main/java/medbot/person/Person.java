@@ -5,9 +5,11 @@ import medbot.exceptions.MedBotException;
 import medbot.list.ListItem;
 import medbot.list.PersonalAppointmentList;
 import medbot.utilities.FilterType;
+import medbot.utilities.Pair;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 import static medbot.ui.Ui.END_LINE;
 import static medbot.ui.Ui.VERTICAL_LINE_SPACED;
@@ -36,9 +38,13 @@ public abstract class Person implements ListItem {
     protected String phoneNumber = "";
     protected String emailAddress = "";
     protected String residentialAddress = "";
-    protected PersonalAppointmentList personalAppointmentList = new PersonalAppointmentList();
+    //Created when first needed, as many persons never have appointments
+    protected PersonalAppointmentList personalAppointmentList = null;
     protected boolean isHidden = false;
     protected PersonType personType;
+    //Table row and padded name of this person, rendered when first needed and cleared when what they show changes
+    private String tableRow = null;
+    private String nameInTableFormat = null;
 
     public int getId() {
         return personId;
@@ -46,6 +52,7 @@ public abstract class Person implements ListItem {
 
     public void setId(int personId) {
         this.personId = personId;
+        clearTableFormat();
     }
 
     public String toString() {
@@ -57,14 +64,39 @@ public abstract class Person implements ListItem {
                 + "Address: " + residentialAddress;
     }
 
+    /**
+     * Returns the row of this person in a table of persons.
+     *
+     * <p>The row is rendered when first needed and kept until an attribute that it shows is changed, so that
+     * listing unchanged persons again does not pad and truncate their attributes again.
+     *
+     * @return the row of this person in a table of persons
+     */
     public String getInfoInTableFormat() {
-        return VERTICAL_LINE_SPACED + getFormattedPersonId()
-                + VERTICAL_LINE_SPACED + getFormattedIcNumber()
-                + VERTICAL_LINE_SPACED + getFormattedName()
-                + VERTICAL_LINE_SPACED + getFormattedPhoneNumber()
-                + VERTICAL_LINE_SPACED + getFormattedEmail()
-                + VERTICAL_LINE_SPACED + getFormattedAddress()
-                + VERTICAL_LINE_SPACED;
+        if (tableRow == null) {
+            tableRow = VERTICAL_LINE_SPACED + getFormattedPersonId()
+                    + VERTICAL_LINE_SPACED + getFormattedIcNumber()
+                    + VERTICAL_LINE_SPACED + getNameInTableFormat()
+                    + VERTICAL_LINE_SPACED + getFormattedPhoneNumber()
+                    + VERTICAL_LINE_SPACED + getFormattedEmail()
+                    + VERTICAL_LINE_SPACED + getFormattedAddress()
+                    + VERTICAL_LINE_SPACED;
+        }
+        return tableRow;
+    }
+
+    /**
+     * Returns the name of this person padded or truncated to the width of the name column of a table.
+     *
+     * <p>Kept until the name is changed, like the table row.
+     *
+     * @return the name of this person in the width of a name column
+     */
+    public String getNameInTableFormat() {
+        if (nameInTableFormat == null) {
+            nameInTableFormat = formattedAttribute(name, LENGTH_NAME_COLUMN);
+        }
+        return nameInTableFormat;
     }
 
     public String getIcNumber() {
@@ -73,6 +105,7 @@ public abstract class Person implements ListItem {
 
     public void setIcNumber(String icNumber) {
         this.icNumber = icNumber;
+        clearTableFormat();
     }
 
     public String getName() {
@@ -81,6 +114,7 @@ public abstract class Person implements ListItem {
 
     public void setName(String name) {
         this.name = name;
+        clearTableFormat();
     }
 
     public String getPhoneNumber() {
@@ -89,6 +123,7 @@ public abstract class Person implements ListItem {
 
     public void setPhoneNumber(String phoneNumber) {
         this.phoneNumber = phoneNumber;
+        clearTableFormat();
     }
 
     public String getEmailAddress() {
@@ -97,6 +132,7 @@ public abstract class Person implements ListItem {
 
     public void setEmailAddress(String emailAddress) {
         this.emailAddress = emailAddress;
+        clearTableFormat();
     }
 
     public String getResidentialAddress() {
@@ -105,6 +141,7 @@ public abstract class Person implements ListItem {
 
     public void setResidentialAddress(String residentialAddress) {
         this.residentialAddress = residentialAddress;
+        clearTableFormat();
     }
 
     public void setNull() {
@@ -113,6 +150,7 @@ public abstract class Person implements ListItem {
         phoneNumber = null;
         emailAddress = null;
         residentialAddress = null;
+        clearTableFormat();
     }
 
     public boolean isHidden() {
@@ -127,6 +165,23 @@ public abstract class Person implements ListItem {
         isHidden = false;
     }
 
+    private PersonalAppointmentList getPersonalAppointmentList() {
+        if (personalAppointmentList == null) {
+            personalAppointmentList = new PersonalAppointmentList();
+        }
+        return personalAppointmentList;
+    }
+
+    /**
+     * Replaces the appointment list of this person. Used when appointment lists are built only when needed, in
+     * which case the list is set to null when it is dropped.
+     *
+     * @param personalAppointmentList the new appointment list of this person
+     */
+    public void setPersonalAppointmentList(PersonalAppointmentList personalAppointmentList) {
+        this.personalAppointmentList = personalAppointmentList;
+    }
+
     /**
      * Returns the appointmentId of the appointment at the specified time code, or -1 if there is none.
      *
@@ -134,7 +189,7 @@ public abstract class Person implements ListItem {
      * @return the appointmentId of the appointment with that dateTimeCode, or -1 if there is none
      */
     public int getAppointmentId(int dateTimeCode) {
-        return personalAppointmentList.getAppointmentId(dateTimeCode);
+        return getPersonalAppointmentList().getAppointmentId(dateTimeCode);
     }
 
     /**
@@ -143,7 +198,7 @@ public abstract class Person implements ListItem {
      * @return LinkedList of the appointmentId of all appointments
      */
     public LinkedList<Integer> getAllAppointmentIds() {
-        return personalAppointmentList.getAllAppointmentIds();
+        return getPersonalAppointmentList().getAllAppointmentIds();
     }
 
     /**
@@ -153,7 +208,7 @@ public abstract class Person implements ListItem {
      * @throws MedBotException if there is another appointment at that time
      */
     public void addAppointment(Appointment appointment) throws MedBotException {
-        personalAppointmentList.addAppointment(appointment);
+        getPersonalAppointmentList().addAppointment(appointment);
     }
 
     /**
@@ -163,24 +218,70 @@ public abstract class Person implements ListItem {
      * @throws MedBotException if there is no appointment with that dateTimeCode.
      */
     public void deleteAppointment(int dateTimeCode) throws MedBotException {
-        personalAppointmentList.deleteAppointment(dateTimeCode);
+        getPersonalAppointmentList().deleteAppointment(dateTimeCode);
     }
 
     //@@author Kureans
     public List<Integer> listAppointments(FilterType filterType, int dateTimeCode) {
         switch (filterType) {
         case BEFORE:
-            return personalAppointmentList.listAppointmentsBefore(dateTimeCode);
+            return getPersonalAppointmentList().listAppointmentsBefore(dateTimeCode);
         case AFTER:
-            return personalAppointmentList.listAppointmentsAfter(dateTimeCode);
+            return getPersonalAppointmentList().listAppointmentsAfter(dateTimeCode);
         case NONE:
         default:
-            return personalAppointmentList.listAppointments();
+            return getPersonalAppointmentList().listAppointments();
         }
     }
 
     //@@author
 
+    /**
+     * Returns the appointmentIds of the appointments between the two date times indicated, inclusive.
+     *
+     * @param startDateTimeCode the earliest date time of the appointments to look for
+     * @param endDateTimeCode   the latest date time of the appointments to look for
+     * @return list of the appointmentIds of the appointments between the two date times
+     */
+    public List<Integer> listAppointmentsBetween(int startDateTimeCode, int endDateTimeCode) {
+        return getPersonalAppointmentList().listAppointmentsBetween(startDateTimeCode, endDateTimeCode);
+    }
+
+    /**
+     * Returns the start and end of the occurrences of appointments between the two date times indicated, inclusive.
+     *
+     * @param startDateTimeCode the earliest date time to look for
+     * @param endDateTimeCode   the latest date time to look for
+     * @return list of (start, end) dateTimeCode pairs of the occurrences, ordered by start
+     */
+    public List<Pair<Integer, Integer>> listAppointmentOccurrencesBetween(int startDateTimeCode, int endDateTimeCode) {
+        return getPersonalAppointmentList().listOccurrencesBetween(startDateTimeCode, endDateTimeCode);
+    }
+
+    /**
+     * Returns the appointmentId of an appointment of this person that clashes with the given appointment, or -1 if
+     * there is none.
+     *
+     * @param appointment           the appointment to check
+     * @param ignoredAppointmentIds ids of appointments that should not be treated as clashes
+     * @return the appointmentId of a clashing appointment
+     */
+    public int getClashingAppointmentId(Appointment appointment, Set<Integer> ignoredAppointmentIds) {
+        return getPersonalAppointmentList().getClashingAppointmentId(appointment, ignoredAppointmentIds);
+    }
+
+    /**
+     * Returns the clashes between the given appointments and the appointments of this person.
+     *
+     * @param appointments          the appointments to check, which are not recurring, sorted by dateTimeCode
+     * @param ignoredAppointmentIds ids of appointments that should not be treated as clashes
+     * @return list of (appointmentId of the given appointment, appointmentId of the clashing appointment) pairs
+     */
+    public List<Pair<Integer, Integer>> findAppointmentClashes(List<Appointment> appointments,
+            Set<Integer> ignoredAppointmentIds) {
+        return getPersonalAppointmentList().findClashes(appointments, ignoredAppointmentIds);
+    }
+
     /**
      * Text to be written to storage file of a person.
      *
@@ -270,6 +371,11 @@ public abstract class Person implements ListItem {
         return output;
     }
 
+    private void clearTableFormat() {
+        tableRow = null;
+        nameInTableFormat = null;
+    }
+
     private String getFormattedPersonId() {
         return formattedAttribute(Integer.toString(personId), LENGTH_ID_COLUMN);
     }
@@ -278,10 +384,6 @@ public abstract class Person implements ListItem {
         return formattedAttribute(icNumber, LENGTH_IC_COLUMN);
     }
 
-    private String getFormattedName() {
-        return formattedAttribute(name, LENGTH_NAME_COLUMN);
-    }
-
     private String getFormattedPhoneNumber() {
         return formattedAttribute(phoneNumber, LENGTH_PHONE_NUM_COLUMN);
     }
@@ -0,0 +1,129 @@
+package medbot.server;
+
+import medbot.Scheduler;
+import medbot.SchedulerSnapshot;
+import medbot.command.Command;
+import medbot.exceptions.MedBotException;
+import medbot.storage.StorageManager;
+import medbot.ui.Ui;
+
+import java.io.IOException;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Executes the commands of several sessions on one scheduler.
+ *
+ * <p>Commands that only read the scheduler are executed at the same time as each other. Commands that change the
+ * scheduler are executed one at a time, with no reads in between, as every change updates ids, statistics and
+ * indexes shared by all patients and staff. Commands that update internal caches while reading, such as free,
+ * are treated as changes.
+ *
+ * <p>A session that begins a transaction keeps other sessions out until it commits or rolls back, so that no
+ * session sees changes that may be rolled back. All commands of a session must be executed on the same thread.
+ */
+public class CommandExecutor {
+    /**
+     * A change to the scheduler that returns a result, such as the id of an added appointment.
+     *
+     * @param <T> type of the result
+     */
+    @FunctionalInterface
+    public interface SchedulerChange<T> {
+        T applyTo(Scheduler scheduler) throws MedBotException;
+    }
+
+    private final Scheduler scheduler;
+    private final StorageManager storageManager;
+    //Fair, so that a steady stream of reads cannot keep changes waiting
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock(true);
+
+    public CommandExecutor(Scheduler scheduler, StorageManager storageManager) {
+        this.scheduler = scheduler;
+        this.storageManager = storageManager;
+    }
+
+    /**
+     * Returns the latest published snapshot of the scheduler, which can be read without waiting for commands.
+     *
+     * @return the latest snapshot
+     */
+    public SchedulerSnapshot getSnapshot() {
+        return scheduler.getSnapshot();
+    }
+
+    /**
+     * Executes the command, then saves and publishes the changes if it changed the scheduler.
+     *
+     * @param command the command to execute
+     * @param ui      Ui of the session that entered the command
+     * @throws MedBotException if the command fails
+     * @throws IOException     if the changes cannot be saved
+     */
+    public void execute(Command command, Ui ui) throws MedBotException, IOException {
+        //Lazily built appointment lists are built and dropped while reading, so reads cannot overlap
+        if (command.isReadOnly() && !scheduler.hasLazyAppointmentLists()) {
+            lock.readLock().lock();
+            try {
+                command.execute(scheduler, ui);
+            } finally {
+                lock.readLock().unlock();
+            }
+            return;
+        }
+
+        executeChange(changedScheduler -> {
+            command.execute(changedScheduler, ui);
+            return null;
+        });
+    }
+
+    /**
+     * Applies the change to the scheduler, with no other commands running, then saves and publishes it.
+     *
+     * @param change the change to apply
+     * @param <T>    type of the result of the change
+     * @return the result of the change
+     * @throws MedBotException if the change fails
+     * @throws IOException     if the change cannot be saved
+     */
+    public <T> T executeChange(SchedulerChange<T> change) throws MedBotException, IOException {
+        lock.writeLock().lock();
+        try {
+            T result = change.applyTo(scheduler);
+            //changes made during a transaction are only saved once it is committed
+            if (!scheduler.isInTransaction()) {
+                storageManager.saveToStorage(scheduler);
+            }
+            scheduler.publishSnapshot();
+            return result;
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    /**
+     * Rolls back the transaction of the current thread's session, if it has one. Called when a session ends.
+     */
+    public void endSession() {
+        if (!lock.isWriteLockedByCurrentThread()) {
+            return;
+        }
+        try {
+            scheduler.rollbackTransaction();
+        } catch (MedBotException e) {
+            assert false;
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    /**
+     * Releases the write lock, except for one hold that is kept while the session's transaction is open.
+     */
+    private void releaseWriteLock() {
+        int keptHoldCount = scheduler.isInTransaction() ? 1 : 0;
+        while (lock.getWriteHoldCount() > keptHoldCount) {
+            lock.writeLock().unlock();
+        }
+    }
+}
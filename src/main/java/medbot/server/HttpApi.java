@@ -0,0 +1,354 @@
+package medbot.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import medbot.Appointment;
+import medbot.SchedulerSnapshot;
+import medbot.exceptions.MedBotException;
+import medbot.parser.ParserUtils;
+import medbot.person.Person;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * HTTP API that lets other programs on the same computer read and add appointments and find persons, with JSON
+ * request and response bodies.
+ *
+ * <p>Reads are served from the latest scheduler snapshot without locking, and lists are written to the response
+ * as they are read from the snapshot. Appointments are added through the CommandExecutor, like the commands of
+ * a terminal session.
+ */
+public class HttpApi {
+    private static final int REQUEST_THREADS = 8;
+    private static final String PATH_APPOINTMENTS = "/appointments";
+    private static final String PATH_PATIENTS = "/patients";
+    private static final String PATH_STAFF = "/staff";
+    private static final String METHOD_GET = "GET";
+    private static final String METHOD_POST = "POST";
+
+    private static final int STATUS_OK = 200;
+    private static final int STATUS_CREATED = 201;
+    private static final int STATUS_BAD_REQUEST = 400;
+    private static final int STATUS_NOT_FOUND = 404;
+    private static final int STATUS_METHOD_NOT_ALLOWED = 405;
+    private static final int STATUS_INTERNAL_ERROR = 500;
+
+    private static final String ERROR_NOT_FOUND = "Not found.";
+    private static final String ERROR_METHOD_NOT_ALLOWED = "Method not allowed.";
+    private static final String ERROR_INVALID_NUMBER = "Invalid number: %s";
+    private static final String ERROR_UNKNOWN_FIELD = "Unknown field: %s";
+    private static final String ERROR_SAVE_STORAGE = "Unable to save the changes.";
+    private static final String ERROR_READ_BODY = "Unable to read the request body.";
+    private static final String ERROR_INTERNAL = "Unable to answer the request.";
+
+    //JSON fields of an added appointment, and the parameter specifiers of the add command they correspond to
+    private static final Map<String, String> APPOINTMENT_FIELDS = new LinkedHashMap<>();
+    //Query parameters of a search for persons, and the parameter specifiers of the find command they correspond to
+    private static final Map<String, String> PERSON_FIELDS = new LinkedHashMap<>();
+
+    static {
+        APPOINTMENT_FIELDS.put("patientId", "p/");
+        APPOINTMENT_FIELDS.put("staffId", "s/");
+        APPOINTMENT_FIELDS.put("dateTime", "d/");
+        APPOINTMENT_FIELDS.put("recurrenceIntervalDays", "r/");
+        APPOINTMENT_FIELDS.put("recurrenceCount", "c/");
+        APPOINTMENT_FIELDS.put("durationMinutes", "l/");
+        APPOINTMENT_FIELDS.put("resourceIds", "e/");
+        PERSON_FIELDS.put("name", "n/");
+        PERSON_FIELDS.put("ic", "i/");
+        PERSON_FIELDS.put("phone", "p/");
+        PERSON_FIELDS.put("email", "e/");
+        PERSON_FIELDS.put("address", "a/");
+    }
+
+    private final CommandExecutor commandExecutor;
+    private HttpServer httpServer = null;
+    private ExecutorService requestThreads = null;
+
+    public HttpApi(CommandExecutor commandExecutor) {
+        this.commandExecutor = commandExecutor;
+    }
+
+    /**
+     * Starts answering requests on the specified port of the loopback interface.
+     *
+     * @param port the port to listen on, or 0 for any free port
+     * @throws IOException if the port cannot be listened on
+     */
+    public void start(int port) throws IOException {
+        //Responses are sent in several small writes, which would otherwise each wait for the previous one's ACK
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        httpServer.createContext(PATH_APPOINTMENTS, exchange -> handle(exchange, this::handleAppointments));
+        httpServer.createContext(PATH_PATIENTS, exchange -> handle(exchange, e -> handlePersons(e, true)));
+        httpServer.createContext(PATH_STAFF, exchange -> handle(exchange, e -> handlePersons(e, false)));
+        requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+        httpServer.setExecutor(requestThreads);
+        httpServer.start();
+    }
+
+    public int getPort() {
+        return httpServer.getAddress().getPort();
+    }
+
+    /**
+     * Stops answering requests, and waits for requests that are being answered to finish.
+     */
+    public void stop() {
+        httpServer.stop(0);
+        requestThreads.shutdown();
+    }
+
+    @FunctionalInterface
+    private interface RequestHandler {
+        void handle(HttpExchange exchange) throws MedBotException, IOException;
+    }
+
+    /**
+     * Answers the request with the given handler, and answers with an error if the handler fails. Invalid requests,
+     * including those whose body cannot be read, are bad requests. Any other failure is an internal error.
+     */
+    private void handle(HttpExchange exchange, RequestHandler handler) throws IOException {
+        try {
+            handler.handle(exchange);
+        } catch (MedBotException e) {
+            sendError(exchange, STATUS_BAD_REQUEST, e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            //the response cannot be changed once it has started
+            if (exchange.getResponseCode() < 0) {
+                sendError(exchange, STATUS_INTERNAL_ERROR, ERROR_INTERNAL);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Answers GET /appointments, GET /appointments/ID and POST /appointments.
+     */
+    private void handleAppointments(HttpExchange exchange) throws MedBotException, IOException {
+        String subPath = exchange.getRequestURI().getPath().substring(PATH_APPOINTMENTS.length());
+        String method = exchange.getRequestMethod();
+        if (subPath.isEmpty() && method.equals(METHOD_GET)) {
+            listAppointments(exchange);
+        } else if (subPath.isEmpty() && method.equals(METHOD_POST)) {
+            addAppointment(exchange);
+        } else if (subPath.matches("/[0-9]{1,9}") && method.equals(METHOD_GET)) {
+            getAppointment(exchange, Integer.parseInt(subPath.substring(1)));
+        } else if (subPath.isEmpty() || subPath.matches("/[0-9]{1,9}")) {
+            sendError(exchange, STATUS_METHOD_NOT_ALLOWED, ERROR_METHOD_NOT_ALLOWED);
+        } else {
+            sendError(exchange, STATUS_NOT_FOUND, ERROR_NOT_FOUND);
+        }
+    }
+
+    /**
+     * Answers with the appointments, filtered by the patient, staff, before and after query parameters if given.
+     * Recurring appointments are included by after if any of their occurrences are at or after that date time.
+     */
+    private void listAppointments(HttpExchange exchange) throws MedBotException, IOException {
+        SchedulerSnapshot snapshot = commandExecutor.getSnapshot();
+        Map<String, String> query = parseQuery(exchange);
+        int patientId = query.containsKey("patient") ? parseNumber(query.get("patient")) : 0;
+        int staffId = query.containsKey("staff") ? parseNumber(query.get("staff")) : 0;
+        int before = query.containsKey("before") ? ParserUtils.parseDateTime(query.get("before")) : Integer.MAX_VALUE;
+        int after = query.containsKey("after") ? ParserUtils.parseDateTime(query.get("after")) : Integer.MIN_VALUE;
+        List<Appointment> appointments;
+        try {
+            if (query.containsKey("patient")) {
+                snapshot.getPatient(patientId);
+                appointments = snapshot.listPatientAppointments(patientId);
+            } else if (query.containsKey("staff")) {
+                snapshot.getStaff(staffId);
+                appointments = snapshot.listStaffAppointments(staffId);
+            } else {
+                appointments = snapshot.listAppointments();
+            }
+        } catch (MedBotException e) {
+            sendError(exchange, STATUS_NOT_FOUND, e.getMessage());
+            return;
+        }
+
+        JsonWriter json = startJsonResponse(exchange, STATUS_OK);
+        json.beginArray();
+        for (Appointment appointment : appointments) {
+            if (appointment.getDateTimeCode() <= before && appointment.getLastDateTimeCode() >= after) {
+                writeAppointment(json, appointment);
+            }
+        }
+        json.endArray();
+        json.flush();
+    }
+
+    private void getAppointment(HttpExchange exchange, int appointmentId) throws IOException {
+        Appointment appointment;
+        try {
+            appointment = commandExecutor.getSnapshot().getAppointment(appointmentId);
+        } catch (MedBotException e) {
+            sendError(exchange, STATUS_NOT_FOUND, e.getMessage());
+            return;
+        }
+        JsonWriter json = startJsonResponse(exchange, STATUS_OK);
+        writeAppointment(json, appointment);
+        json.flush();
+    }
+
+    /**
+     * Adds the appointment in the request body, and answers with its id.
+     */
+    private void addAppointment(HttpExchange exchange) throws MedBotException, IOException {
+        Map<String, String> fields = JsonParser.parseObject(readBody(exchange));
+        Appointment appointment = new Appointment();
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            String specifier = APPOINTMENT_FIELDS.get(field.getKey());
+            if (specifier == null) {
+                throw new MedBotException(String.format(ERROR_UNKNOWN_FIELD, field.getKey()));
+            }
+            ParserUtils.updateAppointmentInformation(appointment, specifier + field.getValue());
+        }
+        int appointmentId;
+        try {
+            appointmentId = commandExecutor.executeChange(scheduler -> scheduler.addAppointment(appointment));
+        } catch (IOException e) {
+            sendError(exchange, STATUS_INTERNAL_ERROR, ERROR_SAVE_STORAGE);
+            return;
+        }
+
+        JsonWriter json = startJsonResponse(exchange, STATUS_CREATED);
+        json.beginObject().name("id").value(appointmentId).endObject();
+        json.flush();
+    }
+
+    /**
+     * Answers GET /patients or GET /staff with the persons whose attributes contain all the given query
+     * parameters, in the same way as the find command.
+     */
+    private void handlePersons(HttpExchange exchange, boolean isPatient) throws MedBotException, IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (!path.equals(isPatient ? PATH_PATIENTS : PATH_STAFF)) {
+            sendError(exchange, STATUS_NOT_FOUND, ERROR_NOT_FOUND);
+            return;
+        }
+        if (!exchange.getRequestMethod().equals(METHOD_GET)) {
+            sendError(exchange, STATUS_METHOD_NOT_ALLOWED, ERROR_METHOD_NOT_ALLOWED);
+            return;
+        }
+        List<String> parameters = new ArrayList<>();
+        for (Map.Entry<String, String> queryParameter : parseQuery(exchange).entrySet()) {
+            String specifier = PERSON_FIELDS.get(queryParameter.getKey());
+            if (specifier == null) {
+                throw new MedBotException(String.format(ERROR_UNKNOWN_FIELD, queryParameter.getKey()));
+            }
+            parameters.add(specifier + queryParameter.getValue());
+        }
+        String[] parameterArray = parameters.toArray(new String[0]);
+
+        SchedulerSnapshot snapshot = commandExecutor.getSnapshot();
+        List<Person> persons = isPatient ? snapshot.listPatients() : snapshot.listStaff();
+        JsonWriter json = startJsonResponse(exchange, STATUS_OK);
+        json.beginArray();
+        for (Person person : persons) {
+            if (person.containsAllParameters(parameterArray)) {
+                writePerson(json, person);
+            }
+        }
+        json.endArray();
+        json.flush();
+    }
+
+    private static void writeAppointment(JsonWriter json, Appointment appointment) throws IOException {
+        json.beginObject()
+                .name("id").value(appointment.getId())
+                .name("patientId").value(appointment.getPatientId())
+                .name("staffId").value(appointment.getMedicalStaffId())
+                .name("dateTime").value(Appointment.getDateTimeStorageString(appointment.getDateTimeCode()))
+                .name("durationMinutes").value(appointment.getDurationMinutes());
+        if (appointment.isRecurring()) {
+            json.name("recurrenceIntervalDays").value(appointment.getRecurrenceIntervalDays())
+                    .name("recurrenceCount").value(appointment.getRecurrenceCount());
+        }
+        json.name("resourceIds").beginArray();
+        for (int resourceId : appointment.getResourceIds()) {
+            json.value(resourceId);
+        }
+        json.endArray().endObject();
+    }
+
+    private static void writePerson(JsonWriter json, Person person) throws IOException {
+        json.beginObject()
+                .name("id").value(person.getId())
+                .name("ic").value(person.getIcNumber())
+                .name("name").value(person.getName())
+                .name("phone").value(person.getPhoneNumber())
+                .name("email").value(person.getEmailAddress())
+                .name("address").value(person.getResidentialAddress())
+                .name("hidden").value(person.isHidden())
+                .endObject();
+    }
+
+    /**
+     * Sends the response headers, with the body sent in chunks as it is written, and returns a JsonWriter for
+     * the body.
+     */
+    private static JsonWriter startJsonResponse(HttpExchange exchange, int status) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, 0);
+        return new JsonWriter(new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(),
+                StandardCharsets.UTF_8)));
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        JsonWriter json = startJsonResponse(exchange, status);
+        json.beginObject().name("error").value(message.strip()).endObject();
+        json.flush();
+    }
+
+    /**
+     * Returns the request body. A body that cannot be read in full, such as when the client disconnects before
+     * sending all of it, is a bad request.
+     */
+    private static String readBody(HttpExchange exchange) throws MedBotException {
+        try (InputStream body = exchange.getRequestBody()) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new MedBotException(ERROR_READ_BODY);
+        }
+    }
+
+    private static Map<String, String> parseQuery(HttpExchange exchange) {
+        Map<String, String> query = new LinkedHashMap<>();
+        String rawQuery = exchange.getRequestURI().getRawQuery();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String parameter : rawQuery.split("&")) {
+            int equalsIndex = parameter.indexOf('=');
+            String name = equalsIndex < 0 ? parameter : parameter.substring(0, equalsIndex);
+            String value = equalsIndex < 0 ? "" : parameter.substring(equalsIndex + 1);
+            query.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static int parseNumber(String numberString) throws MedBotException {
+        try {
+            return Integer.parseInt(numberString);
+        } catch (NumberFormatException e) {
+            throw new MedBotException(String.format(ERROR_INVALID_NUMBER, numberString));
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package medbot.server;
+
+import medbot.exceptions.MedBotException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parses JSON objects whose values are all strings, numbers, booleans or null, such as the bodies of requests to
+ * the HTTP API.
+ */
+public class JsonParser {
+    private static final String ERROR_INVALID_JSON = "Request body is not a valid JSON object of plain values.";
+
+    private final String json;
+    private int position = 0;
+
+    private JsonParser(String json) {
+        this.json = json;
+    }
+
+    /**
+     * Returns the values of the given JSON object by their names. Strings are returned without their quotes, and
+     * other values as they are written, with null values left out.
+     *
+     * @param json String containing the JSON object
+     * @return map of the names to the values in the object
+     * @throws MedBotException if the String is not a JSON object of plain values
+     */
+    public static Map<String, String> parseObject(String json) throws MedBotException {
+        JsonParser parser = new JsonParser(json);
+        Map<String, String> values = parser.readObject();
+        parser.skipWhitespace();
+        if (parser.position != json.length()) {
+            throw new MedBotException(ERROR_INVALID_JSON);
+        }
+        return values;
+    }
+
+    private Map<String, String> readObject() throws MedBotException {
+        Map<String, String> values = new HashMap<>();
+        expect('{');
+        skipWhitespace();
+        if (peek() == '}') {
+            position++;
+            return values;
+        }
+        do {
+            skipWhitespace();
+            String name = readString();
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+            String value = peek() == '"' ? readString() : readLiteral();
+            if (value != null) {
+                values.put(name, value);
+            }
+            skipWhitespace();
+        } while (tryRead(','));
+        expect('}');
+        return values;
+    }
+
+    private String readString() throws MedBotException {
+        expect('"');
+        StringBuilder value = new StringBuilder();
+        while (peek() != '"') {
+            char c = json.charAt(position++);
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            char escaped = peek();
+            position++;
+            switch (escaped) {
+            case 'n':
+                value.append('\n');
+                break;
+            case 'r':
+                value.append('\r');
+                break;
+            case 't':
+                value.append('\t');
+                break;
+            case 'b':
+                value.append('\b');
+                break;
+            case 'f':
+                value.append('\f');
+                break;
+            case 'u':
+                value.append(readUnicodeEscape());
+                break;
+            default:
+                value.append(escaped);
+            }
+        }
+        position++;
+        return value.toString();
+    }
+
+    private char readUnicodeEscape() throws MedBotException {
+        if (position + 4 > json.length()) {
+            throw new MedBotException(ERROR_INVALID_JSON);
+        }
+        try {
+            char c = (char) Integer.parseInt(json.substring(position, position + 4), 16);
+            position += 4;
+            return c;
+        } catch (NumberFormatException e) {
+            throw new MedBotException(ERROR_INVALID_JSON);
+        }
+    }
+
+    /**
+     * Reads a number, boolean or null. Returns null for null.
+     */
+    private String readLiteral() throws MedBotException {
+        int start = position;
+        while (position < json.length() && "{}[],: \t\r\n\"".indexOf(json.charAt(position)) < 0) {
+            position++;
+        }
+        String literal = json.substring(start, position);
+        if (literal.equals("null")) {
+            return null;
+        }
+        if (!literal.equals("true") && !literal.equals("false")
+                && !literal.matches("-?(0|[1-9][0-9]*)(\\.[0-9]+)?([eE][+-]?[0-9]+)?")) {
+            throw new MedBotException(ERROR_INVALID_JSON);
+        }
+        return literal;
+    }
+
+    private void skipWhitespace() {
+        while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+            position++;
+        }
+    }
+
+    private char peek() throws MedBotException {
+        if (position >= json.length()) {
+            throw new MedBotException(ERROR_INVALID_JSON);
+        }
+        return json.charAt(position);
+    }
+
+    private boolean tryRead(char c) throws MedBotException {
+        if (peek() != c) {
+            return false;
+        }
+        position++;
+        return true;
+    }
+
+    private void expect(char c) throws MedBotException {
+        if (!tryRead(c)) {
+            throw new MedBotException(ERROR_INVALID_JSON);
+        }
+    }
+}
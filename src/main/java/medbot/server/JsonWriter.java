@@ -0,0 +1,133 @@
+package medbot.server;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Writes JSON to a Writer as it is built, so that large lists do not have to be held in memory as one String.
+ *
+ * <p>Values inside an object must be preceded by a call to name. Commas between elements are added automatically.
+ */
+public class JsonWriter {
+    private final Writer writer;
+    //For each open object or array, whether an element has been written in it
+    private final Deque<Boolean> hasElements = new ArrayDeque<>();
+    private boolean isAfterName = false;
+
+    public JsonWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public JsonWriter beginObject() throws IOException {
+        beginValue();
+        writer.write('{');
+        hasElements.push(false);
+        return this;
+    }
+
+    public JsonWriter endObject() throws IOException {
+        hasElements.pop();
+        writer.write('}');
+        return this;
+    }
+
+    public JsonWriter beginArray() throws IOException {
+        beginValue();
+        writer.write('[');
+        hasElements.push(false);
+        return this;
+    }
+
+    public JsonWriter endArray() throws IOException {
+        hasElements.pop();
+        writer.write(']');
+        return this;
+    }
+
+    /**
+     * Writes the name of the next value in the current object.
+     *
+     * @param name the name of the value
+     * @return this writer
+     * @throws IOException if the JSON cannot be written
+     */
+    public JsonWriter name(String name) throws IOException {
+        beginValue();
+        writeString(name);
+        writer.write(':');
+        isAfterName = true;
+        return this;
+    }
+
+    public JsonWriter value(String value) throws IOException {
+        beginValue();
+        writeString(value);
+        return this;
+    }
+
+    public JsonWriter value(long value) throws IOException {
+        beginValue();
+        writer.write(Long.toString(value));
+        return this;
+    }
+
+    public JsonWriter value(boolean value) throws IOException {
+        beginValue();
+        writer.write(Boolean.toString(value));
+        return this;
+    }
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * Writes the comma before the next element of the current object or array, if it is not the first.
+     */
+    private void beginValue() throws IOException {
+        if (isAfterName) {
+            isAfterName = false;
+            return;
+        }
+        if (hasElements.isEmpty()) {
+            return;
+        }
+        if (hasElements.pop()) {
+            writer.write(',');
+        }
+        hasElements.push(true);
+    }
+
+    private void writeString(String value) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '"':
+                writer.write("\\\"");
+                break;
+            case '\\':
+                writer.write("\\\\");
+                break;
+            case '\n':
+                writer.write("\\n");
+                break;
+            case '\r':
+                writer.write("\\r");
+                break;
+            case '\t':
+                writer.write("\\t");
+                break;
+            default:
+                if (c < ' ') {
+                    writer.write(String.format("\\u%04x", (int) c));
+                } else {
+                    writer.write(c);
+                }
+            }
+        }
+        writer.write('"');
+    }
+}
@@ -0,0 +1,96 @@
+package medbot.server;
+
+import medbot.Session;
+import medbot.command.Command;
+import medbot.exceptions.MedBotException;
+import medbot.parser.Parser;
+import medbot.storage.Storage;
+import medbot.ui.Ui;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Accepts connections from terminals on the local machine, and runs a MedBot session for each of them.
+ *
+ * <p>Each session has its own view and reads commands line by line, as if the user were typing into MedBot
+ * directly. The commands of all sessions are executed on the same scheduler by a CommandExecutor.
+ */
+public class MedBotServer {
+    private static final int MAX_SESSIONS = 16;
+
+    private final CommandExecutor commandExecutor;
+    //Connections beyond MAX_SESSIONS wait until a session ends
+    private final ExecutorService sessionThreads = Executors.newFixedThreadPool(MAX_SESSIONS);
+
+    public MedBotServer(CommandExecutor commandExecutor) {
+        this.commandExecutor = commandExecutor;
+    }
+
+    /**
+     * Accepts connections on the specified port until the server is stopped.
+     *
+     * @param port the port to listen on
+     * @throws IOException if the port cannot be listened on
+     */
+    public void run(int port) throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(port, MAX_SESSIONS, InetAddress.getLoopbackAddress())) {
+            while (!serverSocket.isClosed()) {
+                Socket socket = serverSocket.accept();
+                sessionThreads.execute(() -> runSession(socket));
+            }
+        } finally {
+            sessionThreads.shutdown();
+        }
+    }
+
+    /**
+     * Runs a session over the given connection until the user exits or disconnects.
+     */
+    private void runSession(Socket socket) {
+        Session session = new Session();
+        try (socket) {
+            Ui ui = new Ui(socket.getInputStream(), socket.getOutputStream());
+            try {
+                runCommands(ui, session);
+            } finally {
+                ui.closeInput();
+            }
+        } catch (IOException | NoSuchElementException e) {
+            //the terminal disconnected
+        } finally {
+            commandExecutor.endSession();
+        }
+    }
+
+    /**
+     * Reads and executes the commands of a session until the user exits or a save fails.
+     *
+     * @throws NoSuchElementException if the terminal disconnects before the user exits
+     */
+    private void runCommands(Ui ui, Session session) {
+        ui.printWelcomeMessageOne();
+        ui.printWelcomeMessageTwo();
+        boolean isInteracting = true;
+        while (isInteracting) {
+            String userInput = ui.readInput();
+            try {
+                Command command = Parser.parseCommand(userInput, session);
+                commandExecutor.execute(command, ui);
+                isInteracting = !command.isExit();
+            } catch (MedBotException mbe) {
+                ui.printOutput(mbe.getMessage() + System.lineSeparator());
+            } catch (IOException e) {
+                ui.printOutput(Storage.ERROR_SAVE_STORAGE + Storage.ERROR_MOVE_STORAGE_FILES
+                        + System.lineSeparator());
+                isInteracting = false;
+            }
+            ui.flush();
+        }
+    }
+}
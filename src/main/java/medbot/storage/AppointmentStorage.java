@@ -4,15 +4,18 @@ import medbot.Appointment;
 import medbot.exceptions.MedBotException;
 import medbot.list.ListItem;
 import medbot.list.ListItemType;
-import medbot.utilities.Pair;
-
-import java.util.ArrayList;
 
 import static medbot.parser.ParserUtils.updateAppointmentInformation;
 
 public class AppointmentStorage extends Storage {
-    private static final String APPOINTMENT_DATA_PATH = "MedBotData/appointment.txt";
-    private static final String[] parameterPrefixes = {"d/", "p/", "s/"};
+    static final String DATA_FILE_NAME = "appointment.txt";
+    private static final String APPOINTMENT_DATA_PATH = DEFAULT_DATA_FOLDER + "/" + DATA_FILE_NAME;
+    //The optional parameters, recurrence "r/" and "c/", duration "l/" and resources "e/", are only stored up to
+    //the last one that is set, with "X" for those before it that are not set
+    private static final char[] PARAMETER_SPECIFIERS = {'d', 'p', 's', 'r', 'c', 'l', 'e'};
+    private static final int NON_RECURRING_PARAMETER_COUNT = 3;
+    private static final int RECURRING_PARAMETER_COUNT = 5;
+    private static final String ERROR_PARAMETER_COUNT = "Invalid number of appointment parameters";
 
     /**
      * Instantiate storage at the default path, APPOINTMENT_DATA_PATH.
@@ -43,47 +46,28 @@ public class AppointmentStorage extends Storage {
      */
     @Override
     protected ListItem createListItem(String storageLine, ListItemType listItemType) throws MedBotException {
-        Pair<Integer, ArrayList<String>> appointmentDetails = parseStorageLine(storageLine);
-        if (appointmentDetails == null) {
+        if (storageLine.isBlank()) {
             return null;
         }
-        int appointmentId = appointmentDetails.first;
-        ArrayList<String> prefixPlusAppointmentParameters = appointmentDetails.second;
-
-        Appointment appointment = new Appointment();
-
-        appointment.setId(appointmentId);
-        for (String prefixPlusAppointmentParameter : prefixPlusAppointmentParameters) {
-            updateAppointmentInformation(appointment, prefixPlusAppointmentParameter);
+        StorageLine line = new StorageLine(storageLine);
+        int parameterCount = line.getParameterCount() - 1;
+        if (parameterCount != NON_RECURRING_PARAMETER_COUNT && parameterCount < RECURRING_PARAMETER_COUNT) {
+            parameterCount = PARAMETER_SPECIFIERS.length;
         }
-
-        return appointment;
-    }
-
-    /**
-     * Parse a line from the storage file by splitting its constituent parts.
-     *
-     * @param storageLine a line from the storage file
-     * @return listItem details, consisting of person ID and other parameters
-     */
-    protected Pair<Integer, ArrayList<String>> parseStorageLine(String storageLine) {
-        if (storageLine.isBlank()) {
-            return null;
+        if (line.getParameterCount() != parameterCount + 1 || parameterCount > PARAMETER_SPECIFIERS.length) {
+            throw new MedBotException(ERROR_PARAMETER_COUNT);
         }
 
-        String[] listItemParameters = splitStorageLine(storageLine);
-        ArrayList<String> prefixPlusListItemParameters = new ArrayList<>();
-        Integer listItemId = Integer.parseInt(listItemParameters[0]);
-
-        for (int i = 0; i < parameterPrefixes.length; i++) {
-            if (isStorageParameterNull(listItemParameters[i + 1])) {
+        Appointment appointment = new Appointment();
+        appointment.setId(line.parseInt(0));
+        for (int i = 0; i < parameterCount; i++) {
+            if (line.isParameterNull(i + 1)) {
                 continue;
             }
-            String prefixPlusListItemParameter = parameterPrefixes[i] + listItemParameters[i + 1];
-            prefixPlusListItemParameters.add(prefixPlusListItemParameter);
+            updateAppointmentInformation(appointment, PARAMETER_SPECIFIERS[i], storageLine, line.getStart(i + 1),
+                    line.getEnd(i + 1));
         }
-        assert listItemParameters.length == parameterPrefixes.length + 1;
 
-        return new Pair<>(listItemId, prefixPlusListItemParameters);
+        return appointment;
     }
 }
@@ -0,0 +1,148 @@
+package medbot.storage;
+
+import medbot.Appointment;
+import medbot.AppointmentArchive;
+import medbot.exceptions.MedBotException;
+import medbot.list.ListItemType;
+import medbot.parser.ParserUtils;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static medbot.ui.Ui.END_LINE;
+import static medbot.ui.Ui.VERTICAL_LINE_SPACED;
+
+/**
+ * Archive of past appointments, stored in the same format as AppointmentStorage but GZIP compressed.
+ *
+ * <p>Each append writes a new GZIP member to the end of the file, so archived data is never rewritten. A small
+ * index file keeps the earliest dateTimeCode and the largest appointmentId in the archive, so that the archive
+ * only has to be read when a search reaches back into it.
+ */
+public class ArchiveStorage extends AppointmentStorage implements AppointmentArchive {
+    static final String DATA_FILE_NAME = "archive.gz";
+    private static final String ARCHIVE_DATA_PATH = DEFAULT_DATA_FOLDER + "/" + DATA_FILE_NAME;
+    private static final String INDEX_SUFFIX = ".index";
+    private static final int INDEX_PARAMETER_COUNT = 2;
+    private static final String ERROR_READ_ARCHIVE = "Unable to read the appointment archive.";
+    private static final String ERROR_WRITE_ARCHIVE = "Unable to write to the appointment archive.";
+    private static final String ERROR_INVALID_ARCHIVE_LINE = "Line %d of the appointment archive is invalid.";
+
+    private final File indexFile;
+    private int earliestDateTimeCode = Integer.MAX_VALUE;
+    private int lastAppointmentId = 0;
+
+    /**
+     * Instantiate storage at the default path, ARCHIVE_DATA_PATH.
+     *
+     * @throws MedBotException if unable to create/detect or read the storage files
+     */
+    public ArchiveStorage() throws MedBotException {
+        this(ARCHIVE_DATA_PATH);
+    }
+
+    /**
+     * For testing purposes, using a custom data path.
+     *
+     * @param testDataPath custom data path
+     * @throws MedBotException if unable to create/detect or read the storage files
+     */
+    protected ArchiveStorage(String testDataPath) throws MedBotException {
+        super(testDataPath);
+        indexFile = new File(testDataPath + INDEX_SUFFIX);
+        loadIndex();
+    }
+
+    private void loadIndex() throws MedBotException {
+        if (!indexFile.exists()) {
+            return;
+        }
+        try {
+            String indexLine = Files.readString(indexFile.toPath()).strip();
+            if (indexLine.isEmpty()) {
+                return;
+            }
+            String[] indexParameters = splitStorageLine(indexLine);
+            if (indexParameters.length != INDEX_PARAMETER_COUNT) {
+                throw new MedBotException(ERROR_READ_ARCHIVE);
+            }
+            earliestDateTimeCode = ParserUtils.parseDateTime(indexParameters[0]);
+            lastAppointmentId = Integer.parseInt(indexParameters[1]);
+        } catch (IOException | NumberFormatException e) {
+            throw new MedBotException(ERROR_READ_ARCHIVE);
+        }
+    }
+
+    @Override
+    public void append(List<Appointment> appointments) throws MedBotException {
+        if (appointments.isEmpty()) {
+            return;
+        }
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(dataFile, true)),
+                StandardCharsets.UTF_8)) {
+            for (Appointment appointment : appointments) {
+                writer.write(appointment.getStorageString() + END_LINE);
+                earliestDateTimeCode = Math.min(earliestDateTimeCode, appointment.getDateTimeCode());
+                lastAppointmentId = Math.max(lastAppointmentId, appointment.getId());
+            }
+        } catch (IOException e) {
+            throw new MedBotException(ERROR_WRITE_ARCHIVE);
+        }
+        //The index is written after the archive, so that it never refers to appointments that are not archived
+        try (FileWriter indexWriter = new FileWriter(indexFile)) {
+            indexWriter.write(Appointment.getDateTimeStorageString(earliestDateTimeCode) + VERTICAL_LINE_SPACED
+                    + lastAppointmentId + END_LINE);
+        } catch (IOException e) {
+            throw new MedBotException(ERROR_WRITE_ARCHIVE);
+        }
+    }
+
+    @Override
+    public List<Appointment> loadAppointments() throws MedBotException {
+        List<Appointment> appointments = new ArrayList<>();
+        if (dataFile.length() == 0) {
+            return appointments;
+        }
+        //GZIPInputStream reads the members written by each append one after another
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new FileInputStream(dataFile)), StandardCharsets.UTF_8))) {
+            int lineNumber = 1;
+            for (String line = reader.readLine(); line != null; line = reader.readLine(), lineNumber++) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    appointments.add((Appointment) createListItem(line, ListItemType.APPOINTMENT));
+                } catch (MedBotException | RuntimeException e) {
+                    throw new MedBotException(String.format(ERROR_INVALID_ARCHIVE_LINE, lineNumber));
+                }
+            }
+        } catch (IOException e) {
+            throw new MedBotException(ERROR_READ_ARCHIVE);
+        }
+        return appointments;
+    }
+
+    @Override
+    public int getEarliestDateTimeCode() {
+        return earliestDateTimeCode;
+    }
+
+    @Override
+    public int getLastAppointmentId() {
+        return lastAppointmentId;
+    }
+}
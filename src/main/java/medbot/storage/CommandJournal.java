@@ -0,0 +1,144 @@
+package medbot.storage;
+
+import medbot.exceptions.MedBotException;
+import medbot.utilities.ViewType;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static medbot.ui.Ui.END_LINE;
+import static medbot.ui.Ui.VERTICAL_LINE_SPACED;
+
+/**
+ * A log of every line of user input, so that a session can be replayed later, such as against a newer build of
+ * MedBot to compare how long the commands take.
+ *
+ * <p>Each line of the journal is in the format "TIME_MILLIS | VIEW_TYPE | USER_INPUT", where TIME_MILLIS is when
+ * the line was read, in milliseconds since Unix epoch, and VIEW_TYPE is the view it was entered in. The user input
+ * is written as it was read, so it is always the last parameter.
+ *
+ * <p>Each line is written out as soon as it is recorded, so the journal is complete up to the last command even if
+ * MedBot is stopped. As with the output printed by a Ui, errors writing to the journal are not thrown, and once
+ * writing has failed, later lines are dropped.
+ */
+public class CommandJournal {
+    private static final String ERROR_READ_JOURNAL = "Unable to read the command journal.";
+    private static final String ERROR_INVALID_JOURNAL_LINE = "Line %d of the command journal is invalid.";
+
+    private final Writer writer;
+    private boolean hasError = false;
+
+    /**
+     * Opens the journal at the given path, adding to the end of it if it already exists.
+     *
+     * @param journalPath path of the journal file
+     * @throws IOException if the journal file cannot be opened for writing
+     */
+    public CommandJournal(String journalPath) throws IOException {
+        writer = new OutputStreamWriter(new FileOutputStream(journalPath, true), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a line of user input to the journal, with the current time.
+     *
+     * @param userInput the line of user input, as it was read
+     * @param viewType  the view the line was entered in
+     */
+    public void record(String userInput, ViewType viewType) {
+        if (hasError) {
+            return;
+        }
+        try {
+            writer.write(System.currentTimeMillis() + VERTICAL_LINE_SPACED + viewType.name() + VERTICAL_LINE_SPACED
+                    + userInput + END_LINE);
+            writer.flush();
+        } catch (IOException e) {
+            hasError = true;
+        }
+    }
+
+    /**
+     * Closes the journal file.
+     */
+    public void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            hasError = true;
+        }
+    }
+
+    /**
+     * Reads all entries of the journal at the given path, in the order they were recorded.
+     *
+     * @param journalPath path of the journal file
+     * @return the entries of the journal
+     * @throws MedBotException if the journal cannot be read or has an invalid line
+     */
+    public static List<Entry> readEntries(String journalPath) throws MedBotException {
+        List<Entry> entries = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(journalPath),
+                StandardCharsets.UTF_8))) {
+            int lineNumber = 1;
+            for (String line = reader.readLine(); line != null; line = reader.readLine(), lineNumber++) {
+                entries.add(parseEntry(line, lineNumber));
+            }
+        } catch (IOException e) {
+            throw new MedBotException(ERROR_READ_JOURNAL);
+        }
+        return entries;
+    }
+
+    private static Entry parseEntry(String line, int lineNumber) throws MedBotException {
+        //the user input may itself contain the separator, so only the first two separators are looked for
+        int timeEnd = line.indexOf(VERTICAL_LINE_SPACED);
+        int viewTypeStart = timeEnd + VERTICAL_LINE_SPACED.length();
+        int viewTypeEnd = timeEnd < 0 ? -1 : line.indexOf(VERTICAL_LINE_SPACED, viewTypeStart);
+        if (viewTypeEnd < 0) {
+            throw new MedBotException(String.format(ERROR_INVALID_JOURNAL_LINE, lineNumber));
+        }
+        try {
+            long timeMillis = Long.parseLong(line, 0, timeEnd, 10);
+            ViewType viewType = ViewType.valueOf(line.substring(viewTypeStart, viewTypeEnd));
+            String userInput = line.substring(viewTypeEnd + VERTICAL_LINE_SPACED.length());
+            return new Entry(timeMillis, viewType, userInput);
+        } catch (IllegalArgumentException e) {
+            throw new MedBotException(String.format(ERROR_INVALID_JOURNAL_LINE, lineNumber));
+        }
+    }
+
+    /**
+     * A line of user input read from a journal.
+     */
+    public static class Entry {
+        private final long timeMillis;
+        private final ViewType viewType;
+        private final String userInput;
+
+        private Entry(long timeMillis, ViewType viewType, String userInput) {
+            this.timeMillis = timeMillis;
+            this.viewType = viewType;
+            this.userInput = userInput;
+        }
+
+        public long getTimeMillis() {
+            return timeMillis;
+        }
+
+        public ViewType getViewType() {
+            return viewType;
+        }
+
+        public String getUserInput() {
+            return userInput;
+        }
+    }
+}
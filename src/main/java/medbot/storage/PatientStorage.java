@@ -5,7 +5,8 @@ import medbot.exceptions.MedBotException;
 
 public class PatientStorage extends PersonStorage {
 
-    private static final String PATIENT_DATA_PATH = "MedBotData/patient.txt";
+    static final String DATA_FILE_NAME = "patient.txt";
+    private static final String PATIENT_DATA_PATH = DEFAULT_DATA_FOLDER + "/" + DATA_FILE_NAME;
 
     /**
      * Instantiate storage at the default path, PATIENT_DATA_PATH.
@@ -6,18 +6,16 @@ import medbot.list.ListItemType;
 import medbot.person.Patient;
 import medbot.person.Person;
 import medbot.person.Staff;
-import medbot.utilities.Triple;
-
-import java.util.ArrayList;
 
 import static medbot.parser.ParserUtils.updatePersonalInformation;
 
 public abstract class PersonStorage extends Storage {
 
-    private static final String[] parameterPrefixes = {"i/", "n/", "p/", "e/", "a/"};
+    private static final char[] PARAMETER_SPECIFIERS = {'i', 'n', 'p', 'e', 'a'};
     private static final String STORAGE_SHOW_PARAMETER = "S";
     private static final String STORAGE_HIDE_PARAMETER = "H";
     private static final String ERROR_STORAGE_HIDE_PARAMETER = "Invalid storage hide parameter";
+    private static final String ERROR_PARAMETER_COUNT = "Invalid number of person parameters";
 
     /**
      * Generic constructor for PatientStorage and StaffStorage.
@@ -39,9 +37,7 @@ public abstract class PersonStorage extends Storage {
      */
     @Override
     protected ListItem createListItem(String storageLine, ListItemType listItemType) throws MedBotException {
-
-        Triple<Integer, Boolean, ArrayList<String>> personDetails = parseStorageLine(storageLine);
-        if (personDetails == null) {
+        if (storageLine.isBlank()) {
             return null;
         }
         Person person;
@@ -56,56 +52,28 @@ public abstract class PersonStorage extends Storage {
             throw new MedBotException("Invalid listItemType");
         }
 
-        int personId = personDetails.first;
-        boolean isHidden = personDetails.second;
-        ArrayList<String> prefixPlusPersonParameters = personDetails.third;
-
-        person.setId(personId);
-        if (isHidden) {
-            person.hide();
+        StorageLine line = new StorageLine(storageLine);
+        //the id, the personal information and the hide parameter
+        if (line.getParameterCount() < PARAMETER_SPECIFIERS.length + 2) {
+            throw new MedBotException(ERROR_PARAMETER_COUNT);
         }
-
-        for (String prefixPlusPersonParameter : prefixPlusPersonParameters) {
-            //updatePersonalInformation does error-checking of person details and updates patient info
-            updatePersonalInformation(person, prefixPlusPersonParameter);
-        }
-
-        return person;
-    }
-
-    /**
-     * Parse a line from the storage file by splitting its constituent parts.
-     *
-     * @param storageLine a line from the storage file
-     * @return listItem details, consisting of person ID and other parameters
-     */
-    protected Triple<Integer, Boolean, ArrayList<String>> parseStorageLine(String storageLine)
-            throws MedBotException {
-        if (storageLine.isBlank()) {
-            return null;
+        person.setId(line.parseInt(0));
+        if (convertStorageHideParameterToBoolean(line.getParameter(line.getParameterCount() - 1))) {
+            person.hide();
         }
 
-        String[] listItemParameters = splitStorageLine(storageLine);
-        ArrayList<String> prefixPlusListItemParameters = new ArrayList<>();
-        Integer listItemId = Integer.parseInt(listItemParameters[0]);
-
-        for (int i = 0; i < parameterPrefixes.length; i++) {
-            if (isStorageParameterNull(listItemParameters[i + 1])) {
+        for (int i = 0; i < PARAMETER_SPECIFIERS.length; i++) {
+            if (line.isParameterNull(i + 1)) {
                 continue;
             }
-            String prefixPlusListItemParameter = parameterPrefixes[i] + listItemParameters[i + 1];
-            prefixPlusListItemParameters.add(prefixPlusListItemParameter);
+            //updatePersonalInformation does error-checking of person details and updates patient info
+            updatePersonalInformation(person, PARAMETER_SPECIFIERS[i], storageLine, line.getStart(i + 1),
+                    line.getEnd(i + 1));
         }
 
-        int listItemParametersLastIndex = listItemParameters.length - 1;
-        String isHiddenParameter = listItemParameters[listItemParametersLastIndex];
-        boolean isHidden = convertStorageHideParameterToBoolean(isHiddenParameter);
-
-
-        return new Triple<>(listItemId, isHidden, prefixPlusListItemParameters);
+        return person;
     }
 
-
     /**
      * Convert the Hide parameter extracted from a storage line to boolean.
      * @param storageHideParameter "H" for hide, "S" for show
@@ -0,0 +1,58 @@
+package medbot.storage;
+
+import medbot.Resource;
+import medbot.exceptions.MedBotException;
+import medbot.list.ListItem;
+import medbot.list.ListItemType;
+
+import static medbot.parser.ParserUtils.updateResourceInformation;
+
+public class ResourceStorage extends Storage {
+    static final String DATA_FILE_NAME = "resource.txt";
+    private static final String RESOURCE_DATA_PATH = DEFAULT_DATA_FOLDER + "/" + DATA_FILE_NAME;
+    private static final char SPECIFIER_NAME = 'n';
+    private static final int PARAMETER_COUNT = 1;
+    private static final String ERROR_PARAMETER_COUNT = "Invalid number of resource parameters";
+
+    /**
+     * Instantiate storage at the default path, RESOURCE_DATA_PATH.
+     *
+     * @throws MedBotException if unable to create/detect storage file
+     */
+    public ResourceStorage() throws MedBotException {
+        super(RESOURCE_DATA_PATH);
+    }
+
+    /**
+     * For testing purposes, using a custom data path.
+     *
+     * @param testDataPath custom data path
+     * @throws MedBotException if unable to create/detect storage file
+     */
+    protected ResourceStorage(String testDataPath) throws MedBotException {
+        super(testDataPath);
+    }
+
+    /**
+     * Instantiates a Resource from a line of the storage file, in the format "RESOURCE_ID | NAME".
+     *
+     * @param storageLine  a line in storage file
+     * @param listItemType enum of ListItem type
+     * @return a Resource, or null if the line is blank
+     * @throws MedBotException if the line is not a valid resource
+     */
+    @Override
+    protected ListItem createListItem(String storageLine, ListItemType listItemType) throws MedBotException {
+        if (storageLine.isBlank()) {
+            return null;
+        }
+        StorageLine line = new StorageLine(storageLine);
+        if (line.getParameterCount() != PARAMETER_COUNT + 1) {
+            throw new MedBotException(ERROR_PARAMETER_COUNT);
+        }
+        Resource resource = new Resource();
+        resource.setId(line.parseInt(0));
+        updateResourceInformation(resource, SPECIFIER_NAME, storageLine, line.getStart(1), line.getEnd(1));
+        return resource;
+    }
+}
@@ -4,7 +4,8 @@ import medbot.exceptions.MedBotException;
 
 public class StaffStorage extends PersonStorage {
 
-    private static final String STAFF_DATA_PATH = "MedBotData/staff.txt";
+    static final String DATA_FILE_NAME = "staff.txt";
+    private static final String STAFF_DATA_PATH = DEFAULT_DATA_FOLDER + "/" + DATA_FILE_NAME;
 
     /**
      * Instantiate storage at the default path, STAFF_DATA_PATH.
@@ -1,20 +1,30 @@
 package medbot.storage;
 
 import medbot.Appointment;
+import medbot.Resource;
 import medbot.Scheduler;
+import medbot.WaitlistEntry;
 import medbot.exceptions.MedBotException;
 import medbot.list.ListItem;
 import medbot.list.ListItemType;
 import medbot.person.Patient;
 import medbot.person.Staff;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.Scanner;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
 
 import static java.lang.Math.max;
+import static medbot.ui.Ui.END_LINE;
+import static medbot.ui.Ui.VERTICAL_LINE_SPACED;
 import static medbot.ui.Ui.VERTICAL_LINE_SPACED_ESCAPED;
 
 public abstract class Storage {
@@ -25,9 +35,23 @@ public abstract class Storage {
             + "a location where it has read and write privileges before running it again.\n\n"
             + "Exiting MedBot...\n";
     protected static final String ERROR_NOT_LIST_ITEM = "Not a list item";
+    protected static final String DEFAULT_DATA_FOLDER = "MedBotData";
+    //start of the last line of a storage file saved by MedBot, followed by the checksum of the lines before it
+    private static final String CHECKSUM_PREFIX = "#CRC32" + VERTICAL_LINE_SPACED;
+    //start of the last parameter of each line saved by MedBot, followed by the checksum of the rest of the line
+    private static final String RECORD_CHECKSUM_PREFIX = VERTICAL_LINE_SPACED + "#";
+    private static final int CHECKSUM_LENGTH = 8;
+    private static final int HEX_RADIX = 16;
+    //added to the path of a storage file to get the file its invalid lines are moved to in recovery mode
+    private static final String QUARANTINE_FILE_SUFFIX = ".quarantine";
 
     protected File dataFile;
     protected String dataPath;
+    //true if the storage file was last loaded without any invalid lines, and had a matching checksum
+    private boolean isLoadedIntact = false;
+    //number of invalid lines last loaded that were moved to the quarantine file, and that were left in place
+    private int quarantinedLineCount = 0;
+    private int invalidLineCount = 0;
 
     /**
      * Generic Constructor with creates a storage text file if it doesn't already exist.
@@ -50,29 +74,278 @@ public abstract class Storage {
 
     /**
      * Reads in storage file, parses each line and adds the data into MedBot
-     * returns all line numbers of a storage file that are invalid.
+     * returns all line numbers of a storage file that are invalid. Invalid lines are left in the storage file.
      *
      * @param listItemType enum of ListItem type
      * @return Error message if there are formatting errors in storage file
      * @throws FileNotFoundException if storage file cannot be found
      */
     public String loadStorage(ListItemType listItemType, Scheduler scheduler) throws FileNotFoundException {
-        int lineNumber = 1;
-        Scanner s = new Scanner(dataFile);
-        String loadStorageErrorMessage = "";
+        return loadStorage(listItemType, scheduler, false);
+    }
 
-        while (s.hasNext()) {
-            try {
-                String storageLine = s.nextLine();
-                addListItemFromStorageLine(listItemType, scheduler, storageLine);
+    /**
+     * Reads in storage file, parses each line and adds the data into MedBot
+     * returns all line numbers of a storage file that are invalid.
+     *
+     * <p>If the file ends with a checksum line, as files saved by MedBot do, the checksum is checked against the
+     * lines before it first, so that a file changed or corrupted since it was saved is reported even if all of its
+     * lines are still valid. Files without a checksum line, such as those written by hand, are only checked line by
+     * line.
+     *
+     * <p>Each line saved by MedBot also ends with a checksum of the rest of the line. These are only checked if the
+     * checksum of the whole file does not match, and a line that does not match its checksum is invalid without
+     * being parsed. Lines without a checksum, such as those written by hand, are parsed as they are.
+     *
+     * <p>In recovery mode, invalid lines are added to the end of a quarantine file next to the storage file, without
+     * their checksums, and reported as one error instead of one error per line.
+     *
+     * @param listItemType   enum of ListItem type
+     * @param isRecoveryMode whether to move invalid lines to the quarantine file
+     * @return Error message if there are formatting errors in storage file
+     * @throws FileNotFoundException if storage file cannot be found
+     */
+    public String loadStorage(ListItemType listItemType, Scheduler scheduler, boolean isRecoveryMode)
+            throws FileNotFoundException {
+        byte[] data = readDataFile();
+        int checksumLineStart = getChecksumLineStart(data);
+        boolean hasChecksum = checksumLineStart >= 0;
+        int dataEnd = hasChecksum ? checksumLineStart : data.length;
+        String checksumErrorMessage = "";
+        boolean hasMatchingChecksum = hasChecksum && hasMatchingChecksum(data, checksumLineStart);
+        if (hasChecksum && !hasMatchingChecksum) {
+            checksumErrorMessage = loadStorageChecksumErrorMessage();
+        }
 
-            } catch (Exception e) {
-                loadStorageErrorMessage += loadStorageLineErrorMessage(lineNumber);
+        String storageText = new String(data, 0, dataEnd, Charset.defaultCharset());
+        //as with Scanner#hasNext, lines after the last one that is not blank are ignored
+        int textEnd = storageText.length();
+        while (textEnd > 0 && Character.isWhitespace(storageText.charAt(textEnd - 1))) {
+            textEnd--;
+        }
+        StringBuilder lineErrorMessages = new StringBuilder();
+        StringBuilder invalidLines = new StringBuilder();
+        invalidLineCount = 0;
+        quarantinedLineCount = 0;
+        int lineNumber = 1;
+        int lineStart = 0;
+        while (lineStart < textEnd) {
+            int lineEnd = getLineEnd(storageText, lineStart);
+            String storageLine = storageText.substring(lineStart, lineEnd);
+            int recordEnd = getRecordEnd(storageLine);
+            String record = storageLine.substring(0, recordEnd);
+            //every line of a file that matches its checksum matches its own checksum too
+            boolean isValid = hasMatchingChecksum || recordEnd == storageLine.length()
+                    || hasMatchingRecordChecksum(storageLine, recordEnd);
+            if (isValid) {
+                try {
+                    addListItemFromStorageLine(listItemType, scheduler, record);
+                } catch (Exception e) {
+                    isValid = false;
+                }
             }
+            if (!isValid) {
+                lineErrorMessages.append(loadStorageLineErrorMessage(lineNumber));
+                if (isRecoveryMode) {
+                    invalidLines.append(record).append(END_LINE);
+                }
+                invalidLineCount++;
+            }
+            lineStart = getNextLineStart(storageText, lineEnd);
             lineNumber++;
         }
 
-        return loadStorageErrorMessage;
+        if (invalidLineCount > 0 && isRecoveryMode && quarantineLines(invalidLines.toString())) {
+            quarantinedLineCount = invalidLineCount;
+            invalidLineCount = 0;
+            lineErrorMessages.setLength(0);
+            lineErrorMessages.append(loadStorageQuarantineErrorMessage(quarantinedLineCount));
+        }
+        isLoadedIntact = hasMatchingChecksum && invalidLineCount == 0 && quarantinedLineCount == 0;
+        return checksumErrorMessage + lineErrorMessages;
+    }
+
+    /**
+     * Returns the number of invalid lines that were moved to the quarantine file when the storage file was last
+     * loaded. They are left out of the storage file the next time it is saved.
+     *
+     * @return number of lines moved to the quarantine file
+     */
+    int getQuarantinedLineCount() {
+        return quarantinedLineCount;
+    }
+
+    /**
+     * Returns the number of invalid lines that were found, and not moved to the quarantine file, when the storage
+     * file was last loaded. They are overwritten the next time it is saved.
+     *
+     * @return number of invalid lines left in the storage file
+     */
+    int getInvalidLineCount() {
+        return invalidLineCount;
+    }
+
+    /**
+     * Returns true if the storage file was loaded without any invalid lines and with a matching checksum, in which
+     * case it holds the same data as the list loaded from it, and does not need to be saved until the list changes.
+     *
+     * @return whether the storage file was loaded intact
+     */
+    boolean isLoadedIntact() {
+        return isLoadedIntact;
+    }
+
+    private byte[] readDataFile() throws FileNotFoundException {
+        try (InputStream inputStream = new FileInputStream(dataFile)) {
+            return inputStream.readAllBytes();
+        } catch (FileNotFoundException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new FileNotFoundException(dataPath);
+        }
+    }
+
+    /**
+     * Returns the index of the first separator at or after lineStart, or the end of the text if there is none.
+     * Separators are the same as those of Scanner#nextLine.
+     */
+    private static int getLineEnd(String text, int lineStart) {
+        for (int i = lineStart; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u2028' || c == '\u2029' || c == '\u0085') {
+                return i;
+            }
+        }
+        return text.length();
+    }
+
+    private static int getNextLineStart(String text, int lineEnd) {
+        if (lineEnd >= text.length()) {
+            return lineEnd;
+        }
+        boolean isCrLf = text.charAt(lineEnd) == '\r' && lineEnd + 1 < text.length()
+                && text.charAt(lineEnd + 1) == '\n';
+        return lineEnd + (isCrLf ? 2 : 1);
+    }
+
+    /**
+     * Returns the index of the start of the checksum at the end of a line saved by MedBot, or the length of the line
+     * if it does not end with one.
+     */
+    private static int getRecordEnd(String storageLine) {
+        int recordEnd = storageLine.length() - CHECKSUM_LENGTH - RECORD_CHECKSUM_PREFIX.length();
+        if (recordEnd < 0 || !storageLine.startsWith(RECORD_CHECKSUM_PREFIX, recordEnd)) {
+            return storageLine.length();
+        }
+        for (int i = recordEnd + RECORD_CHECKSUM_PREFIX.length(); i < storageLine.length(); i++) {
+            if (Character.digit(storageLine.charAt(i), HEX_RADIX) < 0) {
+                return storageLine.length();
+            }
+        }
+        return recordEnd;
+    }
+
+    private static boolean hasMatchingRecordChecksum(String storageLine, int recordEnd) {
+        long checksum = Long.parseLong(storageLine, recordEnd + RECORD_CHECKSUM_PREFIX.length(),
+                storageLine.length(), HEX_RADIX);
+        byte[] record = storageLine.substring(0, recordEnd).getBytes(Charset.defaultCharset());
+        return checksum == getChecksum(record, 0, record.length);
+    }
+
+    /**
+     * Returns the data with the checksum of each line that is not empty added to the end of the line.
+     */
+    private static byte[] addRecordChecksums(byte[] data) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(data.length + data.length / 4);
+        byte[] prefix = RECORD_CHECKSUM_PREFIX.getBytes(StandardCharsets.US_ASCII);
+        int lineStart = 0;
+        while (lineStart < data.length) {
+            int lineEnd = lineStart;
+            while (lineEnd < data.length && data[lineEnd] != '\n') {
+                lineEnd++;
+            }
+            int recordEnd = lineEnd > lineStart && data[lineEnd - 1] == '\r' ? lineEnd - 1 : lineEnd;
+            outputStream.write(data, lineStart, recordEnd - lineStart);
+            if (recordEnd > lineStart) {
+                outputStream.writeBytes(prefix);
+                long checksum = getChecksum(data, lineStart, recordEnd - lineStart);
+                for (int shift = (CHECKSUM_LENGTH - 1) * 4; shift >= 0; shift -= 4) {
+                    outputStream.write(Character.forDigit((int) (checksum >>> shift) & 0xf, HEX_RADIX));
+                }
+            }
+            int nextLineStart = Math.min(lineEnd + 1, data.length);
+            outputStream.write(data, recordEnd, nextLineStart - recordEnd);
+            lineStart = nextLineStart;
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Adds the lines to the end of the quarantine file, and returns whether they were written.
+     */
+    private boolean quarantineLines(String lines) {
+        try (OutputStream outputStream = new FileOutputStream(getQuarantinePath(), true)) {
+            outputStream.write(lines.getBytes(Charset.defaultCharset()));
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private String getQuarantinePath() {
+        return dataPath + QUARANTINE_FILE_SUFFIX;
+    }
+
+    /**
+     * Returns the index of the start of the checksum line at the end of the data, or -1 if there is none.
+     */
+    private static int getChecksumLineStart(byte[] data) {
+        int lineEnd = data.length;
+        while (lineEnd > 0 && (data[lineEnd - 1] == '\n' || data[lineEnd - 1] == '\r')) {
+            lineEnd--;
+        }
+        int lineStart = lineEnd;
+        while (lineStart > 0 && data[lineStart - 1] != '\n' && data[lineStart - 1] != '\r') {
+            lineStart--;
+        }
+        if (lineEnd - lineStart != CHECKSUM_PREFIX.length() + CHECKSUM_LENGTH) {
+            return -1;
+        }
+        byte[] prefix = CHECKSUM_PREFIX.getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < prefix.length; i++) {
+            if (data[lineStart + i] != prefix[i]) {
+                return -1;
+            }
+        }
+        return lineStart;
+    }
+
+    private static boolean hasMatchingChecksum(byte[] data, int checksumLineStart) {
+        int checksumStart = checksumLineStart + CHECKSUM_PREFIX.length();
+        String checksum = new String(data, checksumStart, CHECKSUM_LENGTH, StandardCharsets.US_ASCII);
+        try {
+            return Long.parseLong(checksum, HEX_RADIX) == getChecksum(data, 0, checksumLineStart);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the CRC32 of length bytes of the data from the offset, with each "\r\n" counted as "\n", so that the
+     * checksum does not depend on the line separator of the platform the file was saved on.
+     */
+    private static long getChecksum(byte[] data, int offset, int length) {
+        CRC32 crc = new CRC32();
+        int end = offset + length;
+        int segmentStart = offset;
+        for (int i = offset; i + 1 < end; i++) {
+            if (data[i] == '\r' && data[i + 1] == '\n') {
+                crc.update(data, segmentStart, i - segmentStart);
+                segmentStart = i + 1;
+            }
+        }
+        crc.update(data, segmentStart, end - segmentStart);
+        return crc.getValue();
     }
 
 
@@ -100,10 +373,20 @@ public abstract class Storage {
             scheduler.setLastStaffId(lastStaffId);
             break;
         case APPOINTMENT:
-            scheduler.addAppointment((Appointment) listItem);
+            scheduler.loadAppointment((Appointment) listItem);
             int lastAppointmentId = max(listItem.getId(), scheduler.getLastAppointmentId());
             scheduler.setLastAppointmentId(lastAppointmentId);
             break;
+        case RESOURCE:
+            scheduler.addResource((Resource) listItem);
+            int lastResourceId = max(listItem.getId(), scheduler.getLastResourceId());
+            scheduler.setLastResourceId(lastResourceId);
+            break;
+        case WAITLIST:
+            scheduler.addWaitlistEntry((WaitlistEntry) listItem);
+            int lastWaitlistEntryId = max(listItem.getId(), scheduler.getLastWaitlistEntryId());
+            scheduler.setLastWaitlistEntryId(lastWaitlistEntryId);
+            break;
         default:
             throw new MedBotException(ERROR_NOT_LIST_ITEM);
 
@@ -111,15 +394,19 @@ public abstract class Storage {
     }
 
     /**
-     * Writes the storageString to storage file.
+     * Writes the storageString to storage file, with the checksum of each line at the end of the line, and the
+     * checksum of the whole file on a line of its own.
      *
      * @param storageString String containing the data of the list.
      * @throws IOException if unable to write to storage text file.
      */
     public void saveData(String storageString) throws IOException {
-        FileWriter fw = new FileWriter(dataPath);
-        fw.write(storageString);
-        fw.close();
+        byte[] data = addRecordChecksums(storageString.getBytes(Charset.defaultCharset()));
+        String checksumLine = CHECKSUM_PREFIX + String.format("%08x", getChecksum(data, 0, data.length)) + END_LINE;
+        try (OutputStream outputStream = new FileOutputStream(dataPath)) {
+            outputStream.write(data);
+            outputStream.write(checksumLine.getBytes(StandardCharsets.US_ASCII));
+        }
     }
 
 
@@ -134,23 +421,33 @@ public abstract class Storage {
     }
 
     /**
-     * True if "X", which means the parameter is null, false otherwise.
+     * Error message that shows the line number of a line in storage file with improper formatting.
+     *
+     * @param lineNumber the line number with improper formatting in storage/data.txt
+     * @return Error message
+     */
+    protected String loadStorageLineErrorMessage(int lineNumber) {
+        return "Error: Line " + lineNumber + " of " + dataPath + " is invalid!\n";
+    }
+
+    /**
+     * Error message that shows how many invalid lines of the storage file were moved to its quarantine file.
      *
-     * @param parameter a parameter in a line of storage/data.txt
-     * @return true if "X", which means the parameter is null, false otherwise
+     * @param lineCount the number of lines moved
+     * @return Error message
      */
-    protected static boolean isStorageParameterNull(String parameter) {
-        return parameter.equals("X");
+    protected String loadStorageQuarantineErrorMessage(int lineCount) {
+        return "Error: " + lineCount + (lineCount == 1 ? " invalid line" : " invalid lines") + " of " + dataPath
+                + " moved to " + getQuarantinePath() + "!\n";
     }
 
     /**
-     * Error message that shows the line number of a line in storage file with improper formatting.
+     * Error message that shows that the storage file has been changed or corrupted since it was last saved.
      *
-     * @param lineNumber the line number with improper formatting in storage/data.txt
      * @return Error message
      */
-    protected String loadStorageLineErrorMessage(int lineNumber) {
-        return "Error: Line " + lineNumber + " of " + dataPath + " is invalid!\n";
+    protected String loadStorageChecksumErrorMessage() {
+        return "Error: " + dataPath + " has been changed or corrupted since MedBot last saved it!\n";
     }
 
     /**
@@ -0,0 +1,84 @@
+package medbot.storage;
+
+import medbot.Scheduler;
+
+/**
+ * The text of the storage files of a scheduler, taken at one point in time, so that it can be written to the
+ * storage files later, or on another thread, while the scheduler keeps changing.
+ *
+ * <p>The storage generation of a list is a number that changes whenever the storage string of the list changes.
+ * Along with the text of each storage file, the storage generation of the list it was taken from is kept. The
+ * text is only taken for lists whose generation differs from the one given to the constructor, and left out for
+ * the others, which do not need to be saved again.
+ */
+public final class StorageData {
+    static final int PATIENT_INDEX = 0;
+    static final int STAFF_INDEX = 1;
+    static final int APPOINTMENT_INDEX = 2;
+    static final int RESOURCE_INDEX = 3;
+    static final int WAITLIST_INDEX = 4;
+    static final int STORAGE_COUNT = 5;
+
+    private final long[] generations;
+    //null for lists whose text was already known
+    private final String[] storageStrings = new String[STORAGE_COUNT];
+
+    /**
+     * Takes the text of the storage files of the scheduler as it is now, for the lists whose storage generation
+     * is not the given one.
+     *
+     * @param scheduler           instance of Scheduler class
+     * @param previousGenerations storage generations of the lists whose text is already known, or -1 for each list
+     *                            whose text must be taken
+     */
+    StorageData(Scheduler scheduler, long[] previousGenerations) {
+        generations = getStorageGenerations(scheduler);
+        if (isChangedSince(PATIENT_INDEX, previousGenerations)) {
+            storageStrings[PATIENT_INDEX] = scheduler.getPatientStorageString();
+        }
+        if (isChangedSince(STAFF_INDEX, previousGenerations)) {
+            storageStrings[STAFF_INDEX] = scheduler.getStaffStorageString();
+        }
+        if (isChangedSince(APPOINTMENT_INDEX, previousGenerations)) {
+            storageStrings[APPOINTMENT_INDEX] = scheduler.getAppointmentStorageString();
+        }
+        if (isChangedSince(RESOURCE_INDEX, previousGenerations)) {
+            storageStrings[RESOURCE_INDEX] = scheduler.getResourceStorageString();
+        }
+        if (isChangedSince(WAITLIST_INDEX, previousGenerations)) {
+            storageStrings[WAITLIST_INDEX] = scheduler.getWaitlistStorageString();
+        }
+    }
+
+    /**
+     * Returns the storage generations of the lists in the scheduler, in the order of the storage files.
+     */
+    static long[] getStorageGenerations(Scheduler scheduler) {
+        return new long[] {
+            scheduler.getPatientStorageGeneration(),
+            scheduler.getStaffStorageGeneration(),
+            scheduler.getAppointmentStorageGeneration(),
+            scheduler.getResourceStorageGeneration(),
+            scheduler.getWaitlistStorageGeneration()
+        };
+    }
+
+    private boolean isChangedSince(int index, long[] previousGenerations) {
+        return generations[index] != previousGenerations[index];
+    }
+
+    long getGeneration(int index) {
+        return generations[index];
+    }
+
+    long[] getGenerations() {
+        return generations.clone();
+    }
+
+    /**
+     * Returns the text of the storage file at the index, or null if its list was at the previous generation.
+     */
+    String getStorageString(int index) {
+        return storageStrings[index];
+    }
+}
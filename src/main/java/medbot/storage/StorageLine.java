@@ -0,0 +1,84 @@
+package medbot.storage;
+
+import static medbot.ui.Ui.VERTICAL_LINE_SPACED;
+
+/**
+ * A line of a storage file, with the positions of its parameters found in one pass over the line, so that each
+ * parameter can be parsed where it is without splitting the line into Strings.
+ *
+ * <p>Parameters are separated by " | ". As with splitting the line on the separator, empty parameters at the end
+ * of the line are left out.
+ */
+class StorageLine {
+    private static final String NULL_PARAMETER = "X";
+    private static final int SEPARATOR_LENGTH = VERTICAL_LINE_SPACED.length();
+
+    private final String line;
+    //start of each parameter, followed by the index after the end of the last parameter plus SEPARATOR_LENGTH
+    private final int[] parameterStarts;
+    private final int parameterCount;
+
+    StorageLine(String line) {
+        this.line = line;
+        int separatorCount = 0;
+        for (int i = line.indexOf(VERTICAL_LINE_SPACED); i >= 0;
+                i = line.indexOf(VERTICAL_LINE_SPACED, i + SEPARATOR_LENGTH)) {
+            separatorCount++;
+        }
+        parameterStarts = new int[separatorCount + 2];
+        int parameterIndex = 1;
+        for (int i = line.indexOf(VERTICAL_LINE_SPACED); i >= 0;
+                i = line.indexOf(VERTICAL_LINE_SPACED, i + SEPARATOR_LENGTH)) {
+            parameterStarts[parameterIndex++] = i + SEPARATOR_LENGTH;
+        }
+        parameterStarts[parameterIndex] = line.length() + SEPARATOR_LENGTH;
+
+        int count = separatorCount + 1;
+        while (count > 0 && getStart(count - 1) == getEnd(count - 1)) {
+            count--;
+        }
+        parameterCount = count;
+    }
+
+    String getLine() {
+        return line;
+    }
+
+    int getParameterCount() {
+        return parameterCount;
+    }
+
+    int getStart(int index) {
+        return parameterStarts[index];
+    }
+
+    int getEnd(int index) {
+        return parameterStarts[index + 1] - SEPARATOR_LENGTH;
+    }
+
+    String getParameter(int index) {
+        return line.substring(getStart(index), getEnd(index));
+    }
+
+    /**
+     * Returns true if the parameter is "X", which means that it is not set.
+     *
+     * @param index index of the parameter
+     * @return whether the parameter is not set
+     */
+    boolean isParameterNull(int index) {
+        return getEnd(index) - getStart(index) == NULL_PARAMETER.length()
+                && line.startsWith(NULL_PARAMETER, getStart(index));
+    }
+
+    /**
+     * Returns the parameter as an integer.
+     *
+     * @param index index of the parameter
+     * @return the integer value of the parameter
+     * @throws NumberFormatException if the parameter is not an integer
+     */
+    int parseInt(int index) {
+        return Integer.parseInt(line, getStart(index), getEnd(index), 10);
+    }
+}
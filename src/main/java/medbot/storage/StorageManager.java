@@ -6,23 +6,61 @@ import medbot.ui.Ui;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.Arrays;
 
 import static medbot.list.ListItemType.APPOINTMENT;
 import static medbot.list.ListItemType.PATIENT;
+import static medbot.list.ListItemType.RESOURCE;
 import static medbot.list.ListItemType.STAFF;
+import static medbot.list.ListItemType.WAITLIST;
 
 public class StorageManager {
     private static PatientStorage patientStorage;
     private static StaffStorage staffStorage;
     private static AppointmentStorage appointmentStorage;
+    private static ResourceStorage resourceStorage;
+    private static WaitlistStorage waitlistStorage;
+    private static ArchiveStorage archiveStorage;
     protected static final String ERROR_INVALID_STORAGE_LINE_INSTRUCTION = "\n"
             + "Please decide if you wish to:" + "\n"
             + "1. Enter 'exit' to exit MedBot to correct the storage files" + "\n"
             + "2. Enter other valid commands to OVERWRITE all invalid data!" + "\n";
+    protected static final String QUARANTINED_STORAGE_LINE_INSTRUCTION = "\n"
+            + "The invalid lines will be left out of the storage files the next time MedBot saves them." + "\n";
     protected static final String ERROR_LOAD_STORAGE = "ERROR: MedBot has issues finding some or "
             + "all of the storage files to load!";
 
+    private final String dataFolder;
+    private boolean isRecoveryMode = false;
+    //storage generations of the text last taken from the scheduler, read and replaced by the thread taking it
+    private volatile long[] takenGenerations = getUnknownGenerations();
+    //storage generations of the text last written to each storage file, used by the thread saving it
+    private final long[] savedGenerations = getUnknownGenerations();
+
+    /**
+     * Creates a StorageManager for the storage files in the MedBotData folder of the working directory.
+     */
     public StorageManager() {
+        this(Storage.DEFAULT_DATA_FOLDER);
+    }
+
+    /**
+     * Creates a StorageManager for the storage files in the given folder, such as a copy of the MedBotData folder.
+     *
+     * @param dataFolder path of the folder holding the storage files
+     */
+    public StorageManager(String dataFolder) {
+        this.dataFolder = dataFolder;
+    }
+
+    /**
+     * Sets whether invalid lines found when loading the storage files are moved to a quarantine file next to each
+     * storage file, instead of only being reported and overwritten by the next save.
+     *
+     * @param isRecoveryMode whether to move invalid lines to quarantine files
+     */
+    public void setRecoveryMode(boolean isRecoveryMode) {
+        this.isRecoveryMode = isRecoveryMode;
     }
 
     /**
@@ -34,23 +72,53 @@ public class StorageManager {
      * @throws MedBotException if unable to load any of the storage files
      */
     public void initializeStorages(Scheduler scheduler, Ui ui) throws MedBotException {
-        patientStorage = new PatientStorage();
-        staffStorage = new StaffStorage();
-        appointmentStorage = new AppointmentStorage();
+        patientStorage = new PatientStorage(getDataPath(PatientStorage.DATA_FILE_NAME));
+        staffStorage = new StaffStorage(getDataPath(StaffStorage.DATA_FILE_NAME));
+        appointmentStorage = new AppointmentStorage(getDataPath(AppointmentStorage.DATA_FILE_NAME));
+        resourceStorage = new ResourceStorage(getDataPath(ResourceStorage.DATA_FILE_NAME));
+        waitlistStorage = new WaitlistStorage(getDataPath(WaitlistStorage.DATA_FILE_NAME));
+        archiveStorage = new ArchiveStorage(getDataPath(ArchiveStorage.DATA_FILE_NAME));
 
         try {
             String loadStorageErrorMessage = loadStoragesAndGetErrorMessage(scheduler);
             if (!loadStorageErrorMessage.isBlank()) {
-                loadStorageErrorMessage += ERROR_INVALID_STORAGE_LINE_INSTRUCTION;
+                loadStorageErrorMessage += hasOnlyQuarantinedLines()
+                        ? QUARANTINED_STORAGE_LINE_INSTRUCTION
+                        : ERROR_INVALID_STORAGE_LINE_INSTRUCTION;
                 ui.printOutput("");
                 ui.printOutput(loadStorageErrorMessage);
             }
         } catch (FileNotFoundException e) {
             throw new MedBotException(ERROR_LOAD_STORAGE);
         }
+        //storage files that hold exactly what was loaded from them are not saved again until their lists change
+        long[] loadedGenerations = StorageData.getStorageGenerations(scheduler);
+        for (int i = 0; i < StorageData.STORAGE_COUNT; i++) {
+            if (getStorage(i).isLoadedIntact()) {
+                savedGenerations[i] = loadedGenerations[i];
+            }
+        }
+        takenGenerations = savedGenerations.clone();
+        //Archived appointments are not loaded, and are only read when they are searched for
+        scheduler.setAppointmentArchive(archiveStorage);
     }
 
 
+    /**
+     * Takes the text of the storage files of the lists in the scheduler that have changed since the text was last
+     * taken, to be saved later with saveToStorage.
+     *
+     * <p>Data must be taken by one thread at a time, and saved in the order it was taken.
+     *
+     * @param scheduler instance of Scheduler class
+     * @return the text of the storage files that have changed
+     */
+    public StorageData getStorageData(Scheduler scheduler) {
+        StorageData storageData = new StorageData(scheduler, takenGenerations);
+        takenGenerations = storageData.getGenerations();
+        return storageData;
+    }
+
     /**
      * Save all relevant data from MedBot program to storage text files.
      *
@@ -58,9 +126,73 @@ public class StorageManager {
      * @throws IOException if unable to save data to any of the storage text files
      */
     public void saveToStorage(Scheduler scheduler) throws IOException {
-        patientStorage.saveData(scheduler.getPatientStorageString());
-        staffStorage.saveData(scheduler.getStaffStorageString());
-        appointmentStorage.saveData(scheduler.getAppointmentStorageString());
+        saveToStorage(getStorageData(scheduler));
+    }
+
+    /**
+     * Save data taken from the scheduler earlier to storage text files. Files whose lists have not changed since
+     * they were last saved are not written.
+     *
+     * <p>If a file cannot be saved, the next data taken has the text of every storage file, so that nothing that
+     * failed to save is left out.
+     *
+     * @param storageData the text of the storage files that have changed
+     * @throws IOException if unable to save data to any of the storage text files
+     */
+    public void saveToStorage(StorageData storageData) throws IOException {
+        try {
+            for (int i = 0; i < StorageData.STORAGE_COUNT; i++) {
+                String storageString = storageData.getStorageString(i);
+                if (storageString == null || storageData.getGeneration(i) == savedGenerations[i]) {
+                    continue;
+                }
+                getStorage(i).saveData(storageString);
+                savedGenerations[i] = storageData.getGeneration(i);
+            }
+        } catch (IOException e) {
+            takenGenerations = getUnknownGenerations();
+            throw e;
+        }
+    }
+
+    private static Storage getStorage(int index) {
+        switch (index) {
+        case StorageData.PATIENT_INDEX:
+            return patientStorage;
+        case StorageData.STAFF_INDEX:
+            return staffStorage;
+        case StorageData.APPOINTMENT_INDEX:
+            return appointmentStorage;
+        case StorageData.RESOURCE_INDEX:
+            return resourceStorage;
+        default:
+            return waitlistStorage;
+        }
+    }
+
+    /**
+     * Returns true if invalid lines were moved to quarantine files, and no invalid lines were left in any storage
+     * file.
+     */
+    private static boolean hasOnlyQuarantinedLines() {
+        boolean hasQuarantinedLines = false;
+        for (int i = 0; i < StorageData.STORAGE_COUNT; i++) {
+            if (getStorage(i).getInvalidLineCount() > 0) {
+                return false;
+            }
+            hasQuarantinedLines |= getStorage(i).getQuarantinedLineCount() > 0;
+        }
+        return hasQuarantinedLines;
+    }
+
+    private static long[] getUnknownGenerations() {
+        long[] generations = new long[StorageData.STORAGE_COUNT];
+        Arrays.fill(generations, -1);
+        return generations;
+    }
+
+    private String getDataPath(String dataFileName) {
+        return dataFolder + "/" + dataFileName;
     }
 
     /**
@@ -72,8 +204,10 @@ public class StorageManager {
      */
     private String loadStoragesAndGetErrorMessage(Scheduler scheduler) throws FileNotFoundException {
 
-        return patientStorage.loadStorage(PATIENT, scheduler)
-                + staffStorage.loadStorage(STAFF, scheduler)
-                + appointmentStorage.loadStorage(APPOINTMENT, scheduler);
+        return patientStorage.loadStorage(PATIENT, scheduler, isRecoveryMode)
+                + staffStorage.loadStorage(STAFF, scheduler, isRecoveryMode)
+                + resourceStorage.loadStorage(RESOURCE, scheduler, isRecoveryMode)
+                + appointmentStorage.loadStorage(APPOINTMENT, scheduler, isRecoveryMode)
+                + waitlistStorage.loadStorage(WAITLIST, scheduler, isRecoveryMode);
     }
 }
@@ -0,0 +1,65 @@
+package medbot.storage;
+
+import medbot.WaitlistEntry;
+import medbot.exceptions.MedBotException;
+import medbot.list.ListItem;
+import medbot.list.ListItemType;
+
+import static medbot.parser.ParserUtils.updateWaitlistEntryInformation;
+
+public class WaitlistStorage extends Storage {
+    static final String DATA_FILE_NAME = "waitlist.txt";
+    private static final String WAITLIST_DATA_PATH = DEFAULT_DATA_FOLDER + "/" + DATA_FILE_NAME;
+    private static final char[] PARAMETER_SPECIFIERS = {'p', 's', 'a', 'b'};
+    private static final String ERROR_PARAMETER_COUNT = "Invalid number of waitlist parameters";
+    private static final String ERROR_INCOMPLETE_ENTRY = "Incomplete waitlist entry";
+
+    /**
+     * Instantiate storage at the default path, WAITLIST_DATA_PATH.
+     *
+     * @throws MedBotException if unable to create/detect storage file
+     */
+    public WaitlistStorage() throws MedBotException {
+        super(WAITLIST_DATA_PATH);
+    }
+
+    /**
+     * For testing purposes, using a custom data path.
+     *
+     * @param testDataPath custom data path
+     * @throws MedBotException if unable to create/detect storage file
+     */
+    protected WaitlistStorage(String testDataPath) throws MedBotException {
+        super(testDataPath);
+    }
+
+    /**
+     * Instantiates a WaitlistEntry from a line of the storage file, in the format
+     * "WAITLIST_ID | PATIENT_ID | STAFF_ID | FROM_DATE_TIME | UNTIL_DATE_TIME".
+     *
+     * @param storageLine  a line in storage file
+     * @param listItemType enum of ListItem type
+     * @return a WaitlistEntry, or null if the line is blank
+     * @throws MedBotException if the line is not a valid waitlist entry
+     */
+    @Override
+    protected ListItem createListItem(String storageLine, ListItemType listItemType) throws MedBotException {
+        if (storageLine.isBlank()) {
+            return null;
+        }
+        StorageLine line = new StorageLine(storageLine);
+        if (line.getParameterCount() != PARAMETER_SPECIFIERS.length + 1) {
+            throw new MedBotException(ERROR_PARAMETER_COUNT);
+        }
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setId(line.parseInt(0));
+        for (int i = 0; i < PARAMETER_SPECIFIERS.length; i++) {
+            updateWaitlistEntryInformation(entry, PARAMETER_SPECIFIERS[i], storageLine, line.getStart(i + 1),
+                    line.getEnd(i + 1));
+        }
+        if (!entry.isComplete()) {
+            throw new MedBotException(ERROR_INCOMPLETE_ENTRY);
+        }
+        return entry;
+    }
+}
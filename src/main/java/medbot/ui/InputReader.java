@@ -0,0 +1,184 @@
+package medbot.ui;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Reads lines of user input on a reader thread of its own, so that the next lines are already read and decoded
+ * while the current command is executed and saved.
+ *
+ * <p>The reader thread reads the input in large blocks, splits it into lines at "\n", "\r\n" and "\r", and puts
+ * the lines in a bounded queue, waiting when the queue is full. It is started by the first call to readLine. The
+ * input must be in an ASCII-compatible charset such as UTF-8, so that these line separators can be found in the
+ * bytes. Lines are then split again at the other line separators of Scanner, "\u0085", "\u2028" and "\u2029",
+ * once they are decoded.
+ *
+ * <p>As with Scanner#nextLine, the last line does not need a line separator, and reading past the end of the input
+ * throws a NoSuchElementException. Errors reading the input are treated as the end of the input.
+ *
+ * <p>A reader that is no longer used must be closed, as its reader thread otherwise waits forever once the queue
+ * is full.
+ */
+class InputReader {
+    private static final String ERROR_NO_LINE = "No line found";
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int INITIAL_LINE_SIZE = 256;
+    private static final int QUEUE_CAPACITY = 1024;
+    //put in the queue after the last line, and recognised by reference
+    private static final String END_OF_INPUT = new String();
+
+    private final InputStream inputStream;
+    private final Charset charset;
+    private final BlockingQueue<String> lines = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private Thread readerThread = null;
+    private boolean isAtEnd = false;
+    private boolean isClosed = false;
+
+    InputReader(InputStream inputStream) {
+        this.inputStream = inputStream;
+        charset = Charset.defaultCharset();
+    }
+
+    /**
+     * Returns the next line of the input, without its line separator, waiting for it to be read if needed.
+     *
+     * @return the next line of the input
+     * @throws NoSuchElementException if there are no more lines
+     */
+    String readLine() {
+        if (isAtEnd) {
+            throw new NoSuchElementException(ERROR_NO_LINE);
+        }
+        if (isClosed) {
+            throw new NoSuchElementException(ERROR_NO_LINE);
+        }
+        if (readerThread == null) {
+            readerThread = new Thread(this::readLines, "MedBot input reader");
+            //the reader may be blocked reading the terminal when MedBot exits
+            readerThread.setDaemon(true);
+            readerThread.start();
+        }
+        String line;
+        try {
+            line = lines.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            line = END_OF_INPUT;
+        }
+        if (line == END_OF_INPUT) {
+            isAtEnd = true;
+            throw new NoSuchElementException(ERROR_NO_LINE);
+        }
+        return line;
+    }
+
+    /**
+     * Stops reading the input. Lines that were read ahead are dropped, and readLine throws a NoSuchElementException
+     * from then on.
+     *
+     * <p>The reader thread stops at the next line it reads, so it may remain blocked reading the input stream until
+     * the stream is closed or has more input.
+     */
+    void close() {
+        isClosed = true;
+        if (readerThread != null) {
+            readerThread.interrupt();
+        }
+        lines.clear();
+    }
+
+    /**
+     * Reads the input until its end, putting each line in the queue. Runs on the reader thread.
+     */
+    private void readLines() {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        //part of a line that continues past the end of the buffer
+        byte[] linePart = new byte[INITIAL_LINE_SIZE];
+        int linePartLength = 0;
+        boolean isAfterCarriageReturn = false;
+        try {
+            int count;
+            while ((count = inputStream.read(buffer)) >= 0) {
+                int lineStart = 0;
+                for (int i = 0; i < count; i++) {
+                    byte b = buffer[i];
+                    if (b != '\n' && b != '\r') {
+                        isAfterCarriageReturn = false;
+                        continue;
+                    }
+                    if (b == '\n' && isAfterCarriageReturn) {
+                        //the second half of "\r\n"
+                        isAfterCarriageReturn = false;
+                        lineStart = i + 1;
+                        continue;
+                    }
+                    if (linePartLength == 0) {
+                        putLine(new String(buffer, lineStart, i - lineStart, charset), true);
+                    } else {
+                        linePart = append(linePart, linePartLength, buffer, lineStart, i);
+                        putLine(new String(linePart, 0, linePartLength + i - lineStart, charset), true);
+                        linePartLength = 0;
+                    }
+                    isAfterCarriageReturn = b == '\r';
+                    lineStart = i + 1;
+                }
+                linePart = append(linePart, linePartLength, buffer, lineStart, count);
+                linePartLength += count - lineStart;
+            }
+            if (linePartLength > 0) {
+                putLine(new String(linePart, 0, linePartLength, charset), false);
+            }
+            lines.put(END_OF_INPUT);
+        } catch (IOException e) {
+            putEndOfInput();
+        } catch (InterruptedException e) {
+            //nothing is waiting for the rest of the input
+        }
+    }
+
+    /**
+     * Puts the line in the queue, split at any "\u0085", "\u2028" and "\u2029" in it.
+     *
+     * @param line         the decoded line, without its line separator
+     * @param hasLineBreak whether the line was followed by a line separator, in which case a line left empty by a
+     *                     separator at its end is put as well
+     */
+    private void putLine(String line, boolean hasLineBreak) throws InterruptedException {
+        int lineStart = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                lines.put(line.substring(lineStart, i));
+                lineStart = i + 1;
+            }
+        }
+        if (lineStart < line.length() || hasLineBreak) {
+            lines.put(lineStart == 0 ? line : line.substring(lineStart));
+        }
+    }
+
+    private void putEndOfInput() {
+        try {
+            lines.put(END_OF_INPUT);
+        } catch (InterruptedException e) {
+            //nothing is waiting for the end of the input
+        }
+    }
+
+    /**
+     * Returns linePart, or a larger copy of it, with buffer[start..end) written after its first length bytes.
+     */
+    private static byte[] append(byte[] linePart, int length, byte[] buffer, int start, int end) {
+        int newLength = length + end - start;
+        if (newLength > linePart.length) {
+            linePart = Arrays.copyOf(linePart, Math.max(newLength, linePart.length * 2));
+        }
+        System.arraycopy(buffer, start, linePart, length, end - start);
+        return linePart;
+    }
+}
@@ -0,0 +1,21 @@
+package medbot.ui;
+
+/**
+ * Where the text printed by a Ui goes.
+ *
+ * <p>Printed text may be held back until the sink is flushed, so that a command printing many rows does not write
+ * each of them out on its own. The Ui is flushed at the end of every command and before waiting for user input.
+ */
+public interface OutputSink {
+    /**
+     * Prints the text, without adding a line separator.
+     *
+     * @param text the text to be printed
+     */
+    void print(String text);
+
+    /**
+     * Writes out all text printed so far.
+     */
+    void flush();
+}
@@ -166,6 +166,15 @@ public class PatientUi extends PersonUi {
         return getAllPersonsString(PATIENT, patientListString, isHiddenPersonList);
     }
 
+    /**
+     * Returns the lines before the rows of a table of all hidden or not-hidden patients.
+     *
+     * @return String containing the header of the table of all patients
+     */
+    public static String getAllPatientsHeader(boolean isHiddenPersonList) {
+        return getTableHeader(PATIENT, isHiddenPersonList);
+    }
+
     /**
      * Returns a String containing the header of the patient information table for matched patients.
      *
@@ -23,6 +23,9 @@ public abstract class PersonUi {
                 + "find" + END_LINE
                 + "hide" + END_LINE
                 + "show" + END_LINE
+                + "begin" + END_LINE
+                + "commit" + END_LINE
+                + "rollback" + END_LINE
                 + "switch" + END_LINE
                 + "get view" + END_LINE
                 + "exit" + END_LINE + END_LINE
@@ -154,6 +157,15 @@ public abstract class PersonUi {
         return output;
     }
 
+    /**
+     * Returns the line that closes a table of persons.
+     *
+     * @return String containing the last line of a person information table.
+     */
+    public static String getTableFooter() {
+        return TABLE_ROW_SEPARATOR;
+    }
+
     /**
      * Returns a String containing the header of the person information table.
      *
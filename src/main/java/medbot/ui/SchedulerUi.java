@@ -1,5 +1,8 @@
 package medbot.ui;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class SchedulerUi {
     private static final String END_LINE = System.lineSeparator();
     private static final String TABLE_ROW_SEPARATOR = " ------------------------------------------------"
@@ -18,6 +21,16 @@ public class SchedulerUi {
                 + "view" + END_LINE
                 + "list" + END_LINE
                 + "find" + END_LINE
+                + "reschedule" + END_LINE
+                + "free" + END_LINE
+                + "report" + END_LINE
+                + "resource" + END_LINE
+                + "waitlist" + END_LINE
+                + "solve" + END_LINE
+                + "archive" + END_LINE
+                + "begin" + END_LINE
+                + "commit" + END_LINE
+                + "rollback" + END_LINE
                 + "switch" + END_LINE
                 + "get view" + END_LINE
                 + "exit" + END_LINE + END_LINE
@@ -36,13 +49,17 @@ public class SchedulerUi {
     public static String getAddAppointmentHelpMessage() {
         return "Adds an appointment to the list. MedBot will check if the appointment clashes with " + END_LINE
                 + "others and display an error message if it does." + END_LINE
-                + "Format: `add p/PATIENT_ID s/STAFF_ID d/DATE_TIME`" + END_LINE
+                + "Format: `add p/PATIENT_ID s/STAFF_ID d/DATE_TIME [l/DURATION_MINUTES] [r/INTERVAL_DAYS c/COUNT] "
+                + "[e/RESOURCE_ID]...`" + END_LINE
                 + "The format for `DATE_TIME` is `DDMMYY hhmm`." + END_LINE
                 + "E.g., 9 February 2021, 0800HRS should be written as `090221 0800`" + END_LINE
-                + "Do note that the appointments are managed at an hourly basis. For example, " + END_LINE
-                + "any appointments set to any time between 0800HRS and 0859HRS will be treated as " + END_LINE
-                + "an appointment from 0800HRS to 0859HRS. No subsequent appointment can then be scheduled " + END_LINE
-                + "for either the patient and the medical staff during that window." + END_LINE;
+                + "Appointments last 60 minutes unless a duration (l/) of up to 480 minutes is given. " + END_LINE
+                + "No other appointment can be scheduled for either the patient or the medical staff " + END_LINE
+                + "while the appointment takes place." + END_LINE
+                + "Rooms and equipment needed for the appointment can be booked with e/, and are checked " + END_LINE
+                + "for clashes in the same way." + END_LINE
+                + "To book a recurring appointment, e.g. weekly sessions, give the number of days between" + END_LINE
+                + "sessions (r/) and the number of sessions (c/). E.g., `r/7 c/10` for 10 weekly sessions." + END_LINE;
     }
 
     /**
@@ -53,7 +70,10 @@ public class SchedulerUi {
     public static String getEditAppointmentHelpMessage() {
         return "Edit an appointment’s information. MedBot will check if the edited appointment clashes with "
                 + "others and display an error message if it does." + END_LINE
-                + "Format: edit APPOINTMENT_ID [p/PATIENT_ID] [s/STAFF_ID] [d/DATE_TIME]" + END_LINE;
+                + "Format: edit APPOINTMENT_ID [p/PATIENT_ID] [s/STAFF_ID] [d/DATE_TIME] [l/DURATION_MINUTES] "
+                + "[r/INTERVAL_DAYS] [c/COUNT] [e/RESOURCE_ID]..." + END_LINE
+                + "Giving e/ replaces all resources booked by the appointment."
+                + END_LINE;
     }
 
     /**
@@ -71,6 +91,78 @@ public class SchedulerUi {
                 + "FILTER_TYPE is b (before) or a (after)" + END_LINE;
     }
 
+    /**
+     * Returns a message String with help about the reschedule command.
+     *
+     * @return String with help about the reschedule command
+     */
+    public static String getRescheduleAppointmentHelpMessage() {
+        return "Moves all of a staff's appointments within a time window to another staff and/or time." + END_LINE
+                + "Either every appointment is moved, or none are moved and the clashes are listed." + END_LINE
+                + "Format: reschedule s/STAFF_ID a/FROM_DATE_TIME b/TO_DATE_TIME [t/NEW_STAFF_ID] "
+                + "[d/NEW_DATE_TIME]" + END_LINE
+                + "Each appointment is shifted by the time between FROM_DATE_TIME and NEW_DATE_TIME." + END_LINE
+                + "If t/ or d/ is not given, the staff or time is left unchanged." + END_LINE;
+    }
+
+    /**
+     * Returns a message String with help about the free command.
+     *
+     * @return String with help about the free command
+     */
+    public static String getFreeStaffHelpMessage() {
+        return "Lists the staff that are free at a certain hour, or finds the first hour when any of them is free."
+                + END_LINE
+                + "Format: free d/DATE_TIME [s/STAFF_ID]..." + END_LINE
+                + "        free a/DATE_TIME [s/STAFF_ID]..." + END_LINE
+                + "d/ lists the staff free at DATE_TIME. a/ finds the first hour from DATE_TIME when any of the "
+                + "staff is free." + END_LINE
+                + "If no s/ is given, all staff that are not hidden are checked." + END_LINE;
+    }
+
+    /**
+     * Returns a message String with help about the report command.
+     *
+     * @return String with help about the report command
+     */
+    public static String getReportHelpMessage() {
+        return "Shows the number of appointments on each day of a week, in total and for each staff and patient,"
+                + END_LINE
+                + "and the number of appointments at each hour of the week over all weeks." + END_LINE
+                + "Format: report d/DATE_TIME" + END_LINE
+                + "The report is for the week (Monday to Sunday) containing DATE_TIME." + END_LINE;
+    }
+
+    /**
+     * Returns a message String with help about the resource commands.
+     *
+     * @return String with help about the resource commands
+     */
+    public static String getResourceHelpMessage() {
+        return "Manages the rooms and equipment that appointments can book." + END_LINE
+                + "Format: resource add n/NAME" + END_LINE
+                + "        resource delete RESOURCE_ID" + END_LINE
+                + "        resource list" + END_LINE
+                + "        resource view RESOURCE_ID" + END_LINE
+                + "Deleting a resource keeps the appointments that booked it, without the resource." + END_LINE;
+    }
+
+    /**
+     * Returns a message String with help about the waitlist commands.
+     *
+     * @return String with help about the waitlist commands
+     */
+    public static String getWaitlistHelpMessage() {
+        return "Manages the patients waiting for an appointment with a staff." + END_LINE
+                + "Format: waitlist add p/PATIENT_ID s/STAFF_ID a/FROM_DATE_TIME b/UNTIL_DATE_TIME" + END_LINE
+                + "        waitlist delete WAITLIST_ID" + END_LINE
+                + "        waitlist list" + END_LINE
+                + "When an appointment is deleted or rescheduled, its slot is booked for the waiting " + END_LINE
+                + "patient of the same staff whose time window includes the start of the slot and ends " + END_LINE
+                + "the earliest." + END_LINE
+                + "The patient is then removed from the waitlist." + END_LINE;
+    }
+
     /**
      * Returns a message String with help about the view appointment command.
      *
@@ -144,7 +236,232 @@ public class SchedulerUi {
      * @return String containing information of all appointments in a table
      */
     public static String getListAppointmentListMessage(String appointmentString) {
+        return getListAppointmentListHeader() + appointmentString + getAppointmentTableFooter();
+    }
+
+    /**
+     * Returns the lines before the rows of a table of all appointments.
+     *
+     * @return String containing the header of the table of all appointments
+     */
+    public static String getListAppointmentListHeader() {
         return "Here is a list of all appointments:" + END_LINE
+                + TABLE_ROW_SEPARATOR
+                + APPOINTMENT_TABLE_HEADER
+                + TABLE_ROW_SEPARATOR;
+    }
+
+    /**
+     * Returns the line that closes a table of appointments.
+     *
+     * @return String containing the last line of an appointment table
+     */
+    public static String getAppointmentTableFooter() {
+        return TABLE_ROW_SEPARATOR;
+    }
+
+    /**
+     * Returns a String containing the information of appointments that have been rescheduled in a table.
+     *
+     * @return String containing information of the rescheduled appointments in a table
+     */
+    public static String getRescheduleAppointmentMessage(int appointmentCount, String appointmentString) {
+        return appointmentCount + " appointment(s) rescheduled:" + END_LINE
+                + TABLE_ROW_SEPARATOR
+                + APPOINTMENT_TABLE_HEADER
+                + TABLE_ROW_SEPARATOR
+                + appointmentString
+                + TABLE_ROW_SEPARATOR;
+    }
+
+    /**
+     * Returns a message String listing the staff that are free at the specified date time.
+     *
+     * @return String listing the free staff
+     */
+    public static String getFreeStaffMessage(String dateTimeString, List<String> freeStaff) {
+        if (freeStaff.isEmpty()) {
+            return "No staff are free at " + dateTimeString + "." + END_LINE;
+        }
+        return "Staff free at " + dateTimeString + ":" + END_LINE
+                + String.join(END_LINE, freeStaff) + END_LINE;
+    }
+
+    /**
+     * Returns a String containing the utilisation report of a week.
+     *
+     * @return String containing the utilisation report of a week
+     */
+    public static String getReportMessage(String weekString, String report) {
+        return "Utilisation report for " + weekString + ":" + END_LINE + END_LINE
+                + report;
+    }
+
+    /**
+     * Returns a message String indicating that the resource with the specified information has been added.
+     *
+     * @param resourceInfo String containing the information about the resource
+     * @return String indicating that the specified resource has been added
+     */
+    public static String getAddResourceMessage(String resourceInfo) {
+        return "Added resource with " + resourceInfo;
+    }
+
+    /**
+     * Returns a message String indicating that the resource with the specified ID has been deleted.
+     *
+     * @param id ID of the resource that was removed
+     * @return String indicating that the specified resource has been deleted
+     */
+    public static String getDeleteResourceMessage(int id) {
+        return "Resource with ID " + id + " deleted from system." + END_LINE;
+    }
+
+    /**
+     * Returns a String containing the id and name of each resource.
+     *
+     * @param resources Strings containing the id and name of each resource
+     * @return String containing the list of resources
+     */
+    public static String getListResourceMessage(List<String> resources) {
+        if (resources.isEmpty()) {
+            return "Sorry, there are no resources found." + END_LINE;
+        }
+        return "Here is a list of all resources:" + END_LINE
+                + String.join(END_LINE, resources) + END_LINE;
+    }
+
+    /**
+     * Returns a String containing the information of a resource and a table of its appointments.
+     *
+     * @param resourceInfo      String containing the information of the resource
+     * @param appointmentString rows of the table of the resource's appointments
+     * @return String containing the information and appointments of the resource
+     */
+    public static String getViewResourceMessage(String resourceInfo, String appointmentString) {
+        if (appointmentString.isEmpty()) {
+            return resourceInfo + END_LINE + "There are no appointments booking this resource." + END_LINE;
+        }
+        return resourceInfo + END_LINE
+                + "Appointments booking this resource:" + END_LINE
+                + TABLE_ROW_SEPARATOR
+                + APPOINTMENT_TABLE_HEADER
+                + TABLE_ROW_SEPARATOR
+                + appointmentString
+                + TABLE_ROW_SEPARATOR;
+    }
+
+    /**
+     * Returns a message String with help about the solve command.
+     *
+     * @return String with help about the solve command
+     */
+    public static String getSolveHelpMessage() {
+        return "Books as many appointments as possible from a file of requests, without any clashes." + END_LINE
+                + "Format: solve FILE_PATH" + END_LINE
+                + "Each line of the file is a request in the format:" + END_LINE
+                + "p/PATIENT_ID s/STAFF_ID [s/STAFF_ID]... a/FROM_DATE_TIME b/UNTIL_DATE_TIME" + END_LINE
+                + "A request is booked with any one of its staff, at the start of an hour between " + END_LINE
+                + "FROM_DATE_TIME and UNTIL_DATE_TIME. Time windows can be up to 31 days long." + END_LINE;
+    }
+
+    /**
+     * Returns a message String with help about the archive command.
+     *
+     * @return String with help about the archive command
+     */
+    public static String getArchiveHelpMessage() {
+        return "Moves all appointments that ended by a date time in the past to the appointment archive." + END_LINE
+                + "Format: archive b/DATE_TIME" + END_LINE
+                + "Archived appointments are no longer listed, but are still found by `find` with b/." + END_LINE
+                + "Archiving cannot be undone, and cannot be done during a transaction." + END_LINE;
+    }
+
+    /**
+     * Returns a message String indicating the number of appointments that have been archived.
+     *
+     * @param appointmentCount the number of appointments archived
+     * @param dateTimeString   the date time by which the archived appointments ended
+     * @return String indicating the number of appointments archived
+     */
+    public static String getArchiveMessage(int appointmentCount, String dateTimeString) {
+        return appointmentCount + " appointment(s) ending by " + dateTimeString + " moved to the archive." + END_LINE;
+    }
+
+    /**
+     * Returns a String containing the result of solving a file of placement requests.
+     *
+     * @param requestCount        the number of requests in the file
+     * @param bookedCount         the number of requests that were booked
+     * @param elapsedMillis       the time taken to solve the requests, in milliseconds
+     * @param appointmentString   rows of the table of the booked appointments
+     * @param unbookedLineNumbers the line numbers of the requests that were not booked
+     * @return String containing the result of solving the requests
+     */
+    public static String getSolveMessage(int requestCount, int bookedCount, long elapsedMillis,
+            String appointmentString, List<Integer> unbookedLineNumbers) {
+        String output = String.format("Booked %d of %d request(s) (%.1f%%) in %d ms.", bookedCount, requestCount,
+                100.0 * bookedCount / requestCount, elapsedMillis) + END_LINE;
+        if (bookedCount > 0) {
+            output += TABLE_ROW_SEPARATOR
+                    + APPOINTMENT_TABLE_HEADER
+                    + TABLE_ROW_SEPARATOR
+                    + appointmentString
+                    + TABLE_ROW_SEPARATOR;
+        }
+        if (!unbookedLineNumbers.isEmpty()) {
+            List<String> lineNumberStrings = new ArrayList<>();
+            for (int lineNumber : unbookedLineNumbers) {
+                lineNumberStrings.add(Integer.toString(lineNumber));
+            }
+            output += "Requests that could not be booked, by line: " + String.join(", ", lineNumberStrings)
+                    + END_LINE;
+        }
+        return output;
+    }
+
+    /**
+     * Returns a message String indicating that the waitlist entry with the specified information has been added.
+     *
+     * @param entryInfo String containing the information about the entry
+     * @return String indicating that the specified entry has been added
+     */
+    public static String getAddWaitlistMessage(String entryInfo) {
+        return "Added waitlist entry with " + entryInfo;
+    }
+
+    /**
+     * Returns a message String indicating that the waitlist entry with the specified ID has been deleted.
+     *
+     * @param id ID of the entry that was removed
+     * @return String indicating that the specified entry has been deleted
+     */
+    public static String getDeleteWaitlistMessage(int id) {
+        return "Waitlist entry with ID " + id + " deleted from system." + END_LINE;
+    }
+
+    /**
+     * Returns a String containing the information of each waitlist entry.
+     *
+     * @param entries Strings containing the information of each entry
+     * @return String containing the list of entries
+     */
+    public static String getListWaitlistMessage(List<String> entries) {
+        if (entries.isEmpty()) {
+            return "Sorry, there are no patients on the waitlist." + END_LINE;
+        }
+        return "Here is a list of all waitlist entries:" + END_LINE + END_LINE
+                + String.join(END_LINE, entries);
+    }
+
+    /**
+     * Returns a String containing the information of appointments booked for patients on the waitlist in a table.
+     *
+     * @param appointmentString rows of the table of the booked appointments
+     * @return String containing information of the booked appointments in a table
+     */
+    public static String getWaitlistBookedMessage(String appointmentString) {
+        return "Freed slot(s) booked for waitlisted patients:" + END_LINE
                 + TABLE_ROW_SEPARATOR
                 + APPOINTMENT_TABLE_HEADER
                 + TABLE_ROW_SEPARATOR
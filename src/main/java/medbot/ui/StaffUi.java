@@ -166,6 +166,15 @@ public class StaffUi extends PersonUi {
         return getAllPersonsString(STAFF, staffListString, isHiddenPersonList);
     }
 
+    /**
+     * Returns the lines before the rows of a table of all hidden or not-hidden staff.
+     *
+     * @return String containing the header of the table of all staff
+     */
+    public static String getAllStaffsHeader(boolean isHiddenPersonList) {
+        return getTableHeader(STAFF, isHiddenPersonList);
+    }
+
     /**
      * Returns a String containing the header of the staff information table for matched staff.
      *
@@ -3,8 +3,12 @@ package medbot.ui;
 import medbot.exceptions.MedBotException;
 import medbot.utilities.ViewType;
 
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
-import java.util.Scanner;
+import java.util.NoSuchElementException;
 
 /**
  * Represents a UI class that interacts with User
@@ -19,26 +23,101 @@ public class Ui {
     private static final String TABLE_ROW_SEPARATOR = " ------------------------------------------------"
             + "----------------------------------------------------- " + END_LINE;
 
-    private final Scanner inputScanner = new Scanner(System.in);
+    private final InputReader inputReader;
+    private final OutputSink output;
+
+    /**
+     * Creates a Ui that reads from the terminal and prints to the terminal.
+     *
+     * <p>Messages are written to standard output directly rather than through System.out, which is synchronized
+     * and flushed at the end of every line.
+     */
+    public Ui() {
+        inputReader = new InputReader(System.in);
+        output = new WriterOutputSink(new FileOutputStream(FileDescriptor.out));
+    }
+
+    /**
+     * Creates a Ui that reads user input from the given input stream and prints to the given output stream.
+     *
+     * @param inputStream  the stream to read user input from
+     * @param outputStream the stream to print messages to
+     */
+    public Ui(InputStream inputStream, OutputStream outputStream) {
+        inputReader = new InputReader(inputStream);
+        output = new WriterOutputSink(outputStream);
+    }
+
+    /**
+     * Creates a Ui that reads user input from the given input stream and prints to the given output sink.
+     *
+     * @param inputStream the stream to read user input from
+     * @param output      the sink to print messages to
+     */
+    public Ui(InputStream inputStream, OutputSink output) {
+        inputReader = new InputReader(inputStream);
+        this.output = output;
+    }
 
     /**
      * Gets user input from terminal and returns it as a String.
      *
+     * <p>Everything printed so far is flushed first, so that the user sees it before being asked for input. Lines
+     * are read ahead on a separate thread, so the next line is usually ready by the time it is asked for.
+     *
      * @return the String containing the user input.
+     * @throws NoSuchElementException if there is no more user input.
      */
     public String readInput() {
-        String line;
-        line = inputScanner.nextLine();
-        return line;
+        output.flush();
+        return inputReader.readLine();
+    }
+
+    /**
+     * Gets the next line of user input without flushing what has been printed, for reading lines ahead of the
+     * commands that are still being executed.
+     *
+     * @return the String containing the user input.
+     * @throws NoSuchElementException if there is no more user input.
+     */
+    public String readInputAhead() {
+        return inputReader.readLine();
+    }
+
+    /**
+     * Stops reading user input, so that lines read ahead of the commands are no longer held. Must be called once
+     * the Ui is no longer used, unless its input has been read to the end.
+     */
+    public void closeInput() {
+        inputReader.close();
     }
 
     /**
-     * Prints a message.
+     * Prints a message, followed by a line separator.
+     *
+     * <p>The message may only be shown once the Ui is flushed.
      *
      * @param outputMessage the message to be printed
      */
     public void printOutput(String outputMessage) {
-        System.out.println(outputMessage);
+        output.print(outputMessage);
+        output.print(END_LINE);
+    }
+
+    /**
+     * Prints text without adding a line separator, such as the header of a table whose rows are printed next.
+     *
+     * @param text the text to be printed
+     */
+    public void print(String text) {
+        output.print(text);
+    }
+
+    /**
+     * Shows everything printed so far. Called at the end of every command.
+     */
+    public void flush() {
+        output.flush();
     }
 
     /**
@@ -247,6 +326,33 @@ public class Ui {
         return output;
     }
 
+    /**
+     * Returns a message indicating that a transaction has been started.
+     *
+     * @return the begin transaction message
+     */
+    public static String getBeginTransactionMessage() {
+        return "Transaction started. Changes will only be saved after 'commit'." + END_LINE;
+    }
+
+    /**
+     * Returns a message indicating that a transaction has been committed.
+     *
+     * @return the commit transaction message
+     */
+    public static String getCommitTransactionMessage() {
+        return "Transaction committed. All changes have been saved." + END_LINE;
+    }
+
+    /**
+     * Returns a message indicating that a transaction has been rolled back.
+     *
+     * @return the rollback transaction message
+     */
+    public static String getRollbackTransactionMessage() {
+        return "Transaction rolled back. All changes since 'begin' have been undone." + END_LINE;
+    }
+
     /**
      * Prints an exit message when MedBot is exiting.
      *
@@ -452,6 +558,104 @@ public class Ui {
     }
 
 
+    /**
+     * Prints information about reschedule command.
+     *
+     * @return the information on reschedule command.
+     */
+    public String getRescheduleHelpMessage(ViewType viewType) throws MedBotException {
+        switch (viewType) {
+        case SCHEDULER:
+            return SchedulerUi.getRescheduleAppointmentHelpMessage();
+        default:
+            throw new MedBotException(ERROR_VIEW_CONTEXT_NOT_FOUND);
+        }
+    }
+
+    /**
+     * Prints information about free command.
+     *
+     * @return the information on free command.
+     */
+    public String getFreeHelpMessage(ViewType viewType) throws MedBotException {
+        switch (viewType) {
+        case SCHEDULER:
+            return SchedulerUi.getFreeStaffHelpMessage();
+        default:
+            throw new MedBotException(ERROR_VIEW_CONTEXT_NOT_FOUND);
+        }
+    }
+
+    /**
+     * Prints information about report command.
+     *
+     * @return the information on report command.
+     */
+    public String getReportHelpMessage(ViewType viewType) throws MedBotException {
+        switch (viewType) {
+        case SCHEDULER:
+            return SchedulerUi.getReportHelpMessage();
+        default:
+            throw new MedBotException(ERROR_VIEW_CONTEXT_NOT_FOUND);
+        }
+    }
+
+    /**
+     * Prints information about resource command.
+     *
+     * @return the information on resource command.
+     */
+    public String getResourceHelpMessage(ViewType viewType) throws MedBotException {
+        switch (viewType) {
+        case SCHEDULER:
+            return SchedulerUi.getResourceHelpMessage();
+        default:
+            throw new MedBotException(ERROR_VIEW_CONTEXT_NOT_FOUND);
+        }
+    }
+
+    /**
+     * Prints information about waitlist command.
+     *
+     * @return the information on waitlist command.
+     */
+    public String getWaitlistHelpMessage(ViewType viewType) throws MedBotException {
+        switch (viewType) {
+        case SCHEDULER:
+            return SchedulerUi.getWaitlistHelpMessage();
+        default:
+            throw new MedBotException(ERROR_VIEW_CONTEXT_NOT_FOUND);
+        }
+    }
+
+    /**
+     * Prints information about solve command.
+     *
+     * @return the information on solve command.
+     */
+    public String getSolveHelpMessage(ViewType viewType) throws MedBotException {
+        switch (viewType) {
+        case SCHEDULER:
+            return SchedulerUi.getSolveHelpMessage();
+        default:
+            throw new MedBotException(ERROR_VIEW_CONTEXT_NOT_FOUND);
+        }
+    }
+
+    /**
+     * Prints information about archive command.
+     *
+     * @return the information on archive command.
+     */
+    public String getArchiveHelpMessage(ViewType viewType) throws MedBotException {
+        switch (viewType) {
+        case SCHEDULER:
+            return SchedulerUi.getArchiveHelpMessage();
+        default:
+            throw new MedBotException(ERROR_VIEW_CONTEXT_NOT_FOUND);
+        }
+    }
+
     /**
      * Prints information about exit command.
      *
@@ -461,6 +665,36 @@ public class Ui {
         return "Exits the program." + END_LINE + "Format: exit" + END_LINE;
     }
 
+    /**
+     * Prints information about begin command.
+     *
+     * @return the information on begin command.
+     */
+    public String getBeginHelpMessage() {
+        return "Starts a transaction. Changes made after this are only saved after 'commit', "
+                + "and can be undone with 'rollback'." + END_LINE
+                + "Exiting MedBot before 'commit' discards the changes." + END_LINE
+                + "Format: begin" + END_LINE;
+    }
+
+    /**
+     * Prints information about commit command.
+     *
+     * @return the information on commit command.
+     */
+    public String getCommitHelpMessage() {
+        return "Keeps and saves all changes made since 'begin'." + END_LINE + "Format: commit" + END_LINE;
+    }
+
+    /**
+     * Prints information about rollback command.
+     *
+     * @return the information on rollback command.
+     */
+    public String getRollbackHelpMessage() {
+        return "Undoes all changes made since 'begin'." + END_LINE + "Format: rollback" + END_LINE;
+    }
+
     /**
      * Prints information about get View command.
      *
@@ -475,8 +709,8 @@ public class Ui {
     /**
      * Utility function that performs a pseudo-clear of the console.
      */
-    public static void clearConsoleFromIde() {
-        System.out.print(END_LINE + END_LINE + END_LINE + END_LINE + END_LINE);
+    public void clearConsoleFromIde() {
+        output.print(END_LINE + END_LINE + END_LINE + END_LINE + END_LINE);
     }
 
     /**
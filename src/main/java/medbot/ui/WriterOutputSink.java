@@ -0,0 +1,50 @@
+package medbot.ui;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+/**
+ * An OutputSink that collects printed text in a large buffer and only writes it to the output stream when the
+ * buffer is full or the sink is flushed.
+ *
+ * <p>Text can be printed and flushed from different threads. As with System.out, errors writing to the stream are
+ * not thrown. Once writing has failed, later text is dropped, which is what happens when a terminal connected to
+ * the server disconnects.
+ */
+public class WriterOutputSink implements OutputSink {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Writer writer;
+    private boolean hasError = false;
+
+    public WriterOutputSink(OutputStream outputStream) {
+        writer = new BufferedWriter(new OutputStreamWriter(outputStream), BUFFER_SIZE);
+    }
+
+    @Override
+    public synchronized void print(String text) {
+        if (hasError) {
+            return;
+        }
+        try {
+            writer.write(text);
+        } catch (IOException e) {
+            hasError = true;
+        }
+    }
+
+    @Override
+    public synchronized void flush() {
+        if (hasError) {
+            return;
+        }
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            hasError = true;
+        }
+    }
+}
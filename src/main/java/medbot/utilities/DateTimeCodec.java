@@ -0,0 +1,224 @@
+package medbot.utilities;
+
+/**
+ * Converts between dateTimeCodes, the number of minutes since Unix epoch in UTC+8, and their text forms with
+ * calendar arithmetic only, without going through LocalDateTime and DateTimeFormatter.
+ *
+ * <p>Parsing accepts what LocalDateTime.parse accepts with the pattern "ddMMyy HHmm": two digit years are years
+ * 2000 to 2099, a day of month past the end of its month is moved back to the last day of the month, and "2400"
+ * is midnight at the end of the day. Formatting gives the same text as DateTimeFormatter with the patterns
+ * "ddMMyy HHmm", "dd MMM yy HHmm" and "dd MMM yy", with English month names.
+ */
+public final class DateTimeCodec {
+    //Returned by parseStorageString if the text is not a valid date and time
+    public static final int INVALID_DATE_TIME_CODE = -1;
+
+    private static final int MINUTES_PER_HOUR = 60;
+    private static final int MINUTES_PER_DAY = 24 * MINUTES_PER_HOUR;
+    private static final int ZONE_OFFSET_MINUTES = 8 * MINUTES_PER_HOUR;
+    private static final int YEAR_BASE = 2000;
+    private static final int DAYS_PER_ERA = 146097;
+    //days from 0000-03-01 to 1970-01-01, in the proleptic Gregorian calendar
+    private static final int DAYS_TO_EPOCH = 719468;
+    //"ddMMyy HHmm"
+    private static final int STORAGE_STRING_LENGTH = 11;
+    //"dd MMM yy"
+    private static final int DISPLAY_DATE_LENGTH = 9;
+    //"dd MMM yy HHmmHRS"
+    private static final int DISPLAY_STRING_LENGTH = 17;
+    private static final char[][] MONTH_NAMES = {
+        "Jan".toCharArray(), "Feb".toCharArray(), "Mar".toCharArray(), "Apr".toCharArray(),
+        "May".toCharArray(), "Jun".toCharArray(), "Jul".toCharArray(), "Aug".toCharArray(),
+        "Sep".toCharArray(), "Oct".toCharArray(), "Nov".toCharArray(), "Dec".toCharArray()
+    };
+    private static final String HOURS_SUFFIX = "HRS";
+
+    private DateTimeCodec() {
+    }
+
+    /**
+     * Parses the text between start and end, in the format ddMMyy HHmm, into its dateTimeCode.
+     *
+     * @param source String containing the date and time
+     * @param start  index of the first character of the date and time
+     * @param end    index after the last character of the date and time
+     * @return the dateTimeCode, or INVALID_DATE_TIME_CODE if the text is not a valid date and time
+     */
+    public static int parseStorageString(String source, int start, int end) {
+        if (end - start != STORAGE_STRING_LENGTH || source.charAt(start + 6) != ' ') {
+            return INVALID_DATE_TIME_CODE;
+        }
+        int day = parseTwoDigits(source, start);
+        int month = parseTwoDigits(source, start + 2);
+        int year = parseTwoDigits(source, start + 4);
+        int hour = parseTwoDigits(source, start + 7);
+        int minute = parseTwoDigits(source, start + 9);
+        if (day < 1 || day > 31 || month < 1 || month > 12 || year < 0 || minute < 0 || minute >= MINUTES_PER_HOUR
+                || hour < 0 || hour > 24 || (hour == 24 && minute != 0)) {
+            return INVALID_DATE_TIME_CODE;
+        }
+        year += YEAR_BASE;
+        day = Math.min(day, getDaysInMonth(year, month));
+        long days = getEpochDay(year, month, day);
+        return (int) (days * MINUTES_PER_DAY + hour * MINUTES_PER_HOUR + minute - ZONE_OFFSET_MINUTES);
+    }
+
+    /**
+     * Parses a String in the format ddMMyy HHmm into its dateTimeCode.
+     *
+     * @param dateTimeString String containing the date and time
+     * @return the dateTimeCode, or INVALID_DATE_TIME_CODE if the String is not a valid date and time
+     */
+    public static int parseStorageString(String dateTimeString) {
+        return parseStorageString(dateTimeString, 0, dateTimeString.length());
+    }
+
+    /**
+     * Returns the dateTimeCode as a String in the format ddMMyy HHmm.
+     *
+     * @param dateTimeCode date time code
+     * @return the date and time in the format ddMMyy HHmm
+     */
+    public static String toStorageString(int dateTimeCode) {
+        long localMinutes = (long) dateTimeCode + ZONE_OFFSET_MINUTES;
+        long days = Math.floorDiv(localMinutes, MINUTES_PER_DAY);
+        int minuteOfDay = Math.floorMod(localMinutes, MINUTES_PER_DAY);
+        int date = getDate(days);
+
+        char[] chars = new char[STORAGE_STRING_LENGTH];
+        writeTwoDigits(chars, 0, getDay(date));
+        writeTwoDigits(chars, 2, getMonth(date));
+        writeTwoDigits(chars, 4, getYearOfCentury(date));
+        chars[6] = ' ';
+        writeTwoDigits(chars, 7, minuteOfDay / MINUTES_PER_HOUR);
+        writeTwoDigits(chars, 9, minuteOfDay % MINUTES_PER_HOUR);
+        return new String(chars);
+    }
+
+    /**
+     * Returns the dateTimeCode as a String in the format dd MMM yy HHmmHRS, e.g. 01 Jan 22 0900HRS.
+     *
+     * @param dateTimeCode date time code
+     * @return the date and time for display
+     */
+    public static String toDisplayString(int dateTimeCode) {
+        long localMinutes = (long) dateTimeCode + ZONE_OFFSET_MINUTES;
+        long days = Math.floorDiv(localMinutes, MINUTES_PER_DAY);
+        int minuteOfDay = Math.floorMod(localMinutes, MINUTES_PER_DAY);
+
+        char[] chars = new char[DISPLAY_STRING_LENGTH];
+        writeDisplayDate(chars, getDate(days));
+        chars[DISPLAY_DATE_LENGTH] = ' ';
+        writeTwoDigits(chars, 10, minuteOfDay / MINUTES_PER_HOUR);
+        writeTwoDigits(chars, 12, minuteOfDay % MINUTES_PER_HOUR);
+        HOURS_SUFFIX.getChars(0, HOURS_SUFFIX.length(), chars, 14);
+        return new String(chars);
+    }
+
+    /**
+     * Returns the date of the dateTimeCode as a String in the format dd MMM yy, e.g. 01 Jan 22.
+     *
+     * @param dateTimeCode date time code
+     * @return the date for display
+     */
+    public static String toDisplayDateString(int dateTimeCode) {
+        long localMinutes = (long) dateTimeCode + ZONE_OFFSET_MINUTES;
+        char[] chars = new char[DISPLAY_DATE_LENGTH];
+        writeDisplayDate(chars, getDate(Math.floorDiv(localMinutes, MINUTES_PER_DAY)));
+        return new String(chars);
+    }
+
+    /**
+     * Returns the number of days from 1970-01-01 to the given date.
+     */
+    private static long getEpochDay(int year, int month, int day) {
+        //count years from March, so that the leap day is the last day of the year
+        int marchYear = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(marchYear, 400);
+        int yearOfEra = marchYear - era * 400;
+        int marchMonth = month <= 2 ? month + 9 : month - 3;
+        int dayOfYear = (153 * marchMonth + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return (long) era * DAYS_PER_ERA + dayOfEra - DAYS_TO_EPOCH;
+    }
+
+    /**
+     * Returns the date that is the given number of days from 1970-01-01, packed as year * 512 + month * 32 + day.
+     */
+    private static int getDate(long epochDay) {
+        long marchDay = epochDay + DAYS_TO_EPOCH;
+        long era = Math.floorDiv(marchDay, DAYS_PER_ERA);
+        int dayOfEra = (int) (marchDay - era * DAYS_PER_ERA);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int marchMonth = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * marchMonth + 2) / 5 + 1;
+        int month = marchMonth < 10 ? marchMonth + 3 : marchMonth - 9;
+        int year = (int) (era * 400) + yearOfEra + (month <= 2 ? 1 : 0);
+        return year * 512 + month * 32 + day;
+    }
+
+    private static int getYear(int date) {
+        return date >> 9;
+    }
+
+    /**
+     * Returns the last two digits of the year of era, as DateTimeFormatter does for "yy". Years before year 1 are
+     * counted backwards from 1 BC.
+     */
+    private static int getYearOfCentury(int date) {
+        int year = getYear(date);
+        return (year > 0 ? year : 1 - year) % 100;
+    }
+
+    private static int getMonth(int date) {
+        return (date >> 5) & 15;
+    }
+
+    private static int getDay(int date) {
+        return date & 31;
+    }
+
+    private static int getDaysInMonth(int year, int month) {
+        switch (month) {
+        case 2:
+            boolean isLeapYear = year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+            return isLeapYear ? 29 : 28;
+        case 4:
+        case 6:
+        case 9:
+        case 11:
+            return 30;
+        default:
+            return 31;
+        }
+    }
+
+    /**
+     * Writes the date in the format dd MMM yy into the first 9 characters.
+     */
+    private static void writeDisplayDate(char[] chars, int date) {
+        writeTwoDigits(chars, 0, getDay(date));
+        chars[2] = ' ';
+        System.arraycopy(MONTH_NAMES[getMonth(date) - 1], 0, chars, 3, 3);
+        chars[6] = ' ';
+        writeTwoDigits(chars, 7, getYearOfCentury(date));
+    }
+
+    private static void writeTwoDigits(char[] chars, int index, int value) {
+        chars[index] = (char) ('0' + value / 10);
+        chars[index + 1] = (char) ('0' + value % 10);
+    }
+
+    /**
+     * Returns the value of the two digits at index, or -1 if they are not both digits.
+     */
+    private static int parseTwoDigits(String source, int index) {
+        int tens = source.charAt(index) - '0';
+        int ones = source.charAt(index + 1) - '0';
+        if (tens < 0 || tens > 9 || ones < 0 || ones > 9) {
+            return -1;
+        }
+        return tens * 10 + ones;
+    }
+}
@@ -0,0 +1,202 @@
+package medbot.utilities;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable map from long keys to values, kept in key order. Adding or removing a key returns a new map that
+ * shares all but O(log n) of its nodes with the old one, so that old versions of the map stay valid and can be
+ * read by other threads without locking.
+ *
+ * <p>The map is a treap whose node priorities are derived from their keys, so the shape of the tree only depends
+ * on the keys it contains.
+ *
+ * @param <V> type of the values
+ */
+public final class PersistentSortedMap<V> {
+    private static final PersistentSortedMap<?> EMPTY = new PersistentSortedMap<>(null);
+
+    private static final class Node<V> {
+        private final long key;
+        private final V value;
+        private final Node<V> left;
+        private final Node<V> right;
+        private final int size;
+
+        private Node(long key, V value, Node<V> left, Node<V> right) {
+            this.key = key;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            size = 1 + sizeOf(left) + sizeOf(right);
+        }
+
+        private Node<V> withChildren(Node<V> left, Node<V> right) {
+            return new Node<>(key, value, left, right);
+        }
+    }
+
+    private final Node<V> root;
+
+    private PersistentSortedMap(Node<V> root) {
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <V> PersistentSortedMap<V> empty() {
+        return (PersistentSortedMap<V>) EMPTY;
+    }
+
+    public int size() {
+        return sizeOf(root);
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Returns the value of the specified key, or null if the key is not in the map.
+     *
+     * @param key the key to search for
+     * @return the value of the key
+     */
+    public V get(long key) {
+        Node<V> node = root;
+        while (node != null && node.key != key) {
+            node = key < node.key ? node.left : node.right;
+        }
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Returns a map with the specified key set to the given value.
+     *
+     * @param key   the key to set
+     * @param value the value of the key
+     * @return the new map
+     */
+    public PersistentSortedMap<V> put(long key, V value) {
+        return new PersistentSortedMap<>(putInto(root, key, value));
+    }
+
+    /**
+     * Returns a map without the specified key. The map itself is returned if it does not contain the key.
+     *
+     * @param key the key to remove
+     * @return the new map
+     */
+    public PersistentSortedMap<V> remove(long key) {
+        if (get(key) == null) {
+            return this;
+        }
+        return new PersistentSortedMap<>(removeFrom(root, key));
+    }
+
+    /**
+     * Returns the values of all keys in the map, in order of their keys.
+     *
+     * @return list of the values
+     */
+    public List<V> values() {
+        return valuesBetween(Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns the values of the keys from startKey to endKey, inclusive, in order of their keys.
+     *
+     * @param startKey the smallest key to include
+     * @param endKey   the largest key to include
+     * @return list of the values
+     */
+    public List<V> valuesBetween(long startKey, long endKey) {
+        List<V> values = new ArrayList<>();
+        addValuesBetween(root, startKey, endKey, values);
+        return values;
+    }
+
+    private static <V> void addValuesBetween(Node<V> node, long startKey, long endKey, List<V> values) {
+        if (node == null) {
+            return;
+        }
+        if (startKey < node.key) {
+            addValuesBetween(node.left, startKey, endKey, values);
+        }
+        if (startKey <= node.key && node.key <= endKey) {
+            values.add(node.value);
+        }
+        if (node.key < endKey) {
+            addValuesBetween(node.right, startKey, endKey, values);
+        }
+    }
+
+    private static <V> Node<V> putInto(Node<V> node, long key, V value) {
+        if (node == null) {
+            return new Node<>(key, value, null, null);
+        }
+        if (key == node.key) {
+            return new Node<>(key, value, node.left, node.right);
+        }
+        if (priorityOf(key) > priorityOf(node.key)) {
+            Pair<Node<V>, Node<V>> parts = split(node, key);
+            return new Node<>(key, value, parts.first, parts.second);
+        }
+        return key < node.key
+                ? node.withChildren(putInto(node.left, key, value), node.right)
+                : node.withChildren(node.left, putInto(node.right, key, value));
+    }
+
+    private static <V> Node<V> removeFrom(Node<V> node, long key) {
+        if (key == node.key) {
+            return merge(node.left, node.right);
+        }
+        return key < node.key
+                ? node.withChildren(removeFrom(node.left, key), node.right)
+                : node.withChildren(node.left, removeFrom(node.right, key));
+    }
+
+    /**
+     * Splits the subtree into the nodes with keys smaller than the given key and those with larger keys.
+     */
+    private static <V> Pair<Node<V>, Node<V>> split(Node<V> node, long key) {
+        if (node == null) {
+            return new Pair<>(null, null);
+        }
+        if (node.key < key) {
+            Pair<Node<V>, Node<V>> parts = split(node.right, key);
+            return new Pair<>(node.withChildren(node.left, parts.first), parts.second);
+        }
+        Pair<Node<V>, Node<V>> parts = split(node.left, key);
+        return new Pair<>(parts.first, node.withChildren(parts.second, node.right));
+    }
+
+    /**
+     * Joins two subtrees, where all keys in the left subtree are smaller than those in the right subtree.
+     */
+    private static <V> Node<V> merge(Node<V> left, Node<V> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (priorityOf(left.key) > priorityOf(right.key)) {
+            return left.withChildren(left.left, merge(left.right, right));
+        }
+        return right.withChildren(merge(left, right.left), right.right);
+    }
+
+    private static int sizeOf(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Returns a well-mixed hash of the key, so that keys in order do not produce an unbalanced tree.
+     */
+    private static long priorityOf(long key) {
+        long hash = key + 0x9E3779B97F4A7C15L;
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+}
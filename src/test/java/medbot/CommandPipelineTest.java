@@ -0,0 +1,191 @@
+package medbot;
+
+import medbot.exceptions.MedBotException;
+import medbot.storage.Storage;
+import medbot.storage.StorageManager;
+import medbot.ui.OutputSink;
+import medbot.ui.Ui;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandPipelineTest {
+    private static final String END_LINE = System.lineSeparator();
+    private static final Ui NULL_UI = new Ui(InputStream.nullInputStream(), OutputStream.nullOutputStream());
+    //switches views, and commits and rolls back transactions, with invalid commands in between
+    private static final String COMMANDS = "add i/S1234567A n/John Smith p/91234567 e/john@mail.com a/Blk 1" + END_LINE
+            + "add i/S7654321B n/Jane Tan" + END_LINE
+            + "switch m" + END_LINE
+            + "add i/S1111111C n/Doctor Lim p/81234567" + END_LINE
+            + "list" + END_LINE
+            + "switch s" + END_LINE
+            + "add p/1 s/1 d/020228 1600" + END_LINE
+            + "begin" + END_LINE
+            + "add p/2 s/1 d/030228 1000" + END_LINE
+            + "rollback" + END_LINE
+            + "begin" + END_LINE
+            + "add p/2 s/1 d/030228 1100" + END_LINE
+            + "add p/3 s/1 d/030228 1200" + END_LINE
+            + "commit" + END_LINE
+            + "list" + END_LINE
+            + "garbage" + END_LINE
+            + "switch p" + END_LINE
+            + "edit 1 n/John Tan" + END_LINE
+            + "delete 2" + END_LINE
+            + "list" + END_LINE;
+
+    @Test
+    public void testRun_switchesAndTransactions_sameOutputAndFilesAsSequentialLoop()
+            throws IOException, MedBotException {
+        Path sequentialFolder = Files.createTempDirectory("MedBotData");
+        Path pipelineFolder = Files.createTempDirectory("MedBotData");
+        try {
+            String input = COMMANDS + "exit" + END_LINE;
+            StringOutputSink sequentialOutput = new StringOutputSink();
+            StringOutputSink pipelineOutput = new StringOutputSink();
+            runCommands(input, sequentialFolder, false, sequentialOutput);
+            runCommands(input, pipelineFolder, true, pipelineOutput);
+
+            assertTrue(sequentialOutput.toString().contains("John Tan"));
+            assertEquals(sequentialOutput.toString(), pipelineOutput.toString());
+            assertSameFiles(sequentialFolder, pipelineFolder);
+        } finally {
+            deleteFolder(sequentialFolder);
+            deleteFolder(pipelineFolder);
+        }
+    }
+
+    @Test
+    public void testRun_inputEndsBeforeExit_sameOutputAndFilesAsSequentialLoop()
+            throws IOException, MedBotException {
+        Path sequentialFolder = Files.createTempDirectory("MedBotData");
+        Path pipelineFolder = Files.createTempDirectory("MedBotData");
+        try {
+            StringOutputSink sequentialOutput = new StringOutputSink();
+            StringOutputSink pipelineOutput = new StringOutputSink();
+            assertThrows(NoSuchElementException.class,
+                    () -> runCommands(COMMANDS, sequentialFolder, false, sequentialOutput));
+            assertThrows(NoSuchElementException.class,
+                    () -> runCommands(COMMANDS, pipelineFolder, true, pipelineOutput));
+
+            assertEquals(sequentialOutput.toString(), pipelineOutput.toString());
+            assertSameFiles(sequentialFolder, pipelineFolder);
+        } finally {
+            deleteFolder(sequentialFolder);
+            deleteFolder(pipelineFolder);
+        }
+    }
+
+    @Test
+    public void testRun_saveFails_sameOutputAsSequentialLoop() throws IOException, MedBotException {
+        Path sequentialFolder = Files.createTempDirectory("MedBotData");
+        Path pipelineFolder = Files.createTempDirectory("MedBotData");
+        try {
+            //the input ends without an exit command, but no command runs after the failed save to read to its end
+            StringOutputSink sequentialOutput = new StringOutputSink();
+            StringOutputSink pipelineOutput = new StringOutputSink();
+            runCommandsWithBlockedSave(COMMANDS, sequentialFolder, false, sequentialOutput);
+            runCommandsWithBlockedSave(COMMANDS, pipelineFolder, true, pipelineOutput);
+
+            String saveErrorMessage = Storage.ERROR_SAVE_STORAGE + Storage.ERROR_MOVE_STORAGE_FILES + END_LINE
+                    + END_LINE;
+            assertTrue(sequentialOutput.toString().endsWith(saveErrorMessage));
+            assertEquals(sequentialOutput.toString(), pipelineOutput.toString());
+        } finally {
+            deleteFolder(sequentialFolder);
+            deleteFolder(pipelineFolder);
+        }
+    }
+
+    /**
+     * Loads the storage files in the data folder, and runs the commands in the input on them through the pipeline or
+     * the sequential loop.
+     */
+    private static void runCommands(String input, Path dataFolder, boolean isPipelined, OutputSink output)
+            throws MedBotException {
+        Scheduler scheduler = new Scheduler();
+        StorageManager storageManager = new StorageManager(dataFolder.toString());
+        storageManager.initializeStorages(scheduler, NULL_UI);
+        scheduler.publishSnapshot();
+        runLoadedCommands(input, scheduler, storageManager, isPipelined, output);
+    }
+
+    /**
+     * Loads the storage files in the data folder, and then replaces the patient storage file with a folder of the
+     * same name, so that every save fails, before running the commands in the input.
+     */
+    private static void runCommandsWithBlockedSave(String input, Path dataFolder, boolean isPipelined,
+            OutputSink output) throws MedBotException, IOException {
+        Scheduler scheduler = new Scheduler();
+        StorageManager storageManager = new StorageManager(dataFolder.toString());
+        storageManager.initializeStorages(scheduler, NULL_UI);
+        scheduler.publishSnapshot();
+        Path patientDataFile = dataFolder.resolve("patient.txt");
+        Files.delete(patientDataFile);
+        Files.createDirectory(patientDataFile);
+        runLoadedCommands(input, scheduler, storageManager, isPipelined, output);
+    }
+
+    private static void runLoadedCommands(String input, Scheduler scheduler, StorageManager storageManager,
+            boolean isPipelined, OutputSink output) {
+        Ui ui = new Ui(new ByteArrayInputStream(input.getBytes()), output);
+        if (isPipelined) {
+            new CommandPipeline(scheduler, storageManager, ui, null).run();
+        } else {
+            MedBot.runCommands(scheduler, storageManager, ui, null);
+        }
+    }
+
+    private static void assertSameFiles(Path expectedFolder, Path actualFolder) throws IOException {
+        String[] fileNames = expectedFolder.toFile().list();
+        Arrays.sort(fileNames);
+        String[] actualFileNames = actualFolder.toFile().list();
+        Arrays.sort(actualFileNames);
+        assertArrayEquals(fileNames, actualFileNames);
+        for (String fileName : fileNames) {
+            assertArrayEquals(Files.readAllBytes(expectedFolder.resolve(fileName)),
+                    Files.readAllBytes(actualFolder.resolve(fileName)), fileName);
+        }
+    }
+
+    private static void deleteFolder(Path folder) {
+        for (File file : folder.toFile().listFiles()) {
+            file.delete();
+        }
+        folder.toFile().delete();
+    }
+
+    /**
+     * Keeps everything printed to it, from whichever thread prints it.
+     */
+    private static class StringOutputSink implements OutputSink {
+        private final StringBuffer output = new StringBuffer();
+
+        @Override
+        public void print(String text) {
+            output.append(text);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public String toString() {
+            return output.toString();
+        }
+    }
+}
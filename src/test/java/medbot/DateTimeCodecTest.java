@@ -0,0 +1,113 @@
+package medbot;
+
+import medbot.utilities.DateTimeCodec;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks DateTimeCodec against LocalDateTime and DateTimeFormatter, on many random dates and times generated from a
+ * fixed seed.
+ */
+class DateTimeCodecTest {
+    private static final long SEED = 2113L;
+    private static final int SAMPLE_COUNT = 200_000;
+    private static final ZoneOffset ZONE_OFFSET = ZoneOffset.ofHours(8);
+    private static final DateTimeFormatter STORAGE_FORMATTER = DateTimeFormatter.ofPattern("ddMMyy HHmm");
+    private static final DateTimeFormatter DISPLAY_FORMATTER =
+            DateTimeFormatter.ofPattern("dd MMM yy HHmm", Locale.ENGLISH);
+    private static final DateTimeFormatter DISPLAY_DATE_FORMATTER =
+            DateTimeFormatter.ofPattern("dd MMM yy", Locale.ENGLISH);
+    //dateTimeCodes of 010100 0000 and 311299 2359
+    private static final int FIRST_PARSABLE_CODE = 15777600;
+    private static final int LAST_PARSABLE_CODE = 68373599;
+
+    private static LocalDateTime toLocalDateTime(int dateTimeCode) {
+        return LocalDateTime.ofEpochSecond((long) dateTimeCode * 60, 0, ZONE_OFFSET);
+    }
+
+    private static int parseWithJavaTime(String dateTimeString) {
+        try {
+            LocalDateTime dateTime = LocalDateTime.parse(dateTimeString, STORAGE_FORMATTER);
+            return (int) (dateTime.toEpochSecond(ZONE_OFFSET) / 60);
+        } catch (DateTimeParseException e) {
+            return DateTimeCodec.INVALID_DATE_TIME_CODE;
+        }
+    }
+
+    private static String randomTwoDigits(Random random, int bound) {
+        int value = random.nextInt(bound);
+        return (char) ('0' + value / 10) + "" + (char) ('0' + value % 10);
+    }
+
+    @Test
+    public void testFormat_anyDateTimeCode_sameAsJavaTime() {
+        Random random = new Random(SEED);
+        for (int i = 0; i < SAMPLE_COUNT; i++) {
+            int dateTimeCode = i < 2 ? (i == 0 ? Integer.MIN_VALUE : Integer.MAX_VALUE) : random.nextInt();
+            LocalDateTime dateTime = toLocalDateTime(dateTimeCode);
+            assertEquals(dateTime.format(STORAGE_FORMATTER), DateTimeCodec.toStorageString(dateTimeCode));
+            assertEquals(dateTime.format(DISPLAY_FORMATTER) + "HRS", DateTimeCodec.toDisplayString(dateTimeCode));
+            assertEquals(dateTime.format(DISPLAY_DATE_FORMATTER), DateTimeCodec.toDisplayDateString(dateTimeCode));
+        }
+    }
+
+    @Test
+    public void testParse_storageString_roundTrips() {
+        Random random = new Random(SEED);
+        for (int i = 0; i < SAMPLE_COUNT; i++) {
+            int dateTimeCode = FIRST_PARSABLE_CODE + random.nextInt(LAST_PARSABLE_CODE - FIRST_PARSABLE_CODE + 1);
+            assertEquals(dateTimeCode, DateTimeCodec.parseStorageString(DateTimeCodec.toStorageString(dateTimeCode)));
+        }
+        assertEquals(FIRST_PARSABLE_CODE, DateTimeCodec.parseStorageString("010100 0000"));
+        assertEquals(LAST_PARSABLE_CODE, DateTimeCodec.parseStorageString("311299 2359"));
+    }
+
+    @Test
+    public void testParse_nearlyValidStrings_sameAsJavaTime() {
+        Random random = new Random(SEED);
+        for (int i = 0; i < SAMPLE_COUNT; i++) {
+            //fields slightly past their valid ranges, to cover days past the end of the month and hour 24
+            String dateTimeString = randomTwoDigits(random, 34) + randomTwoDigits(random, 14)
+                    + randomTwoDigits(random, 100) + " " + randomTwoDigits(random, 26) + randomTwoDigits(random, 62);
+            assertEquals(parseWithJavaTime(dateTimeString), DateTimeCodec.parseStorageString(dateTimeString),
+                    dateTimeString);
+        }
+    }
+
+    @Test
+    public void testParse_malformedStrings_sameAsJavaTime() {
+        char[] characters = {'0', '1', '2', '9', ' ', '/', ':', '+', '-', 'a', '\u0660'};
+        Random random = new Random(SEED);
+        for (int i = 0; i < SAMPLE_COUNT; i++) {
+            char[] dateTimeCharacters = "010122 0900".toCharArray();
+            int changeCount = 1 + random.nextInt(2);
+            for (int j = 0; j < changeCount; j++) {
+                dateTimeCharacters[random.nextInt(dateTimeCharacters.length)] =
+                        characters[random.nextInt(characters.length)];
+            }
+            String dateTimeString = new String(dateTimeCharacters);
+            if (random.nextInt(8) == 0) {
+                dateTimeString = dateTimeString.substring(0, random.nextInt(dateTimeString.length()));
+            } else if (random.nextInt(8) == 0) {
+                dateTimeString = dateTimeString + characters[random.nextInt(characters.length)];
+            }
+            assertEquals(parseWithJavaTime(dateTimeString), DateTimeCodec.parseStorageString(dateTimeString),
+                    dateTimeString);
+        }
+    }
+
+    @Test
+    public void testParse_span_ignoresSurroundingText() {
+        String source = "add d/290224 2400 p/1";
+        assertEquals(parseWithJavaTime("290224 2400"), DateTimeCodec.parseStorageString(source, 6, 17));
+        assertEquals(DateTimeCodec.INVALID_DATE_TIME_CODE, DateTimeCodec.parseStorageString(source, 6, 18));
+    }
+}
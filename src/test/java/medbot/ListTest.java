@@ -2,10 +2,14 @@ package medbot;
 
 import medbot.exceptions.MedBotException;
 import medbot.list.PatientList;
+import medbot.list.PersonalAppointmentList;
+import medbot.parser.ParserUtils;
 import medbot.person.Patient;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -186,4 +190,33 @@ public class ListTest {
         assertEquals(false, isHidden);
     }
 
+    @Test
+    public void testListAppointmentsBetween_recurringAppointmentStartsEarlier_orderedByFirstOccurrence()
+            throws MedBotException {
+        int nineAm = ParserUtils.parseDateTime("030122 0900");
+        PersonalAppointmentList appointmentList = new PersonalAppointmentList();
+        //a daily series at 0800 from the day before, and a weekly one at 1000 from two days before
+        appointmentList.addAppointment(createAppointment(1, nineAm - 25 * 60, 1, 10));
+        appointmentList.addAppointment(createAppointment(2, nineAm - 47 * 60, 7, 10));
+        appointmentList.addAppointment(createAppointment(3, nineAm, 0, 0));
+        appointmentList.addAppointment(createAppointment(4, nineAm + 24 * 60, 0, 0));
+        appointmentList.addAppointment(createAppointment(5, nineAm + 6 * 24 * 60, 0, 0));
+
+        assertEquals(List.of(3, 1, 4), appointmentList.listAppointmentsBetween(nineAm, nineAm + 24 * 60));
+        int sixDaysLater = nineAm + 6 * 24 * 60;
+        assertEquals(List.of(3, 1, 4, 2, 5), appointmentList.listAppointmentsBetween(nineAm, sixDaysLater));
+        assertEquals(List.of(3, 1, 4, 2, 5), appointmentList.listAppointmentsAfter(nineAm));
+    }
+
+    private Appointment createAppointment(int appointmentId, int dateTimeCode, int recurrenceIntervalDays,
+            int recurrenceCount) {
+        Appointment appointment = new Appointment();
+        appointment.setId(appointmentId);
+        appointment.setDateTimeCode(dateTimeCode);
+        if (recurrenceCount > 0) {
+            appointment.setRecurrenceIntervalDays(recurrenceIntervalDays);
+            appointment.setRecurrenceCount(recurrenceCount);
+        }
+        return appointment;
+    }
 }
@@ -9,6 +9,8 @@ import medbot.command.appointmentcommand.AddAppointmentCommand;
 import medbot.command.appointmentcommand.DeleteAppointmentCommand;
 import medbot.command.appointmentcommand.EditAppointmentCommand;
 import medbot.command.appointmentcommand.ListAppointmentCommand;
+import medbot.command.appointmentcommand.ReportCommand;
+import medbot.command.appointmentcommand.RescheduleAppointmentCommand;
 import medbot.command.personcommand.patientcommand.AddPatientCommand;
 import medbot.command.personcommand.patientcommand.DeletePatientCommand;
 import medbot.command.personcommand.patientcommand.EditPatientCommand;
@@ -26,20 +28,31 @@ import medbot.command.personcommand.staffcommand.ListStaffCommand;
 import medbot.command.personcommand.staffcommand.ShowStaffCommand;
 
 import medbot.command.personcommand.staffcommand.ViewStaffCommand;
+import medbot.command.resourcecommand.ListResourceCommand;
 import medbot.exceptions.MedBotParserException;
+import medbot.parser.AttributeScanner;
 import medbot.parser.Parser;
 import medbot.parser.ParserUtils;
 import medbot.person.Patient;
 import medbot.person.Person;
+import medbot.ui.Ui;
 import medbot.utilities.ViewType;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -277,17 +290,35 @@ class ParserTest {
     }
 
 
+    @Test
+    void testAttributeScanner_specifiersAndValues() {
+        AttributeScanner attributes = new AttributeScanner("add   n/John Tan  i/S8712345G e/ p/8123 4567 a/1/2 x/");
+        assertEquals(6, attributes.countRemaining());
+        String[] expectedSpecifiersAndValues = {"n", "John Tan", "i", "S8712345G", "e", "", "p", "8123 4567",
+                                                "a", "1/2", "x", ""};
+        for (int i = 0; i < expectedSpecifiersAndValues.length; i += 2) {
+            assertTrue(attributes.next());
+            assertEquals(expectedSpecifiersAndValues[i], String.valueOf(attributes.getSpecifier()));
+            assertEquals(expectedSpecifiersAndValues[i + 1], attributes.getValue());
+        }
+        assertFalse(attributes.next());
+        assertFalse(new AttributeScanner("addn/John").hasNext());
+        assertThrows(MedBotParserException.class, () -> AttributeScanner.scanAttributes("add John  john@email"),
+                "No parameters given.");
+    }
+
     /**
      * Check if the parser for patient return the correct type of command.
      */
     @Test
     void testParseCommandForPatient() {
-        Parser.setViewType(ViewType.PATIENT_INFO);
-        assertSame(Parser.getViewType(), ViewType.PATIENT_INFO);
+        Session session = new Session();
+        session.setViewType(ViewType.PATIENT_INFO);
+        assertSame(session.getViewType(), ViewType.PATIENT_INFO);
         HashMap<String, Command> testCases = new HashMap<>();
         testCases.put("exit", new ExitCommand());
         testCases.put("help ", new HelpCommand(ViewType.PATIENT_INFO));
-        testCases.put("switch 2", new SwitchCommand(null, true));
+        testCases.put("switch 2", new SwitchCommand(null, null, true));
         testCases.put("add n/John Tan ", new AddPatientCommand(null));
         testCases.put("edit 1 n/John Tan ", new EditPatientCommand(1, null));
         testCases.put("delete 1", new DeletePatientCommand(1));
@@ -300,7 +331,7 @@ class ParserTest {
 
         for (String testCase : testCases.keySet()) {
             try {
-                Command command = Parser.parseCommand(testCase);
+                Command command = Parser.parseCommand(testCase, session);
                 assertTrue(testCases.get(testCase).getClass().isAssignableFrom(command.getClass()));
             } catch (MedBotParserException e) {
                 assertEquals("Unable to parse command." + END_LINE, e.getMessage());
@@ -313,12 +344,13 @@ class ParserTest {
      */
     @Test
     void testParseCommandForStaff() {
-        Parser.setViewType(ViewType.MEDICAL_STAFF_INFO);
-        assertSame(Parser.getViewType(), ViewType.MEDICAL_STAFF_INFO);
+        Session session = new Session();
+        session.setViewType(ViewType.MEDICAL_STAFF_INFO);
+        assertSame(session.getViewType(), ViewType.MEDICAL_STAFF_INFO);
         HashMap<String, Command> testCases = new HashMap<>();
         testCases.put("exit", new ExitCommand());
         testCases.put("help ", new HelpCommand(ViewType.MEDICAL_STAFF_INFO));
-        testCases.put("switch 3", new SwitchCommand(null, true));
+        testCases.put("switch 3", new SwitchCommand(null, null, true));
         testCases.put("add n/John Tan ", new AddStaffCommand(null));
         testCases.put("edit 1 n/John Tan ", new EditStaffCommand(1, null));
         testCases.put("delete 1", new DeleteStaffCommand(1));
@@ -331,13 +363,12 @@ class ParserTest {
 
         for (String testCase : testCases.keySet()) {
             try {
-                Command command = Parser.parseCommand(testCase);
+                Command command = Parser.parseCommand(testCase, session);
                 assertTrue(testCases.get(testCase).getClass().isAssignableFrom(command.getClass()));
             } catch (MedBotParserException e) {
                 assertEquals("Unable to parse command." + END_LINE, e.getMessage());
             }
         }
-        Parser.setViewType(ViewType.PATIENT_INFO);
     }
 
     /**
@@ -345,12 +376,13 @@ class ParserTest {
      */
     @Test
     void testParseCommandForAppointment() {
-        Parser.setViewType(ViewType.SCHEDULER);
-        assertSame(Parser.getViewType(), ViewType.SCHEDULER);
+        Session session = new Session();
+        session.setViewType(ViewType.SCHEDULER);
+        assertSame(session.getViewType(), ViewType.SCHEDULER);
         HashMap<String, Command> testCases = new HashMap<>();
         testCases.put("exit", new ExitCommand());
         testCases.put("help ", new HelpCommand(ViewType.SCHEDULER));
-        testCases.put("switch 1", new SwitchCommand(null, true));
+        testCases.put("switch 1", new SwitchCommand(null, null, true));
         testCases.put("add p/1 s/1 d/181021 1800 ", new AddAppointmentCommand(null));
         testCases.put("add 1 p/1 s/1 d/181021 1800 ", new AddAppointmentCommand(null));
         testCases.put("edit 1 p/1 s/1 d/181021 1800 ", new EditAppointmentCommand(1, null));
@@ -360,13 +392,85 @@ class ParserTest {
 
         for (String testCase : testCases.keySet()) {
             try {
-                Command command = Parser.parseCommand(testCase);
+                Command command = Parser.parseCommand(testCase, session);
                 assertTrue(testCases.get(testCase).getClass().isAssignableFrom(command.getClass()));
             } catch (MedBotParserException e) {
                 assertEquals("Unable to parse command." + END_LINE, e.getMessage());
             }
         }
-        Parser.setViewType(ViewType.PATIENT_INFO);
     }
 
-}
\ No newline at end of file
+    /**
+     * Check that command words match inputs starting with them, except for those that must be entered exactly.
+     */
+    @Test
+    void testParseCommand_commandWordPrefixes() throws Exception {
+        Session session = new Session();
+        assertTrue(Parser.parseCommand("list -h", session) instanceof ListPatientCommand);
+        assertTrue(Parser.parseCommand("view1", session) instanceof ViewPatientCommand);
+        assertTrue(Parser.parseCommand("helpadd", session) instanceof HelpCommand);
+        assertThrows(MedBotParserException.class, () -> Parser.parseCommand("exit now", session));
+        assertThrows(MedBotParserException.class, () -> Parser.parseCommand("ad n/John", session));
+        assertThrows(MedBotParserException.class, () -> Parser.parseCommand("solve x.txt", session));
+
+        session.setViewType(ViewType.SCHEDULER);
+        assertTrue(Parser.parseCommand("resource  list", session) instanceof ListResourceCommand);
+        assertTrue(Parser.parseCommand("reschedule s/1 a/010122 0900 b/010122 1000", session)
+                instanceof RescheduleAppointmentCommand);
+        assertTrue(Parser.parseCommand("report d/010122 0900", session) instanceof ReportCommand);
+        assertThrows(MedBotParserException.class, () -> Parser.parseCommand("list all", session));
+        assertThrows(MedBotParserException.class, () -> Parser.parseCommand("res list", session));
+    }
+
+    /**
+     * Check that switching the view of one session does not change the view of another session.
+     */
+    @Test
+    void testParseCommand_switchInOneSession_otherSessionUnchanged() throws Exception {
+        Session firstSession = new Session();
+        Session secondSession = new Session();
+        Ui ui = new Ui(new ByteArrayInputStream(new byte[0]), new ByteArrayOutputStream());
+
+        Parser.parseCommand("switch s", firstSession).execute(null, ui);
+        assertSame(ViewType.SCHEDULER, firstSession.getViewType());
+        assertSame(ViewType.PATIENT_INFO, secondSession.getViewType());
+        assertTrue(Parser.parseCommand("list", firstSession) instanceof ListAppointmentCommand);
+        assertTrue(Parser.parseCommand("list", secondSession) instanceof ListPatientCommand);
+    }
+
+    /**
+     * Check that sessions in different views parsing and switching at the same time get the commands of their own
+     * views.
+     */
+    @Test
+    void testParseCommand_concurrentSessions_commandsOfOwnView() throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(6);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            results.add(threads.submit(() -> {
+                Session session = new Session();
+                Ui ui = new Ui(new ByteArrayInputStream(new byte[0]), new ByteArrayOutputStream());
+                boolean isCorrect = true;
+                for (int j = 0; j < 3000; j++) {
+                    Command command = Parser.parseCommand("list", session);
+                    switch (session.getViewType()) {
+                    case PATIENT_INFO:
+                        isCorrect &= command instanceof ListPatientCommand;
+                        break;
+                    case MEDICAL_STAFF_INFO:
+                        isCorrect &= command instanceof ListStaffCommand;
+                        break;
+                    default:
+                        isCorrect &= command instanceof ListAppointmentCommand;
+                    }
+                    Parser.parseCommand("switch", session).execute(null, ui);
+                }
+                return isCorrect;
+            }));
+        }
+        for (Future<Boolean> result : results) {
+            assertTrue(result.get());
+        }
+        threads.shutdown();
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 class PersonTest {
     private static final String END_LINE = System.lineSeparator();
@@ -53,5 +54,26 @@ class PersonTest {
         assertNull(patient.getPhoneNumber());
     }
 
+    @Test
+    public void testTableFormat_afterChanges_rendersChangedAttributes() {
+        Patient patient = new Patient();
+        patient.setId(1);
+        patient.setIcNumber("S8712345G");
+        patient.setName("Alice Tan");
+        String row = patient.getInfoInTableFormat();
+        assertSame(row, patient.getInfoInTableFormat());
+        assertEquals("Alice Tan           ", patient.getNameInTableFormat());
+
+        patient.setName("Alice Tan Mei Ling Lim");
+        assertEquals("Alice Tan Mei Lin...", patient.getNameInTableFormat());
+        assertEquals(" | 1    | S8712345G | Alice Tan Mei Lin... | " + " ".repeat(9) + " | " + " ".repeat(20)
+                + " | " + " ".repeat(20) + " | ", patient.getInfoInTableFormat());
+
+        patient.setId(2);
+        patient.setPhoneNumber("81234567");
+        assertEquals(" | 2    | S8712345G | Alice Tan Mei Lin... | 81234567  | " + " ".repeat(20)
+                + " | " + " ".repeat(20) + " | ", patient.getInfoInTableFormat());
+    }
+
 
 }
@@ -1,8 +1,15 @@
 package medbot;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import medbot.exceptions.MedBotException;
+import medbot.parser.ParserUtils;
 import medbot.person.Person;
+import medbot.utilities.FilterType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -10,6 +17,7 @@ import medbot.person.Patient;
 import medbot.person.Staff;
 
 import java.util.ArrayList;
+import java.util.List;
 
 // class SchedulerTest {
 
@@ -106,3 +114,406 @@ import java.util.ArrayList;
 
 
 //}
+
+class SchedulerTest {
+    private Scheduler scheduler;
+
+    @BeforeEach
+    void init() throws MedBotException {
+        scheduler = new Scheduler();
+        scheduler.addPatient(createPatient("Abby"));
+        scheduler.addPatient(createPatient("Ben"));
+        scheduler.addStaff(createStaff("Dr Tan"));
+        scheduler.addAppointment(createAppointment(1, 1, 1000));
+    }
+
+    @Test
+    public void testRollbackTransaction_changesUndone() throws MedBotException {
+        String patientStorageString = scheduler.getPatientStorageString();
+        String appointmentStorageString = scheduler.getAppointmentStorageString();
+
+        scheduler.beginTransaction();
+        scheduler.addPatient(createPatient("Claire"));
+        scheduler.editAppointment(1, createAppointment(2, 0, 0));
+        scheduler.addAppointment(createAppointment(1, 1, 2000));
+        scheduler.hidePatient(2);
+        scheduler.deletePatient(1);
+        scheduler.rollbackTransaction();
+
+        assertEquals(patientStorageString, scheduler.getPatientStorageString());
+        assertEquals(appointmentStorageString, scheduler.getAppointmentStorageString());
+        //the patient's appointment list must also be restored
+        assertEquals(1, scheduler.getAppointment(1).getPatientId());
+        assertThrows(MedBotException.class, () -> scheduler.addAppointment(createAppointment(2, 1, 1000)));
+    }
+
+    @Test
+    public void testCommitTransaction_changesKept() throws MedBotException {
+        scheduler.beginTransaction();
+        scheduler.editAppointment(1, createAppointment(2, 0, 0));
+        scheduler.commitTransaction();
+
+        assertEquals(2, scheduler.getAppointment(1).getPatientId());
+        assertThrows(MedBotException.class, () -> scheduler.rollbackTransaction());
+    }
+
+    @Test
+    public void testEditAppointment_clash_appointmentUnchanged() throws MedBotException {
+        scheduler.addAppointment(createAppointment(2, 1, 2000));
+        String appointmentStorageString = scheduler.getAppointmentStorageString();
+
+        assertThrows(MedBotException.class, () -> scheduler.editAppointment(1, createAppointment(0, 0, 2000)));
+        assertEquals(appointmentStorageString, scheduler.getAppointmentStorageString());
+    }
+
+    @Test
+    public void testRescheduleStaffAppointments_success() throws MedBotException {
+        scheduler.addAppointment(createAppointment(2, 1, 1060));
+        scheduler.addAppointment(createAppointment(2, 1, 3000));
+
+        //the first appointment is moved into the slot the second appointment is moved out of
+        List<Integer> movedIds = scheduler.rescheduleStaffAppointments(1, 1000, 1060, 1, 1060);
+
+        assertEquals(2, movedIds.size());
+        assertEquals(1060, scheduler.getAppointment(1).getDateTimeCode());
+        assertEquals(1120, scheduler.getAppointment(2).getDateTimeCode());
+        assertEquals(3000, scheduler.getAppointment(3).getDateTimeCode());
+    }
+
+    @Test
+    public void testRescheduleStaffAppointments_clash_appointmentsUnchanged() throws MedBotException {
+        scheduler.addStaff(createStaff("Dr Ong"));
+        scheduler.addAppointment(createAppointment(2, 1, 1060));
+        scheduler.addAppointment(createAppointment(1, 2, 1060));
+        String appointmentStorageString = scheduler.getAppointmentStorageString();
+
+        MedBotException exception = assertThrows(MedBotException.class,
+                () -> scheduler.rescheduleStaffAppointments(1, 1000, 1060, 2, 1000));
+        assertTrue(exception.getMessage().contains("Appointment 2 clashes with appointment 3 of staff 2."));
+        assertEquals(appointmentStorageString, scheduler.getAppointmentStorageString());
+    }
+
+    @Test
+    public void testGetFreeStaff_bookedStaffExcluded() throws MedBotException {
+        scheduler.addStaff(createStaff("Dr Ong"));
+        scheduler.addAppointment(createAppointment(2, 2, 1080));
+
+        assertEquals(List.of(2), scheduler.getFreeStaff(List.of(), 1000));
+        assertEquals(List.of(1), scheduler.getFreeStaff(List.of(), 1080));
+        scheduler.deleteAppointment(1);
+        assertEquals(List.of(1, 2), scheduler.getFreeStaff(List.of(), 1000));
+    }
+
+    @Test
+    public void testFindFirstFreeHour_allStaffBooked_firstGapFound() throws MedBotException {
+        scheduler.addStaff(createStaff("Dr Ong"));
+        //both staff are booked for 70 hours from 1080, except staff 2 at the 65th hour
+        for (int hour = 0; hour < 70; hour++) {
+            scheduler.addAppointment(createAppointment(1, 1, 1080 + hour * 60));
+            if (hour != 65) {
+                scheduler.addAppointment(createAppointment(2, 2, 1080 + hour * 60));
+            }
+        }
+
+        assertEquals(1080 + 65 * 60, scheduler.findFirstFreeHour(List.of(), 1080));
+        assertEquals(1080 + 70 * 60, scheduler.findFirstFreeHour(List.of(1), 1080));
+        //a date far outside the current horizon
+        assertEquals(20000040, scheduler.findFirstFreeHour(List.of(1, 2), 20000040));
+    }
+
+    @Test
+    public void testGetUtilisationReport_countsFollowChanges() throws MedBotException {
+        int monday = ParserUtils.parseDateTime("030122 0900");
+        int tuesday = ParserUtils.parseDateTime("040122 1000");
+        scheduler.addAppointment(createAppointment(1, 1, monday));
+        scheduler.addAppointment(createAppointment(2, 1, tuesday));
+        scheduler.editAppointment(3, createAppointment(0, 0, tuesday + 60));
+
+        String report = scheduler.getUtilisationReport(tuesday);
+        assertTrue(report.contains(" | All appointments               | 1     | 1     | 0     | 0     | 0     "
+                + "| 0     | 0     | 2     | "));
+        assertTrue(report.contains(" | Patient 2 Ben                  | 0     | 1     | 0     "));
+        assertTrue(report.contains("Mon  .  .  .  .  .  .  .  .  .  1  ."));
+
+        scheduler.deleteStaff(1);
+        report = scheduler.getUtilisationReport(tuesday);
+        assertTrue(report.contains(" | All appointments               | 0     | 0     | 0     "));
+        assertFalse(report.contains("Staff 1"));
+    }
+
+    @Test
+    public void testAddRecurringAppointment_clashesFoundWithoutExpansion() throws MedBotException {
+        int day0 = ParserUtils.parseDateTime("030122 1000");
+        int dayLength = 24 * 60;
+        Appointment everyThirdDay = createAppointment(1, 1, day0);
+        everyThirdDay.setRecurrenceIntervalDays(3);
+        everyThirdDay.setRecurrenceCount(10);
+        scheduler.addAppointment(everyThirdDay);
+
+        //day 1 + 4j never lands on an even day, day 0 + 3i does on day 9 (i = 3, j = 2)
+        Appointment everyFourthDay = createAppointment(2, 1, day0 + dayLength);
+        everyFourthDay.setRecurrenceIntervalDays(4);
+        everyFourthDay.setRecurrenceCount(10);
+        assertEquals(9 * dayLength + day0, Appointment.getFirstCommonOccurrence(everyThirdDay, everyFourthDay));
+        assertThrows(MedBotException.class, () -> scheduler.addAppointment(everyFourthDay));
+
+        Appointment everySecondDay = createAppointment(2, 1, day0 + dayLength);
+        everySecondDay.setRecurrenceIntervalDays(2);
+        everySecondDay.setRecurrenceCount(2);
+        //occurs on days 1 and 3, and the series of every third day occurs on day 3
+        assertThrows(MedBotException.class, () -> scheduler.addAppointment(everySecondDay));
+        everySecondDay.setRecurrenceCount(1);
+        scheduler.addAppointment(everySecondDay);
+
+        //the 10th occurrence of the series is on day 27 and a single appointment clashes with it
+        assertThrows(MedBotException.class,
+                () -> scheduler.addAppointment(createAppointment(2, 1, day0 + 27 * dayLength)));
+        scheduler.addAppointment(createAppointment(2, 1, day0 + 30 * dayLength));
+        assertTrue(scheduler.getAppointmentStorageString().contains("030122 1000 | 1 | 1 | 3 | 10"));
+    }
+
+    @Test
+    public void testAddAppointment_withDurations_overlapsDetected() throws MedBotException {
+        int nineAm = ParserUtils.parseDateTime("030122 0900");
+        Appointment halfHour = createAppointment(2, 1, nineAm);
+        halfHour.setDurationMinutes(30);
+        scheduler.addAppointment(halfHour);
+
+        //0930 to 1000 is free, but 0915 to 1045 overlaps
+        scheduler.addAppointment(createShortAppointment(nineAm + 30, 30));
+        assertThrows(MedBotException.class, () -> scheduler.addAppointment(createShortAppointment(nineAm + 15, 90)));
+        scheduler.addAppointment(createShortAppointment(nineAm + 60, 90));
+        assertThrows(MedBotException.class, () -> scheduler.addAppointment(createShortAppointment(nineAm - 45, 60)));
+
+        //a daily series from the next day at 0845 to 0915 overlaps nothing, until it is moved a day earlier
+        Appointment series = createShortAppointment(nineAm + 24 * 60 - 15, 30);
+        series.setRecurrenceIntervalDays(1);
+        series.setRecurrenceCount(6);
+        scheduler.addAppointment(series);
+        Appointment movedSeries = new Appointment();
+        movedSeries.setDateTimeCode(nineAm - 15);
+        assertThrows(MedBotException.class, () -> scheduler.editAppointment(series.getId(), movedSeries));
+        assertEquals("030122 0930 | 2 | 1 | X | X | 30",
+                scheduler.getAppointmentStorageString().split(System.lineSeparator())[2].substring(4));
+    }
+
+    @Test
+    public void testAddAppointment_sharedResource_clashDetected() throws MedBotException {
+        Resource theatre = new Resource();
+        theatre.setName("Theatre 1");
+        int theatreId = scheduler.addResource(theatre);
+        scheduler.addStaff(createStaff("Dr Ong"));
+        Appointment surgery = createAppointment(2, 1, 2040);
+        surgery.addResourceId(theatreId);
+        scheduler.addAppointment(surgery);
+
+        //different patient and staff, but the same theatre
+        Appointment otherSurgery = createAppointment(1, 2, 2040);
+        otherSurgery.addResourceId(theatreId);
+        assertThrows(MedBotException.class, () -> scheduler.addAppointment(otherSurgery));
+        otherSurgery.addResourceId(theatreId + 1);
+        otherSurgery.removeResourceId(theatreId);
+        assertThrows(MedBotException.class, () -> scheduler.addAppointment(otherSurgery));
+
+        //deleting the theatre keeps the appointment, which then no longer books it
+        scheduler.deleteResource(theatreId);
+        assertEquals(List.of(), scheduler.getAppointment(surgery.getId()).getResourceIds());
+        assertThrows(MedBotException.class, () -> scheduler.getResourceInfo(theatreId));
+    }
+
+    @Test
+    public void testFillFromWaitlist_busyPatientSkipped() throws MedBotException {
+        scheduler.addPatient(createPatient("Claire"));
+        scheduler.addStaff(createStaff("Dr Ong"));
+        scheduler.addAppointment(createAppointment(3, 2, 1000));
+        scheduler.addWaitlistEntry(createWaitlistEntry(3, 1, 900, 1100));
+        scheduler.addWaitlistEntry(createWaitlistEntry(2, 1, 2000, 5000));
+        scheduler.addWaitlistEntry(createWaitlistEntry(2, 1, 500, 1500));
+
+        Appointment cancelledAppointment = scheduler.getAppointment(1);
+        scheduler.deleteAppointment(1);
+        List<Integer> bookedAppointmentIds = scheduler.fillFromWaitlist(List.of(cancelledAppointment));
+
+        //the first entry's patient is busy at that time, and the second entry's window starts later
+        assertEquals(1, bookedAppointmentIds.size());
+        Appointment bookedAppointment = scheduler.getAppointment(bookedAppointmentIds.get(0));
+        assertEquals(2, bookedAppointment.getPatientId());
+        assertEquals(1000, bookedAppointment.getDateTimeCode());
+        assertEquals(2, scheduler.listWaitlist().size());
+        assertTrue(scheduler.fillFromWaitlist(List.of(cancelledAppointment)).isEmpty());
+    }
+
+    @Test
+    public void testRunAtomically_failsAfterDeleteAndBackfill_bothUndone() throws MedBotException {
+        scheduler.addWaitlistEntry(createWaitlistEntry(2, 1, 500, 1500));
+        Appointment cancelledAppointment = scheduler.getAppointment(1);
+
+        assertThrows(MedBotException.class, () -> scheduler.runAtomically(() -> {
+            scheduler.deleteAppointment(1);
+            assertEquals(1, scheduler.fillFromWaitlist(List.of(cancelledAppointment)).size());
+            throw new MedBotException("Unable to print the booked appointments.");
+        }));
+
+        assertEquals(1, scheduler.getAppointment(1).getPatientId());
+        assertEquals(1, scheduler.listWaitlist().size());
+        assertTrue(scheduler.fillFromWaitlist(List.of(cancelledAppointment)).isEmpty());
+    }
+
+    @Test
+    public void testSolvePlacements_contestedSlots_maximumBooked() throws MedBotException {
+        scheduler.addPatient(createPatient("Claire"));
+        scheduler.addStaff(createStaff("Dr Ong"));
+        //the greedy pass gives Abby the 1200 slot of Dr Tan, which Ben then needs, so Abby has to move to Dr Ong
+        List<PlacementRequest> requests = List.of(
+                createPlacementRequest(1, List.of(1, 2), 1200, 1200),
+                createPlacementRequest(2, List.of(1), 1200, 1260),
+                createPlacementRequest(3, List.of(1), 1260, 1260),
+                createPlacementRequest(3, List.of(1, 2), 960, 960));
+
+        int[] appointmentIds = scheduler.solvePlacements(requests);
+        assertEquals(2, scheduler.getAppointment(appointmentIds[0]).getMedicalStaffId());
+        assertEquals(1200, scheduler.getAppointment(appointmentIds[1]).getDateTimeCode());
+        assertEquals(1260, scheduler.getAppointment(appointmentIds[2]).getDateTimeCode());
+        //Dr Tan is busy with appointment 1 during that hour
+        assertEquals(2, scheduler.getAppointment(appointmentIds[3]).getMedicalStaffId());
+    }
+
+    @Test
+    public void testLazyAppointmentLists_evictedListRebuilt() throws MedBotException {
+        Scheduler lazyScheduler = new Scheduler(1);
+        lazyScheduler.addPatient(createPatient("Abby"));
+        lazyScheduler.addPatient(createPatient("Ben"));
+        lazyScheduler.addStaff(createStaff("Dr Tan"));
+        lazyScheduler.addStaff(createStaff("Dr Ong"));
+        lazyScheduler.loadAppointment(createAppointment(1, 1, 2000));
+        lazyScheduler.loadAppointment(createAppointment(2, 1, 3000));
+        lazyScheduler.loadAppointment(createAppointment(1, 1, 1000));
+
+        String abbyAppointments = lazyScheduler.listPatientAppointments(1, FilterType.NONE, 0);
+        assertTrue(abbyAppointments.indexOf("| 3 ") < abbyAppointments.indexOf("| 1 "));
+        //only one patient's list is kept, so Abby's list is dropped and has to be built again
+        assertTrue(lazyScheduler.listPatientAppointments(2, FilterType.NONE, 0).contains("Ben"));
+        assertThrows(MedBotException.class, () -> lazyScheduler.addAppointment(createAppointment(1, 2, 1030)));
+
+        lazyScheduler.deleteAppointment(3);
+        int appointmentId = lazyScheduler.addAppointment(createAppointment(1, 2, 1030));
+        String appointmentIdColumn = "| " + appointmentId + " ";
+        assertTrue(lazyScheduler.listMedicalStaffAppointments(2, FilterType.NONE, 0).contains(appointmentIdColumn));
+        assertFalse(lazyScheduler.listMedicalStaffAppointments(1, FilterType.NONE, 0).contains(appointmentIdColumn));
+    }
+
+    @Test
+    public void testPublishSnapshot_earlierSnapshotUnchanged() throws MedBotException {
+        scheduler.publishSnapshot();
+        SchedulerSnapshot snapshot = scheduler.getSnapshot();
+        scheduler.addAppointment(createAppointment(2, 1, 2000));
+        Patient newPatientData = new Patient();
+        newPatientData.setNull();
+        newPatientData.setName("Abigail");
+        scheduler.editPatient(1, newPatientData);
+        scheduler.publishSnapshot();
+
+        assertEquals(1, snapshot.getAppointmentCount());
+        assertEquals("Abby", snapshot.getPatient(1).getName());
+        SchedulerSnapshot newSnapshot = scheduler.getSnapshot();
+        assertEquals(snapshot.getGeneration() + 1, newSnapshot.getGeneration());
+        assertEquals("Abigail", newSnapshot.getPatient(1).getName());
+        assertEquals(2000, newSnapshot.listStaffAppointments(1).get(1).getDateTimeCode());
+
+        //changes made during a transaction are only published once it is committed
+        scheduler.beginTransaction();
+        scheduler.deleteAppointment(1);
+        scheduler.publishSnapshot();
+        assertSame(newSnapshot, scheduler.getSnapshot());
+        scheduler.commitTransaction();
+        scheduler.publishSnapshot();
+        assertEquals(1, scheduler.getSnapshot().getAppointmentCount());
+    }
+
+    @Test
+    public void testArchiveAppointmentsBefore_archiveReadOnlyWhenSearched() throws MedBotException {
+        InMemoryArchive archive = new InMemoryArchive();
+        scheduler.setAppointmentArchive(archive);
+        assertEquals(1, scheduler.archiveAppointmentsBefore(1060));
+
+        assertTrue(scheduler.listPatientAppointments(1, FilterType.NONE, 0).isEmpty());
+        assertTrue(scheduler.listPatientAppointments(1, FilterType.BEFORE, 999).isEmpty());
+        assertEquals(0, archive.loadCount);
+        assertTrue(scheduler.listPatientAppointments(1, FilterType.BEFORE, 1000).contains("Abby"));
+        assertEquals(1, archive.loadCount);
+        //archived ids are not given out again
+        assertEquals(2, scheduler.addAppointment(createAppointment(1, 1, 1000)));
+    }
+
+    private static class InMemoryArchive implements AppointmentArchive {
+        private final List<Appointment> appointments = new ArrayList<>();
+        private int loadCount = 0;
+
+        @Override
+        public void append(List<Appointment> appointments) {
+            this.appointments.addAll(appointments);
+        }
+
+        @Override
+        public List<Appointment> loadAppointments() {
+            loadCount++;
+            return new ArrayList<>(appointments);
+        }
+
+        @Override
+        public int getEarliestDateTimeCode() {
+            return appointments.stream().mapToInt(Appointment::getDateTimeCode).min().orElse(Integer.MAX_VALUE);
+        }
+
+        @Override
+        public int getLastAppointmentId() {
+            return appointments.stream().mapToInt(Appointment::getId).max().orElse(0);
+        }
+    }
+
+    private PlacementRequest createPlacementRequest(int patientId, List<Integer> staffIds, int startDateTimeCode,
+            int endDateTimeCode) {
+        PlacementRequest request = new PlacementRequest();
+        request.setPatientId(patientId);
+        staffIds.forEach(request::addMedicalStaffId);
+        request.setStartDateTimeCode(startDateTimeCode);
+        request.setEndDateTimeCode(endDateTimeCode);
+        return request;
+    }
+
+    private WaitlistEntry createWaitlistEntry(int patientId, int staffId, int startDateTimeCode,
+            int endDateTimeCode) {
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setPatientId(patientId);
+        entry.setMedicalStaffId(staffId);
+        entry.setStartDateTimeCode(startDateTimeCode);
+        entry.setEndDateTimeCode(endDateTimeCode);
+        return entry;
+    }
+
+    private Appointment createShortAppointment(int dateTimeCode, int durationMinutes) {
+        Appointment appointment = createAppointment(2, 1, dateTimeCode);
+        appointment.setDurationMinutes(durationMinutes);
+        return appointment;
+    }
+
+    private Patient createPatient(String name) {
+        Patient patient = new Patient();
+        patient.setName(name);
+        return patient;
+    }
+
+    private Staff createStaff(String name) {
+        Staff staff = new Staff();
+        staff.setName(name);
+        return staff;
+    }
+
+    private Appointment createAppointment(int patientId, int staffId, int dateTimeCode) {
+        Appointment appointment = new Appointment();
+        appointment.setPatientId(patientId);
+        appointment.setMedicalStaffId(staffId);
+        appointment.setDateTimeCode(dateTimeCode);
+        return appointment;
+    }
+}
@@ -11,7 +11,11 @@ import medbot.ui.Ui;
 import medbot.utilities.ViewType;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -419,6 +423,9 @@ class UiTest {
                 + "find" + END_LINE
                 + "hide" + END_LINE
                 + "show" + END_LINE
+                + "begin" + END_LINE
+                + "commit" + END_LINE
+                + "rollback" + END_LINE
                 + "switch" + END_LINE
                 + "get view" + END_LINE
                 + "exit" + END_LINE + END_LINE
@@ -447,6 +454,9 @@ class UiTest {
                 + "find" + END_LINE
                 + "hide" + END_LINE
                 + "show" + END_LINE
+                + "begin" + END_LINE
+                + "commit" + END_LINE
+                + "rollback" + END_LINE
                 + "switch" + END_LINE
                 + "get view" + END_LINE
                 + "exit" + END_LINE + END_LINE
@@ -473,6 +483,16 @@ class UiTest {
                 + "view" + END_LINE
                 + "list" + END_LINE
                 + "find" + END_LINE
+                + "reschedule" + END_LINE
+                + "free" + END_LINE
+                + "report" + END_LINE
+                + "resource" + END_LINE
+                + "waitlist" + END_LINE
+                + "solve" + END_LINE
+                + "archive" + END_LINE
+                + "begin" + END_LINE
+                + "commit" + END_LINE
+                + "rollback" + END_LINE
                 + "switch" + END_LINE
                 + "get view" + END_LINE
                 + "exit" + END_LINE + END_LINE
@@ -597,4 +617,71 @@ class UiTest {
             assertEquals("Cannot identify the current view type" + END_LINE, e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testPrintOutput_untilFlushOrInput_buffered() {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Ui ui = new Ui(new ByteArrayInputStream(("list" + END_LINE).getBytes()), outputStream);
+        ui.print("Header" + END_LINE);
+        ui.printOutput("Row");
+        assertEquals("", outputStream.toString());
+
+        ui.flush();
+        assertEquals("Header" + END_LINE + "Row" + END_LINE, outputStream.toString());
+
+        ui.printOutput("Prompt");
+        assertEquals("list", ui.readInput());
+        assertEquals("Header" + END_LINE + "Row" + END_LINE + "Prompt" + END_LINE, outputStream.toString());
+    }
+
+    @Test
+    public void testReadInput_mixedLineSeparators_sameLinesAsScanner() {
+        String longLine = "n/" + "\u00e9\u4e2d".repeat(40_000);
+        String input = "add n/John\r\nlist\n\r\n" + longLine + "\rswitch s\r\n\nexit";
+        byte[] inputBytes = input.getBytes();
+        Ui ui = new Ui(new ByteArrayInputStream(inputBytes), new ByteArrayOutputStream());
+        Scanner scanner = new Scanner(new ByteArrayInputStream(inputBytes));
+        for (int i = 0; i < 7; i++) {
+            assertEquals(scanner.nextLine(), ui.readInput());
+        }
+        assertThrows(NoSuchElementException.class, ui::readInput);
+        assertThrows(NoSuchElementException.class, ui::readInput);
+    }
+
+    @Test
+    public void testReadInput_unicodeLineSeparators_sameLinesAsScanner() {
+        String input = "add n/Jos\u00e9\u0085list\u2028\nswitch s\u2029\r\n\u2028exit\u2028";
+        byte[] inputBytes = input.getBytes();
+        Ui ui = new Ui(new ByteArrayInputStream(inputBytes), new ByteArrayOutputStream());
+        Scanner scanner = new Scanner(new ByteArrayInputStream(inputBytes));
+        while (scanner.hasNextLine()) {
+            assertEquals(scanner.nextLine(), ui.readInput());
+        }
+        assertThrows(NoSuchElementException.class, ui::readInput);
+    }
+
+    @Test
+    public void testCloseInput_queueFull_readerThreadEnds() throws InterruptedException {
+        int readerThreadCount = countInputReaderThreads();
+        Ui ui = new Ui(new ByteArrayInputStream("list\n".repeat(10_000).getBytes()), new ByteArrayOutputStream());
+        assertEquals("list", ui.readInput());
+        assertEquals(readerThreadCount + 1, countInputReaderThreads());
+
+        ui.closeInput();
+        for (int i = 0; i < 100 && countInputReaderThreads() > readerThreadCount; i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(readerThreadCount, countInputReaderThreads());
+        assertThrows(NoSuchElementException.class, ui::readInput);
+    }
+
+    private static int countInputReaderThreads() {
+        int count = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals("MedBot input reader") && thread.isAlive()) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,106 @@
+package medbot.benchmarks;
+
+import medbot.utilities.DateTimeCodec;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+/**
+ * Measures how long DateTimeCodec takes to parse and format dateTimeCodes, next to LocalDateTime and
+ * DateTimeFormatter doing the same, on random dates and times from 2000 to 2099.
+ *
+ * <p>Run with {@code java medbot.benchmarks.DateTimeCodecBenchmark [rounds]}.
+ */
+public class DateTimeCodecBenchmark {
+    private static final int DEFAULT_ROUNDS = 200;
+    private static final int WARMUP_ROUNDS = 50;
+    private static final int SAMPLE_COUNT = 10_000;
+    //dateTimeCodes of 010100 0000 and 311299 2359
+    private static final int FIRST_PARSABLE_CODE = 15777600;
+    private static final int LAST_PARSABLE_CODE = 68373599;
+
+    private static final ZoneOffset ZONE_OFFSET = ZoneOffset.ofHours(8);
+    private static final DateTimeFormatter STORAGE_FORMATTER = DateTimeFormatter.ofPattern("ddMMyy HHmm");
+    private static final DateTimeFormatter DISPLAY_FORMATTER = DateTimeFormatter.ofPattern("dd MMM yy HHmm");
+
+    private interface Task {
+        long run();
+    }
+
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ROUNDS;
+        Random random = new Random(0);
+        int[] dateTimeCodes = new int[SAMPLE_COUNT];
+        String[] dateTimeStrings = new String[SAMPLE_COUNT];
+        for (int i = 0; i < SAMPLE_COUNT; i++) {
+            dateTimeCodes[i] = FIRST_PARSABLE_CODE + random.nextInt(LAST_PARSABLE_CODE - FIRST_PARSABLE_CODE + 1);
+            dateTimeStrings[i] = DateTimeCodec.toStorageString(dateTimeCodes[i]);
+        }
+
+        measure("parse, java.time", rounds, () -> {
+            long sum = 0;
+            for (String dateTimeString : dateTimeStrings) {
+                sum += LocalDateTime.parse(dateTimeString, STORAGE_FORMATTER).toEpochSecond(ZONE_OFFSET) / 60;
+            }
+            return sum;
+        });
+        measure("parse, codec", rounds, () -> {
+            long sum = 0;
+            for (String dateTimeString : dateTimeStrings) {
+                sum += DateTimeCodec.parseStorageString(dateTimeString);
+            }
+            return sum;
+        });
+        measure("storage string, java.time", rounds, () -> {
+            long length = 0;
+            for (int dateTimeCode : dateTimeCodes) {
+                length += toLocalDateTime(dateTimeCode).format(STORAGE_FORMATTER).length();
+            }
+            return length;
+        });
+        measure("storage string, codec", rounds, () -> {
+            long length = 0;
+            for (int dateTimeCode : dateTimeCodes) {
+                length += DateTimeCodec.toStorageString(dateTimeCode).length();
+            }
+            return length;
+        });
+        measure("display string, java.time", rounds, () -> {
+            long length = 0;
+            for (int dateTimeCode : dateTimeCodes) {
+                length += (toLocalDateTime(dateTimeCode).format(DISPLAY_FORMATTER) + "HRS").length();
+            }
+            return length;
+        });
+        measure("display string, codec", rounds, () -> {
+            long length = 0;
+            for (int dateTimeCode : dateTimeCodes) {
+                length += DateTimeCodec.toDisplayString(dateTimeCode).length();
+            }
+            return length;
+        });
+    }
+
+    private static LocalDateTime toLocalDateTime(int dateTimeCode) {
+        return LocalDateTime.ofEpochSecond((long) dateTimeCode * 60, 0, ZONE_OFFSET);
+    }
+
+    /**
+     * Runs the task for warmup and then for the given number of rounds, and prints the time taken per date.
+     */
+    private static void measure(String name, int rounds, Task task) {
+        long checksum = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            checksum += task.run();
+        }
+        long startTime = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            checksum += task.run();
+        }
+        long elapsedTime = System.nanoTime() - startTime;
+        System.out.printf("%-26s %7.1f ns per date (checksum %d)%n", name,
+                (double) elapsedTime / rounds / SAMPLE_COUNT, checksum);
+    }
+}
@@ -0,0 +1,52 @@
+package medbot.benchmarks;
+
+import medbot.ui.Ui;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+
+/**
+ * Measures how fast the Ui reads piped user input, by reading a recorded command corpus repeated many times as one
+ * block of input, as when a large batch of commands is pasted or piped in.
+ *
+ * <p>Run with {@code java medbot.benchmarks.InputBenchmark [corpus file] [repetitions]}.
+ */
+public class InputBenchmark {
+    private static final String DEFAULT_CORPUS = "src/test/data/ParserBenchmark/commands.txt";
+    private static final int DEFAULT_REPETITIONS = 20_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws IOException {
+        String corpus = Files.readString(Path.of(args.length > 0 ? args[0] : DEFAULT_CORPUS));
+        int repetitions = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_REPETITIONS;
+        byte[] input = corpus.repeat(repetitions).getBytes();
+
+        //the first round is warmup
+        for (int i = 0; i <= ROUNDS; i++) {
+            long startTime = System.nanoTime();
+            long lineCount = readAllInput(input);
+            long elapsedTime = System.nanoTime() - startTime;
+            if (i > 0) {
+                System.out.printf("Read %d lines (%.1f MB) in %.1f ms, %.0f ns per line%n", lineCount,
+                        input.length / 1e6, elapsedTime / 1e6, (double) elapsedTime / lineCount);
+            }
+        }
+    }
+
+    private static long readAllInput(byte[] input) {
+        Ui ui = new Ui(new ByteArrayInputStream(input), OutputStream.nullOutputStream());
+        long lineCount = 0;
+        try {
+            while (true) {
+                ui.readInput();
+                lineCount++;
+            }
+        } catch (NoSuchElementException e) {
+            return lineCount;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package medbot.benchmarks;
+
+import medbot.Scheduler;
+import medbot.Session;
+import medbot.command.Command;
+import medbot.exceptions.MedBotException;
+import medbot.parser.Parser;
+import medbot.storage.CommandJournal;
+import medbot.storage.StorageManager;
+import medbot.ui.Ui;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Replays a command journal recorded with {@code --journal FILE} against a copy of the storage files, and reports
+ * how long the commands took and checksums of the storage files they left behind.
+ *
+ * <p>Run it with {@code java medbot.benchmarks.JournalReplayBenchmark JOURNAL [DATA_FOLDER]}. The storage files are
+ * copied from DATA_FOLDER, MedBotData by default, into a temporary folder, so the original files are only read.
+ * Each line is parsed in the view it was recorded in, executed and saved, as MedBot does, until an 'exit' command
+ * or the end of the journal. Lines are replayed one after another, without the pauses between them.
+ *
+ * <p>Replaying the same journal and data against two builds should give the same checksums; the latencies show
+ * how the builds compare.
+ */
+public class JournalReplayBenchmark {
+    private static final String DEFAULT_DATA_FOLDER = "MedBotData";
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private static final Ui NULL_UI = new Ui(InputStream.nullInputStream(), OutputStream.nullOutputStream());
+
+    public static void main(String[] args) throws IOException, MedBotException {
+        if (args.length < 1) {
+            System.out.println("Usage: JournalReplayBenchmark JOURNAL [DATA_FOLDER]");
+            return;
+        }
+        List<CommandJournal.Entry> entries = CommandJournal.readEntries(args[0]);
+        Path dataFolder = Path.of(args.length > 1 ? args[1] : DEFAULT_DATA_FOLDER);
+        if (!Files.isDirectory(dataFolder)) {
+            System.out.println("No data folder at " + dataFolder + ".");
+            return;
+        }
+
+        Path replayFolder = Files.createTempDirectory("MedBotReplay");
+        try {
+            copyFiles(dataFolder, replayFolder);
+            replay(entries, replayFolder);
+            printChecksums(replayFolder);
+        } finally {
+            deleteFiles(replayFolder);
+        }
+    }
+
+    private static void replay(List<CommandJournal.Entry> entries, Path replayFolder) throws MedBotException {
+        Scheduler scheduler = new Scheduler();
+        StorageManager storageManager = new StorageManager(replayFolder.toString());
+        storageManager.initializeStorages(scheduler, NULL_UI);
+        scheduler.publishSnapshot();
+
+        //latencies in nanoseconds of all commands, and of the commands starting with each command word
+        List<Long> latencies = new ArrayList<>();
+        Map<String, List<Long>> latenciesByCommandWord = new TreeMap<>();
+        long startTime = System.nanoTime();
+        for (CommandJournal.Entry entry : entries) {
+            long commandStartTime = System.nanoTime();
+            boolean isExit = replayEntry(entry, scheduler, storageManager);
+            long latency = System.nanoTime() - commandStartTime;
+
+            latencies.add(latency);
+            latenciesByCommandWord.computeIfAbsent(getCommandWord(entry.getUserInput()), k -> new ArrayList<>())
+                    .add(latency);
+            if (isExit) {
+                break;
+            }
+        }
+        long elapsedTime = System.nanoTime() - startTime;
+
+        long recordedTime = entries.isEmpty() ? 0
+                : entries.get(entries.size() - 1).getTimeMillis() - entries.get(0).getTimeMillis();
+        System.out.printf("Replayed %d of %d journal lines in %.2f ms (recorded over %.1f s)%n", latencies.size(),
+                entries.size(), elapsedTime / 1e6, recordedTime / 1e3);
+        System.out.printf("%-12s %8s %10s", "command", "count", "mean us");
+        for (double percentile : PERCENTILES) {
+            System.out.printf(" %9s", "p" + formatPercentile(percentile) + " us");
+        }
+        System.out.printf(" %10s%n", "max us");
+        printLatencies("(all)", latencies);
+        for (Map.Entry<String, List<Long>> commandLatencies : latenciesByCommandWord.entrySet()) {
+            printLatencies(commandLatencies.getKey(), commandLatencies.getValue());
+        }
+    }
+
+    /**
+     * Parses, executes and saves a line of the journal as MedBot does, and returns whether it is an 'exit' command.
+     */
+    private static boolean replayEntry(CommandJournal.Entry entry, Scheduler scheduler,
+            StorageManager storageManager) {
+        Session session = new Session();
+        session.setViewType(entry.getViewType());
+        try {
+            Command command = Parser.parseCommand(entry.getUserInput(), session);
+            command.execute(scheduler, NULL_UI);
+            if (!scheduler.isInTransaction()) {
+                storageManager.saveToStorage(scheduler);
+            }
+            scheduler.publishSnapshot();
+            return command.isExit();
+        } catch (MedBotException e) {
+            return false;
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to save to the replay folder.", e);
+        }
+    }
+
+    private static String getCommandWord(String userInput) {
+        String strippedInput = userInput.strip();
+        int wordEnd = strippedInput.indexOf(' ');
+        return wordEnd < 0 ? strippedInput : strippedInput.substring(0, wordEnd);
+    }
+
+    private static void printLatencies(String label, List<Long> latencies) {
+        long[] sortedLatencies = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        System.out.printf("%-12s %8d %10.1f", label, sortedLatencies.length,
+                Arrays.stream(sortedLatencies).average().orElse(0) / 1e3);
+        for (double percentile : PERCENTILES) {
+            System.out.printf(" %9.1f", getPercentile(sortedLatencies, percentile) / 1e3);
+        }
+        System.out.printf(" %10.1f%n", sortedLatencies[sortedLatencies.length - 1] / 1e3);
+    }
+
+    /**
+     * Returns the value below which the given percentage of the sorted values lie, by the nearest rank method.
+     */
+    private static long getPercentile(long[] sortedValues, double percentile) {
+        int rank = (int) Math.ceil(percentile / 100 * sortedValues.length);
+        return sortedValues[Math.max(rank, 1) - 1];
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile);
+    }
+
+    private static void printChecksums(Path replayFolder) throws IOException {
+        System.out.println("Storage files after the replay:");
+        try (Stream<Path> dataFiles = Files.list(replayFolder)) {
+            for (Path dataFile : (Iterable<Path>) dataFiles.sorted()::iterator) {
+                CRC32 crc = new CRC32();
+                byte[] data = Files.readAllBytes(dataFile);
+                crc.update(data);
+                System.out.printf("%-20s %10d bytes  crc32 %08x%n", dataFile.getFileName(), data.length,
+                        crc.getValue());
+            }
+        }
+    }
+
+    private static void copyFiles(Path sourceFolder, Path targetFolder) throws IOException {
+        try (Stream<Path> dataFiles = Files.list(sourceFolder)) {
+            for (Path dataFile : (Iterable<Path>) dataFiles::iterator) {
+                if (Files.isRegularFile(dataFile)) {
+                    Files.copy(dataFile, targetFolder.resolve(dataFile.getFileName()));
+                }
+            }
+        }
+    }
+
+    private static void deleteFiles(Path folder) throws IOException {
+        try (Stream<Path> paths = Files.walk(folder)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}
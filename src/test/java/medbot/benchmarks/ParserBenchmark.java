@@ -0,0 +1,66 @@
+package medbot.benchmarks;
+
+import medbot.Session;
+import medbot.command.Command;
+import medbot.command.SwitchCommand;
+import medbot.exceptions.MedBotException;
+import medbot.parser.Parser;
+import medbot.ui.Ui;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Measures how many commands per second the parser can parse, by parsing a recorded command corpus over and over.
+ *
+ * <p>Switch commands in the corpus are executed, so that each command is parsed in the view it was entered in.
+ * Run with {@code java medbot.benchmarks.ParserBenchmark [corpus file] [rounds]}.
+ */
+public class ParserBenchmark {
+    private static final String DEFAULT_CORPUS = "src/test/data/ParserBenchmark/commands.txt";
+    private static final int DEFAULT_ROUNDS = 200_000;
+    private static final int WARMUP_ROUNDS = 20_000;
+
+    private static final Ui NULL_UI = new Ui(InputStream.nullInputStream(), OutputStream.nullOutputStream());
+
+    public static void main(String[] args) throws IOException {
+        List<String> corpus = Files.readAllLines(Path.of(args.length > 0 ? args[0] : DEFAULT_CORPUS));
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ROUNDS;
+
+        parseCorpus(corpus, WARMUP_ROUNDS);
+        long startTime = System.nanoTime();
+        int errorCount = parseCorpus(corpus, rounds);
+        long elapsedTime = System.nanoTime() - startTime;
+
+        long commandCount = (long) corpus.size() * rounds;
+        System.out.printf("Parsed %d commands (%d rejected) in %.2f s%n", commandCount, errorCount,
+                elapsedTime / 1e9);
+        System.out.printf("%.0f ns per command, %.2f million commands per second%n",
+                (double) elapsedTime / commandCount, commandCount * 1e3 / elapsedTime);
+    }
+
+    /**
+     * Parses every command in the corpus the given number of times, and returns the number of commands rejected.
+     */
+    private static int parseCorpus(List<String> corpus, int rounds) {
+        int errorCount = 0;
+        for (int i = 0; i < rounds; i++) {
+            Session session = new Session();
+            for (String userInput : corpus) {
+                try {
+                    Command command = Parser.parseCommand(userInput, session);
+                    if (command instanceof SwitchCommand) {
+                        command.execute(null, NULL_UI);
+                    }
+                } catch (MedBotException e) {
+                    errorCount++;
+                }
+            }
+        }
+        return errorCount;
+    }
+}
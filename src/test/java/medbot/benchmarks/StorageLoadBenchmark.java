@@ -0,0 +1,62 @@
+package medbot.benchmarks;
+
+import medbot.Scheduler;
+import medbot.exceptions.MedBotException;
+import medbot.storage.StorageManager;
+import medbot.ui.Ui;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * Measures how long it takes to load the storage files into a new scheduler.
+ *
+ * <p>The storage files are read from the MedBotData folder of the working directory, so run it from a directory
+ * holding a copy of the data to load, with {@code java medbot.benchmarks.StorageLoadBenchmark [rounds]}. The files
+ * are only read.
+ */
+public class StorageLoadBenchmark {
+    private static final Path DATA_FOLDER = Path.of("MedBotData");
+    private static final int DEFAULT_ROUNDS = 50;
+    private static final int WARMUP_ROUNDS = 10;
+
+    private static final Ui NULL_UI = new Ui(InputStream.nullInputStream(), OutputStream.nullOutputStream());
+
+    public static void main(String[] args) throws IOException, MedBotException {
+        if (!Files.isDirectory(DATA_FOLDER)) {
+            System.out.println("No MedBotData folder in the working directory.");
+            return;
+        }
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ROUNDS;
+
+        long lineCount = 0;
+        try (Stream<Path> dataFiles = Files.list(DATA_FOLDER)) {
+            for (Path dataFile : (Iterable<Path>) dataFiles::iterator) {
+                if (dataFile.toString().endsWith(".txt")) {
+                    lineCount += Files.readAllLines(dataFile).size();
+                }
+            }
+        }
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            loadScheduler();
+        }
+        long startTime = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            loadScheduler();
+        }
+        long elapsedTime = System.nanoTime() - startTime;
+
+        System.out.printf("Loaded %d storage lines %d times%n", lineCount, rounds);
+        System.out.printf("%.2f ms per load, %.0f ns per line%n", elapsedTime / 1e6 / rounds,
+                (double) elapsedTime / rounds / lineCount);
+    }
+
+    private static void loadScheduler() throws MedBotException {
+        new StorageManager().initializeStorages(new Scheduler(), NULL_UI);
+    }
+}
@@ -0,0 +1,210 @@
+package medbot.server;
+
+import medbot.Scheduler;
+import medbot.exceptions.MedBotException;
+import medbot.person.Patient;
+import medbot.person.Staff;
+import medbot.storage.StorageManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpApiTest {
+    private Scheduler scheduler;
+    private HttpApi httpApi;
+
+    /**
+     * Storage manager that does not save, so that tests do not write to the storage files, and that can fail every
+     * save with a given exception instead.
+     */
+    private static class StorageManagerStub extends StorageManager {
+        private final Exception saveException;
+
+        StorageManagerStub() {
+            this(null);
+        }
+
+        StorageManagerStub(Exception saveException) {
+            this.saveException = saveException;
+        }
+
+        @Override
+        public void saveToStorage(Scheduler scheduler) throws IOException {
+            if (saveException instanceof IOException) {
+                throw (IOException) saveException;
+            }
+            if (saveException instanceof RuntimeException) {
+                throw (RuntimeException) saveException;
+            }
+        }
+    }
+
+    @BeforeEach
+    void startHttpApi() throws MedBotException, IOException {
+        scheduler = new Scheduler();
+        for (int i = 1; i <= 20; i++) {
+            Patient patient = new Patient();
+            patient.setName("Patient " + i);
+            scheduler.addPatient(patient);
+            Staff staff = new Staff();
+            staff.setName("Dr " + i);
+            scheduler.addStaff(staff);
+        }
+        scheduler.publishSnapshot();
+        httpApi = new HttpApi(new CommandExecutor(scheduler, new StorageManagerStub()));
+        httpApi.start(0);
+    }
+
+    @AfterEach
+    void stopHttpApi() {
+        httpApi.stop();
+    }
+
+    private void restartHttpApi(StorageManager storageManager) throws IOException {
+        httpApi.stop();
+        httpApi = new HttpApi(new CommandExecutor(scheduler, storageManager));
+        httpApi.start(0);
+    }
+
+    @Test
+    void testAddAppointment_foundById_foundByPatient() throws IOException {
+        assertEquals("201 {\"id\":1}", post("/appointments",
+                "{\"patientId\": 3, \"staffId\": 4, \"dateTime\": \"030122 0900\", \"durationMinutes\": 30}"));
+        String appointmentJson = "{\"id\":1,\"patientId\":3,\"staffId\":4,\"dateTime\":\"030122 0900\","
+                + "\"durationMinutes\":30,\"resourceIds\":[]}";
+        assertEquals("200 " + appointmentJson, get("/appointments/1"));
+        assertEquals("200 [" + appointmentJson + "]", get("/appointments?patient=3"));
+        assertEquals("200 []", get("/appointments?patient=3&after=030122%201000"));
+        assertEquals("200 []", get("/appointments?staff=5"));
+        assertEquals("404 {\"error\":\"No appointment with ID 2 found.\"}", get("/appointments/2"));
+        assertEquals("404 {\"error\":\"No patient with ID 99 found.\"}", get("/appointments?patient=99"));
+    }
+
+    @Test
+    void testAddAppointment_invalidRequests_badRequest() throws IOException {
+        assertTrue(post("/appointments", "{\"patientId\": 3").startsWith("400 "));
+        assertTrue(post("/appointments", "{\"patientId\": 3, \"room\": 1}").startsWith("400 "));
+        assertTrue(post("/appointments", "{\"patientId\": 3, \"staffId\": 4}").startsWith("400 "));
+        assertTrue(post("/appointments", "{\"patientId\": 3, \"staffId\": 4, \"dateTime\": \"tomorrow\"}")
+                .startsWith("400 "));
+        assertEquals("200 []", get("/appointments"));
+    }
+
+    @Test
+    void testFindPersons_matchingName() throws IOException {
+        assertEquals("200 [{\"id\":12,\"ic\":\"\",\"name\":\"Patient 12\",\"phone\":\"\",\"email\":\"\","
+                + "\"address\":\"\",\"hidden\":false}]", get("/patients?name=patient%2012"));
+        assertEquals("200 []", get("/staff?name=patient"));
+        assertTrue(get("/patients?age=3").startsWith("400 "));
+    }
+
+    @Test
+    void testAddAppointment_bodyCutShort_badRequest() throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), httpApi.getPort())) {
+            OutputStream request = socket.getOutputStream();
+            request.write(("POST /appointments HTTP/1.1\r\nHost: localhost\r\nContent-Length: 100\r\n\r\n"
+                    + "{\"patientId\": 3").getBytes(StandardCharsets.UTF_8));
+            socket.shutdownOutput();
+            String response = new String(socket.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(response.startsWith("HTTP/1.1 400 "));
+            assertTrue(response.contains("Unable to read the request body."));
+        }
+        assertEquals("200 []", get("/appointments"));
+    }
+
+    @Test
+    void testAddAppointment_saveFails_internalError() throws IOException {
+        String appointmentJson = "{\"patientId\": 3, \"staffId\": 4, \"dateTime\": \"%s\"}";
+        restartHttpApi(new StorageManagerStub(new IOException()));
+        assertEquals("500 {\"error\":\"Unable to save the changes.\"}",
+                post("/appointments", String.format(appointmentJson, "030122 0900")));
+
+        //the connection is not dropped when a handler fails unexpectedly
+        restartHttpApi(new StorageManagerStub(new IllegalStateException()));
+        assertEquals("500 {\"error\":\"Unable to answer the request.\"}",
+                post("/appointments", String.format(appointmentJson, "030122 1000")));
+    }
+
+    /**
+     * Sends requests from several stand-in clients at once, and checks that every request is answered and that
+     * every appointment added is kept.
+     */
+    @Test
+    void testConcurrentClients_allRequestsAnswered() throws Exception {
+        int clientCount = 8;
+        int requestsPerClient = 50;
+        ExecutorService clients = Executors.newFixedThreadPool(clientCount);
+        List<Future<Integer>> addedCounts = new ArrayList<>();
+        for (int i = 0; i < clientCount; i++) {
+            int clientId = i;
+            addedCounts.add(clients.submit(() -> {
+                int addedCount = 0;
+                for (int j = 0; j < requestsPerClient; j++) {
+                    int patientId = 1 + (clientId * requestsPerClient + j) % 20;
+                    if (j % 5 == 0) {
+                        String dateTime = String.format("%02d0%d22 %02d00", 1 + j / 5, 1 + clientId % 9, 8 + clientId);
+                        String response = post("/appointments", "{\"patientId\":" + patientId + ",\"staffId\":"
+                                + (clientId + 1) + ",\"dateTime\":\"" + dateTime + "\"}");
+                        addedCount += response.startsWith("201 ") ? 1 : 0;
+                    } else {
+                        assertTrue(get("/appointments?patient=" + patientId).startsWith("200 ["));
+                    }
+                }
+                return addedCount;
+            }));
+        }
+        int totalAddedCount = 0;
+        for (Future<Integer> addedCount : addedCounts) {
+            totalAddedCount += addedCount.get();
+        }
+        clients.shutdown();
+        assertEquals(clientCount * requestsPerClient / 5, totalAddedCount);
+        assertEquals(totalAddedCount, scheduler.getSnapshot().getAppointmentCount());
+    }
+
+    private String get(String path) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) getUrl(path).openConnection();
+        return readResponse(connection);
+    }
+
+    private String post(String path, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) getUrl(path).openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (OutputStream requestBody = connection.getOutputStream()) {
+            requestBody.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return readResponse(connection);
+    }
+
+    private URL getUrl(String path) throws IOException {
+        return new URL("http://127.0.0.1:" + httpApi.getPort() + path);
+    }
+
+    private static String readResponse(HttpURLConnection connection) throws IOException {
+        int status = connection.getResponseCode();
+        InputStream responseBody = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        responseBody.transferTo(response);
+        responseBody.close();
+        return status + " " + response.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,57 @@
+package medbot.storagetests;
+
+import medbot.exceptions.MedBotException;
+import medbot.storage.CommandJournal;
+import medbot.utilities.ViewType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandJournalTest {
+
+    @Test
+    public void testReadEntries_recordedLines_sameInputsAndViews() throws IOException, MedBotException {
+        Path journalFile = Files.createTempFile("journal", ".txt");
+        try {
+            long startTime = System.currentTimeMillis();
+            CommandJournal journal = new CommandJournal(journalFile.toString());
+            journal.record("switch s", ViewType.PATIENT_INFO);
+            //the separator in the user input must not be mistaken for the end of the view type
+            journal.record("add p/1 s/2 d/010122 0900 | extra", ViewType.SCHEDULER);
+            journal.record("", ViewType.MEDICAL_STAFF_INFO);
+            journal.close();
+
+            List<CommandJournal.Entry> entries = CommandJournal.readEntries(journalFile.toString());
+            assertEquals(3, entries.size());
+            assertEquals("switch s", entries.get(0).getUserInput());
+            assertEquals(ViewType.PATIENT_INFO, entries.get(0).getViewType());
+            assertEquals("add p/1 s/2 d/010122 0900 | extra", entries.get(1).getUserInput());
+            assertEquals(ViewType.SCHEDULER, entries.get(1).getViewType());
+            assertEquals("", entries.get(2).getUserInput());
+            assertEquals(ViewType.MEDICAL_STAFF_INFO, entries.get(2).getViewType());
+            assertTrue(entries.get(0).getTimeMillis() >= startTime);
+        } finally {
+            Files.delete(journalFile);
+        }
+    }
+
+    @Test
+    public void testReadEntries_invalidLine_exceptionThrown() throws IOException {
+        Path journalFile = Files.createTempFile("journal", ".txt");
+        try {
+            Files.writeString(journalFile, "1 | PATIENT_INFO | list\n2 | NO_SUCH_VIEW | list\n");
+            MedBotException exception = assertThrows(MedBotException.class,
+                    () -> CommandJournal.readEntries(journalFile.toString()));
+            assertEquals("Line 2 of the command journal is invalid.", exception.getMessage());
+        } finally {
+            Files.delete(journalFile);
+        }
+    }
+}
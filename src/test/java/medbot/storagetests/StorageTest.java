@@ -14,29 +14,39 @@ import medbot.person.Staff;
 import medbot.storage.AppointmentStorage;
 import medbot.storage.PatientStorage;
 import medbot.storage.StaffStorage;
+import medbot.storage.StorageManager;
+import medbot.ui.Ui;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Scanner;
 
 import static medbot.parser.ParserUtils.updateAppointmentInformation;
 import static medbot.parser.ParserUtils.updatePersonalInformation;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class StorageTest {
 
     private static final String PATIENT_DATA_INVALID = "src/test/data/StorageTest/patientData-invalid.txt";
     private static final String PATIENT_DATA_VALID = "src/test/data/StorageTest/patientData-valid.txt";
     private static final String PATIENT_DATA_SAVED = "src/test/data/StorageTest/patientData-saved.txt";
+    private static final String PATIENT_DATA_CHANGED = "src/test/data/StorageTest/patientData-changed.txt";
     private static final String STAFF_DATA_INVALID = "src/test/data/StorageTest/staffData-invalid.txt";
     private static final String STAFF_DATA_VALID = "src/test/data/StorageTest/staffData-valid.txt";
     private static final String STAFF_DATA_SAVED = "src/test/data/StorageTest/staffData-saved.txt";
     private static final String APPOINTMENT_DATA_INVALID = "src/test/data/StorageTest/appointmentData-invalid.txt";
     private static final String APPOINTMENT_DATA_VALID = "src/test/data/StorageTest/appointmentData-valid.txt";
     private static final String APPOINTMENT_DATA_SAVED = "src/test/data/StorageTest/appointmentData-saved.txt";
+    private static final Ui NULL_UI = new Ui(InputStream.nullInputStream(), OutputStream.nullOutputStream());
 
     /**
      * Loads Patient Storage with a mix of valid storage lines and invalid storage lines.
@@ -95,6 +105,109 @@ class StorageTest {
         assertEquals(expectedStorageString, actualStorageString);
     }
 
+    /**
+     * Loads Patient Storage with valid storage lines, one of which was changed after the file was saved, so that
+     * neither the file nor that line match their checksums.
+     *
+     * @throws FileNotFoundException if unable to load patient storage.
+     * @throws MedBotException       if unable to initialize PatientStorageStub.
+     */
+    @Test
+    public void testLoadPatientStorage_changedAfterSaving_checksumErrorMessage()
+            throws FileNotFoundException, MedBotException {
+        PatientStorage patientStorage = new PatientStorageStub(PATIENT_DATA_CHANGED);
+        Scheduler actualScheduler = new Scheduler();
+
+        String actualLoadStorageErrorMessage = patientStorage.loadStorage(ListItemType.PATIENT, actualScheduler);
+        String expectedLoadStorageErrorMessage = "Error: src/test/data/StorageTest/patientData-changed.txt has been "
+                + "changed or corrupted since MedBot last saved it!\n"
+                + "Error: Line 1 of src/test/data/StorageTest/patientData-changed.txt is invalid!\n";
+
+        assertEquals(expectedLoadStorageErrorMessage, actualLoadStorageErrorMessage);
+        //the other lines still match their checksums, so they are loaded
+        assertFalse(actualScheduler.getPatientStorageString().contains("Doge Town"));
+        assertTrue(actualScheduler.getPatientStorageString().contains("Doge County"));
+    }
+
+    /**
+     * Loads Patient Storage in recovery mode from a copy of a file with a changed line, and checks that the line is
+     * moved to the quarantine file without its checksum.
+     *
+     * @throws IOException     if unable to copy the storage file.
+     * @throws MedBotException if unable to initialize PatientStorageStub.
+     */
+    @Test
+    public void testLoadPatientStorage_recoveryMode_invalidLineQuarantined() throws IOException, MedBotException {
+        Path dataFolder = Files.createTempDirectory("MedBotData");
+        Path patientDataFile = dataFolder.resolve("patient.txt");
+        Path quarantineFile = dataFolder.resolve("patient.txt.quarantine");
+        try {
+            Files.copy(Path.of(PATIENT_DATA_CHANGED), patientDataFile);
+            PatientStorage patientStorage = new PatientStorageStub(patientDataFile.toString());
+            Scheduler actualScheduler = new Scheduler();
+
+            String actualLoadStorageErrorMessage = patientStorage.loadStorage(ListItemType.PATIENT,
+                    actualScheduler, true);
+            String expectedLoadStorageErrorMessage = "Error: " + patientDataFile + " has been "
+                    + "changed or corrupted since MedBot last saved it!\n"
+                    + "Error: 1 invalid line of " + patientDataFile + " moved to " + quarantineFile + "!\n";
+
+            assertEquals(expectedLoadStorageErrorMessage, actualLoadStorageErrorMessage);
+            assertEquals("1 | S7912345A | Doge | 91234567 | doge@mail.com | Doge Town 3rd Street | S"
+                    + System.lineSeparator(), Files.readString(quarantineFile));
+            assertTrue(actualScheduler.getPatientStorageString().contains("Doge County"));
+        } finally {
+            Files.deleteIfExists(quarantineFile);
+            Files.deleteIfExists(patientDataFile);
+            Files.delete(dataFolder);
+        }
+    }
+
+    /**
+     * Saves storage files through a StorageManager, and checks that files whose lists have not changed since they
+     * were last saved or loaded are not written again.
+     *
+     * @throws MedBotException if unable to initialize or load the storages.
+     * @throws IOException     if unable to save the storages.
+     */
+    @Test
+    public void testSaveToStorage_unchangedLists_notWritten() throws MedBotException, IOException {
+        Path dataFolder = Files.createTempDirectory("MedBotData");
+        File patientDataFile = dataFolder.resolve("patient.txt").toFile();
+        File staffDataFile = dataFolder.resolve("staff.txt").toFile();
+        try {
+            Scheduler scheduler = new Scheduler();
+            StorageManager storageManager = new StorageManager(dataFolder.toString());
+            storageManager.initializeStorages(scheduler, NULL_UI);
+            //the new files have no checksums, so they are written by the first save
+            storageManager.saveToStorage(scheduler);
+            assertTrue(patientDataFile.delete());
+
+            storageManager.saveToStorage(scheduler);
+            assertFalse(patientDataFile.exists());
+
+            Patient patient = new Patient();
+            patient.setName("Doge");
+            scheduler.addPatient(patient);
+            storageManager.saveToStorage(scheduler);
+            assertTrue(patientDataFile.exists());
+
+            //files loaded with matching checksums are not written until their lists change
+            Scheduler loadedScheduler = new Scheduler();
+            StorageManager loadedStorageManager = new StorageManager(dataFolder.toString());
+            loadedStorageManager.initializeStorages(loadedScheduler, NULL_UI);
+            assertTrue(patientDataFile.delete());
+            assertTrue(staffDataFile.delete());
+            loadedStorageManager.saveToStorage(loadedScheduler);
+            assertFalse(patientDataFile.exists());
+            assertFalse(staffDataFile.exists());
+        } finally {
+            for (File dataFile : dataFolder.toFile().listFiles()) {
+                dataFile.delete();
+            }
+            Files.delete(dataFolder);
+        }
+    }
 
     /**
      * Loads Staff Storage with a mix of valid storage lines and invalid storage lines.